@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.internal.monitor.impl.PerIndexStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.Comparison;
+import com.hazelcast.query.impl.Index.OperationSource;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.IndexKeyEntries;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures updates and lookups of an on-heap {@link IndexImpl} on a
+ * {@code long} attribute.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final int PARTITION_COUNT = 271;
+
+    @Param({"HASH", "SORTED"})
+    public IndexType indexType;
+
+    @Param({"100000"})
+    public int entryCount;
+
+    /**
+     * The number of distinct attribute values, every value is shared by
+     * {@code entryCount / distinctValues} entries.
+     */
+    @Param({"10000"})
+    public int distinctValues;
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private IndexImpl index;
+    private CachedQueryEntry<Object, Object>[] entries;
+    private long[] values;
+    private int position;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(serializationService).build();
+        IndexConfig config = new IndexConfig(indexType, "this").setName("index");
+        index = new IndexImpl(null, config, serializationService, extractors, IndexCopyBehavior.COPY_ON_READ,
+                PerIndexStats.EMPTY, PARTITION_COUNT, "benchmark");
+
+        entries = new CachedQueryEntry[entryCount];
+        values = new long[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            values[i] = i % distinctValues;
+            entries[i] = newEntry(i, values[i]);
+            index.putEntry(entries[i], null, entries[i], OperationSource.USER);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        index.destroy();
+        serializationService.dispose();
+    }
+
+    /**
+     * Moves an entry to a different attribute value.
+     */
+    @Benchmark
+    public void update() {
+        int i = nextPosition();
+        long newValue = (values[i] + 1) % distinctValues;
+        CachedQueryEntry<Object, Object> newEntry = newEntry(i, newValue);
+        index.putEntry(newEntry, entries[i], newEntry, OperationSource.USER);
+        entries[i] = newEntry;
+        values[i] = newValue;
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> queryEqual() {
+        long value = nextPosition() % distinctValues;
+        return index.getRecords(value);
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> queryRange() {
+        long from = nextPosition() % distinctValues;
+        return index.getRecords(from, true, from + 10, false);
+    }
+
+    /**
+     * Iterates over the entries of ten consecutive attribute values the way
+     * SQL index scans do. Hash indexes do not support ordered scans, so for
+     * them this only measures the benchmark overhead.
+     */
+    @Benchmark
+    public void scanRange(Blackhole blackhole) {
+        if (indexType != IndexType.SORTED) {
+            return;
+        }
+        long from = nextPosition() % distinctValues;
+        Iterator<IndexKeyEntries> iterator = index.getSqlRecordIteratorBatch(Comparison.GREATER_OR_EQUAL, from, false);
+        for (int i = 0; i < 10 && iterator.hasNext(); i++) {
+            Iterator<QueryableEntry> entries = iterator.next().getEntries();
+            while (entries.hasNext()) {
+                blackhole.consume(entries.next());
+            }
+        }
+    }
+
+    private CachedQueryEntry<Object, Object> newEntry(int key, long value) {
+        Data keyData = serializationService.toData(key);
+        return new CachedQueryEntry<>(serializationService, keyData, value, extractors);
+    }
+
+    private int nextPosition() {
+        position = position + 1 == entryCount ? 0 : position + 1;
+        return position;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationQueue;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationQueueImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link OperationQueueImpl} of a partition thread with three
+ * producers (think of the IO and user threads) and the partition thread as
+ * the single consumer. One in ten tasks is a priority task.
+ * <p>
+ * The queue is unbounded, so producers back off once the consumer falls too
+ * far behind to keep the heap usage stable.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationQueueBenchmark {
+
+    private static final Object TASK = new Object();
+    private static final int MAX_BACKLOG = 10_000;
+    private static final int PRIORITY_RATIO = 10;
+
+    private OperationQueue queue;
+
+    @Setup
+    public void setup() {
+        queue = new OperationQueueImpl();
+    }
+
+    @Benchmark
+    @Group("partitionThread")
+    @GroupThreads(3)
+    public void add(ProducerState producer) {
+        if (queue.normalSize() < MAX_BACKLOG) {
+            producer.count++;
+            queue.add(TASK, producer.count % PRIORITY_RATIO == 0);
+        }
+    }
+
+    @Benchmark
+    @Group("partitionThread")
+    @GroupThreads(1)
+    public Object poll() {
+        return queue.poll();
+    }
+
+    @State(Scope.Thread)
+    public static class ProducerState {
+        int count;
+    }
+}
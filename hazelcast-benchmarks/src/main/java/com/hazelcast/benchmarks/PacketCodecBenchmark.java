@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.tcp.PacketDecoder;
+import com.hazelcast.internal.server.tcp.PacketEncoder;
+import com.hazelcast.internal.util.counters.SwCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link PacketEncoder} and {@link PacketDecoder}
+ * writing and reading a batch of packets to and from an in-memory buffer,
+ * the way the networking layer does per socket write or read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketCodecBenchmark {
+
+    private static final int PACKETS_PER_BATCH = 64;
+
+    @Param({"64", "1024"})
+    public int payloadSize;
+
+    private final PacketSource source = new PacketSource();
+    private final PacketSink sink = new PacketSink();
+
+    private PacketEncoder encoder;
+    private PacketDecoder decoder;
+    private ByteBuffer encodeBuffer;
+    private ByteBuffer encodedBatch;
+    private ByteBuffer decodeBuffer;
+    private Packet[] packets;
+
+    @Setup
+    public void setup() {
+        packets = new Packet[PACKETS_PER_BATCH];
+        for (int i = 0; i < PACKETS_PER_BATCH; i++) {
+            packets[i] = new Packet(new byte[payloadSize], i);
+        }
+        int batchSize = PACKETS_PER_BATCH * packets[0].getFrameLength();
+
+        encoder = new PacketEncoder();
+        encodeBuffer = ByteBuffer.allocate(batchSize);
+        encodeBuffer.flip();
+        encoder.dst(encodeBuffer);
+        encoder.src(source);
+
+        decoder = new PacketDecoder(null, sink);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+        decoder.setPriorityPacketsRead(SwCounter.newSwCounter());
+        decodeBuffer = ByteBuffer.allocate(batchSize);
+        decoder.src(decodeBuffer);
+
+        // a pre-encoded batch for the decoder benchmark
+        encode();
+        encodedBatch = ByteBuffer.allocate(encodeBuffer.remaining());
+        encodedBatch.put(encodeBuffer).flip();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS_PER_BATCH)
+    public HandlerStatus encode() {
+        // make the previous batch look consumed by the socket
+        encodeBuffer.position(encodeBuffer.limit());
+        source.reset(packets);
+        return encoder.onWrite();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS_PER_BATCH)
+    public int decode() throws Exception {
+        decodeBuffer.clear();
+        decodeBuffer.put(encodedBatch.duplicate());
+        sink.count = 0;
+        decoder.onRead();
+        return sink.count;
+    }
+
+    private static final class PacketSource implements Supplier<Packet> {
+        private Packet[] packets;
+        private int index;
+
+        void reset(Packet[] packets) {
+            this.packets = packets;
+            this.index = 0;
+        }
+
+        @Override
+        public Packet get() {
+            return index < packets.length ? packets[index++] : null;
+        }
+    }
+
+    private static final class PacketSink implements Consumer<Packet> {
+        private int count;
+
+        @Override
+        public void accept(Packet packet) {
+            count++;
+        }
+    }
+}
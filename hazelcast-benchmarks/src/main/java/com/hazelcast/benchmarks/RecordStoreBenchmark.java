@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+
+/**
+ * Measures {@link RecordStore#put} and {@link RecordStore#get} of a single
+ * partition, bypassing the operation and invocation layers. The member is
+ * started on the mock network, so no sockets are involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordStoreBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+
+    @Param({"100000"})
+    public int keyCount;
+
+    @Param({"100"})
+    public int valueSize;
+
+    private TestHazelcastInstanceFactory factory;
+    private RecordStore recordStore;
+    private Data[] keys;
+    private Data value;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        factory = new TestHazelcastInstanceFactory(1);
+        HazelcastInstance instance = factory.newHazelcastInstance(new Config());
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(instance);
+        SerializationService serializationService = nodeEngine.getSerializationService();
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        recordStore = mapService.getMapServiceContext().getRecordStore(0, MAP_NAME);
+
+        keys = new Data[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = serializationService.toData(i);
+        }
+        value = serializationService.toData(new byte[valueSize]);
+        for (Data key : keys) {
+            recordStore.put(key, value, -1, -1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Benchmark
+    public Object put() {
+        return recordStore.put(nextKey(), value, -1, -1);
+    }
+
+    @Benchmark
+    public Object set() {
+        return recordStore.set(nextKey(), value, -1, -1);
+    }
+
+    @Benchmark
+    public Object get() {
+        return recordStore.get(nextKey(), false, null, true);
+    }
+
+    private Data nextKey() {
+        Data key = keys[index];
+        index = index + 1 == keys.length ? 0 : index + 1;
+        return key;
+    }
+}
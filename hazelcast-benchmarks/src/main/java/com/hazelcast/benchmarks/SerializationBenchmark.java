@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.compact.InMemorySchemaService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code toData}/{@code toObject} of the serialization service for
+ * the same small object in each of the supported serialization formats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+    private static final int EMPLOYEE_CLASS_ID = 1;
+
+    @Param({"COMPACT", "IDENTIFIED_DATA_SERIALIZABLE", "PORTABLE", "JAVA"})
+    public Format format;
+
+    private InternalSerializationService serializationService;
+    private Object object;
+    private Data data;
+
+    public enum Format {
+        COMPACT,
+        IDENTIFIED_DATA_SERIALIZABLE,
+        PORTABLE,
+        JAVA
+    }
+
+    @Setup
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().addSerializer(new CompactEmployeeSerializer());
+        serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .setSchemaService(new InMemorySchemaService())
+                .addDataSerializableFactory(FACTORY_ID, classId -> new IdentifiedEmployee())
+                .addPortableFactory(FACTORY_ID, classId -> new PortableEmployee())
+                .build();
+
+        object = switch (format) {
+            case COMPACT -> new CompactEmployee(42L, 35, "John Doe", 12345.6);
+            case IDENTIFIED_DATA_SERIALIZABLE -> new IdentifiedEmployee(42L, 35, "John Doe", 12345.6);
+            case PORTABLE -> new PortableEmployee(42L, 35, "John Doe", 12345.6);
+            case JAVA -> new JavaEmployee(42L, 35, "John Doe", 12345.6);
+        };
+        data = serializationService.toData(object);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data toData() {
+        return serializationService.toData(object);
+    }
+
+    @Benchmark
+    public Object toObject() {
+        return serializationService.toObject(data);
+    }
+
+    public record CompactEmployee(long id, int age, String name, double salary) {
+    }
+
+    static class CompactEmployeeSerializer implements CompactSerializer<CompactEmployee> {
+
+        @Nonnull
+        @Override
+        public CompactEmployee read(@Nonnull CompactReader reader) {
+            return new CompactEmployee(reader.readInt64("id"), reader.readInt32("age"),
+                    reader.readString("name"), reader.readFloat64("salary"));
+        }
+
+        @Override
+        public void write(@Nonnull CompactWriter writer, @Nonnull CompactEmployee employee) {
+            writer.writeInt64("id", employee.id());
+            writer.writeInt32("age", employee.age());
+            writer.writeString("name", employee.name());
+            writer.writeFloat64("salary", employee.salary());
+        }
+
+        @Nonnull
+        @Override
+        public String getTypeName() {
+            return "employee";
+        }
+
+        @Nonnull
+        @Override
+        public Class<CompactEmployee> getCompactClass() {
+            return CompactEmployee.class;
+        }
+    }
+
+    public static class IdentifiedEmployee implements IdentifiedDataSerializable {
+        private long id;
+        private int age;
+        private String name;
+        private double salary;
+
+        public IdentifiedEmployee() {
+        }
+
+        IdentifiedEmployee(long id, int age, String name, double salary) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+            this.salary = salary;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return EMPLOYEE_CLASS_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeInt(age);
+            out.writeString(name);
+            out.writeDouble(salary);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            age = in.readInt();
+            name = in.readString();
+            salary = in.readDouble();
+        }
+    }
+
+    public static class PortableEmployee implements Portable {
+        private long id;
+        private int age;
+        private String name;
+        private double salary;
+
+        public PortableEmployee() {
+        }
+
+        PortableEmployee(long id, int age, String name, double salary) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+            this.salary = salary;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return EMPLOYEE_CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeLong("id", id);
+            writer.writeInt("age", age);
+            writer.writeString("name", name);
+            writer.writeDouble("salary", salary);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readLong("id");
+            age = reader.readInt("age");
+            name = reader.readString("name");
+            salary = reader.readDouble("salary");
+        }
+    }
+
+    public record JavaEmployee(long id, int age, String name, double salary) implements Serializable {
+    }
+}
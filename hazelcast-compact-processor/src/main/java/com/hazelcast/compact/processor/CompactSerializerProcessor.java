@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.compact.processor;
+
+import com.hazelcast.internal.serialization.impl.compact.FieldDescriptor;
+import com.hazelcast.internal.serialization.impl.compact.GeneratedCompactSerializer;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.nio.serialization.compact.GenerateCompactSerializer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@link GeneratedCompactSerializer} for each class and record
+ * annotated with {@link GenerateCompactSerializer}.
+ * <p>
+ * The generated serializer stores the same fields as the reflective
+ * serializer would, accessing them directly, through the accessors of the
+ * records, or through the getters and setters of the classes if the fields
+ * are not accessible. The id of the schema is computed at compile time.
+ */
+@SupportedAnnotationTypes("com.hazelcast.nio.serialization.compact.GenerateCompactSerializer")
+public class CompactSerializerProcessor extends AbstractProcessor {
+
+    private static final String INDENT = "    ";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateCompactSerializer.class)) {
+            try {
+                generate((TypeElement) element);
+            } catch (InvalidElementException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write the generated Compact serializer: " + e, element);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        checkType(type);
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String typeName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        List<Property> properties = type.getKind() == ElementKind.RECORD
+                ? recordProperties(type)
+                : classProperties(type, pkg);
+
+        List<FieldDescriptor> descriptors = new ArrayList<>();
+        for (Property property : properties) {
+            property.codec.addFieldDescriptors(property.name, descriptors);
+        }
+        Set<String> fieldNames = new HashSet<>();
+        for (FieldDescriptor descriptor : descriptors) {
+            if (!fieldNames.add(descriptor.getFieldName())) {
+                throw new InvalidElementException(type, "Duplicate field name '" + descriptor.getFieldName()
+                        + "' in " + typeName);
+            }
+        }
+        long schemaId = new Schema(typeName, descriptors).getSchemaId();
+
+        String serializerName = typeName + GeneratedCompactSerializer.CLASS_NAME_SUFFIX;
+        String simpleName = serializerName.substring(serializerName.lastIndexOf('.') + 1);
+        String source = source(pkg, type, simpleName, typeName, schemaId, properties);
+        try (Writer writer = processingEnv.getFiler().createSourceFile(serializerName, type).openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private static void checkType(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            throw new InvalidElementException(type, "@GenerateCompactSerializer can only be used on classes and records");
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new InvalidElementException(type, "@GenerateCompactSerializer cannot be used on abstract classes");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new InvalidElementException(type, "@GenerateCompactSerializer cannot be used on generic classes");
+        }
+        for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new InvalidElementException(type, "The class annotated with @GenerateCompactSerializer "
+                        + "must not be private");
+            }
+            if (e.getEnclosingElement().getKind() != ElementKind.PACKAGE && !e.getModifiers().contains(Modifier.STATIC)
+                    && e.getKind() == ElementKind.CLASS) {
+                throw new InvalidElementException(type, "The class annotated with @GenerateCompactSerializer "
+                        + "must not be an inner class");
+            }
+        }
+    }
+
+    private List<Property> recordProperties(TypeElement type) {
+        List<Property> properties = new ArrayList<>();
+        for (RecordComponentElement component : type.getRecordComponents()) {
+            String name = component.getSimpleName().toString();
+            properties.add(new Property(name, component.asType(), codecFor(component),
+                    "object." + component.getAccessor().getSimpleName() + "()", null));
+        }
+        return properties;
+    }
+
+    private List<Property> classProperties(TypeElement type, PackageElement pkg) {
+        boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && isAccessible(c, pkg));
+        if (!hasConstructor) {
+            throw new InvalidElementException(type, "The class annotated with @GenerateCompactSerializer must have "
+                    + "a no-arg constructor accessible from its package");
+        }
+
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        List<Property> properties = new ArrayList<>();
+        // Inherited fields are serialized as well, as in the reflective serializer
+        for (TypeElement t = type; t != null; t = superclass(t)) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                properties.add(classProperty(field, methods, pkg));
+            }
+        }
+        return properties;
+    }
+
+    private Property classProperty(VariableElement field, List<ExecutableElement> methods, PackageElement pkg) {
+        String name = field.getSimpleName().toString();
+        TypeMirror type = field.asType();
+        PropertyCodec codec = codecFor(field);
+        boolean fieldAccessible = isAccessible(field, pkg);
+
+        String getter = null;
+        if (fieldAccessible) {
+            getter = "object." + name;
+        } else {
+            ExecutableElement method = findMethod(methods, pkg, type, "get" + capitalize(name));
+            if (method == null && type.getKind() == TypeKind.BOOLEAN) {
+                method = findMethod(methods, pkg, type, "is" + capitalize(name));
+            }
+            if (method != null) {
+                getter = "object." + method.getSimpleName() + "()";
+            }
+        }
+
+        String setter = null;
+        if (fieldAccessible && !field.getModifiers().contains(Modifier.FINAL)) {
+            setter = "object." + name + " = %s;";
+        } else {
+            ExecutableElement method = findMethod(methods, pkg, null, "set" + capitalize(name), type);
+            if (method != null) {
+                setter = "object." + method.getSimpleName() + "(%s);";
+            }
+        }
+
+        if (getter == null || setter == null) {
+            throw new InvalidElementException(field, "The field '" + name + "' must either be non-final and "
+                    + "accessible from the package of the class annotated with @GenerateCompactSerializer, or have "
+                    + "a getter and a setter accessible from it");
+        }
+        return new Property(name, type, codec, getter, setter);
+    }
+
+    private PropertyCodec codecFor(Element element) {
+        try {
+            return new PropertyCodecs(processingEnv.getTypeUtils(), processingEnv.getElementUtils()).codecFor(element.asType());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidElementException(element, e.getMessage());
+        }
+    }
+
+    private ExecutableElement findMethod(List<ExecutableElement> methods, PackageElement pkg, TypeMirror returnType,
+                                         String name, TypeMirror... parameterTypes) {
+        for (ExecutableElement method : methods) {
+            if (!method.getSimpleName().contentEquals(name)
+                    || method.getModifiers().contains(Modifier.STATIC)
+                    || !isAccessible(method, pkg)
+                    || method.getParameters().size() != parameterTypes.length) {
+                continue;
+            }
+            if (returnType != null && !processingEnv.getTypeUtils().isSameType(method.getReturnType(), returnType)) {
+                continue;
+            }
+            if (parameterTypes.length == 1 && !processingEnv.getTypeUtils()
+                    .isSameType(method.getParameters().get(0).asType(), parameterTypes[0])) {
+                continue;
+            }
+            return method;
+        }
+        return null;
+    }
+
+    private boolean isAccessible(Element element, PackageElement pkg) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE)
+                && processingEnv.getElementUtils().getPackageOf(element).equals(pkg);
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(superclass);
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private static String source(PackageElement pkg, TypeElement type, String simpleName, String typeName,
+                                 long schemaId, List<Property> properties) {
+        String className = type.getQualifiedName().toString();
+        boolean record = type.getKind() == ElementKind.RECORD;
+        StringBuilder sb = new StringBuilder();
+        if (!pkg.isUnnamed()) {
+            sb.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        }
+        sb.append("import com.hazelcast.internal.serialization.impl.compact.CompactUtil;\n")
+          .append("import com.hazelcast.internal.serialization.impl.compact.GeneratedCompactSerializer;\n")
+          .append("import com.hazelcast.nio.serialization.FieldKind;\n")
+          .append("import com.hazelcast.nio.serialization.compact.CompactReader;\n")
+          .append("import com.hazelcast.nio.serialization.compact.CompactWriter;\n\n")
+          .append("@javax.annotation.processing.Generated(\"").append(CompactSerializerProcessor.class.getName())
+          .append("\")\n")
+          .append("public final class ").append(simpleName)
+          .append(" extends GeneratedCompactSerializer<").append(className).append("> {\n\n");
+
+        sb.append(INDENT).append("public ").append(simpleName).append("() {\n")
+          .append(INDENT).append(INDENT).append("super(").append(className).append(".class, ")
+          .append(FieldCodec.literal(typeName)).append(", ").append(schemaId).append("L);\n")
+          .append(INDENT).append("}\n\n");
+
+        sb.append(INDENT).append("@Override\n")
+          .append(INDENT).append("public void write(CompactWriter writer, ").append(className).append(" object) {\n");
+        for (Property property : properties) {
+            for (String statement : property.codec.write(property.name, property.getter)) {
+                sb.append(INDENT).append(INDENT).append(statement).append('\n');
+            }
+        }
+        sb.append(INDENT).append("}\n\n");
+
+        sb.append(INDENT).append("@Override\n")
+          .append(INDENT).append("protected ").append(className)
+          .append(" read(CompactReader reader, boolean exactSchema) {\n");
+        if (!record) {
+            sb.append(INDENT).append(INDENT).append(className).append(" object = new ").append(className)
+              .append("();\n");
+        }
+        for (Property property : properties) {
+            String value = property.codec.read(property.name);
+            String assignment = record
+                    ? "$" + property.name + " = " + value + ";"
+                    : property.setter.formatted(value);
+            if (record) {
+                sb.append(INDENT).append(INDENT).append(property.type).append(" $").append(property.name)
+                  .append(" = ").append(defaultValue(property.type)).append(";\n");
+            }
+            sb.append(INDENT).append(INDENT).append("if (exactSchema || ").append(property.codec.exists(property.name))
+              .append(") {\n")
+              .append(INDENT).append(INDENT).append(INDENT).append(assignment).append('\n')
+              .append(INDENT).append(INDENT).append("}\n");
+        }
+        if (record) {
+            sb.append(INDENT).append(INDENT).append("return new ").append(className).append('(');
+            for (int i = 0; i < properties.size(); i++) {
+                sb.append(i == 0 ? "$" : ", $").append(properties.get(i).name);
+            }
+            sb.append(");\n");
+        } else {
+            sb.append(INDENT).append(INDENT).append("return object;\n");
+        }
+        sb.append(INDENT).append("}\n")
+          .append("}\n");
+        return sb.toString();
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return "false";
+        }
+        return type.getKind().isPrimitive() ? "0" : "null";
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * A property of the serialized class.
+     *
+     * @param getter expression reading the property from {@code object}
+     * @param setter format of the statement setting the property of
+     *               {@code object}, {@code null} for records
+     */
+    private record Property(String name, TypeMirror type, PropertyCodec codec, String getter, String setter) {
+    }
+
+    private static final class InvalidElementException extends RuntimeException {
+
+        private final transient Element element;
+
+        InvalidElementException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.compact.processor;
+
+import com.hazelcast.nio.serialization.FieldKind;
+
+/**
+ * Generates the code reading and writing a single Compact field.
+ *
+ * @param kind            kind of the field in the schema
+ * @param compatibleKind  other kind the field is read from, the nullable or
+ *                        the non-nullable counterpart of {@code kind}
+ * @param method          suffix of the {@code CompactWriter.write*} and
+ *                        {@code CompactReader.read*} methods
+ * @param writeConversion format converting the written value to the type
+ *                        accepted by the writer
+ * @param readConversion  format converting the value returned by the reader
+ *                        to the type of the field
+ * @param readArguments   extra arguments passed to the reader method
+ */
+record FieldCodec(FieldKind kind, FieldKind compatibleKind, String method, String writeConversion,
+                  String readConversion, String readArguments) {
+
+    FieldCodec(FieldKind kind, FieldKind compatibleKind, String method) {
+        this(kind, compatibleKind, method, "%s", "%s", "");
+    }
+
+    FieldCodec withConversions(String writeConversion, String readConversion) {
+        return new FieldCodec(kind, compatibleKind, method, writeConversion, readConversion, readArguments);
+    }
+
+    FieldCodec withReadArguments(String readArguments) {
+        return new FieldCodec(kind, compatibleKind, method, writeConversion, readConversion, readArguments);
+    }
+
+    String write(String fieldName, String value) {
+        return "writer.write" + method + "(" + literal(fieldName) + ", " + writeConversion.formatted(value) + ");";
+    }
+
+    String read(String fieldName) {
+        return readConversion.formatted("reader.read" + method + "(" + literal(fieldName) + readArguments + ")");
+    }
+
+    String exists(String fieldName) {
+        return "hasField(reader, " + literal(fieldName) + ", FieldKind." + kind + ", FieldKind." + compatibleKind + ")";
+    }
+
+    static String literal(String s) {
+        return '"' + s + '"';
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.compact.processor;
+
+import com.hazelcast.internal.serialization.impl.compact.FieldDescriptor;
+
+import java.util.List;
+
+/**
+ * Generates the code reading and writing a property of the serialized
+ * class, which is stored in one or more Compact fields, the same way the
+ * reflective serializer stores it.
+ */
+sealed interface PropertyCodec {
+
+    void addFieldDescriptors(String name, List<FieldDescriptor> descriptors);
+
+    List<String> write(String name, String value);
+
+    String read(String name);
+
+    String exists(String name);
+
+    /**
+     * A property stored in a single field.
+     */
+    record Single(FieldCodec codec) implements PropertyCodec {
+
+        @Override
+        public void addFieldDescriptors(String name, List<FieldDescriptor> descriptors) {
+            descriptors.add(new FieldDescriptor(name, codec.kind()));
+        }
+
+        @Override
+        public List<String> write(String name, String value) {
+            return List.of(codec.write(name, value));
+        }
+
+        @Override
+        public String read(String name) {
+            return codec.read(name);
+        }
+
+        @Override
+        public String exists(String name) {
+            return codec.exists(name);
+        }
+    }
+
+    /**
+     * A {@code List} or a {@code Set} stored as an array of its elements.
+     *
+     * @param arrayCodec  codec of the array of elements
+     * @param elementType type of the elements
+     * @param factory     method of the generated serializer creating the
+     *                    collection from the array
+     */
+    record Collection(FieldCodec arrayCodec, String elementType, String factory) implements PropertyCodec {
+
+        @Override
+        public void addFieldDescriptors(String name, List<FieldDescriptor> descriptors) {
+            descriptors.add(new FieldDescriptor(name, arrayCodec.kind()));
+        }
+
+        @Override
+        public List<String> write(String name, String value) {
+            return List.of(arrayCodec.write(name, "toArray(" + value + ", " + elementType + "[]::new)"));
+        }
+
+        @Override
+        public String read(String name) {
+            return factory + "(" + arrayCodec.read(name) + ")";
+        }
+
+        @Override
+        public String exists(String name) {
+            return arrayCodec.exists(name);
+        }
+    }
+
+    /**
+     * A {@code Map} stored as an array of keys and an array of values.
+     */
+    record Map(FieldCodec keysCodec, String keyType, FieldCodec valuesCodec, String valueType)
+            implements PropertyCodec {
+
+        @Override
+        public void addFieldDescriptors(String name, List<FieldDescriptor> descriptors) {
+            descriptors.add(new FieldDescriptor(keysName(name), keysCodec.kind()));
+            descriptors.add(new FieldDescriptor(valuesName(name), valuesCodec.kind()));
+        }
+
+        @Override
+        public List<String> write(String name, String value) {
+            return List.of(
+                    keysCodec.write(keysName(name), "keysToArray(" + value + ", " + keyType + "[]::new)"),
+                    valuesCodec.write(valuesName(name), "valuesToArray(" + value + ", " + valueType + "[]::new)"));
+        }
+
+        @Override
+        public String read(String name) {
+            return "toHashMap(" + keysCodec.read(keysName(name)) + ", " + valuesCodec.read(valuesName(name)) + ")";
+        }
+
+        @Override
+        public String exists(String name) {
+            return keysCodec.exists(keysName(name)) + " && " + valuesCodec.exists(valuesName(name));
+        }
+
+        private static String keysName(String name) {
+            return name + "!keys";
+        }
+
+        private static String valuesName(String name) {
+            return name + "!values";
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.compact.processor;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_BOOLEAN;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_COMPACT;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_DATE;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_DECIMAL;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_FLOAT32;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_FLOAT64;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_INT16;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_INT32;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_INT64;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_INT8;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_NULLABLE_BOOLEAN;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_NULLABLE_FLOAT32;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_NULLABLE_FLOAT64;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_NULLABLE_INT16;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_NULLABLE_INT32;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_NULLABLE_INT64;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_NULLABLE_INT8;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_STRING;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_TIME;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_TIMESTAMP;
+import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_TIMESTAMP_WITH_TIMEZONE;
+import static com.hazelcast.nio.serialization.FieldKind.BOOLEAN;
+import static com.hazelcast.nio.serialization.FieldKind.COMPACT;
+import static com.hazelcast.nio.serialization.FieldKind.DATE;
+import static com.hazelcast.nio.serialization.FieldKind.DECIMAL;
+import static com.hazelcast.nio.serialization.FieldKind.FLOAT32;
+import static com.hazelcast.nio.serialization.FieldKind.FLOAT64;
+import static com.hazelcast.nio.serialization.FieldKind.INT16;
+import static com.hazelcast.nio.serialization.FieldKind.INT32;
+import static com.hazelcast.nio.serialization.FieldKind.INT64;
+import static com.hazelcast.nio.serialization.FieldKind.INT8;
+import static com.hazelcast.nio.serialization.FieldKind.NULLABLE_BOOLEAN;
+import static com.hazelcast.nio.serialization.FieldKind.NULLABLE_FLOAT32;
+import static com.hazelcast.nio.serialization.FieldKind.NULLABLE_FLOAT64;
+import static com.hazelcast.nio.serialization.FieldKind.NULLABLE_INT16;
+import static com.hazelcast.nio.serialization.FieldKind.NULLABLE_INT32;
+import static com.hazelcast.nio.serialization.FieldKind.NULLABLE_INT64;
+import static com.hazelcast.nio.serialization.FieldKind.NULLABLE_INT8;
+import static com.hazelcast.nio.serialization.FieldKind.STRING;
+import static com.hazelcast.nio.serialization.FieldKind.TIME;
+import static com.hazelcast.nio.serialization.FieldKind.TIMESTAMP;
+import static com.hazelcast.nio.serialization.FieldKind.TIMESTAMP_WITH_TIMEZONE;
+
+/**
+ * Maps the types of the properties to the Compact fields they are stored
+ * in. The mapping is the same as the one of the reflective serializer (see
+ * {@code ValueReaderWriters}), so that the generated and the reflective
+ * serializers produce the same schema for the same class.
+ */
+@SuppressWarnings("checkstyle:executablestatementcount")
+final class PropertyCodecs {
+
+    private static final Map<TypeKind, FieldCodec> PRIMITIVES = new EnumMap<>(TypeKind.class);
+    private static final Map<TypeKind, FieldCodec> PRIMITIVE_ARRAYS = new EnumMap<>(TypeKind.class);
+    private static final Map<String, FieldCodec> REFERENCES = new HashMap<>();
+    private static final Map<String, FieldCodec> REFERENCE_ARRAYS = new HashMap<>();
+
+    private static final String COMPACT_UTIL = "CompactUtil.";
+
+    private static final Set<String> LIST_TYPES = Set.of("java.util.List", "java.util.ArrayList");
+    private static final Set<String> SET_TYPES = Set.of("java.util.Set", "java.util.HashSet");
+    private static final Set<String> MAP_TYPES = Set.of("java.util.Map", "java.util.HashMap");
+
+    private static final List<String> UNSUPPORTED_PACKAGE_PREFIXES = List.of("java", "javax", "com.sun", "sun", "jdk");
+
+    static {
+        PRIMITIVES.put(TypeKind.BOOLEAN, new FieldCodec(BOOLEAN, NULLABLE_BOOLEAN, "Boolean"));
+        PRIMITIVES.put(TypeKind.BYTE, new FieldCodec(INT8, NULLABLE_INT8, "Int8"));
+        PRIMITIVES.put(TypeKind.CHAR, new FieldCodec(INT16, NULLABLE_INT16, "Int16")
+                .withConversions("(short) %s", "(char) %s"));
+        PRIMITIVES.put(TypeKind.SHORT, new FieldCodec(INT16, NULLABLE_INT16, "Int16"));
+        PRIMITIVES.put(TypeKind.INT, new FieldCodec(INT32, NULLABLE_INT32, "Int32"));
+        PRIMITIVES.put(TypeKind.LONG, new FieldCodec(INT64, NULLABLE_INT64, "Int64"));
+        PRIMITIVES.put(TypeKind.FLOAT, new FieldCodec(FLOAT32, NULLABLE_FLOAT32, "Float32"));
+        PRIMITIVES.put(TypeKind.DOUBLE, new FieldCodec(FLOAT64, NULLABLE_FLOAT64, "Float64"));
+
+        PRIMITIVE_ARRAYS.put(TypeKind.BOOLEAN, new FieldCodec(ARRAY_OF_BOOLEAN, ARRAY_OF_NULLABLE_BOOLEAN,
+                "ArrayOfBoolean"));
+        PRIMITIVE_ARRAYS.put(TypeKind.BYTE, new FieldCodec(ARRAY_OF_INT8, ARRAY_OF_NULLABLE_INT8, "ArrayOfInt8"));
+        PRIMITIVE_ARRAYS.put(TypeKind.CHAR, new FieldCodec(ARRAY_OF_INT16, ARRAY_OF_NULLABLE_INT16, "ArrayOfInt16")
+                .withConversions(COMPACT_UTIL + "charArrayAsShortArray(%s)",
+                        COMPACT_UTIL + "charArrayFromShortArray(%s)"));
+        PRIMITIVE_ARRAYS.put(TypeKind.SHORT, new FieldCodec(ARRAY_OF_INT16, ARRAY_OF_NULLABLE_INT16, "ArrayOfInt16"));
+        PRIMITIVE_ARRAYS.put(TypeKind.INT, new FieldCodec(ARRAY_OF_INT32, ARRAY_OF_NULLABLE_INT32, "ArrayOfInt32"));
+        PRIMITIVE_ARRAYS.put(TypeKind.LONG, new FieldCodec(ARRAY_OF_INT64, ARRAY_OF_NULLABLE_INT64, "ArrayOfInt64"));
+        PRIMITIVE_ARRAYS.put(TypeKind.FLOAT, new FieldCodec(ARRAY_OF_FLOAT32, ARRAY_OF_NULLABLE_FLOAT32,
+                "ArrayOfFloat32"));
+        PRIMITIVE_ARRAYS.put(TypeKind.DOUBLE, new FieldCodec(ARRAY_OF_FLOAT64, ARRAY_OF_NULLABLE_FLOAT64,
+                "ArrayOfFloat64"));
+
+        REFERENCES.put("java.lang.Boolean", new FieldCodec(NULLABLE_BOOLEAN, BOOLEAN, "NullableBoolean"));
+        REFERENCES.put("java.lang.Byte", new FieldCodec(NULLABLE_INT8, INT8, "NullableInt8"));
+        REFERENCES.put("java.lang.Character", new FieldCodec(NULLABLE_INT16, INT16, "NullableInt16")
+                .withConversions(COMPACT_UTIL + "characterAsShort(%s)", COMPACT_UTIL + "characterFromShort(%s)"));
+        REFERENCES.put("java.lang.Short", new FieldCodec(NULLABLE_INT16, INT16, "NullableInt16"));
+        REFERENCES.put("java.lang.Integer", new FieldCodec(NULLABLE_INT32, INT32, "NullableInt32"));
+        REFERENCES.put("java.lang.Long", new FieldCodec(NULLABLE_INT64, INT64, "NullableInt64"));
+        REFERENCES.put("java.lang.Float", new FieldCodec(NULLABLE_FLOAT32, FLOAT32, "NullableFloat32"));
+        REFERENCES.put("java.lang.Double", new FieldCodec(NULLABLE_FLOAT64, FLOAT64, "NullableFloat64"));
+        REFERENCES.put("java.lang.String", new FieldCodec(STRING, STRING, "String"));
+        REFERENCES.put("java.math.BigDecimal", new FieldCodec(DECIMAL, DECIMAL, "Decimal"));
+        REFERENCES.put("java.time.LocalTime", new FieldCodec(TIME, TIME, "Time"));
+        REFERENCES.put("java.time.LocalDate", new FieldCodec(DATE, DATE, "Date"));
+        REFERENCES.put("java.time.LocalDateTime", new FieldCodec(TIMESTAMP, TIMESTAMP, "Timestamp"));
+        REFERENCES.put("java.time.OffsetDateTime", new FieldCodec(TIMESTAMP_WITH_TIMEZONE, TIMESTAMP_WITH_TIMEZONE,
+                "TimestampWithTimezone"));
+
+        REFERENCE_ARRAYS.put("java.lang.Boolean", new FieldCodec(ARRAY_OF_NULLABLE_BOOLEAN, ARRAY_OF_BOOLEAN,
+                "ArrayOfNullableBoolean"));
+        REFERENCE_ARRAYS.put("java.lang.Byte", new FieldCodec(ARRAY_OF_NULLABLE_INT8, ARRAY_OF_INT8,
+                "ArrayOfNullableInt8"));
+        REFERENCE_ARRAYS.put("java.lang.Character", new FieldCodec(ARRAY_OF_NULLABLE_INT16, ARRAY_OF_INT16,
+                "ArrayOfNullableInt16")
+                .withConversions(COMPACT_UTIL + "characterArrayAsShortArray(%s)",
+                        COMPACT_UTIL + "characterArrayFromShortArray(%s)"));
+        REFERENCE_ARRAYS.put("java.lang.Short", new FieldCodec(ARRAY_OF_NULLABLE_INT16, ARRAY_OF_INT16,
+                "ArrayOfNullableInt16"));
+        REFERENCE_ARRAYS.put("java.lang.Integer", new FieldCodec(ARRAY_OF_NULLABLE_INT32, ARRAY_OF_INT32,
+                "ArrayOfNullableInt32"));
+        REFERENCE_ARRAYS.put("java.lang.Long", new FieldCodec(ARRAY_OF_NULLABLE_INT64, ARRAY_OF_INT64,
+                "ArrayOfNullableInt64"));
+        REFERENCE_ARRAYS.put("java.lang.Float", new FieldCodec(ARRAY_OF_NULLABLE_FLOAT32, ARRAY_OF_FLOAT32,
+                "ArrayOfNullableFloat32"));
+        REFERENCE_ARRAYS.put("java.lang.Double", new FieldCodec(ARRAY_OF_NULLABLE_FLOAT64, ARRAY_OF_FLOAT64,
+                "ArrayOfNullableFloat64"));
+        REFERENCE_ARRAYS.put("java.lang.String", new FieldCodec(ARRAY_OF_STRING, ARRAY_OF_STRING, "ArrayOfString"));
+        REFERENCE_ARRAYS.put("java.math.BigDecimal", new FieldCodec(ARRAY_OF_DECIMAL, ARRAY_OF_DECIMAL,
+                "ArrayOfDecimal"));
+        REFERENCE_ARRAYS.put("java.time.LocalTime", new FieldCodec(ARRAY_OF_TIME, ARRAY_OF_TIME, "ArrayOfTime"));
+        REFERENCE_ARRAYS.put("java.time.LocalDate", new FieldCodec(ARRAY_OF_DATE, ARRAY_OF_DATE, "ArrayOfDate"));
+        REFERENCE_ARRAYS.put("java.time.LocalDateTime", new FieldCodec(ARRAY_OF_TIMESTAMP, ARRAY_OF_TIMESTAMP,
+                "ArrayOfTimestamp"));
+        REFERENCE_ARRAYS.put("java.time.OffsetDateTime", new FieldCodec(ARRAY_OF_TIMESTAMP_WITH_TIMEZONE,
+                ARRAY_OF_TIMESTAMP_WITH_TIMEZONE, "ArrayOfTimestampWithTimezone"));
+    }
+
+    private final Types types;
+    private final Elements elements;
+
+    PropertyCodecs(Types types, Elements elements) {
+        this.types = types;
+        this.elements = elements;
+    }
+
+    /**
+     * Returns the codec of a property with the given type.
+     *
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    PropertyCodec codecFor(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return new PropertyCodec.Single(PRIMITIVES.get(type.getKind()));
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return new PropertyCodec.Single(arrayCodecFor(((ArrayType) type).getComponentType()));
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw unsupported(type);
+        }
+
+        String name = qualifiedName(type);
+        FieldCodec codec = REFERENCES.get(name);
+        if (codec != null) {
+            return new PropertyCodec.Single(codec);
+        }
+        if (isEnum(type)) {
+            return new PropertyCodec.Single(new FieldCodec(STRING, STRING, "String")
+                    .withConversions(COMPACT_UTIL + "enumAsStringName(%s)",
+                            "(" + name + ") " + COMPACT_UTIL + "enumFromStringName(" + name + ".class, %s)"));
+        }
+        if (LIST_TYPES.contains(name) || SET_TYPES.contains(name)) {
+            TypeMirror elementType = typeArgument(type, 0);
+            return new PropertyCodec.Collection(arrayCodecFor(elementType), qualifiedName(elementType),
+                    LIST_TYPES.contains(name) ? "toArrayList" : "toHashSet");
+        }
+        if (MAP_TYPES.contains(name)) {
+            TypeMirror keyType = typeArgument(type, 0);
+            TypeMirror valueType = typeArgument(type, 1);
+            return new PropertyCodec.Map(arrayCodecFor(keyType), qualifiedName(keyType),
+                    arrayCodecFor(valueType), qualifiedName(valueType));
+        }
+        checkCompactSerializable(type);
+        return new PropertyCodec.Single(new FieldCodec(COMPACT, COMPACT, "Compact"));
+    }
+
+    private FieldCodec arrayCodecFor(TypeMirror componentType) {
+        if (componentType.getKind().isPrimitive()) {
+            return PRIMITIVE_ARRAYS.get(componentType.getKind());
+        }
+        if (componentType.getKind() != TypeKind.DECLARED) {
+            // arrays of arrays, type variables
+            throw unsupported(componentType);
+        }
+
+        String name = qualifiedName(componentType);
+        FieldCodec codec = REFERENCE_ARRAYS.get(name);
+        if (codec != null) {
+            return codec;
+        }
+        if (!((DeclaredType) componentType).getTypeArguments().isEmpty()) {
+            // generic arrays cannot be created in the generated code
+            throw unsupported(componentType);
+        }
+        if (isEnum(componentType)) {
+            return new FieldCodec(ARRAY_OF_STRING, ARRAY_OF_STRING, "ArrayOfString")
+                    .withConversions(COMPACT_UTIL + "enumArrayAsStringNameArray(%s)",
+                            "(" + name + "[]) " + COMPACT_UTIL + "enumArrayFromStringNameArray(" + name + ".class, %s)");
+        }
+        checkCompactSerializable(componentType);
+        return new FieldCodec(ARRAY_OF_COMPACT, ARRAY_OF_COMPACT, "ArrayOfCompact")
+                .withReadArguments(", " + name + ".class");
+    }
+
+    private TypeMirror typeArgument(TypeMirror type, int index) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.size() <= index) {
+            throw new IllegalArgumentException("The type " + type + " must be parameterized");
+        }
+        TypeMirror argument = arguments.get(index);
+        if (argument.getKind() != TypeKind.DECLARED) {
+            // wildcards, type variables
+            throw unsupported(type);
+        }
+        return argument;
+    }
+
+    private void checkCompactSerializable(TypeMirror type) {
+        // Mirrors CompactUtil.canBeSerializedAsCompact()
+        String packageName = elements.getPackageOf(types.asElement(type)).getQualifiedName().toString();
+        for (String prefix : UNSUPPORTED_PACKAGE_PREFIXES) {
+            if (packageName.equals(prefix) || packageName.startsWith(prefix + ".")) {
+                throw unsupported(type);
+            }
+        }
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return types.asElement(type).getKind() == ElementKind.ENUM;
+    }
+
+    private String qualifiedName(TypeMirror type) {
+        return ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+    }
+
+    private static IllegalArgumentException unsupported(TypeMirror type) {
+        return new IllegalArgumentException("The type " + type + " is not supported by the generated "
+                + "Compact serializers. Consider writing a CompactSerializer for the class.");
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.compact.processor;
+
+import com.hazelcast.compact.processor.example.AllTypesPojo;
+import com.hazelcast.compact.processor.example.AllTypesRecord;
+import com.hazelcast.compact.processor.example.Color;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.compact.GeneratedCompactSerializer;
+import com.hazelcast.internal.serialization.impl.compact.InMemorySchemaService;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+import static com.hazelcast.internal.serialization.impl.compact.GeneratedCompactSerializer.CLASS_NAME_SUFFIX;
+import static com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder.compact;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactSerializerProcessorTest {
+
+    private final InMemorySchemaService schemaService = new InMemorySchemaService();
+    private final SerializationService serializationService = createSerializationService(schemaService,
+            getClass().getClassLoader());
+
+    @Test
+    public void testClass_roundTrip() {
+        AllTypesPojo pojo = AllTypesPojo.sample();
+
+        AllTypesPojo deserialized = serializationService.toObject(serializationService.toData(pojo));
+
+        assertThat(deserialized).usingRecursiveComparison().ignoringFields("transientField").isEqualTo(pojo);
+        assertEquals(0, deserialized.transientField);
+    }
+
+    @Test
+    public void testRecord_roundTrip() {
+        AllTypesRecord record = AllTypesRecord.sample();
+
+        AllTypesRecord deserialized = serializationService.toObject(serializationService.toData(record));
+
+        assertThat(deserialized).usingRecursiveComparison().isEqualTo(record);
+    }
+
+    @Test
+    public void testClass_sameSchemaAndBinaryAsReflective() throws Exception {
+        assertSameSchemaAndBinaryAsReflective(AllTypesPojo.class, AllTypesPojo.sample());
+    }
+
+    @Test
+    public void testRecord_sameSchemaAndBinaryAsReflective() throws Exception {
+        assertSameSchemaAndBinaryAsReflective(AllTypesRecord.class, AllTypesRecord.sample());
+    }
+
+    @Test
+    public void testClass_readFromDifferentSchema() {
+        GenericRecord record = compact(AllTypesPojo.class.getName())
+                .setInt32("i", 1)
+                .setNullableInt32("nullableInt", null)
+                .setString("string", "evolved")
+                .setString("l", "field with a different kind")
+                .build();
+
+        AllTypesPojo pojo = serializationService.toObject(serializationService.toData(record));
+
+        assertEquals(1, pojo.i);
+        assertNull(pojo.nullableInt);
+        assertEquals("evolved", pojo.string);
+        assertEquals(0, pojo.l);
+        assertNull(pojo.nested);
+    }
+
+    @Test
+    public void testRecord_readFromDifferentSchema() {
+        GenericRecord record = compact(AllTypesRecord.class.getName())
+                .setInt32("i", 1)
+                .setString("color", "RED")
+                .build();
+
+        AllTypesRecord deserialized = serializationService.toObject(serializationService.toData(record));
+
+        assertEquals(new AllTypesRecord(1, null, '\0', null, Color.RED,
+                null, null), deserialized);
+    }
+
+    @Test
+    public void testInaccessibleField_compilationFails() {
+        String source = """
+                package com.example;
+
+                @com.hazelcast.nio.serialization.compact.GenerateCompactSerializer
+                public class Invalid {
+                    private int inaccessible;
+                }
+                """;
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("com.example.Invalid", source);
+
+        assertEquals(errors.toString(), 1, errors.size());
+        assertThat(errors.get(0).getMessage(null)).contains("'inaccessible'");
+    }
+
+    @Test
+    public void testUnsupportedFieldType_compilationFails() {
+        String source = """
+                package com.example;
+
+                @com.hazelcast.nio.serialization.compact.GenerateCompactSerializer
+                public record Invalid(java.util.List<? extends Number> numbers) {
+                }
+                """;
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("com.example.Invalid", source);
+
+        assertEquals(errors.toString(), 1, errors.size());
+        assertThat(errors.get(0).getMessage(null)).contains("is not supported");
+    }
+
+    private void assertSameSchemaAndBinaryAsReflective(Class<?> clazz, Object object) throws Exception {
+        GeneratedCompactSerializer<?> serializer = (GeneratedCompactSerializer<?>) Class
+                .forName(clazz.getName() + CLASS_NAME_SUFFIX)
+                .getDeclaredConstructor()
+                .newInstance();
+
+        Data data = serializationService.toData(object);
+
+        // the schema id computed at compile time is the one of the schema built at runtime
+        assertNotNull(schemaService.get(serializer.getSchemaId()));
+
+        ClassLoader classLoader = new WithoutGeneratedSerializersClassLoader();
+        Object reflectiveObject = classLoader.loadClass(clazz.getName()).getMethod("sample").invoke(null);
+        InMemorySchemaService reflectiveSchemaService = new InMemorySchemaService();
+        Data reflectiveData = createSerializationService(reflectiveSchemaService, classLoader).toData(reflectiveObject);
+
+        assertNotNull(reflectiveSchemaService.get(serializer.getSchemaId()));
+        assertArrayEquals(reflectiveData.toByteArray(), data.toByteArray());
+    }
+
+    private static SerializationService createSerializationService(InMemorySchemaService schemaService,
+                                                                   ClassLoader classLoader) {
+        return new DefaultSerializationServiceBuilder()
+                .setSchemaService(schemaService)
+                .setConfig(new SerializationConfig())
+                .setClassLoader(classLoader)
+                .build();
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(String className, String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                List.of("-proc:only", "-classpath", System.getProperty("java.class.path")), null, List.of(file));
+        task.setProcessors(List.of(new CompactSerializerProcessor()));
+
+        assertFalse(task.call());
+        return diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .toList();
+    }
+
+    /**
+     * Defines its own copies of the example classes, without their generated
+     * serializers, so that they are serialized reflectively.
+     */
+    private static final class WithoutGeneratedSerializersClassLoader extends ClassLoader {
+
+        private static final String EXAMPLE_PACKAGE = AllTypesPojo.class.getPackageName() + ".";
+
+        WithoutGeneratedSerializersClassLoader() {
+            super(CompactSerializerProcessorTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(EXAMPLE_PACKAGE)) {
+                return super.loadClass(name, resolve);
+            }
+            if (name.endsWith(CLASS_NAME_SUFFIX)) {
+                throw new ClassNotFoundException(name);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    clazz = defineClass(name);
+                }
+                return clazz;
+            }
+        }
+
+        private Class<?> defineClass(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (in == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                byte[] bytes = in.readAllBytes();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
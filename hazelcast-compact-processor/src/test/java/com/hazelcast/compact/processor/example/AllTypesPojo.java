@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.compact.processor.example;
+
+import com.hazelcast.nio.serialization.compact.GenerateCompactSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@GenerateCompactSerializer
+public class AllTypesPojo extends BasePojo {
+
+    static int staticField;
+
+    public boolean bool;
+    public byte b;
+    public char c;
+    public short s;
+    public int i;
+    public long l;
+    public float f;
+    public double d;
+    public Boolean nullableBool;
+    public Character nullableChar;
+    public Integer nullableInt;
+    public Double nullableDouble;
+    public String string;
+    public BigDecimal decimal;
+    public LocalTime time;
+    public LocalDate date;
+    public LocalDateTime timestamp;
+    public OffsetDateTime timestampWithTimezone;
+    public int[] ints;
+    public char[] chars;
+    public Integer[] nullableInts;
+    public String[] strings;
+    public LocalDate[] dates;
+    public Color color;
+    public Color[] colors;
+    public NestedPojo nested;
+    public NestedPojo[] nestedArray;
+    public List<String> list;
+    public Set<Integer> set;
+    public Map<String, NestedPojo> map;
+    public transient int transientField;
+
+    private long privateField;
+
+    public long getPrivateField() {
+        return privateField;
+    }
+
+    public void setPrivateField(long privateField) {
+        this.privateField = privateField;
+    }
+
+    public static AllTypesPojo sample() {
+        AllTypesPojo pojo = new AllTypesPojo();
+        pojo.baseField = 1;
+        pojo.bool = true;
+        pojo.b = 2;
+        pojo.c = 'c';
+        pojo.s = 3;
+        pojo.i = 4;
+        pojo.l = 5;
+        pojo.f = 6.5f;
+        pojo.d = 7.5;
+        pojo.nullableBool = false;
+        pojo.nullableChar = null;
+        pojo.nullableInt = 8;
+        pojo.nullableDouble = null;
+        pojo.string = "string";
+        pojo.decimal = new BigDecimal("123.456");
+        pojo.time = LocalTime.of(1, 2, 3);
+        pojo.date = LocalDate.of(2024, 1, 2);
+        pojo.timestamp = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        pojo.timestampWithTimezone = OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 6, ZoneOffset.ofHours(2));
+        pojo.ints = new int[]{1, 2, 3};
+        pojo.chars = new char[]{'a', 'b'};
+        pojo.nullableInts = new Integer[]{1, null, 3};
+        pojo.strings = new String[]{"a", null, "c"};
+        pojo.dates = new LocalDate[]{LocalDate.of(2024, 3, 4)};
+        pojo.color = Color.GREEN;
+        pojo.colors = new Color[]{Color.RED, Color.BLUE};
+        pojo.nested = new NestedPojo("nested", 9);
+        pojo.nestedArray = new NestedPojo[]{new NestedPojo("a", 10), new NestedPojo("b", 11)};
+        pojo.list = new ArrayList<>(List.of("x", "y"));
+        pojo.set = new HashSet<>(Set.of(12, 13));
+        pojo.map = new HashMap<>(Map.of("key", new NestedPojo("value", 14)));
+        pojo.transientField = 15;
+        pojo.privateField = 16;
+        return pojo;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.compact.processor.example;
+
+import com.hazelcast.nio.serialization.compact.GenerateCompactSerializer;
+
+import java.util.List;
+
+@GenerateCompactSerializer
+public record AllTypesRecord(int i, Integer nullableInt, char c, String string, Color color, NestedPojo nested,
+                             List<NestedPojo> list) {
+
+    public static AllTypesRecord sample() {
+        return new AllTypesRecord(42, null, 'x', "record", Color.BLUE, new NestedPojo("nested", 1),
+                List.of(new NestedPojo("a", 2), new NestedPojo("b", 3)));
+    }
+}
@@ -48,6 +48,7 @@ import com.hazelcast.jet.sql.impl.connector.SqlConnector.VertexWithInputConfig;
 import com.hazelcast.jet.sql.impl.connector.SqlConnectorUtil;
 import com.hazelcast.jet.sql.impl.connector.map.IMapSqlConnector;
 import com.hazelcast.jet.sql.impl.opt.ExpressionValues;
+import com.hazelcast.jet.sql.impl.opt.OptUtils;
 import com.hazelcast.jet.sql.impl.opt.WatermarkKeysAssigner;
 import com.hazelcast.jet.sql.impl.opt.WatermarkThrottlingFrameSizeCalculator;
 import com.hazelcast.jet.sql.impl.processors.LateItemsDropP;
@@ -534,7 +535,8 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
                 "Hash Join",
                 SqlHashJoinP.supplier(
                         joinInfo,
-                        rel.getRight().getRowType().getFieldCount()
+                        rel.getRight().getRowType().getFieldCount(),
+                        OptUtils.isBounded(rel.getLeft())
                 )
         );
         connectJoinInput(joinInfo, rel.getLeft(), rel.getRight(), joinVertex);
@@ -18,56 +18,131 @@ package com.hazelcast.jet.sql.impl.processors;
 
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.HashUtil;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.Traversers;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.processor.SpillFile;
 import com.hazelcast.jet.sql.impl.ExpressionUtil;
 import com.hazelcast.jet.sql.impl.JetJoinInfo;
 import com.hazelcast.jet.sql.impl.ObjectArrayKey;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
 import com.hazelcast.sql.impl.row.JetSqlRow;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
+
+/**
+ * Joins rows from the probe side (ordinal 0) with rows from the build side
+ * (ordinal 1), which is consumed first into an in-memory hash table.
+ * <p>
+ * If {@link ClusterProperty#SQL_HASH_JOIN_SPILL_THRESHOLD} is set and the
+ * probe side is bounded, the processor performs a grace hash join: the
+ * build rows are hash-partitioned into buckets and when the threshold is
+ * reached, the largest bucket is spilled to a local file. Probe rows that
+ * fall into a spilled bucket are spilled too and in the {@code complete}
+ * phase, the spilled buckets are joined one at a time. The rows are spilled
+ * and read back in batches so that a single call doesn't block the
+ * cooperative thread for long.
+ */
 public class SqlHashJoinP extends AbstractProcessor {
 
+    private static final int SPILL_BUCKET_COUNT = 64;
+    private static final int SPILL_BATCH_SIZE = 1024;
+
     private final JetJoinInfo joinInfo;
     private final int rightInputColumnCount;
+    private final boolean spillable;
 
     private ExpressionEvalContext evalContext;
-    private Multimap<ObjectArrayKey, JetSqlRow> hashMap;
+    private Multimap<ObjectArrayKey, JetSqlRow>[] buckets;
     private FlatMapper<JetSqlRow, JetSqlRow> flatMapper;
     private long maxItemsInHashTable;
+    private long itemsInHashTable;
+
+    private long spillThreshold;
+    private Path spillDirectory;
+    private InternalSerializationService serializationService;
+    private SpillFile<JetSqlRow>[] buildSpillFiles;
+    private SpillFile<JetSqlRow>[] probeSpillFiles;
+
+    private int spillingBucket;
+    private Iterator<JetSqlRow> spillIterator;
+
+    private int spilledBucket = -1;
+    private Multimap<ObjectArrayKey, JetSqlRow> spilledHashTable;
+    private boolean hasNextBuildRow;
+    private boolean hasNextProbeRow;
+    private Traverser<JetSqlRow> spilledJoinTraverser;
 
     public SqlHashJoinP(JetJoinInfo joinInfo, int rightInputColumnCount) {
+        this(joinInfo, rightInputColumnCount, false);
+    }
+
+    public SqlHashJoinP(JetJoinInfo joinInfo, int rightInputColumnCount, boolean spillable) {
         this.joinInfo = joinInfo;
         this.rightInputColumnCount = rightInputColumnCount;
+        this.spillable = spillable;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void init(@Nonnull Context context) throws Exception {
         this.evalContext = ExpressionEvalContext.from(context);
-        this.hashMap = LinkedListMultimap.create();
         this.flatMapper = flatMapper(this::join);
         this.maxItemsInHashTable = context.maxProcessorAccumulatedRecords();
+        if (spillable && context instanceof ProcCtx procCtx) {
+            HazelcastProperties properties = procCtx.nodeEngine().getProperties();
+            spillThreshold = properties.getLong(ClusterProperty.SQL_HASH_JOIN_SPILL_THRESHOLD);
+            if (spillThreshold > 0) {
+                spillDirectory = SpillFile.spillDirectory(properties);
+                serializationService = procCtx.serializationService();
+                buildSpillFiles = new SpillFile[SPILL_BUCKET_COUNT];
+                probeSpillFiles = new SpillFile[SPILL_BUCKET_COUNT];
+            }
+        }
+        this.buckets = new Multimap[spillThreshold > 0 ? SPILL_BUCKET_COUNT : 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = LinkedListMultimap.create();
+        }
     }
 
     private Traverser<JetSqlRow> join(JetSqlRow leftRow) {
         ObjectArrayKey joinKeys = ObjectArrayKey.project(leftRow, joinInfo.leftEquiJoinIndices());
-        Collection<JetSqlRow> matchedRows = hashMap.get(joinKeys);
+        int bucket = bucketIndex(joinKeys);
+        if (probeSpillFiles != null && probeSpillFiles[bucket] != null) {
+            try {
+                probeSpillFiles[bucket].write(leftRow);
+            } catch (IOException e) {
+                throw rethrow(e);
+            }
+            return Traversers.empty();
+        }
+        return join(leftRow, buckets[bucket].get(joinKeys));
+    }
+
+    private Traverser<JetSqlRow> join(JetSqlRow leftRow, Collection<JetSqlRow> matchedRows) {
         List<JetSqlRow> output = matchedRows.stream()
                 .map(right -> ExpressionUtil.join(
                         leftRow,
@@ -84,14 +159,17 @@ public class SqlHashJoinP extends AbstractProcessor {
     }
 
     @Override
-    protected boolean tryProcess0(@Nonnull Object item) {
+    protected boolean tryProcess0(@Nonnull Object item) throws IOException {
+        if (spillIterator != null && !spillBatch()) {
+            return false;
+        }
         return flatMapper.tryProcess((JetSqlRow) item);
     }
 
     @Override
-    protected boolean tryProcess1(@Nonnull Object item) {
-        if (hashMap.size() == maxItemsInHashTable) {
-            throw new AccumulationLimitExceededException();
+    protected boolean tryProcess1(@Nonnull Object item) throws IOException {
+        if (spillIterator != null && !spillBatch()) {
+            return false;
         }
         JetSqlRow rightRow = (JetSqlRow) item;
         ObjectArrayKey joinKeys = ObjectArrayKey.project(rightRow, joinInfo.rightEquiJoinIndices());
@@ -99,10 +177,158 @@ public class SqlHashJoinP extends AbstractProcessor {
         if (joinKeys.containsNull()) {
             return true;
         }
-        hashMap.put(joinKeys, rightRow);
+        int bucket = bucketIndex(joinKeys);
+        if (spillThreshold > 0 && itemsInHashTable >= Math.min(spillThreshold, maxItemsInHashTable)
+                && startSpillingLargestBucket() && !spillBatch()) {
+            // the row is offered again once the bucket is spilled
+            return false;
+        }
+        if (buildSpillFiles != null && buildSpillFiles[bucket] != null) {
+            buildSpillFiles[bucket].write(rightRow);
+            return true;
+        }
+        if (itemsInHashTable == maxItemsInHashTable) {
+            throw new AccumulationLimitExceededException();
+        }
+        buckets[bucket].put(joinKeys, rightRow);
+        itemsInHashTable++;
+        return true;
+    }
+
+    private int bucketIndex(ObjectArrayKey joinKeys) {
+        return buckets.length == 1 ? 0 : HashUtil.hashToIndex(joinKeys.hashCode(), buckets.length);
+    }
+
+    /**
+     * Starts moving the rows of the largest in-memory bucket to a spill
+     * file. All build and probe rows of that bucket are then written to
+     * spill files too.
+     *
+     * @return {@code true} if a bucket is being spilled
+     */
+    private boolean startSpillingLargestBucket() throws IOException {
+        int largest = -1;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buildSpillFiles[i] == null && (largest < 0 || buckets[i].size() > buckets[largest].size())) {
+                largest = i;
+            }
+        }
+        if (largest < 0 || buckets[largest].isEmpty()) {
+            return false;
+        }
+        buildSpillFiles[largest] = new SpillFile<>(spillDirectory, serializationService);
+        probeSpillFiles[largest] = new SpillFile<>(spillDirectory, serializationService);
+        spillingBucket = largest;
+        spillIterator = buckets[largest].values().iterator();
+        return true;
+    }
+
+    /**
+     * Writes the next batch of rows of the spilled bucket to its file.
+     *
+     * @return {@code true} if the whole bucket was spilled
+     */
+    private boolean spillBatch() throws IOException {
+        for (int i = 0; i < SPILL_BATCH_SIZE && spillIterator.hasNext(); i++) {
+            buildSpillFiles[spillingBucket].write(spillIterator.next());
+            spillIterator.remove();
+            itemsInHashTable--;
+        }
+        if (spillIterator.hasNext()) {
+            return false;
+        }
+        spillIterator = null;
         return true;
     }
 
+    @Override
+    public boolean complete() {
+        if (buildSpillFiles == null) {
+            return true;
+        }
+        try {
+            if (spillIterator != null && !spillBatch()) {
+                return false;
+            }
+            if (spilledBucket < 0) {
+                // the in-memory buckets are complete, release them before loading the spilled ones
+                Arrays.fill(buckets, null);
+            }
+            while (true) {
+                if (spilledHashTable == null && !startJoiningNextBucket()) {
+                    return true;
+                }
+                if (hasNextBuildRow) {
+                    loadBuildBatch();
+                    return false;
+                }
+                if (!joinProbeBatch()) {
+                    return false;
+                }
+                spilledHashTable = null;
+            }
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Moves to the next spilled bucket and starts reading its files.
+     *
+     * @return {@code false} if all spilled buckets were joined
+     */
+    private boolean startJoiningNextBucket() throws IOException {
+        do {
+            spilledBucket++;
+        } while (spilledBucket < SPILL_BUCKET_COUNT && buildSpillFiles[spilledBucket] == null);
+        if (spilledBucket == SPILL_BUCKET_COUNT) {
+            return false;
+        }
+        SpillFile<JetSqlRow> buildFile = buildSpillFiles[spilledBucket];
+        if (buildFile.size() > maxItemsInHashTable) {
+            throw new AccumulationLimitExceededException();
+        }
+        spilledHashTable = LinkedListMultimap.create();
+        hasNextBuildRow = buildFile.startReading();
+        hasNextProbeRow = probeSpillFiles[spilledBucket].startReading();
+        return true;
+    }
+
+    /**
+     * Loads the next batch of build rows of the spilled bucket into its hash table.
+     */
+    private void loadBuildBatch() throws IOException {
+        SpillFile<JetSqlRow> buildFile = buildSpillFiles[spilledBucket];
+        for (int i = 0; i < SPILL_BATCH_SIZE && hasNextBuildRow; i++) {
+            JetSqlRow rightRow = buildFile.head();
+            spilledHashTable.put(ObjectArrayKey.project(rightRow, joinInfo.rightEquiJoinIndices()), rightRow);
+            hasNextBuildRow = buildFile.advance();
+        }
+    }
+
+    /**
+     * Joins the next batch of probe rows of the spilled bucket.
+     *
+     * @return {@code true} if all probe rows of the bucket were joined and emitted
+     */
+    private boolean joinProbeBatch() throws IOException {
+        SpillFile<JetSqlRow> probeFile = probeSpillFiles[spilledBucket];
+        for (int i = 0; i < SPILL_BATCH_SIZE; i++) {
+            if (spilledJoinTraverser != null && !emitFromTraverser(spilledJoinTraverser)) {
+                return false;
+            }
+            spilledJoinTraverser = null;
+            if (!hasNextProbeRow) {
+                return true;
+            }
+            JetSqlRow leftRow = probeFile.head();
+            hasNextProbeRow = probeFile.advance();
+            spilledJoinTraverser = join(leftRow,
+                    spilledHashTable.get(ObjectArrayKey.project(leftRow, joinInfo.leftEquiJoinIndices())));
+        }
+        return false;
+    }
+
     @Override
     public boolean tryProcessWatermark(@Nonnull Watermark watermark) {
         return true;
@@ -113,21 +339,44 @@ public class SqlHashJoinP extends AbstractProcessor {
         return joinInfo.isCooperative();
     }
 
+    @Override
+    public void close() throws Exception {
+        if (buildSpillFiles == null) {
+            return;
+        }
+        for (int i = 0; i < SPILL_BUCKET_COUNT; i++) {
+            if (buildSpillFiles[i] != null) {
+                buildSpillFiles[i].close();
+                probeSpillFiles[i].close();
+            }
+        }
+    }
+
     public static HashJoinProcessorSupplier supplier(JetJoinInfo joinInfo, int rightInputColumnCount) {
-        return new HashJoinProcessorSupplier(joinInfo, rightInputColumnCount);
+        return supplier(joinInfo, rightInputColumnCount, false);
+    }
+
+    /**
+     * @param spillable whether the processor may spill, which requires the
+     *                  probe side (ordinal 0) to be bounded
+     */
+    public static HashJoinProcessorSupplier supplier(JetJoinInfo joinInfo, int rightInputColumnCount, boolean spillable) {
+        return new HashJoinProcessorSupplier(joinInfo, rightInputColumnCount, spillable);
     }
 
     private static final class HashJoinProcessorSupplier implements ProcessorSupplier, DataSerializable {
         private JetJoinInfo joinInfo;
         private int rightInputColumnCount;
+        private boolean spillable;
 
         @SuppressWarnings("unused") // for deserialization
         private HashJoinProcessorSupplier() {
         }
 
-        private HashJoinProcessorSupplier(JetJoinInfo joinInfo, int rightInputColumnCount) {
+        private HashJoinProcessorSupplier(JetJoinInfo joinInfo, int rightInputColumnCount, boolean spillable) {
             this.joinInfo = joinInfo;
             this.rightInputColumnCount = rightInputColumnCount;
+            this.spillable = spillable;
         }
 
         @Nonnull
@@ -135,7 +384,7 @@ public class SqlHashJoinP extends AbstractProcessor {
         public Collection<? extends Processor> get(int count) {
             List<SqlHashJoinP> processors = new ArrayList<>(count);
             for (int i = 0; i < count; i++) {
-                processors.add(new SqlHashJoinP(joinInfo, rightInputColumnCount));
+                processors.add(new SqlHashJoinP(joinInfo, rightInputColumnCount, spillable));
             }
             return processors;
         }
@@ -144,17 +393,19 @@ public class SqlHashJoinP extends AbstractProcessor {
         public void writeData(ObjectDataOutput out) throws IOException {
             out.writeObject(joinInfo);
             out.writeInt(rightInputColumnCount);
+            out.writeBoolean(spillable);
         }
 
         @Override
         public void readData(ObjectDataInput in) throws IOException {
             joinInfo = in.readObject();
             rightInputColumnCount = in.readInt();
+            spillable = in.readBoolean();
         }
     }
 
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        return buildSpillFiles == null;
     }
 }
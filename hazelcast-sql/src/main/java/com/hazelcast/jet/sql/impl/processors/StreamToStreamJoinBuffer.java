@@ -19,7 +19,7 @@ package com.hazelcast.jet.sql.impl.processors;
 import com.hazelcast.function.ToLongFunctionEx;
 import com.hazelcast.sql.impl.row.JetSqlRow;
 
-import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -48,6 +48,13 @@ abstract class StreamToStreamJoinBuffer implements Iterable<JetSqlRow> {
      * Clears expired items in current buffer, and returns a new minimums time array.
      *
      * @param limits array of limits for
+     * @param clearedRowsConsumer receives the removed rows, {@code null} if they aren't needed
      */
-    public abstract void clearExpiredItems(long[] limits, @Nonnull Consumer<JetSqlRow> clearedRowsConsumer);
+    public abstract void clearExpiredItems(long[] limits, @Nullable Consumer<JetSqlRow> clearedRowsConsumer);
+
+    /**
+     * Releases the resources held by the buffer.
+     */
+    public void dispose() {
+    }
 }
@@ -19,7 +19,7 @@ package com.hazelcast.jet.sql.impl.processors;
 import com.hazelcast.function.ToLongFunctionEx;
 import com.hazelcast.sql.impl.row.JetSqlRow;
 
-import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -60,7 +60,7 @@ class StreamToStreamJoinListBuffer extends StreamToStreamJoinBuffer {
     }
 
     @Override
-    public void clearExpiredItems(long[] limits, @Nonnull Consumer<JetSqlRow> clearedRowsConsumer) {
+    public void clearExpiredItems(long[] limits, @Nullable Consumer<JetSqlRow> clearedRowsConsumer) {
         final Iterator<JetSqlRow> iterator = buffer.iterator();
         long[] times = new long[timeExtractors.size()];
         while (iterator.hasNext()) {
@@ -75,7 +75,9 @@ class StreamToStreamJoinListBuffer extends StreamToStreamJoinBuffer {
 
             if (remove) {
                 iterator.remove();
-                clearedRowsConsumer.accept(row);
+                if (clearedRowsConsumer != null) {
+                    clearedRowsConsumer.accept(row);
+                }
             }
         }
     }
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.processors;
+
+import com.hazelcast.function.ToLongFunctionEx;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+
+/**
+ * A buffer which keeps the rows serialized in native memory. Rows are
+ * appended to fixed-size segments in arrival order. Each segment has an
+ * on-heap columnar index holding the row offsets and the row times for
+ * every time extractor, together with the minimum and maximum time per
+ * extractor. When the watermark advances, segments whose maximum time is
+ * below the limit are freed at once and only the segments straddling the
+ * limit are scanned, using the time index alone.
+ * <p>
+ * The rows returned by the iterator are deserialized copies, so the buffer
+ * must not be used for the outer side of an outer join, which tracks the
+ * buffered rows by identity.
+ */
+class StreamToStreamJoinOffHeapBuffer extends StreamToStreamJoinBuffer {
+    static final int SEGMENT_SIZE = 1 << 20;
+
+    private final InternalSerializationService serializationService;
+    private final UnsafeMemoryAllocator malloc = new UnsafeMemoryAllocator();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final Collection<JetSqlRow> content = new AbstractCollection<>() {
+        @Nonnull
+        @Override
+        public Iterator<JetSqlRow> iterator() {
+            return StreamToStreamJoinOffHeapBuffer.this.iterator();
+        }
+
+        @Override
+        public int size() {
+            return StreamToStreamJoinOffHeapBuffer.this.size();
+        }
+    };
+    private int size;
+
+    StreamToStreamJoinOffHeapBuffer(
+            List<Map.Entry<Byte, ToLongFunctionEx<JetSqlRow>>> timeExtractors,
+            InternalSerializationService serializationService
+    ) {
+        super(timeExtractors);
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public void add(JetSqlRow row) {
+        byte[] bytes = serializationService.toData(row).toByteArray();
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.remaining() < bytes.length) {
+            tail = new Segment(Math.max(SEGMENT_SIZE, bytes.length), timeExtractors.size());
+            segments.add(tail);
+        }
+        int index = tail.append(bytes);
+        for (int i = 0; i < timeExtractors.size(); i++) {
+            tail.setTime(i, index, timeExtractors.get(i).getValue().applyAsLong(row));
+        }
+        size++;
+    }
+
+    @Override
+    public Iterator<JetSqlRow> iterator() {
+        return new RowIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    Collection<JetSqlRow> content() {
+        return content;
+    }
+
+    @Override
+    public void clearExpiredItems(long[] limits, @Nullable Consumer<JetSqlRow> clearedRowsConsumer) {
+        for (Iterator<Segment> it = segments.iterator(); it.hasNext(); ) {
+            Segment segment = it.next();
+            if (segment.isFullyExpired(limits)) {
+                // the whole segment is dropped without looking at the rows, unless they must be reported
+                if (clearedRowsConsumer != null) {
+                    for (int i = segment.removed.nextClearBit(0); i < segment.count;
+                         i = segment.removed.nextClearBit(i + 1)) {
+                        clearedRowsConsumer.accept(segment.read(i));
+                    }
+                }
+                size -= segment.live;
+                segment.free();
+                it.remove();
+            } else if (segment.isPartiallyExpired(limits)) {
+                size -= segment.clearExpired(limits, clearedRowsConsumer);
+                if (segment.live == 0) {
+                    segment.free();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (Segment segment : segments) {
+            segment.free();
+        }
+        segments.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of bytes of native memory held by the buffer.
+     */
+    long usedNativeMemory() {
+        return malloc.getUsedMemory();
+    }
+
+    private final class Segment {
+        private static final int INITIAL_INDEX_CAPACITY = 64;
+
+        private final long address;
+        private final int capacity;
+        private int position;
+
+        // the columnar index: row offsets and, for each time extractor, the row times
+        private int[] offsets = new int[INITIAL_INDEX_CAPACITY];
+        private final long[][] times;
+        private final long[] minTimes;
+        private final long[] maxTimes;
+        private final BitSet removed = new BitSet();
+        private int count;
+        private int live;
+
+        Segment(int capacity, int timeExtractorCount) {
+            this.address = malloc.allocate(capacity);
+            this.capacity = capacity;
+            this.times = new long[timeExtractorCount][INITIAL_INDEX_CAPACITY];
+            this.minTimes = new long[timeExtractorCount];
+            this.maxTimes = new long[timeExtractorCount];
+            Arrays.fill(minTimes, Long.MAX_VALUE);
+            Arrays.fill(maxTimes, Long.MIN_VALUE);
+        }
+
+        int remaining() {
+            return capacity - position;
+        }
+
+        int append(byte[] bytes) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                for (int i = 0; i < times.length; i++) {
+                    times[i] = Arrays.copyOf(times[i], count * 2);
+                }
+            }
+            MEM.copyFromByteArray(bytes, 0, address + position, bytes.length);
+            offsets[count] = position;
+            position += bytes.length;
+            live++;
+            return count++;
+        }
+
+        void setTime(int extractorIndex, int index, long time) {
+            times[extractorIndex][index] = time;
+            minTimes[extractorIndex] = Math.min(minTimes[extractorIndex], time);
+            maxTimes[extractorIndex] = Math.max(maxTimes[extractorIndex], time);
+        }
+
+        JetSqlRow read(int index) {
+            int end = index + 1 < count ? offsets[index + 1] : position;
+            byte[] bytes = new byte[end - offsets[index]];
+            MEM.copyToByteArray(address + offsets[index], bytes, 0, bytes.length);
+            return serializationService.toObject(new HeapData(bytes));
+        }
+
+        boolean isFullyExpired(long[] limits) {
+            for (int i = 0; i < limits.length; i++) {
+                if (maxTimes[i] < limits[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isPartiallyExpired(long[] limits) {
+            for (int i = 0; i < limits.length; i++) {
+                if (minTimes[i] < limits[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marks the rows with any time below its limit as removed and
+         * recalculates the minimum times of the remaining rows.
+         *
+         * @return the number of removed rows
+         */
+        int clearExpired(long[] limits, @Nullable Consumer<JetSqlRow> clearedRowsConsumer) {
+            int cleared = 0;
+            Arrays.fill(minTimes, Long.MAX_VALUE);
+            for (int row = removed.nextClearBit(0); row < count; row = removed.nextClearBit(row + 1)) {
+                if (isExpired(row, limits)) {
+                    if (clearedRowsConsumer != null) {
+                        clearedRowsConsumer.accept(read(row));
+                    }
+                    removed.set(row);
+                    cleared++;
+                } else {
+                    for (int i = 0; i < times.length; i++) {
+                        minTimes[i] = Math.min(minTimes[i], times[i][row]);
+                    }
+                }
+            }
+            live -= cleared;
+            return cleared;
+        }
+
+        private boolean isExpired(int row, long[] limits) {
+            for (int i = 0; i < limits.length; i++) {
+                if (times[i][row] < limits[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void free() {
+            malloc.free(address, capacity);
+        }
+    }
+
+    private final class RowIterator implements Iterator<JetSqlRow> {
+        private final Iterator<Segment> segmentIterator = segments.iterator();
+        private Segment segment;
+        private int nextRow;
+
+        RowIterator() {
+            advance(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return segment != null;
+        }
+
+        @Override
+        public JetSqlRow next() {
+            if (segment == null) {
+                throw new NoSuchElementException();
+            }
+            JetSqlRow row = segment.read(nextRow);
+            advance(nextRow + 1);
+            return row;
+        }
+
+        private void advance(int from) {
+            int row = segment != null ? segment.removed.nextClearBit(from) : Integer.MAX_VALUE;
+            while (segment == null || row >= segment.count) {
+                if (!segmentIterator.hasNext()) {
+                    segment = null;
+                    return;
+                }
+                segment = segmentIterator.next();
+                row = segment.removed.nextClearBit(0);
+            }
+            nextRow = row;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.impl.JetServiceBackend;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
 import com.hazelcast.jet.sql.impl.ExpressionUtil;
 import com.hazelcast.jet.sql.impl.JetJoinInfo;
@@ -66,6 +67,7 @@ import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
 import static com.hazelcast.jet.impl.util.Util.logLateEvent;
 import static com.hazelcast.jet.sql.impl.processors.StreamToStreamJoinP.StreamToStreamJoinBroadcastKeys.LAST_RECEIVED_WM_KEY;
 import static com.hazelcast.jet.sql.impl.processors.StreamToStreamJoinP.StreamToStreamJoinBroadcastKeys.WM_STATE_KEY;
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_STREAM_TO_STREAM_JOIN_OFF_HEAP_BUFFER_ENABLED;
 import static java.util.function.Function.identity;
 
 /**
@@ -177,6 +179,17 @@ public class StreamToStreamJoinP extends AbstractProcessor {
         processingGuarantee = context.processingGuarantee();
         processorIndex = context.globalProcessorIndex();
 
+        if (context instanceof ProcCtx procCtx
+                && procCtx.nodeEngine().getProperties().getBoolean(SQL_STREAM_TO_STREAM_JOIN_OFF_HEAP_BUFFER_ENABLED)) {
+            // the outer side keeps the on-heap buffer, unused rows are tracked by identity
+            for (int ordinal = 0; ordinal < buffer.length; ordinal++) {
+                if (ordinal != outerJoinSide) {
+                    buffer[ordinal] = new StreamToStreamJoinOffHeapBuffer(timeExtractors(ordinal),
+                            evalContext.getSerializationService());
+                }
+            }
+        }
+
         if (!joinInfo.isEquiJoin()) {
             JetServiceBackend jsb = getNodeEngine(context.hazelcastInstance()).getService(JetServiceBackend.SERVICE_NAME);
             int[] processorPartitionIds = context.processorPartitions();
@@ -460,6 +473,13 @@ public class StreamToStreamJoinP extends AbstractProcessor {
         }
     }
 
+    @Override
+    public void close() {
+        for (StreamToStreamJoinBuffer b : buffer) {
+            b.dispose();
+        }
+    }
+
     @Override
     public boolean closeIsCooperative() {
         return true;
@@ -505,8 +525,12 @@ public class StreamToStreamJoinP extends AbstractProcessor {
             limits[i] = wmState.getOrDefault(extractors.get(i).getKey(), Long.MIN_VALUE);
         }
 
+        if (outerJoinSide != ordinal) {
+            buffer[ordinal].clearExpiredItems(limits, null);
+            return;
+        }
         buffer[ordinal].clearExpiredItems(limits, row -> {
-            if (outerJoinSide == ordinal && unusedEventsTracker.remove(row)) {
+            if (unusedEventsTracker.remove(row)) {
                 // 5.4: If doing an outer join, emit events removed from the buffer,
                 // with `null`s for the other side, if the event was never joined.
                 JetSqlRow joinedRow = composeRowWithNulls(row, ordinal);
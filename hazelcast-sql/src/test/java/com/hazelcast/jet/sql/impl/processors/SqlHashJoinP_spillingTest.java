@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.processors;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.jet.sql.SqlTestSupport;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_DIRECTORY;
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_HASH_JOIN_SPILL_THRESHOLD;
+import static org.junit.Assert.assertArrayEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SqlHashJoinP_spillingTest extends SqlTestSupport {
+
+    private static final int MAX_ACCUMULATED_RECORDS = 200;
+
+    private static File spillDirectory;
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        spillDirectory = Files.createTempDirectory("hash-join-spill").toFile();
+        Config config = smallInstanceConfig()
+                .setProperty(SQL_HASH_JOIN_SPILL_THRESHOLD.getName(), "50")
+                .setProperty(JET_SPILL_DIRECTORY.getName(), spillDirectory.getAbsolutePath());
+        // without spilling, the build side wouldn't fit into the hash table
+        config.getJetConfig().setMaxProcessorAccumulatedRecords(MAX_ACCUMULATED_RECORDS);
+        initialize(1, config);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        delete(spillDirectory);
+    }
+
+    @Test
+    public void test_innerJoin() {
+        List<Row> expected = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            if (i % 2 == 0) {
+                expected.add(new Row(i, i / 2));
+            }
+        }
+
+        assertRowsAnyOrder("SELECT l.v, r.v FROM TABLE(generate_series(1, 3000)) l "
+                + "JOIN TABLE(generate_series(1, 2000)) r ON l.v = r.v * 2", expected);
+        assertArrayEquals(new String[0], spillDirectory.list());
+    }
+
+    @Test
+    public void test_leftJoin_withDuplicateKeys() {
+        List<Row> expected = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            if (i < 1000) {
+                for (int j = 0; j < 2000; j++) {
+                    if (j % 1000 == i) {
+                        expected.add(new Row(i, j));
+                    }
+                }
+            } else {
+                expected.add(new Row(i, null));
+            }
+        }
+
+        assertRowsAnyOrder("SELECT l.v, r.v FROM TABLE(generate_series(0, 1199)) l "
+                + "LEFT JOIN TABLE(generate_series(0, 1999)) r ON l.v = MOD(r.v, 1000)", expected);
+        assertArrayEquals(new String[0], spillDirectory.list());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.processors;
+
+import com.hazelcast.function.ToLongFunctionEx;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class StreamToStreamJoinOffHeapBufferTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private StreamToStreamJoinOffHeapBuffer buffer;
+
+    @After
+    public void after() {
+        if (buffer != null) {
+            buffer.dispose();
+            assertEquals(0, buffer.usedNativeMemory());
+        }
+    }
+
+    @Test
+    public void when_rowsExpire_then_wholeSegmentsAreReleased() {
+        buffer = new StreamToStreamJoinOffHeapBuffer(singletonList(timeExtractor(0)), ss);
+        int rowCount = 200_000;
+        for (long i = 0; i < rowCount; i++) {
+            buffer.add(row(i, "value-" + i));
+        }
+        long usedMemory = buffer.usedNativeMemory();
+        assertTrue(usedMemory > StreamToStreamJoinOffHeapBuffer.SEGMENT_SIZE);
+
+        buffer.clearExpiredItems(new long[]{rowCount - 10}, null);
+
+        assertEquals(10, buffer.size());
+        assertTrue(buffer.usedNativeMemory() < usedMemory);
+        List<Long> remaining = new ArrayList<>();
+        for (JetSqlRow row : buffer) {
+            remaining.add((Long) row.get(0));
+        }
+        assertEquals(asList(199_990L, 199_991L, 199_992L, 199_993L, 199_994L, 199_995L, 199_996L, 199_997L,
+                199_998L, 199_999L), remaining);
+    }
+
+    @Test
+    public void when_rowsOutOfOrder_then_onlyExpiredRowsCleared() {
+        buffer = new StreamToStreamJoinOffHeapBuffer(singletonList(timeExtractor(0)), ss);
+        buffer.add(row(5L, "a"));
+        buffer.add(row(1L, "b"));
+        buffer.add(row(7L, "c"));
+        buffer.add(row(3L, "d"));
+
+        List<JetSqlRow> cleared = new ArrayList<>();
+        buffer.clearExpiredItems(new long[]{4}, cleared::add);
+
+        assertEquals(asList(row(1L, "b"), row(3L, "d")), cleared);
+        assertEquals(asList(row(5L, "a"), row(7L, "c")), new ArrayList<>(buffer.content()));
+
+        buffer.clearExpiredItems(new long[]{6}, cleared::add);
+        assertEquals(singletonList(row(7L, "c")), new ArrayList<>(buffer.content()));
+        buffer.clearExpiredItems(new long[]{8}, null);
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.usedNativeMemory());
+    }
+
+    @Test
+    public void when_multipleTimeExtractors_then_rowRemovedIfAnyTimeExpired() {
+        buffer = new StreamToStreamJoinOffHeapBuffer(asList(timeExtractor(0), timeExtractor(1)), ss);
+        buffer.add(row(1L, 10L));
+        buffer.add(row(5L, 2L));
+        buffer.add(row(6L, 12L));
+
+        buffer.clearExpiredItems(new long[]{4, 5}, null);
+
+        assertEquals(singletonList(row(6L, 12L)), new ArrayList<>(buffer.content()));
+        assertEquals(1, buffer.size());
+    }
+
+    private JetSqlRow row(Object... values) {
+        return new JetSqlRow(ss, values);
+    }
+
+    private static Entry<Byte, ToLongFunctionEx<JetSqlRow>> timeExtractor(int index) {
+        return entry((byte) index, row -> (long) row.get(index));
+    }
+}
@@ -43,6 +43,8 @@ import static java.nio.channels.SelectionKey.OP_ACCEPT;
  */
 public final class NioAsyncServerSocket extends AsyncServerSocket {
 
+    static final int MAX_ACCEPTS_PER_SELECT = 64;
+
     private final ServerSocketChannel serverSocketChannel;
     private final NioReactor reactor;
     private final Thread eventloopThread;
@@ -157,7 +159,18 @@ public final class NioAsyncServerSocket extends AsyncServerSocket {
                 throw new CancelledKeyException();
             }
 
-            SocketChannel socketChannel = serverSocketChannel.accept();
+            // Accept all pending connections instead of a single one, so a burst of
+            // connections doesn't cost a select per connection.
+            for (int k = 0; k < MAX_ACCEPTS_PER_SELECT; k++) {
+                SocketChannel socketChannel = serverSocketChannel.accept();
+                if (socketChannel == null) {
+                    break;
+                }
+                accept(socketChannel);
+            }
+        }
+
+        private void accept(SocketChannel socketChannel) throws IOException {
             metrics.incAccepted();
             if (logger.isInfoEnabled()) {
                 logger.info(NioAsyncServerSocket.this + " accepted: " + socketChannel.getRemoteAddress()
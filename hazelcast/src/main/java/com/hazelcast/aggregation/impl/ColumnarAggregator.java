@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.nio.serialization.FieldKind;
+
+/**
+ * An aggregator which can accumulate the values of its attribute in
+ * batches of primitive values, without extracting and boxing them one
+ * by one. Used to aggregate the values of Compact fields read directly
+ * from the serialized form.
+ * <p>
+ * The result must be the same as if each value was accumulated with
+ * {@link com.hazelcast.aggregation.Aggregator#accumulate}, in the same
+ * order. The aggregator declares which field kinds it supports so that
+ * the values for which the per-entry path would fail or convert them
+ * differently are still accumulated by the per-entry path.
+ */
+public interface ColumnarAggregator {
+
+    /**
+     * Returns the attribute path of the aggregator, {@code null} if it
+     * aggregates the whole values.
+     */
+    String getAttributePath();
+
+    /**
+     * Returns {@code true} if the values of the given field kind can be
+     * accumulated by this aggregator in batches. The kind is one of {@link
+     * FieldKind#INT8}, {@link FieldKind#INT16}, {@link FieldKind#INT32},
+     * {@link FieldKind#INT64}, {@link FieldKind#FLOAT32} and {@link
+     * FieldKind#FLOAT64}.
+     */
+    boolean canAccumulateColumn(FieldKind kind);
+
+    /**
+     * Accumulates the first {@code length} values of an integral field kind.
+     * Called only for the kinds the aggregator {@linkplain
+     * #canAccumulateColumn supports}.
+     */
+    default void accumulateLongColumn(FieldKind kind, long[] values, int length) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can't accumulate " + kind);
+    }
+
+    /**
+     * Accumulates the first {@code length} values of a floating-point field
+     * kind. Called only for the kinds the aggregator {@linkplain
+     * #canAccumulateColumn supports}.
+     */
+    default void accumulateDoubleColumn(FieldKind kind, double[] values, int length) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can't accumulate " + kind);
+    }
+
+    /**
+     * Returns {@code true} if the kind is {@link FieldKind#INT8}, {@link
+     * FieldKind#INT16} or {@link FieldKind#INT32}.
+     */
+    static boolean isIntKind(FieldKind kind) {
+        return kind == FieldKind.INT8 || kind == FieldKind.INT16 || kind == FieldKind.INT32;
+    }
+
+    /**
+     * Returns {@code true} if the kind is an integral kind, including
+     * {@link FieldKind#INT64}.
+     */
+    static boolean isLongKind(FieldKind kind) {
+        return isIntKind(kind) || kind == FieldKind.INT64;
+    }
+
+    /**
+     * Returns {@code true} if the kind is {@link FieldKind#FLOAT32} or
+     * {@link FieldKind#FLOAT64}.
+     */
+    static boolean isFloatingPointKind(FieldKind kind) {
+        return kind == FieldKind.FLOAT32 || kind == FieldKind.FLOAT64;
+    }
+
+    /**
+     * Boxes the value as the type which the Compact reader returns for the
+     * field kind.
+     */
+    static Comparable<?> box(FieldKind kind, long value) {
+        return switch (kind) {
+            case INT8 -> (byte) value;
+            case INT16 -> (short) value;
+            case INT32 -> (int) value;
+            default -> value;
+        };
+    }
+
+    /**
+     * Boxes the value as the type which the Compact reader returns for the
+     * field kind.
+     */
+    static Comparable<?> box(FieldKind kind, double value) {
+        return kind == FieldKind.FLOAT32 ? (Comparable<?>) (float) value : (Comparable<?>) value;
+    }
+}
@@ -19,12 +19,14 @@ package com.hazelcast.aggregation.impl;
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
 import java.io.IOException;
 import java.util.Objects;
 
-public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long> implements IdentifiedDataSerializable {
+public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long>
+        implements IdentifiedDataSerializable, ColumnarAggregator {
     private long count;
 
     public CountAggregator() {
@@ -40,6 +42,21 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    @Override
+    public boolean canAccumulateColumn(FieldKind kind) {
+        return true;
+    }
+
+    @Override
+    public void accumulateLongColumn(FieldKind kind, long[] values, int length) {
+        count += length;
+    }
+
+    @Override
+    public void accumulateDoubleColumn(FieldKind kind, double[] values, int length) {
+        count += length;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
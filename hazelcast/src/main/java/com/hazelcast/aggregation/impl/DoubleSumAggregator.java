@@ -19,6 +19,7 @@ package com.hazelcast.aggregation.impl;
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Numbers;
 
@@ -26,7 +27,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private double sum;
 
@@ -43,6 +44,25 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    public boolean canAccumulateColumn(FieldKind kind) {
+        return ColumnarAggregator.isIntKind(kind) || ColumnarAggregator.isFloatingPointKind(kind);
+    }
+
+    @Override
+    public void accumulateLongColumn(FieldKind kind, long[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            sum += values[i];
+        }
+    }
+
+    @Override
+    public void accumulateDoubleColumn(FieldKind kind, double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            sum += values[i];
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
@@ -19,6 +19,7 @@ package com.hazelcast.aggregation.impl;
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Comparables;
 
@@ -26,7 +27,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class MaxAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private R max;
 
@@ -52,6 +53,35 @@ public final class MaxAggregator<I, R extends Comparable> extends AbstractAggreg
         return max == null || Comparables.compare(max, otherValue) < 0;
     }
 
+    @Override
+    public boolean canAccumulateColumn(FieldKind kind) {
+        return ColumnarAggregator.isLongKind(kind) || ColumnarAggregator.isFloatingPointKind(kind);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void accumulateLongColumn(FieldKind kind, long[] values, int length) {
+        long maxValue = values[0];
+        for (int i = 1; i < length; i++) {
+            if (values[i] > maxValue) {
+                maxValue = values[i];
+            }
+        }
+        accumulateExtracted(null, (R) ColumnarAggregator.box(kind, maxValue));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void accumulateDoubleColumn(FieldKind kind, double[] values, int length) {
+        double maxValue = values[0];
+        for (int i = 1; i < length; i++) {
+            if (Double.compare(values[i], maxValue) > 0) {
+                maxValue = values[i];
+            }
+        }
+        accumulateExtracted(null, (R) ColumnarAggregator.box(kind, maxValue));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
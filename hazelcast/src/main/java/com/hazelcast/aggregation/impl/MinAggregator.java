@@ -19,6 +19,7 @@ package com.hazelcast.aggregation.impl;
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Comparables;
 
@@ -26,7 +27,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class MinAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private R min;
 
@@ -52,6 +53,35 @@ public final class MinAggregator<I, R extends Comparable> extends AbstractAggreg
         return min == null || Comparables.compare(min, otherValue) > 0;
     }
 
+    @Override
+    public boolean canAccumulateColumn(FieldKind kind) {
+        return ColumnarAggregator.isLongKind(kind) || ColumnarAggregator.isFloatingPointKind(kind);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void accumulateLongColumn(FieldKind kind, long[] values, int length) {
+        long minValue = values[0];
+        for (int i = 1; i < length; i++) {
+            if (values[i] < minValue) {
+                minValue = values[i];
+            }
+        }
+        accumulateExtracted(null, (R) ColumnarAggregator.box(kind, minValue));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void accumulateDoubleColumn(FieldKind kind, double[] values, int length) {
+        double minValue = values[0];
+        for (int i = 1; i < length; i++) {
+            if (Double.compare(values[i], minValue) < 0) {
+                minValue = values[i];
+            }
+        }
+        accumulateExtracted(null, (R) ColumnarAggregator.box(kind, minValue));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
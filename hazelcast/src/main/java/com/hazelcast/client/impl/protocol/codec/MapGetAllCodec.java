@@ -110,4 +110,15 @@ public final class MapGetAllCodec {
         iterator.next();
         return EntryListCodec.decode(iterator, DataCodec::decode, DataCodec::decode);
     }
+
+    /**
+     * Passes the values for the provided keys to the consumer as they are
+     * decoded, without collecting them to a list.
+     */
+    public static void decodeResponse(ClientMessage clientMessage, java.util.function.BiConsumer<com.hazelcast.internal.serialization.Data, com.hazelcast.internal.serialization.Data> consumer) {
+        ClientMessage.ForwardFrameIterator iterator = clientMessage.frameIterator();
+        //empty initial frame
+        iterator.next();
+        EntryListCodec.decode(iterator, DataCodec::decode, DataCodec::decode, consumer);
+    }
 }
@@ -74,6 +74,25 @@ public final class EntryListCodec {
         return result;
     }
 
+    /**
+     * Decodes the entries straight into the {@code consumer}, without
+     * collecting them into a list of entries first.
+     */
+    public static <K, V> void decode(ClientMessage.ForwardFrameIterator iterator,
+                                     Function<ClientMessage.ForwardFrameIterator, K> decodeKeyFunc,
+                                     Function<ClientMessage.ForwardFrameIterator, V> decodeValueFunc,
+                                     BiConsumer<K, V> consumer) {
+        //begin frame, map
+        iterator.next();
+        while (!nextFrameIsDataStructureEndFrame(iterator)) {
+            K key = decodeKeyFunc.apply(iterator);
+            V value = decodeValueFunc.apply(iterator);
+            consumer.accept(key, value);
+        }
+        //end frame, map
+        iterator.next();
+    }
+
     public static <K, V> List<Map.Entry<K, V>> decodeNullable(ClientMessage.ForwardFrameIterator iterator,
                                                               Function<ClientMessage.ForwardFrameIterator, K> decodeKeyFunc,
                                                               Function<ClientMessage.ForwardFrameIterator, V> decodeValueFunc) {
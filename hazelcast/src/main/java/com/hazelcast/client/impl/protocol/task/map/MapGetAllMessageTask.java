@@ -75,7 +75,7 @@ public class MapGetAllMessageTask
 
     @Override
     protected ClientMessage encodeResponse(Object response) {
-        return MapGetAllCodec.encodeResponse(((MapEntries) response).entries());
+        return MapGetAllCodec.encodeResponse(((MapEntries) response).entriesView());
     }
 
     @Override
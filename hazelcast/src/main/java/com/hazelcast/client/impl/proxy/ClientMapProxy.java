@@ -1181,12 +1181,10 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
         for (Future<ClientMessage> future : futures) {
             try {
-                ClientMessage response = future.get();
-                List<Entry<Data, Data>> entries = MapGetAllCodec.decodeResponse(response);
-                for (Entry<Data, Data> entry : entries) {
-                    resultingKeyValuePairs.add(entry.getKey());
-                    resultingKeyValuePairs.add(entry.getValue());
-                }
+                MapGetAllCodec.decodeResponse(future.get(), (key, value) -> {
+                    resultingKeyValuePairs.add(key);
+                    resultingKeyValuePairs.add(value);
+                });
             } catch (Exception e) {
                 throw rethrow(e);
             }
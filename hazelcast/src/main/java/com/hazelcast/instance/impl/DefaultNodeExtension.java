@@ -45,6 +45,7 @@ import com.hazelcast.hotrestart.HotRestartService;
 import com.hazelcast.instance.BuildInfo;
 import com.hazelcast.instance.BuildInfoProvider;
 import com.hazelcast.instance.EndpointQualifier;
+import com.hazelcast.instance.ProtocolType;
 import com.hazelcast.internal.ascii.TextCommandService;
 import com.hazelcast.internal.ascii.TextCommandServiceImpl;
 import com.hazelcast.internal.cluster.ClusterStateListener;
@@ -139,6 +140,7 @@ import static com.hazelcast.config.InstanceTrackingConfig.InstanceTrackingProper
 import static com.hazelcast.config.InstanceTrackingConfig.InstanceTrackingProperties.START_TIMESTAMP;
 import static com.hazelcast.config.InstanceTrackingConfig.InstanceTrackingProperties.VERSION;
 import static com.hazelcast.cp.CPSubsystemStubImpl.CP_SUBSYSTEM_IS_NOT_AVAILABLE_IN_OS;
+import static com.hazelcast.internal.cluster.Versions.V6_0;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.InstanceTrackingUtil.writeInstanceTrackingFile;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
@@ -489,7 +491,12 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
                                                     ServerConnection connection, ServerContext serverContext) {
-        return new OutboundHandler[]{new PacketEncoder()};
+        // WAN targets may be on a different version, only the members of this cluster get batches
+        boolean batching = qualifier != null && qualifier.getType() == ProtocolType.MEMBER
+                && node.getProperties().getBoolean(ClusterProperty.IO_PACKET_BATCHING_ENABLED);
+        // members before 6.0 can't unpack a batch, so it's sent only once the cluster version is upgraded
+        return new OutboundHandler[]{new PacketEncoder(batching
+                ? () -> node.getClusterService().getClusterVersion().isGreaterOrEqual(V6_0) : null)};
     }
 
     @Override
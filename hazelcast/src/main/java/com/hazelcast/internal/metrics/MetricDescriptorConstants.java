@@ -124,6 +124,13 @@ public final class MetricDescriptorConstants {
     public static final String EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED = "eventsProcessed";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_LISTENER_COUNT = "listenerCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_PUBLICATION_COUNT = "publicationCount";
+    public static final String EVENT_DISCRIMINATOR_LISTENER = "listener";
+    public static final String EVENT_TAG_TOPIC = "topic";
+    public static final String EVENT_METRIC_LISTENER_QUEUE_SIZE = "listenerQueueSize";
+    public static final String EVENT_METRIC_LISTENER_QUEUE_LAG = "listenerQueueLag";
+    public static final String EVENT_METRIC_LISTENER_DELIVERED_COUNT = "listenerDeliveredCount";
+    public static final String EVENT_METRIC_LISTENER_DROPPED_COUNT = "listenerDroppedCount";
+    public static final String EVENT_METRIC_LISTENER_COALESCED_COUNT = "listenerCoalescedCount";
     // ===[/EVENT]======================================================
 
     // ===[EXECUTOR]====================================================
@@ -228,6 +235,18 @@ public final class MetricDescriptorConstants {
     public static final String MAP_METRIC_BACKUP_COUNT = "backupCount";
     public static final String MAP_METRIC_QUERY_COUNT = "queryCount";
     public static final String MAP_METRIC_INDEXED_QUERY_COUNT = "indexedQueryCount";
+    public static final String MAP_METRIC_MAP_STORE_BLOOM_FILTER_SKIPPED_LOAD_COUNT
+            = "mapStoreBloomFilterSkippedLoadCount";
+    public static final String MAP_METRIC_MAP_STORE_BLOOM_FILTER_FALSE_POSITIVE_COUNT
+            = "mapStoreBloomFilterFalsePositiveCount";
+    public static final String MAP_METRIC_MAP_STORE_BLOOM_FILTER_FALSE_POSITIVE_RATE
+            = "mapStoreBloomFilterFalsePositiveRate";
+    public static final String MAP_METRIC_WRITE_BEHIND_FLUSH_COUNT = "writeBehindFlushCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_TOTAL_FLUSH_LATENCY = "writeBehindTotalFlushLatency";
+    public static final String MAP_METRIC_WRITE_BEHIND_MAX_FLUSH_LATENCY = "writeBehindMaxFlushLatency";
+    public static final String MAP_METRIC_WRITE_BEHIND_BATCH_COUNT = "writeBehindBatchCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_BATCHED_ENTRY_COUNT = "writeBehindBatchedEntryCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_MAX_BATCH_SIZE = "writeBehindMaxBatchSize";
     public static final String MAP_METRIC_TOTAL_PUT_LATENCY = "totalPutLatency";
     public static final String MAP_METRIC_TOTAL_SET_LATENCY = "totalSetLatency";
     public static final String MAP_METRIC_TOTAL_GET_LATENCY = "totalGetLatency";
@@ -294,6 +313,9 @@ public final class MetricDescriptorConstants {
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_OPERATION_TIME = "totalElapsedMigrationOperationTime";
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_DESTINATION_COMMIT_TIME = "totalElapsedDestinationCommitTime";
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME = "totalElapsedMigrationTime";
+    public static final String MIGRATION_METRIC_TOTAL_MIGRATED_BYTES = "totalMigratedBytes";
+    public static final String MIGRATION_METRIC_TOTAL_MIGRATED_WIRE_BYTES = "totalMigratedWireBytes";
+    public static final String MIGRATION_METRIC_MIGRATION_THROUGHPUT = "migrationThroughput";
     // ===[/MIGRATION]==================================================
 
     // ===[MULTIMAP]====================================================
@@ -19,6 +19,8 @@ package com.hazelcast.internal.monitor.impl;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.map.impl.mapstore.MapStoreBloomFilter;
+import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindFlushStats;
 import com.hazelcast.nearcache.NearCacheStats;
 import com.hazelcast.query.LocalIndexStats;
 
@@ -43,6 +45,9 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LAST_ACCESS_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LAST_UPDATE_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOCKED_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MAP_STORE_BLOOM_FILTER_FALSE_POSITIVE_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MAP_STORE_BLOOM_FILTER_FALSE_POSITIVE_RATE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MAP_STORE_BLOOM_FILTER_SKIPPED_LOAD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MERKLE_TREES_COST;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_NUMBER_OF_EVENTS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_NUMBER_OF_OTHER_OPERATIONS;
@@ -62,8 +67,15 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_REMOVE_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_SET_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_VALUES_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_BATCHED_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_FLUSH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_MAX_BATCH_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_MAX_FLUSH_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_TOTAL_FLUSH_LATENCY;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
 import static com.hazelcast.internal.util.ConcurrencyUtil.setMax;
 import static com.hazelcast.internal.util.TimeUtil.convertNanosToMillis;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
@@ -189,6 +201,11 @@ public class LocalMapStatsImpl implements LocalMapStats {
     private volatile long queryCount;
     @Probe(name = MAP_METRIC_INDEXED_QUERY_COUNT)
     private volatile long indexedQueryCount;
+    @Probe(name = MAP_METRIC_MAP_STORE_BLOOM_FILTER_SKIPPED_LOAD_COUNT)
+    private volatile long mapStoreBloomFilterSkippedLoadCount;
+    @Probe(name = MAP_METRIC_MAP_STORE_BLOOM_FILTER_FALSE_POSITIVE_COUNT)
+    private volatile long mapStoreBloomFilterFalsePositiveCount;
+    private volatile WriteBehindFlushStats writeBehindFlushStats;
 
     private final boolean ignoreMemoryCosts;
 
@@ -322,6 +339,106 @@ public class LocalMapStatsImpl implements LocalMapStats {
         this.dirtyEntryCount = dirtyEntryCount;
     }
 
+    /**
+     * Returns the number of map store loads skipped since the Bloom filter
+     * proved the keys absent.
+     *
+     * @see com.hazelcast.spi.properties.ClusterProperty#MAP_LOAD_BLOOM_FILTER_ENABLED
+     */
+    public long getMapStoreBloomFilterSkippedLoadCount() {
+        return mapStoreBloomFilterSkippedLoadCount;
+    }
+
+    public void setMapStoreBloomFilterSkippedLoadCount(long mapStoreBloomFilterSkippedLoadCount) {
+        this.mapStoreBloomFilterSkippedLoadCount = mapStoreBloomFilterSkippedLoadCount;
+    }
+
+    /**
+     * Returns the number of map store loads of absent keys which the Bloom
+     * filter didn't prove absent.
+     */
+    public long getMapStoreBloomFilterFalsePositiveCount() {
+        return mapStoreBloomFilterFalsePositiveCount;
+    }
+
+    public void setMapStoreBloomFilterFalsePositiveCount(long mapStoreBloomFilterFalsePositiveCount) {
+        this.mapStoreBloomFilterFalsePositiveCount = mapStoreBloomFilterFalsePositiveCount;
+    }
+
+    /**
+     * Returns the observed false-positive rate of the Bloom filter in
+     * percents.
+     */
+    @Probe(name = MAP_METRIC_MAP_STORE_BLOOM_FILTER_FALSE_POSITIVE_RATE, unit = PERCENT)
+    public double getMapStoreBloomFilterFalsePositiveRate() {
+        return MapStoreBloomFilter.falsePositiveRate(mapStoreBloomFilterFalsePositiveCount,
+                mapStoreBloomFilterSkippedLoadCount);
+    }
+
+    public void setWriteBehindFlushStats(WriteBehindFlushStats writeBehindFlushStats) {
+        this.writeBehindFlushStats = writeBehindFlushStats;
+    }
+
+    /**
+     * Returns the number of write-behind flushes of the map on this member
+     * which stored at least one entry.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_FLUSH_COUNT)
+    public long getWriteBehindFlushCount() {
+        WriteBehindFlushStats stats = writeBehindFlushStats;
+        return stats != null ? stats.getFlushCount() : 0;
+    }
+
+    /**
+     * Returns the total time spent in write-behind flushes in milliseconds.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_TOTAL_FLUSH_LATENCY, unit = MS)
+    public long getWriteBehindTotalFlushLatency() {
+        WriteBehindFlushStats stats = writeBehindFlushStats;
+        return stats != null ? stats.getTotalFlushLatencyMillis() : 0;
+    }
+
+    /**
+     * Returns the duration of the longest write-behind flush in milliseconds.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_MAX_FLUSH_LATENCY, unit = MS)
+    public long getWriteBehindMaxFlushLatency() {
+        WriteBehindFlushStats stats = writeBehindFlushStats;
+        return stats != null ? stats.getMaxFlushLatencyMillis() : 0;
+    }
+
+    /**
+     * Returns the number of batches stored by the write-behind flush
+     * pipeline.
+     *
+     * @see com.hazelcast.spi.properties.ClusterProperty#MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_BATCH_COUNT)
+    public long getWriteBehindBatchCount() {
+        WriteBehindFlushStats stats = writeBehindFlushStats;
+        return stats != null ? stats.getBatchCount() : 0;
+    }
+
+    /**
+     * Returns the total number of entries in the batches stored by the
+     * write-behind flush pipeline.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_BATCHED_ENTRY_COUNT)
+    public long getWriteBehindBatchedEntryCount() {
+        WriteBehindFlushStats stats = writeBehindFlushStats;
+        return stats != null ? stats.getBatchedEntryCount() : 0;
+    }
+
+    /**
+     * Returns the size of the largest batch stored by the write-behind flush
+     * pipeline.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_MAX_BATCH_SIZE)
+    public long getWriteBehindMaxBatchSize() {
+        WriteBehindFlushStats stats = writeBehindFlushStats;
+        return stats != null ? stats.getMaxBatchSize() : 0;
+    }
+
     @Override
     public long getPutOperationCount() {
         return putCount;
@@ -609,6 +726,9 @@ public class LocalMapStatsImpl implements LocalMapStats {
                 + ", nearCacheStats=" + (nearCacheStats != null ? nearCacheStats : "")
                 + ", queryCount=" + queryCount
                 + ", indexedQueryCount=" + indexedQueryCount
+                + ", mapStoreBloomFilterSkippedLoadCount=" + mapStoreBloomFilterSkippedLoadCount
+                + ", mapStoreBloomFilterFalsePositiveCount=" + mapStoreBloomFilterFalsePositiveCount
+                + ", writeBehindFlushStats=" + writeBehindFlushStats
                 + ", indexStats=" + indexStats
                 + ", replicationStats=" + replicationStats
                 + '}';
@@ -23,6 +23,7 @@ import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.SegmentedNativeNearCacheRecordStore;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.nearcache.NearCacheStats;
@@ -34,8 +35,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.config.NearCacheConfig.DEFAULT_MEMORY_FORMAT;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
 import static com.hazelcast.internal.util.Preconditions.checkInstanceOf;
 import static com.hazelcast.internal.util.Preconditions.checkNotInstanceOf;
+import static com.hazelcast.spi.properties.ClusterProperty.NEAR_CACHE_NATIVE_STORAGE_NAMES;
+import static com.hazelcast.spi.properties.ClusterProperty.NEAR_CACHE_PRELOADER_SNAPSHOT_ENABLED;
 
 public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
@@ -89,16 +93,30 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         if (inMemoryFormat == null) {
             inMemoryFormat = DEFAULT_MEMORY_FORMAT;
         }
+        boolean snapshotEnabled = properties != null && properties.getBoolean(NEAR_CACHE_PRELOADER_SNAPSHOT_ENABLED);
         switch (inMemoryFormat) {
             case BINARY:
-                return new NearCacheDataRecordStore<>(name, nearCacheConfig, serializationService, classLoader);
+                if (isNativeStorageConfigured()) {
+                    return new SegmentedNativeNearCacheRecordStore<>(name, nearCacheConfig, serializationService,
+                            classLoader, snapshotEnabled);
+                }
+                return new NearCacheDataRecordStore<>(name, nearCacheConfig, serializationService, classLoader,
+                        snapshotEnabled);
             case OBJECT:
-                return new NearCacheObjectRecordStore<>(name, nearCacheConfig, serializationService, classLoader);
+                return new NearCacheObjectRecordStore<>(name, nearCacheConfig, serializationService, classLoader,
+                        snapshotEnabled);
             default:
                 throw new IllegalArgumentException("Invalid in memory format: " + inMemoryFormat);
         }
     }
 
+    private boolean isNativeStorageConfigured() {
+        if (properties == null || !MEM_AVAILABLE) {
+            return false;
+        }
+        return properties.containsName(NEAR_CACHE_NATIVE_STORAGE_NAMES, name, nearCacheConfig.getName());
+    }
+
     private ScheduledFuture createAndScheduleExpirationTask() {
         if (nearCacheConfig.getMaxIdleSeconds() > 0L
                 || nearCacheConfig.getTimeToLiveSeconds() > 0L) {
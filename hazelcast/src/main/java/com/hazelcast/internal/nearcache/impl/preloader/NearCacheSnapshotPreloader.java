@@ -0,0 +1,834 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.Timer;
+import com.hazelcast.internal.util.collection.InflatableSet;
+import com.hazelcast.internal.util.collection.InflatableSet.Builder;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.memory.MemoryUnit;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
+import static com.hazelcast.internal.nio.IOUtil.rename;
+import static com.hazelcast.internal.nio.IOUtil.toFileName;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Loads and stores the entries of a Near Cache into a memory-mapped snapshot
+ * file, as an alternative to the key file of {@link NearCachePreloader}.
+ * <p>
+ * The snapshot is a log of runs, one per store. A run contains a partition
+ * record for each stored partition, with the invalidation metadata ({@link
+ * MetaDataContainer} UUID and sequence) taken before the entries of the
+ * partition were read, and an entry record with the serialized key and value
+ * of each entry. The entries are written straight into the file while the
+ * Near Cache is iterated, so they are never copied to the heap as a whole.
+ * The first store after a start rewrites the whole file, later stores append
+ * a run with the partitions which changed since the previous store; the
+ * latest run of a partition replaces the previous ones. The file is rewritten
+ * once the appended runs outgrow the last full snapshot.
+ * <p>
+ * The file is mapped in windows of a fixed size, so its size is not limited
+ * by the maximum size of a single mapped region.
+ * <p>
+ * On load, the entries of the partitions whose invalidation metadata still
+ * matches the metadata fetched from the cluster are put into the Near Cache
+ * locally. The keys of the other partitions are fetched via {@link
+ * DataStructureAdapter#getAll}, the same way {@link NearCachePreloader}
+ * does. Without invalidation metadata, i.e. when the Near Cache doesn't
+ * receive invalidations, all keys are fetched.
+ */
+public class NearCacheSnapshotPreloader {
+
+    /**
+     * Magic bytes for the file header.
+     */
+    private static final int MAGIC_BYTES = 0xEA3CAC4F;
+
+    /**
+     * File format for the file header.
+     */
+    private static final int FILE_FORMAT_PARTITION_RUNS = 1;
+
+    private static final int COMMITTED_LENGTH_OFFSET = 2 * INT_SIZE_IN_BYTES;
+    private static final int HEADER_SIZE = COMMITTED_LENGTH_OFFSET + 2 * LONG_SIZE_IN_BYTES;
+
+    /**
+     * Record types: the start of a run, the metadata of a partition and an entry.
+     */
+    private static final byte RECORD_RUN = 1;
+    private static final byte RECORD_PARTITION = 2;
+    private static final byte RECORD_ENTRY = 3;
+
+    /**
+     * Size of the mapped windows of the snapshot file.
+     */
+    private static final int WINDOW_SIZE = (int) MemoryUnit.MEGABYTES.toBytes(64);
+
+    /**
+     * The file is rewritten when it grows beyond this factor of the last full snapshot.
+     */
+    private static final int COMPACTION_FACTOR = 2;
+
+    /**
+     * Batch size for the keys fetched via {@link DataStructureAdapter#getAll}.
+     */
+    private static final int LOAD_BATCH_SIZE = 100;
+
+    private final ILogger logger = Logger.getLogger(NearCacheSnapshotPreloader.class);
+
+    private final String nearCacheName;
+    private final NearCacheStatsImpl nearCacheStats;
+    private final SerializationService serializationService;
+    private final int windowSize;
+
+    private final NearCachePreloaderLock lock;
+    private final File storeFile;
+    private final File tmpStoreFile;
+
+    private final Set<Integer> dirtyPartitions = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, PartitionMetaData> storedPartitions = new HashMap<>();
+
+    private volatile boolean fullSnapshotRequired = true;
+    private long lastFullSnapshotLength;
+
+    public NearCacheSnapshotPreloader(String nearCacheName, NearCachePreloaderConfig preloaderConfig,
+                                      NearCacheStatsImpl nearCacheStats, SerializationService serializationService) {
+        this(nearCacheName, preloaderConfig, nearCacheStats, serializationService, WINDOW_SIZE);
+    }
+
+    NearCacheSnapshotPreloader(String nearCacheName, NearCachePreloaderConfig preloaderConfig,
+                               NearCacheStatsImpl nearCacheStats, SerializationService serializationService,
+                               int windowSize) {
+        this.nearCacheName = nearCacheName;
+        this.nearCacheStats = nearCacheStats;
+        this.serializationService = serializationService;
+        this.windowSize = windowSize;
+
+        String filename = getFilename(preloaderConfig.getDirectory(), nearCacheName);
+        this.lock = new NearCachePreloaderLock(logger, filename + ".lock");
+        this.storeFile = new File(filename);
+        this.tmpStoreFile = new File(filename + "~");
+    }
+
+    public void destroy() {
+        lock.release();
+    }
+
+    /**
+     * Marks the entries of the given partition as changed since the last
+     * store, so they are written by the next incremental store.
+     *
+     * @param partitionId the partition ID of the changed record
+     */
+    public void markChanged(int partitionId) {
+        if (!dirtyPartitions.contains(partitionId)) {
+            dirtyPartitions.add(partitionId);
+        }
+    }
+
+    /**
+     * Makes the next store write a full snapshot, e.g. after the Near Cache
+     * was cleared.
+     */
+    public void markAllChanged() {
+        fullSnapshotRequired = true;
+    }
+
+    /**
+     * Loads the stored entries into the Near Cache.
+     *
+     * @param detector the {@link StaleReadDetector} of the Near Cache, it has
+     *                 to be initialized with the metadata of the cluster
+     * @param adapter  the {@link DataStructureAdapter} to fetch the entries of
+     *                 the stale partitions from
+     * @param loader   puts the entries of the up-to-date partitions into the
+     *                 Near Cache
+     */
+    public synchronized void load(StaleReadDetector detector, DataStructureAdapter<Object, ?> adapter,
+                                  EntryLoader loader) {
+        if (!storeFile.exists()) {
+            logger.info(format("Skipped loading entries of Near Cache %s since snapshot file doesn't exist (%s)",
+                    nearCacheName, storeFile.getAbsolutePath()));
+            return;
+        }
+
+        long startedNanos = Timer.nanos();
+        try (FileChannel channel = FileChannel.open(storeFile.toPath(), READ);
+             WindowedReader reader = new WindowedReader(channel, channel.size(), windowSize)) {
+            if (!checkHeader(reader, channel.size())) {
+                return;
+            }
+            LoadResult result = loadRuns(reader, detector, adapter, loader);
+
+            logger.info(format("Loaded %d entries of Near Cache %s from snapshot and fetched %d keys of %d stale"
+                            + " partitions in %d ms", result.localEntries, nearCacheName, result.fetchedKeys,
+                    result.stalePartitions, Timer.millisElapsed(startedNanos)));
+        } catch (Exception e) {
+            logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Stores the entries of the Near Cache, either as a full snapshot or by
+     * appending the partitions which changed since the last store.
+     * <p>
+     * The entries are written into the snapshot file while the given source
+     * passes them, so the source should pass them in small chunks, e.g. one
+     * segment at a time.
+     *
+     * @param detector the {@link StaleReadDetector} of the Near Cache
+     * @param source   passes the entries of the Near Cache to the given
+     *                 {@link EntryCollector}
+     */
+    public synchronized void store(StaleReadDetector detector, Consumer<EntryCollector> source) {
+        long startedNanos = Timer.nanos();
+        try {
+            boolean fullSnapshot = isFullSnapshotRequired(detector);
+            Collector collector;
+            if (fullSnapshot) {
+                fullSnapshotRequired = false;
+                dirtyPartitions.clear();
+                collector = writeFullSnapshot(new Collector(detector, null), source);
+            } else {
+                collector = appendRun(new Collector(detector, changedPartitions(detector)), source);
+            }
+            updateStoredPartitions(collector);
+            updatePersistenceStats(startedNanos, collector, fullSnapshot);
+        } catch (Exception e) {
+            logger.warning(format("Could not store entries of Near Cache %s (%s)", nearCacheName,
+                    storeFile.getAbsolutePath()), e);
+
+            fullSnapshotRequired = true;
+            nearCacheStats.addPersistenceFailure(e);
+        } finally {
+            deleteQuietly(tmpStoreFile);
+        }
+    }
+
+    private boolean isFullSnapshotRequired(StaleReadDetector detector) {
+        if (fullSnapshotRequired || detector == ALWAYS_FRESH || !storeFile.exists()) {
+            return true;
+        }
+        return storeFile.length() > COMPACTION_FACTOR * lastFullSnapshotLength;
+    }
+
+    /**
+     * Returns the partitions with changed records and the stored partitions
+     * which received invalidations since they were stored.
+     */
+    private Set<Integer> changedPartitions(StaleReadDetector detector) {
+        Set<Integer> partitions = new HashSet<>();
+        for (Iterator<Integer> iterator = dirtyPartitions.iterator(); iterator.hasNext(); ) {
+            partitions.add(iterator.next());
+            iterator.remove();
+        }
+        for (Map.Entry<Integer, PartitionMetaData> entry : storedPartitions.entrySet()) {
+            if (!entry.getValue().matches(detector.getMetaDataContainer(entry.getKey()))) {
+                partitions.add(entry.getKey());
+            }
+        }
+        return partitions;
+    }
+
+    private Collector writeFullSnapshot(Collector collector, Consumer<EntryCollector> source) throws IOException {
+        storedPartitions.clear();
+        long length;
+        try (FileChannel channel = FileChannel.open(tmpStoreFile.toPath(), CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            try (WindowedWriter writer = new WindowedWriter(channel, 0, windowSize)) {
+                writer.putInt(MAGIC_BYTES);
+                writer.putInt(FILE_FORMAT_PARTITION_RUNS);
+                writer.putLong(0);
+                writer.putLong(0);
+                collector.start(writer);
+                source.accept(collector);
+                length = writer.position();
+            }
+            commit(channel, length);
+        }
+
+        if (collector.entryCount == 0) {
+            deleteQuietly(storeFile);
+            lastFullSnapshotLength = 0;
+        } else {
+            rename(tmpStoreFile, storeFile);
+            lastFullSnapshotLength = length;
+        }
+        return collector;
+    }
+
+    private Collector appendRun(Collector collector, Consumer<EntryCollector> source) throws IOException {
+        if (collector.partitionIds.isEmpty()) {
+            return collector;
+        }
+
+        try (FileChannel channel = FileChannel.open(storeFile.toPath(), READ, WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(LONG_SIZE_IN_BYTES);
+            channel.read(header, COMMITTED_LENGTH_OFFSET);
+            long length;
+            try (WindowedWriter writer = new WindowedWriter(channel, header.flip().getLong(), windowSize)) {
+                collector.start(writer);
+                source.accept(collector);
+                length = writer.position();
+            }
+            // the appended run becomes visible once the committed length is updated
+            commit(channel, length);
+        }
+        return collector;
+    }
+
+    /**
+     * Updates the committed length in the header and cuts off the unused
+     * rest of the last mapped window.
+     */
+    private static void commit(FileChannel channel, long length) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LONG_SIZE_IN_BYTES).putLong(length).flip();
+        channel.write(header, COMMITTED_LENGTH_OFFSET);
+        channel.truncate(length);
+        channel.force(false);
+    }
+
+    private void updateStoredPartitions(Collector collector) {
+        for (Map.Entry<Integer, CollectedPartition> entry : collector.partitions.entrySet()) {
+            CollectedPartition partition = entry.getValue();
+            if (partition.entryCount == 0 || partition.metaData.uuid == null) {
+                storedPartitions.remove(entry.getKey());
+            } else {
+                storedPartitions.put(entry.getKey(), partition.metaData);
+            }
+        }
+    }
+
+    private boolean checkHeader(WindowedReader reader, long fileLength) {
+        if (fileLength < HEADER_SIZE || reader.getInt() != MAGIC_BYTES) {
+            logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName,
+                    storeFile.getAbsolutePath()));
+            return false;
+        }
+        if (reader.getInt() != FILE_FORMAT_PARTITION_RUNS) {
+            logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
+                    storeFile.getAbsolutePath()));
+            return false;
+        }
+        long committedLength = reader.getLong();
+        if (committedLength < HEADER_SIZE || committedLength > fileLength) {
+            logger.warning(format("Found invalid length for Near Cache %s (%s)", nearCacheName,
+                    storeFile.getAbsolutePath()));
+            return false;
+        }
+        reader.limit(committedLength);
+        return true;
+    }
+
+    private LoadResult loadRuns(WindowedReader reader, StaleReadDetector detector, DataStructureAdapter<Object, ?> adapter,
+                                EntryLoader loader) throws IOException {
+        // the latest run of each partition replaces the previous ones
+        Map<Integer, StoredPartition> latestRuns = new HashMap<>();
+        int run = -1;
+        reader.position(HEADER_SIZE);
+        while (reader.hasRemaining()) {
+            byte recordType = reader.getByte();
+            switch (recordType) {
+                case RECORD_RUN -> run++;
+                case RECORD_PARTITION -> {
+                    int partitionId = reader.getInt();
+                    PartitionMetaData metaData = readMetaData(reader);
+                    boolean upToDate = detector != ALWAYS_FRESH
+                            && metaData.matches(detector.getMetaDataContainer(partitionId));
+                    latestRuns.put(partitionId, new StoredPartition(run, upToDate));
+                }
+                case RECORD_ENTRY -> skipEntry(reader);
+                default -> throw new IOException("Found invalid record type " + recordType + " at " + reader.position());
+            }
+        }
+
+        LoadResult result = new LoadResult();
+        Builder<Object> keysToFetch = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+        run = -1;
+        reader.position(HEADER_SIZE);
+        while (reader.hasRemaining()) {
+            byte recordType = reader.getByte();
+            if (recordType == RECORD_RUN) {
+                run++;
+                continue;
+            } else if (recordType == RECORD_PARTITION) {
+                reader.skip(INT_SIZE_IN_BYTES + PartitionMetaData.SIZE);
+                continue;
+            }
+            StoredPartition partition = latestRuns.get(reader.getInt());
+            if (partition == null || partition.run != run) {
+                skipKeyValue(reader);
+                continue;
+            }
+            Data key = new HeapData(readBytes(reader));
+            Data value = new HeapData(readBytes(reader));
+            long creationTime = reader.getLong();
+            if (partition.upToDate && loader.load(key, value, creationTime)) {
+                result.localEntries++;
+                continue;
+            }
+            if (!partition.upToDate && !partition.counted) {
+                partition.counted = true;
+                result.stalePartitions++;
+            }
+            keysToFetch.add(serializationService.toObject(key));
+            result.fetchedKeys++;
+            if (keysToFetch.size() == LOAD_BATCH_SIZE) {
+                adapter.getAll(keysToFetch.build());
+                keysToFetch = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+            }
+        }
+        if (keysToFetch.size() > 0) {
+            adapter.getAll(keysToFetch.build());
+        }
+        return result;
+    }
+
+    private void updatePersistenceStats(long startedNanos, Collector collector, boolean fullSnapshot) {
+        long elapsedMillis = Timer.millisElapsed(startedNanos);
+        long size = collector.size();
+        nearCacheStats.addPersistence(elapsedMillis, (int) Math.min(size, Integer.MAX_VALUE), collector.entryCount);
+
+        logger.info(format("Stored %d entries of %d partitions of Near Cache %s in %d ms (%d kB, %s)",
+                collector.entryCount, collector.partitions.size(), nearCacheName, elapsedMillis,
+                MemoryUnit.BYTES.toKiloBytes(size), fullSnapshot ? "full snapshot" : "incremental"));
+    }
+
+    private static PartitionMetaData readMetaData(WindowedReader reader) {
+        boolean hasUuid = reader.getByte() != 0;
+        long mostSigBits = reader.getLong();
+        long leastSigBits = reader.getLong();
+        long sequence = reader.getLong();
+        return new PartitionMetaData(hasUuid ? new UUID(mostSigBits, leastSigBits) : null, sequence);
+    }
+
+    private static void skipEntry(WindowedReader reader) {
+        reader.skip(INT_SIZE_IN_BYTES);
+        skipKeyValue(reader);
+    }
+
+    private static void skipKeyValue(WindowedReader reader) {
+        reader.skip(reader.getInt());
+        reader.skip(reader.getInt());
+        reader.skip(LONG_SIZE_IN_BYTES);
+    }
+
+    private static byte[] readBytes(WindowedReader reader) {
+        byte[] bytes = new byte[reader.getInt()];
+        reader.get(bytes);
+        return bytes;
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        // release the mapping eagerly, so the file can be renamed, truncated or deleted on all platforms
+        if (buffer != null && UNSAFE_AVAILABLE) {
+            UNSAFE.invokeCleaner(buffer);
+        }
+    }
+
+    private static String getFilename(String directory, String nearCacheName) {
+        String filename = toFileName("nearCache-" + nearCacheName + ".snapshot");
+        if (isNullOrEmpty(directory)) {
+            return filename;
+        }
+        return Paths.get(directory, filename).toString();
+    }
+
+    /**
+     * Collects the entries of a Near Cache for {@link #store}.
+     */
+    public interface EntryCollector {
+
+        /**
+         * Returns whether the entries of the given partition are collected.
+         * Has to be called before the value of each entry is read, so the
+         * invalidation metadata of the partition is taken before its entries.
+         *
+         * @param partitionId the partition ID of the record
+         * @return {@code true} if the entry should be passed to {@link #collect}
+         */
+        boolean isCollected(int partitionId);
+
+        /**
+         * Collects an up-to-date entry of the Near Cache. The entry is
+         * written into the snapshot file before this method returns.
+         *
+         * @param partitionId  the partition ID of the record
+         * @param key          the serialized key
+         * @param value        the serialized value
+         * @param creationTime the creation time of the record
+         */
+        void collect(int partitionId, Data key, Data value, long creationTime);
+    }
+
+    /**
+     * Puts the entries of up-to-date partitions into the Near Cache on {@link #load}.
+     */
+    @FunctionalInterface
+    public interface EntryLoader {
+
+        /**
+         * @param key          the serialized key
+         * @param value        the serialized value
+         * @param creationTime the creation time of the stored record
+         * @return {@code true} if the entry was put into the Near Cache,
+         * {@code false} if it has to be fetched from the cluster
+         */
+        boolean load(Data key, Data value, long creationTime);
+    }
+
+    /**
+     * Writes the run of a store into the snapshot file.
+     */
+    private static final class Collector implements EntryCollector {
+
+        private final StaleReadDetector detector;
+        private final Set<Integer> partitionIds;
+        private final Map<Integer, CollectedPartition> partitions = new HashMap<>();
+
+        private WindowedWriter writer;
+        private long startPosition;
+        private int entryCount;
+
+        /**
+         * @param partitionIds the partitions to collect or {@code null} to collect all
+         */
+        Collector(StaleReadDetector detector, Set<Integer> partitionIds) {
+            this.detector = detector;
+            this.partitionIds = partitionIds;
+        }
+
+        void start(WindowedWriter writer) {
+            this.writer = writer;
+            this.startPosition = writer.position();
+            writer.putByte(RECORD_RUN);
+            if (partitionIds != null) {
+                // write the changed partitions even if all their entries were removed
+                for (int partitionId : partitionIds) {
+                    addPartition(partitionId);
+                }
+            }
+        }
+
+        @Override
+        public boolean isCollected(int partitionId) {
+            if (partitions.containsKey(partitionId)) {
+                return true;
+            }
+            if (partitionIds != null) {
+                return false;
+            }
+            addPartition(partitionId);
+            return true;
+        }
+
+        @Override
+        public void collect(int partitionId, Data key, Data value, long creationTime) {
+            CollectedPartition partition = partitions.get(partitionId);
+            if (partition == null) {
+                return;
+            }
+            writer.putByte(RECORD_ENTRY);
+            writer.putInt(partitionId);
+            writer.putBytes(key.toByteArray());
+            writer.putBytes(value.toByteArray());
+            writer.putLong(creationTime);
+            partition.entryCount++;
+            entryCount++;
+        }
+
+        long size() {
+            return writer == null ? 0 : writer.position() - startPosition;
+        }
+
+        private void addPartition(int partitionId) {
+            MetaDataContainer container = detector == ALWAYS_FRESH ? null : detector.getMetaDataContainer(partitionId);
+            PartitionMetaData metaData = container == null
+                    ? new PartitionMetaData(null, 0)
+                    : new PartitionMetaData(container.getUuid(), container.getSequence());
+            partitions.put(partitionId, new CollectedPartition(metaData));
+
+            writer.putByte(RECORD_PARTITION);
+            writer.putInt(partitionId);
+            writer.putByte((byte) (metaData.uuid != null ? 1 : 0));
+            writer.putLong(metaData.uuid != null ? metaData.uuid.getMostSignificantBits() : 0);
+            writer.putLong(metaData.uuid != null ? metaData.uuid.getLeastSignificantBits() : 0);
+            writer.putLong(metaData.sequence);
+        }
+    }
+
+    /**
+     * Writes sequentially into a file, mapping it window by window from the
+     * given position on. The file grows to the end of the last window, so it
+     * has to be truncated to the written length afterwards.
+     */
+    private static final class WindowedWriter implements Closeable {
+
+        private final FileChannel channel;
+        private final int windowSize;
+
+        private MappedByteBuffer window;
+        private long position;
+
+        WindowedWriter(FileChannel channel, long position, int windowSize) {
+            this.channel = channel;
+            this.position = position;
+            this.windowSize = windowSize;
+        }
+
+        long position() {
+            return position;
+        }
+
+        void putByte(byte value) {
+            window(BYTE_SIZE_IN_BYTES).put(value);
+            position += BYTE_SIZE_IN_BYTES;
+        }
+
+        void putInt(int value) {
+            window(INT_SIZE_IN_BYTES).putInt(value);
+            position += INT_SIZE_IN_BYTES;
+        }
+
+        void putLong(long value) {
+            window(LONG_SIZE_IN_BYTES).putLong(value);
+            position += LONG_SIZE_IN_BYTES;
+        }
+
+        /**
+         * Writes the length and the bytes of the given array, the bytes may
+         * span several windows.
+         */
+        void putBytes(byte[] bytes) {
+            putInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                MappedByteBuffer buffer = window(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+                position += length;
+            }
+        }
+
+        private MappedByteBuffer window(int bytes) {
+            if (window == null || window.remaining() < bytes) {
+                release();
+                try {
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, position, windowSize);
+                } catch (IOException e) {
+                    throw rethrow(e);
+                }
+            }
+            return window;
+        }
+
+        private void release() {
+            if (window != null) {
+                window.force();
+                unmap(window);
+                window = null;
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+    /**
+     * Reads a file up to a limit, mapping it window by window around the
+     * read position.
+     */
+    private static final class WindowedReader implements Closeable {
+
+        private final FileChannel channel;
+        private final int windowSize;
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+        private long limit;
+
+        WindowedReader(FileChannel channel, long limit, int windowSize) {
+            this.channel = channel;
+            this.limit = limit;
+            this.windowSize = windowSize;
+        }
+
+        long position() {
+            return position;
+        }
+
+        void position(long position) {
+            this.position = position;
+        }
+
+        void limit(long limit) {
+            this.limit = limit;
+        }
+
+        boolean hasRemaining() {
+            return position < limit;
+        }
+
+        void skip(long bytes) {
+            position += bytes;
+        }
+
+        byte getByte() {
+            byte value = window(BYTE_SIZE_IN_BYTES).get();
+            position += BYTE_SIZE_IN_BYTES;
+            return value;
+        }
+
+        int getInt() {
+            int value = window(INT_SIZE_IN_BYTES).getInt();
+            position += INT_SIZE_IN_BYTES;
+            return value;
+        }
+
+        long getLong() {
+            long value = window(LONG_SIZE_IN_BYTES).getLong();
+            position += LONG_SIZE_IN_BYTES;
+            return value;
+        }
+
+        /**
+         * Reads the bytes of the given array, they may span several windows.
+         */
+        void get(byte[] bytes) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                MappedByteBuffer buffer = window(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.get(bytes, offset, length);
+                offset += length;
+                position += length;
+            }
+        }
+
+        private MappedByteBuffer window(int bytes) {
+            if (position + bytes > limit) {
+                throw new IllegalStateException("Read beyond the committed length of the snapshot at " + position);
+            }
+            if (window == null || position < windowStart || position + bytes > windowStart + window.capacity()) {
+                unmap(window);
+                windowStart = position;
+                try {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                            Math.min(windowSize, limit - windowStart));
+                } catch (IOException e) {
+                    throw rethrow(e);
+                }
+            }
+            window.position((int) (position - windowStart));
+            return window;
+        }
+
+        @Override
+        public void close() {
+            unmap(window);
+            window = null;
+        }
+    }
+
+    private static final class CollectedPartition {
+
+        private final PartitionMetaData metaData;
+        private int entryCount;
+
+        CollectedPartition(PartitionMetaData metaData) {
+            this.metaData = metaData;
+        }
+    }
+
+    private static final class StoredPartition {
+
+        private final int run;
+        private final boolean upToDate;
+        private boolean counted;
+
+        StoredPartition(int run, boolean upToDate) {
+            this.run = run;
+            this.upToDate = upToDate;
+        }
+    }
+
+    private record PartitionMetaData(UUID uuid, long sequence) {
+
+        /**
+         * Size of the stored metadata: UUID flag, UUID bits and sequence.
+         */
+        static final int SIZE = BYTE_SIZE_IN_BYTES + 3 * LONG_SIZE_IN_BYTES;
+
+        /**
+         * Returns {@code true} if the partition received no invalidations
+         * since this metadata was taken.
+         */
+        boolean matches(MetaDataContainer container) {
+            return uuid != null && container != null
+                    && Objects.equals(uuid, container.getUuid()) && sequence == container.getSequence();
+        }
+    }
+
+    private static final class LoadResult {
+
+        private int localEntries;
+        private int fetchedKeys;
+        private int stalePartitions;
+    }
+}
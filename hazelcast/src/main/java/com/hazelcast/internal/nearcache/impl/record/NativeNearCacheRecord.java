@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import java.util.UUID;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+
+/**
+ * Flyweight {@link NearCacheRecord} over a record block kept in native memory
+ * by the off-heap Near Cache record map. Every accessor reads or writes the
+ * block directly.
+ * <p>
+ * Layout of a record block:
+ * <pre>
+ * +-----------------------+  0
+ * | next record address   |  address of the next block in the collision chain
+ * | value address         |  address of the value block, or NULL_ADDRESS
+ * | reservation id        |
+ * | invalidation sequence |
+ * | uuid most sig. bits   |
+ * | uuid least sig. bits  |
+ * +-----------------------+ 48
+ * | creation time         |
+ * | last access time      |
+ * | expiration time       |
+ * | hits                  |
+ * | partition id          |
+ * | key length            |
+ * | value length          |
+ * | flags                 |
+ * +-----------------------+ 80
+ * | key bytes             |
+ * +-----------------------+
+ * </pre>
+ * The value is kept in a separate block, so replacing it never moves the
+ * record block. A record is only valid until the block it points to is
+ * freed, all accesses must be guarded by the lock of the store owning it.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeNearCacheRecord implements NearCacheRecord<Data> {
+
+    public static final int NEXT_OFFSET = 0;
+    public static final int VALUE_ADDRESS_OFFSET = 8;
+    public static final int RESERVATION_ID_OFFSET = 16;
+    public static final int INVALIDATION_SEQUENCE_OFFSET = 24;
+    public static final int UUID_MOST_SIG_BITS_OFFSET = 32;
+    public static final int UUID_LEAST_SIG_BITS_OFFSET = 40;
+    public static final int CREATION_TIME_OFFSET = 48;
+    public static final int LAST_ACCESS_TIME_OFFSET = 52;
+    public static final int EXPIRATION_TIME_OFFSET = 56;
+    public static final int HITS_OFFSET = 60;
+    public static final int PARTITION_ID_OFFSET = 64;
+    public static final int KEY_LENGTH_OFFSET = 68;
+    public static final int VALUE_LENGTH_OFFSET = 72;
+    public static final int FLAGS_OFFSET = 76;
+    public static final int HEADER_SIZE = 80;
+
+    private static final int CACHED_AS_NULL_FLAG = 1;
+    private static final int HAS_UUID_FLAG = 1 << 1;
+
+    private final MemoryAccessor mem;
+    private final MemoryAllocator malloc;
+    private final long address;
+
+    public NativeNearCacheRecord(MemoryAccessor mem, MemoryAllocator malloc, long address) {
+        this.mem = mem;
+        this.malloc = malloc;
+        this.address = address;
+    }
+
+    /**
+     * Allocates and initializes a record block for the given key, with no
+     * value and a {@link #READ_PERMITTED} reservation ID.
+     */
+    public static NativeNearCacheRecord allocate(MemoryAccessor mem, MemoryAllocator malloc, Data key) {
+        byte[] keyBytes = key.toByteArray();
+        long address = malloc.allocate(HEADER_SIZE + keyBytes.length);
+        mem.copyFromByteArray(keyBytes, 0, address + HEADER_SIZE, keyBytes.length);
+        mem.putInt(address + KEY_LENGTH_OFFSET, keyBytes.length);
+        NativeNearCacheRecord record = new NativeNearCacheRecord(mem, malloc, address);
+        record.setReservationId(READ_PERMITTED);
+        record.setLastAccessTime(TIME_NOT_SET);
+        return record;
+    }
+
+    public long address() {
+        return address;
+    }
+
+    public int keyLength() {
+        return mem.getInt(address + KEY_LENGTH_OFFSET);
+    }
+
+    public int valueLength() {
+        return mem.getInt(address + VALUE_LENGTH_OFFSET);
+    }
+
+    /**
+     * Returns the native memory taken by the record and value blocks.
+     */
+    public long getCost() {
+        return HEADER_SIZE + keyLength() + valueLength();
+    }
+
+    /**
+     * Returns an on-heap copy of the key.
+     */
+    public Data getKey() {
+        return readData(address + HEADER_SIZE, keyLength());
+    }
+
+    /**
+     * Returns {@code true} if the key stored in the block equals to the given
+     * serialized key.
+     */
+    public boolean keyEquals(byte[] keyBytes) {
+        if (keyLength() != keyBytes.length) {
+            return false;
+        }
+        long keyAddress = address + HEADER_SIZE;
+        // compare from the end, the beginning holds the partition hash and type which are likely to match
+        for (int i = keyBytes.length - 1; i >= 0; i--) {
+            if (mem.getByte(keyAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns an on-heap copy of the value, {@code null} if there is no value.
+     */
+    @Override
+    public Data getValue() {
+        long valueAddress = mem.getLong(address + VALUE_ADDRESS_OFFSET);
+        return valueAddress == NULL_ADDRESS ? null : readData(valueAddress, valueLength());
+    }
+
+    /**
+     * Replaces the value block, freeing the previous one.
+     */
+    @Override
+    public void setValue(Data value) {
+        freeValue();
+        if (value == null) {
+            return;
+        }
+        byte[] valueBytes = value.toByteArray();
+        long valueAddress = malloc.allocate(valueBytes.length);
+        mem.copyFromByteArray(valueBytes, 0, valueAddress, valueBytes.length);
+        mem.putLong(address + VALUE_ADDRESS_OFFSET, valueAddress);
+        mem.putInt(address + VALUE_LENGTH_OFFSET, valueBytes.length);
+    }
+
+    /**
+     * Frees the value and the record blocks. The record can't be used
+     * afterwards.
+     */
+    public void free() {
+        freeValue();
+        malloc.free(address, HEADER_SIZE + keyLength());
+    }
+
+    private void freeValue() {
+        long valueAddress = mem.getLong(address + VALUE_ADDRESS_OFFSET);
+        if (valueAddress != NULL_ADDRESS) {
+            malloc.free(valueAddress, valueLength());
+            mem.putLong(address + VALUE_ADDRESS_OFFSET, NULL_ADDRESS);
+            mem.putInt(address + VALUE_LENGTH_OFFSET, 0);
+        }
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(mem.getInt(address + CREATION_TIME_OFFSET));
+    }
+
+    @Override
+    public void setCreationTime(long time) {
+        mem.putInt(address + CREATION_TIME_OFFSET, stripBaseTime(time));
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(mem.getInt(address + LAST_ACCESS_TIME_OFFSET));
+    }
+
+    @Override
+    public void setLastAccessTime(long time) {
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, stripBaseTime(time));
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return recomputeWithBaseTime(mem.getInt(address + EXPIRATION_TIME_OFFSET));
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        mem.putInt(address + EXPIRATION_TIME_OFFSET, stripBaseTime(expirationTime));
+    }
+
+    @Override
+    public long getHits() {
+        return mem.getInt(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        mem.putInt(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public void incrementHits() {
+        mem.putInt(address + HITS_OFFSET, mem.getInt(address + HITS_OFFSET) + 1);
+    }
+
+    @Override
+    public long getReservationId() {
+        return mem.getLong(address + RESERVATION_ID_OFFSET);
+    }
+
+    @Override
+    public void setReservationId(long reservationId) {
+        mem.putLong(address + RESERVATION_ID_OFFSET, reservationId);
+    }
+
+    @Override
+    public int getPartitionId() {
+        return mem.getInt(address + PARTITION_ID_OFFSET);
+    }
+
+    @Override
+    public void setPartitionId(int partitionId) {
+        mem.putInt(address + PARTITION_ID_OFFSET, partitionId);
+    }
+
+    @Override
+    public long getInvalidationSequence() {
+        return mem.getLong(address + INVALIDATION_SEQUENCE_OFFSET);
+    }
+
+    @Override
+    public void setInvalidationSequence(long sequence) {
+        mem.putLong(address + INVALIDATION_SEQUENCE_OFFSET, sequence);
+    }
+
+    @Override
+    public void setUuid(UUID uuid) {
+        if (uuid == null) {
+            setFlag(HAS_UUID_FLAG, false);
+            return;
+        }
+        mem.putLong(address + UUID_MOST_SIG_BITS_OFFSET, uuid.getMostSignificantBits());
+        mem.putLong(address + UUID_LEAST_SIG_BITS_OFFSET, uuid.getLeastSignificantBits());
+        setFlag(HAS_UUID_FLAG, true);
+    }
+
+    @Override
+    public boolean hasSameUuid(UUID thatUuid) {
+        return thatUuid != null
+                && isFlagSet(HAS_UUID_FLAG)
+                && mem.getLong(address + UUID_MOST_SIG_BITS_OFFSET) == thatUuid.getMostSignificantBits()
+                && mem.getLong(address + UUID_LEAST_SIG_BITS_OFFSET) == thatUuid.getLeastSignificantBits();
+    }
+
+    private UUID getUuid() {
+        return isFlagSet(HAS_UUID_FLAG)
+                ? new UUID(mem.getLong(address + UUID_MOST_SIG_BITS_OFFSET), mem.getLong(address + UUID_LEAST_SIG_BITS_OFFSET))
+                : null;
+    }
+
+    @Override
+    public boolean isCachedAsNull() {
+        return isFlagSet(CACHED_AS_NULL_FLAG);
+    }
+
+    @Override
+    public void setCachedAsNull(boolean valueCachedAsNull) {
+        setFlag(CACHED_AS_NULL_FLAG, valueCachedAsNull);
+    }
+
+    private boolean isFlagSet(int flag) {
+        return (mem.getInt(address + FLAGS_OFFSET) & flag) != 0;
+    }
+
+    private void setFlag(int flag, boolean set) {
+        int flags = mem.getInt(address + FLAGS_OFFSET);
+        mem.putInt(address + FLAGS_OFFSET, set ? flags | flag : flags & ~flag);
+    }
+
+    /**
+     * Returns an on-heap copy of this record, which stays valid after the
+     * block is freed.
+     */
+    public NearCacheDataRecord toHeapRecord() {
+        NearCacheDataRecord copy = new NearCacheDataRecord(getValue(), getCreationTime(), getExpirationTime());
+        copy.setLastAccessTime(getLastAccessTime());
+        copy.setHits((int) getHits());
+        copy.setReservationId(getReservationId());
+        copy.setPartitionId(getPartitionId());
+        copy.setInvalidationSequence(getInvalidationSequence());
+        copy.setUuid(getUuid());
+        copy.setCachedAsNull(isCachedAsNull());
+        return copy;
+    }
+
+    private Data readData(long dataAddress, int length) {
+        byte[] bytes = new byte[length];
+        mem.copyToByteArray(dataAddress, bytes, 0, length);
+        return new HeapData(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NativeNearCacheRecord)) {
+            return false;
+        }
+        return address == ((NativeNearCacheRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(address);
+    }
+
+    @Override
+    public String toString() {
+        return "NativeNearCacheRecord{address=" + address
+                + ", reservationId=" + getReservationId()
+                + ", hits=" + getHits()
+                + ", keyLength=" + keyLength()
+                + ", valueLength=" + valueLength()
+                + ", cachedAsNull=" + isCachedAsNull()
+                + '}';
+    }
+}
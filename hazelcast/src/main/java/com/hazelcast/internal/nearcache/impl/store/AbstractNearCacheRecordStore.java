@@ -31,11 +31,14 @@ import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.SampleableNearCacheRecordMap;
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
 import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCacheSnapshotPreloader;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCacheSnapshotPreloader.EntryCollector;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.nearcache.NearCacheStats;
 
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator;
@@ -79,6 +82,7 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected EvictionChecker evictionChecker;
     protected SamplingEvictionStrategy<KS, R, NCRM> evictionStrategy;
     protected EvictionPolicyEvaluator<KS, R> evictionPolicyEvaluator;
+    protected NearCacheSnapshotPreloader snapshotPreloader;
 
     protected volatile long reservationId;
     protected volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
@@ -205,6 +209,7 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
 
     @SuppressWarnings("unused")
     protected void onExpire(K key, R record) {
+        markSnapshotChanged(record);
         if (!canUpdateStats(record)) {
             return;
         }
@@ -213,6 +218,7 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
 
     @Override
     public void onEvict(KS key, R record, boolean wasExpired) {
+        markSnapshotChanged(record);
         if (!canUpdateStats(record)) {
             return;
         }
@@ -301,6 +307,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
 
         int size = records.size();
         records.clear();
+        if (snapshotPreloader != null) {
+            snapshotPreloader.markAllChanged();
+        }
         nearCacheStats.setOwnedEntryCount(0);
         nearCacheStats.setOwnedEntryMemoryCost(0L);
         nearCacheStats.incrementInvalidations(size);
@@ -377,6 +386,7 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
             reservedRecord.setCachedAsNull(true);
         }
         reservedRecord.setReservationId(READ_PERMITTED);
+        markSnapshotChanged(reservedRecord);
 
         nearCacheStats.incrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, reservedRecord));
         if (!update) {
@@ -386,6 +396,60 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         return reservedRecord;
     }
 
+    /**
+     * Marks the partition of the given record as changed for the next
+     * incremental store of the snapshot, if the snapshot is enabled.
+     */
+    protected void markSnapshotChanged(R record) {
+        if (snapshotPreloader != null && record != null) {
+            snapshotPreloader.markChanged(record.getPartitionId());
+        }
+    }
+
+    /**
+     * Passes the readable, unexpired and up-to-date entries to the given
+     * snapshot {@link EntryCollector}.
+     */
+    protected void collectSnapshotEntries(EntryCollector collector) {
+        for (Map.Entry<KS, R> entry : records.entrySet()) {
+            R record = entry.getValue();
+            if (record.getReservationId() != READ_PERMITTED || !collector.isCollected(record.getPartitionId())) {
+                continue;
+            }
+            // checked after the collector took the invalidation metadata of the partition
+            Object value = record.getValue();
+            if (value == null || isRecordExpired(record) || staleReadDetector.isStaleRead(entry.getKey(), record)) {
+                continue;
+            }
+            collector.collect(record.getPartitionId(), toData(entry.getKey()), toData(value), record.getCreationTime());
+        }
+    }
+
+    /**
+     * Puts an entry loaded from the snapshot into the Near Cache.
+     *
+     * @return {@code false} if the entry expired and has to be fetched
+     * from the cluster, otherwise {@code true}
+     */
+    @SuppressWarnings("unchecked")
+    protected boolean loadSnapshotEntry(Data keyData, Data valueData, long creationTime) {
+        if (timeToLiveMillis > 0 && creationTime + timeToLiveMillis <= Clock.currentTimeMillis()) {
+            return false;
+        }
+        doEviction(false);
+        put(toSnapshotKey(keyData), keyData, (V) valueData, valueData);
+        return true;
+    }
+
+    /**
+     * Converts a key loaded from the snapshot to the key format of this
+     * store.
+     */
+    @SuppressWarnings("unchecked")
+    protected K toSnapshotKey(Data keyData) {
+        return nearCacheConfig.isSerializeKeys() ? (K) keyData : serializationService.toObject(keyData);
+    }
+
     private void onRecordAccess(R record) {
         record.setLastAccessTime(Clock.currentTimeMillis());
         record.incrementHits();
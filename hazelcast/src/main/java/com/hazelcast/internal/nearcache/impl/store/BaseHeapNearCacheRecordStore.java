@@ -25,6 +25,7 @@ import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
 import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
 import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCacheSnapshotPreloader;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 
@@ -51,12 +52,14 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     private final BiFunction<? super K, ? super R, ? extends R> invalidatorFunction = createInvalidatorFunction();
 
     BaseHeapNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
-                                 ClassLoader classLoader) {
+                                 ClassLoader classLoader, boolean snapshotEnabled) {
         super(nearCacheConfig, serializationService, classLoader);
 
         NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
-        this.nearCachePreloader = preloaderConfig.isEnabled()
+        this.nearCachePreloader = preloaderConfig.isEnabled() && !snapshotEnabled
                 ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+        this.snapshotPreloader = preloaderConfig.isEnabled() && snapshotEnabled
+                ? new NearCacheSnapshotPreloader(name, preloaderConfig, nearCacheStats, serializationService) : null;
     }
 
     @Override
@@ -121,6 +124,8 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
         if (nearCachePreloader != null) {
             nearCachePreloader.loadKeys(adapter);
+        } else if (snapshotPreloader != null) {
+            snapshotPreloader.load(staleReadDetector, adapter, this::loadSnapshotEntry);
         }
     }
 
@@ -128,6 +133,8 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     public void storeKeys() {
         if (nearCachePreloader != null) {
             nearCachePreloader.storeKeys(records.keySet().iterator());
+        } else if (snapshotPreloader != null) {
+            snapshotPreloader.store(staleReadDetector, this::collectSnapshotEntries);
         }
     }
 
@@ -137,6 +144,9 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         if (nearCachePreloader != null) {
             nearCachePreloader.destroy();
         }
+        if (snapshotPreloader != null) {
+            snapshotPreloader.destroy();
+        }
     }
 
     @Nullable
@@ -202,6 +212,7 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
 
     private BiFunction<K, R, R> createInvalidatorFunction() {
         return (key, record) -> {
+            markSnapshotChanged(record);
             if (canUpdateStats(record)) {
                 nearCacheStats.decrementOwnedEntryCount();
                 nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
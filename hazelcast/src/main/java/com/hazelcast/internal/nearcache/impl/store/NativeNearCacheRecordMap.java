@@ -0,0 +1,457 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.SampleableNearCacheRecordMap;
+import com.hazelcast.internal.nearcache.impl.record.NativeNearCacheRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nearcache.impl.record.NativeNearCacheRecord.NEXT_OFFSET;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * {@link SampleableNearCacheRecordMap} implementation which keeps the records,
+ * including their serialized keys and values, in native memory.
+ * <p>
+ * Records are indexed by the 64-bit hash of their serialized key in a
+ * {@link HashSlotArray8byteKeyImpl}. The value part of a slot holds the address
+ * of the first record block with that hash; colliding keys are chained through
+ * the {@link NativeNearCacheRecord#NEXT_OFFSET next} pointer of the blocks.
+ * <p>
+ * Records handed out are flyweights over the native blocks. The blocks of the
+ * removed records are not freed immediately but only on {@link
+ * #releaseRemovedRecords()}, so the records obtained during an operation stay
+ * readable until the operation finishes, the same way removed on-heap records
+ * do.
+ * <p>
+ * Not thread-safe: it implements {@link java.util.concurrent.ConcurrentMap}
+ * only to fit {@link SampleableNearCacheRecordMap}, all accesses must be
+ * guarded by the lock of the owning {@link SegmentedNativeNearCacheRecordStore}
+ * segment. Only {@link #size()} may be read without the lock.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NativeNearCacheRecordMap extends AbstractMap<Data, NativeNearCacheRecord>
+        implements SampleableNearCacheRecordMap<Data, NativeNearCacheRecord> {
+
+    private static final int SLOT_VALUE_LENGTH = LONG_SIZE_IN_BYTES;
+    private static final int INITIAL_INDEX_CAPACITY = 256;
+    private static final float INDEX_LOAD_FACTOR = 0.6f;
+    private static final int INITIAL_REMOVED_CAPACITY = 16;
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final RecordIndex index;
+    private final SerializationService serializationService;
+
+    private boolean indexAllocated;
+    private volatile int size;
+    private long[] removedRecords = new long[INITIAL_REMOVED_CAPACITY];
+    private int removedRecordCount;
+
+    NativeNearCacheRecordMap(MemoryAllocator malloc, MemoryAccessor mem, SerializationService serializationService) {
+        this.malloc = malloc;
+        this.mem = mem;
+        this.index = new RecordIndex(new MemoryManagerBean(malloc, mem));
+        this.serializationService = serializationService;
+    }
+
+    /**
+     * Allocates a record block for the given key. The record is not added
+     * to the map, see {@link #put}.
+     */
+    NativeNearCacheRecord newRecord(Data key) {
+        return NativeNearCacheRecord.allocate(mem, malloc, key);
+    }
+
+    @Override
+    public NativeNearCacheRecord get(Object key) {
+        if (!(key instanceof Data dataKey)) {
+            return null;
+        }
+        long address = findRecord(dataKey.hash64(), dataKey.toByteArray());
+        return address == NULL_ADDRESS ? null : toRecord(address);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Adds the record allocated with {@link #newRecord} for the same key. The
+     * replaced record, if any, stays readable until {@link
+     * #releaseRemovedRecords()}.
+     */
+    @Override
+    public NativeNearCacheRecord put(Data key, NativeNearCacheRecord record) {
+        long keyHash = key.hash64();
+        long existing = findRecord(keyHash, key.toByteArray());
+        if (existing == record.address()) {
+            return record;
+        }
+        if (existing != NULL_ADDRESS) {
+            unlinkRecord(keyHash, existing);
+            deferFree(existing);
+        } else {
+            size++;
+        }
+        linkRecord(keyHash, record.address());
+        return existing == NULL_ADDRESS ? null : toRecord(existing);
+    }
+
+    /**
+     * Removes the record of the key. The removed record stays readable until
+     * {@link #releaseRemovedRecords()}.
+     */
+    @Override
+    public NativeNearCacheRecord remove(Object key) {
+        if (!(key instanceof Data dataKey)) {
+            return null;
+        }
+        long keyHash = dataKey.hash64();
+        long address = findRecord(keyHash, dataKey.toByteArray());
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        unlinkRecord(keyHash, address);
+        deferFree(address);
+        size--;
+        return toRecord(address);
+    }
+
+    @Override
+    public NativeNearCacheRecord putIfAbsent(Data key, NativeNearCacheRecord record) {
+        NativeNearCacheRecord existing = get(key);
+        return existing != null ? existing : put(key, record);
+    }
+
+    @Override
+    public boolean remove(Object key, Object record) {
+        NativeNearCacheRecord existing = get(key);
+        if (existing == null || !existing.equals(record)) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+
+    @Override
+    public boolean replace(Data key, NativeNearCacheRecord oldRecord, NativeNearCacheRecord newRecord) {
+        NativeNearCacheRecord existing = get(key);
+        if (existing == null || !existing.equals(oldRecord)) {
+            return false;
+        }
+        put(key, newRecord);
+        return true;
+    }
+
+    @Override
+    public NativeNearCacheRecord replace(Data key, NativeNearCacheRecord record) {
+        return containsKey(key) ? put(key, record) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes and frees all records. The previously removed records are still
+     * freed on {@link #releaseRemovedRecords()}.
+     */
+    @Override
+    public void clear() {
+        if (indexAllocated) {
+            forEachRecordAddress(address -> toRecord(address).free());
+            index.clear();
+            index.trimToSize();
+        }
+        size = 0;
+    }
+
+    /**
+     * Frees the records removed since the last call. The records obtained
+     * from this map before must not be used afterwards.
+     */
+    void releaseRemovedRecords() {
+        for (int i = 0; i < removedRecordCount; i++) {
+            toRecord(removedRecords[i]).free();
+        }
+        removedRecordCount = 0;
+    }
+
+    /**
+     * Frees all records and the index.
+     */
+    void dispose() {
+        clear();
+        releaseRemovedRecords();
+        if (indexAllocated) {
+            index.dispose();
+            indexAllocated = false;
+        }
+    }
+
+    /**
+     * Returns on-heap copies of all keys.
+     */
+    List<Data> keys() {
+        List<Data> keys = new ArrayList<>(size);
+        if (indexAllocated) {
+            forEachRecordAddress(address -> keys.add(toRecord(address).getKey()));
+        }
+        return keys;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entries are a snapshot taken when the set is iterated, with
+     * on-heap copies of the keys.
+     */
+    @Override
+    public Set<Entry<Data, NativeNearCacheRecord>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Data, NativeNearCacheRecord>> iterator() {
+                List<Entry<Data, NativeNearCacheRecord>> entries = new ArrayList<>(size);
+                if (indexAllocated) {
+                    forEachRecordAddress(address -> {
+                        NativeNearCacheRecord record = toRecord(address);
+                        entries.add(new SimpleImmutableEntry<>(record.getKey(), record));
+                    });
+                }
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends EvictionCandidate<Data, NativeNearCacheRecord>> Iterable<C> sample(int sampleCount) {
+        if (sampleCount <= 0 || size == 0 || !indexAllocated) {
+            return Collections.emptyList();
+        }
+        List<C> samples = new ArrayList<>(sampleCount);
+        long capacity = index.capacity();
+        long slot = ThreadLocalRandomProvider.get().nextLong(capacity);
+        for (long visited = 0; visited < capacity && samples.size() < sampleCount; visited++) {
+            long address = index.chainHeadOfSlot(slot);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                NativeNearCacheRecord record = toRecord(address);
+                samples.add((C) new NativeEvictionCandidate(record.getKey(), record));
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return samples;
+    }
+
+    @Override
+    public <C extends EvictionCandidate<Data, NativeNearCacheRecord>> boolean tryEvict(
+            C evictionCandidate, EvictionListener<Data, NativeNearCacheRecord> evictionListener) {
+        if (evictionCandidate == null) {
+            return false;
+        }
+        NativeNearCacheRecord removedRecord = remove(evictionCandidate.getAccessor());
+        if (removedRecord == null || removedRecord.getReservationId() != NearCacheRecord.READ_PERMITTED) {
+            // no record was removed or the record was a placeholder marked for update
+            return false;
+        }
+        if (evictionListener != null) {
+            evictionListener.onEvict(evictionCandidate.getAccessor(), removedRecord, false);
+        }
+        return true;
+    }
+
+    private NativeNearCacheRecord toRecord(long address) {
+        return new NativeNearCacheRecord(mem, malloc, address);
+    }
+
+    private void deferFree(long address) {
+        if (removedRecordCount == removedRecords.length) {
+            removedRecords = Arrays.copyOf(removedRecords, removedRecords.length * 2);
+        }
+        removedRecords[removedRecordCount++] = address;
+    }
+
+    private long findRecord(long keyHash, byte[] keyBytes) {
+        if (!indexAllocated) {
+            return NULL_ADDRESS;
+        }
+        long slotValueAddress = index.get(keyHash);
+        if (slotValueAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long address = mem.getLong(slotValueAddress);
+        while (address != NULL_ADDRESS) {
+            if (toRecord(address).keyEquals(keyBytes)) {
+                return address;
+            }
+            address = mem.getLong(address + NEXT_OFFSET);
+        }
+        return NULL_ADDRESS;
+    }
+
+    private void linkRecord(long keyHash, long address) {
+        if (!indexAllocated) {
+            index.gotoNew();
+            indexAllocated = true;
+        }
+        SlotAssignmentResult slot = index.ensure(keyHash);
+        // prepend to the collision chain
+        mem.putLong(address + NEXT_OFFSET, slot.isNew() ? NULL_ADDRESS : mem.getLong(slot.address()));
+        mem.putLong(slot.address(), address);
+    }
+
+    private void unlinkRecord(long keyHash, long recordAddress) {
+        long slotValueAddress = index.get(keyHash);
+        long next = mem.getLong(recordAddress + NEXT_OFFSET);
+        long address = mem.getLong(slotValueAddress);
+        if (address == recordAddress) {
+            if (next == NULL_ADDRESS) {
+                index.remove(keyHash);
+            } else {
+                mem.putLong(slotValueAddress, next);
+            }
+            return;
+        }
+        long previous = address;
+        while ((address = mem.getLong(previous + NEXT_OFFSET)) != recordAddress) {
+            previous = address;
+        }
+        mem.putLong(previous + NEXT_OFFSET, next);
+    }
+
+    private void forEachRecordAddress(RecordAddressConsumer consumer) {
+        long capacity = index.capacity();
+        for (long slot = 0; slot < capacity; slot++) {
+            long address = index.chainHeadOfSlot(slot);
+            while (address != NULL_ADDRESS) {
+                // read the next pointer first, the consumer may free the block
+                long next = mem.getLong(address + NEXT_OFFSET);
+                consumer.accept(address);
+                address = next;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordAddressConsumer {
+        void accept(long address);
+    }
+
+    /**
+     * Exposes the slots of the hash slot array, which is needed to pick random
+     * samples and to walk all records.
+     */
+    private static final class RecordIndex extends HashSlotArray8byteKeyImpl {
+
+        RecordIndex(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, SLOT_VALUE_LENGTH, INITIAL_INDEX_CAPACITY, INDEX_LOAD_FACTOR);
+        }
+
+        /**
+         * @return address of the first record block kept in the given slot or
+         * {@link MemoryAllocator#NULL_ADDRESS} if the slot is unassigned
+         */
+        long chainHeadOfSlot(long slot) {
+            return mem().getLong(slotBase(address(), slot) + LONG_SIZE_IN_BYTES);
+        }
+    }
+
+    /**
+     * Eviction candidate with an on-heap copy of the key. The record is only
+     * valid while the segment lock is held.
+     */
+    private final class NativeEvictionCandidate implements EvictionCandidate<Data, NativeNearCacheRecord> {
+
+        private final Data key;
+        private final NativeNearCacheRecord record;
+
+        NativeEvictionCandidate(Data key, NativeNearCacheRecord record) {
+            this.key = key;
+            this.record = record;
+        }
+
+        @Override
+        public Data getAccessor() {
+            return key;
+        }
+
+        @Override
+        public NativeNearCacheRecord getEvictable() {
+            return record;
+        }
+
+        @Override
+        public Object getKey() {
+            return serializationService.toObject(key);
+        }
+
+        @Override
+        public Object getValue() {
+            return serializationService.toObject(record.getValue());
+        }
+
+        @Override
+        public long getCreationTime() {
+            return record.getCreationTime();
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return record.getLastAccessTime();
+        }
+
+        @Override
+        public long getHits() {
+            return record.getHits();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCacheSnapshotPreloader;
+import com.hazelcast.internal.nearcache.impl.record.NativeNearCacheRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.util.Clock.currentTimeMillis;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+
+/**
+ * A segment of {@link SegmentedNativeNearCacheRecordStore}: an {@link
+ * AbstractNearCacheRecordStore} over a {@link NativeNearCacheRecordMap}.
+ * Keys are always passed in their serialized form.
+ * <p>
+ * Not thread-safe, all calls must be guarded by the segment lock and followed
+ * by {@link #releaseRemovedRecords()} before the lock is released.
+ *
+ * @param <V> the type of the value stored in Near Cache
+ */
+class NativeNearCacheRecordStore<V>
+        extends AbstractNearCacheRecordStore<Data, V, Data, NativeNearCacheRecord, NativeNearCacheRecordMap> {
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final EvictionChecker sharedEvictionChecker;
+
+    NativeNearCacheRecordStore(NearCacheConfig nearCacheConfig, NearCacheStatsImpl nearCacheStats,
+                               EvictionChecker evictionChecker, MemoryAllocator malloc, MemoryAccessor mem,
+                               SerializationService serializationService, ClassLoader classLoader,
+                               NearCacheSnapshotPreloader snapshotPreloader) {
+        super(nearCacheConfig, nearCacheStats, serializationService, classLoader);
+        this.malloc = malloc;
+        this.mem = mem;
+        this.sharedEvictionChecker = evictionChecker;
+        this.snapshotPreloader = snapshotPreloader;
+    }
+
+    @Override
+    protected EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig,
+                                                             NearCacheConfig nearCacheConfig) {
+        return sharedEvictionChecker;
+    }
+
+    @Override
+    protected NativeNearCacheRecordMap createNearCacheRecordMap(NearCacheConfig nearCacheConfig) {
+        return new NativeNearCacheRecordMap(malloc, mem, serializationService);
+    }
+
+    @Override
+    public NativeNearCacheRecord getRecord(Data key) {
+        return records.get(key);
+    }
+
+    @Override
+    protected long getKeyStorageMemoryCost(Data key) {
+        return key.totalSize();
+    }
+
+    @Override
+    protected long getRecordStorageMemoryCost(NativeNearCacheRecord record) {
+        return record == null ? 0L : NativeNearCacheRecord.HEADER_SIZE + record.valueLength();
+    }
+
+    /**
+     * Records are allocated together with their key, see {@link
+     * #newReservationRecord}.
+     */
+    @Override
+    protected NativeNearCacheRecord createRecord(V value) {
+        throw new UnsupportedOperationException("NativeNearCacheRecordStore#createRecord");
+    }
+
+    @Override
+    protected NativeNearCacheRecord newReservationRecord(Data key, Data keyData, long reservationId) {
+        NativeNearCacheRecord record = null;
+        try {
+            record = records.newRecord(key);
+            long creationTime = currentTimeMillis();
+            record.setCreationTime(creationTime);
+            record.setExpirationTime(timeToLiveMillis > 0 ? creationTime + timeToLiveMillis : TIME_NOT_SET);
+            record.setReservationId(reservationId);
+            initInvalidationMetaData(record, key, keyData);
+        } catch (Throwable throwable) {
+            if (record != null) {
+                record.free();
+            }
+            onPutError(key, null, null, null, throwable);
+            throw rethrow(throwable);
+        }
+        return record;
+    }
+
+    @Override
+    protected void updateRecordValue(NativeNearCacheRecord record, V value) {
+        record.setValue(toData(value));
+    }
+
+    @Override
+    protected NativeNearCacheRecord reserveForReadUpdate(Data key, Data keyData, long reservationId) {
+        NativeNearCacheRecord existingRecord = records.get(key);
+        if (existingRecord != null) {
+            return existingRecord;
+        }
+        NativeNearCacheRecord record = newReservationRecord(key, keyData, reservationId);
+        records.put(key, record);
+        return record;
+    }
+
+    @Override
+    protected NativeNearCacheRecord reserveForWriteUpdate(Data key, Data keyData, long reservationId) {
+        NativeNearCacheRecord existingRecord = records.get(key);
+        NativeNearCacheRecord record = reserveForWriteUpdate(key, keyData, existingRecord, reservationId);
+        if (record == null) {
+            if (existingRecord != null) {
+                records.remove(key);
+            }
+        } else if (!record.equals(existingRecord)) {
+            records.put(key, record);
+        }
+        return record;
+    }
+
+    @Override
+    protected NativeNearCacheRecord putRecord(Data key, NativeNearCacheRecord record) {
+        NativeNearCacheRecord oldRecord = records.put(key, record);
+        nearCacheStats.incrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+        if (oldRecord != null) {
+            nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, oldRecord));
+        }
+        return oldRecord;
+    }
+
+    @Override
+    protected boolean containsRecordKey(Data key) {
+        return records.containsKey(key);
+    }
+
+    @Nullable
+    @Override
+    public V tryPublishReserved(Data key, V value, long reservationId, boolean deserialize) {
+        NativeNearCacheRecord reservedRecord = records.get(key);
+        if (reservedRecord == null) {
+            return null;
+        }
+        publishReservedRecord(key, value, reservedRecord, reservationId);
+        return deserialize ? toValue(reservedRecord.getValue()) : null;
+    }
+
+    @Override
+    public void invalidate(Data key) {
+        NativeNearCacheRecord record = records.get(key);
+        if (record != null) {
+            markSnapshotChanged(record);
+            if (canUpdateStats(record)) {
+                nearCacheStats.decrementOwnedEntryCount();
+                nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+                nearCacheStats.incrementInvalidations();
+            }
+            records.remove(key);
+        }
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void onEvict(Data key, NativeNearCacheRecord record, boolean wasExpired) {
+        if (!canUpdateStats(record)) {
+            return;
+        }
+        super.onEvict(key, record, wasExpired);
+        nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+    }
+
+    @Override
+    public void doExpiration() {
+        for (Map.Entry<Data, NativeNearCacheRecord> entry : records.entrySet()) {
+            Data key = entry.getKey();
+            NativeNearCacheRecord record = entry.getValue();
+            if (isRecordExpired(record)) {
+                invalidate(key);
+                onExpire(key, record);
+            }
+        }
+    }
+
+    @Override
+    protected Data toSnapshotKey(Data keyData) {
+        return keyData;
+    }
+
+    /**
+     * Keys are preloaded by {@link SegmentedNativeNearCacheRecordStore}.
+     */
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+    }
+
+    /**
+     * Keys are stored by {@link SegmentedNativeNearCacheRecordStore}.
+     */
+    @Override
+    public void storeKeys() {
+    }
+
+    /**
+     * Removes and frees all records without updating the statistics.
+     *
+     * @return the number of removed records
+     */
+    int clearRecords() {
+        checkAvailable();
+
+        int size = records.size();
+        records.clear();
+        return size;
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        dispose();
+    }
+
+    /**
+     * Frees all records and the index without updating the statistics.
+     */
+    void dispose() {
+        records.dispose();
+    }
+
+    /**
+     * Frees the records removed by the previous calls. Must be called before
+     * the segment lock is released.
+     */
+    void releaseRemovedRecords() {
+        records.releaseRemovedRecords();
+    }
+
+    /**
+     * Returns on-heap copies of the keys.
+     */
+    List<Data> keys() {
+        return records.keys();
+    }
+}
@@ -41,7 +41,20 @@ public class NearCacheDataRecordStore<K, V> extends BaseHeapNearCacheRecordStore
                                     NearCacheConfig nearCacheConfig,
                                     SerializationService serializationService,
                                     ClassLoader classLoader) {
-        super(name, nearCacheConfig, serializationService, classLoader);
+        this(name, nearCacheConfig, serializationService, classLoader, false);
+    }
+
+    /**
+     * @param snapshotEnabled {@code true} to persist the entries of the Near
+     *                        Cache in a snapshot, see {@link
+     *                        com.hazelcast.spi.properties.ClusterProperty#NEAR_CACHE_PRELOADER_SNAPSHOT_ENABLED}
+     */
+    public NearCacheDataRecordStore(String name,
+                                    NearCacheConfig nearCacheConfig,
+                                    SerializationService serializationService,
+                                    ClassLoader classLoader,
+                                    boolean snapshotEnabled) {
+        super(name, nearCacheConfig, serializationService, classLoader, snapshotEnabled);
     }
 
     @Override
@@ -36,7 +36,20 @@ public class NearCacheObjectRecordStore<K, V> extends BaseHeapNearCacheRecordSto
                                       NearCacheConfig nearCacheConfig,
                                       SerializationService serializationService,
                                       ClassLoader classLoader) {
-        super(name, nearCacheConfig, serializationService, classLoader);
+        this(name, nearCacheConfig, serializationService, classLoader, false);
+    }
+
+    /**
+     * @param snapshotEnabled {@code true} to persist the entries of the Near
+     *                        Cache in a snapshot, see {@link
+     *                        com.hazelcast.spi.properties.ClusterProperty#NEAR_CACHE_PRELOADER_SNAPSHOT_ENABLED}
+     */
+    public NearCacheObjectRecordStore(String name,
+                                      NearCacheConfig nearCacheConfig,
+                                      SerializationService serializationService,
+                                      ClassLoader classLoader,
+                                      boolean snapshotEnabled) {
+        super(name, nearCacheConfig, serializationService, classLoader, snapshotEnabled);
     }
 
     @Override
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCacheSnapshotPreloader;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCacheSnapshotPreloader.EntryCollector;
+import com.hazelcast.internal.nearcache.impl.record.NativeNearCacheRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.nearcache.NearCacheStats;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static java.lang.String.format;
+
+/**
+ * {@link NearCacheRecordStore} which keeps the serialized keys and values of
+ * a Near Cache in native memory, so large Near Caches don't add to the heap
+ * the garbage collector has to walk.
+ * <p>
+ * The records are split into segments by the key hash, each segment is a
+ * {@link NativeNearCacheRecordStore} guarded by its own lock. Eviction uses
+ * the configured policy on random samples of one segment at a time, while the
+ * {@link MaxSizePolicy#ENTRY_COUNT} limit applies to the whole Near Cache.
+ * <p>
+ * Keys are serialized before they are looked up. {@link #getRecord} returns
+ * an on-heap copy of the record, since the native record is only valid under
+ * the segment lock.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class SegmentedNativeNearCacheRecordStore<K, V> implements NearCacheRecordStore<K, V> {
+
+    static final int SEGMENT_COUNT = 16;
+
+    private final NativeNearCacheRecordStore<V>[] segments;
+    private final ReentrantLock[] locks;
+    private final NearCacheStatsImpl nearCacheStats = new NearCacheStatsImpl();
+    private final UnsafeMemoryAllocator malloc = new UnsafeMemoryAllocator();
+    private final SerializationService serializationService;
+    private final NearCachePreloader<Data> nearCachePreloader;
+    private final NearCacheSnapshotPreloader snapshotPreloader;
+    private final boolean evictionDisabled;
+
+    private volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
+
+    public SegmentedNativeNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig,
+                                               SerializationService serializationService, ClassLoader classLoader) {
+        this(name, nearCacheConfig, serializationService, classLoader, false);
+    }
+
+    /**
+     * @param snapshotEnabled {@code true} to persist the entries of the Near
+     *                        Cache in a snapshot, see {@link
+     *                        com.hazelcast.spi.properties.ClusterProperty#NEAR_CACHE_PRELOADER_SNAPSHOT_ENABLED}
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedNativeNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig,
+                                               SerializationService serializationService, ClassLoader classLoader,
+                                               boolean snapshotEnabled) {
+        this.serializationService = serializationService;
+        this.evictionDisabled = nearCacheConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.NONE;
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled() && !snapshotEnabled
+                ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+        this.snapshotPreloader = preloaderConfig.isEnabled() && snapshotEnabled
+                ? new NearCacheSnapshotPreloader(name, preloaderConfig, nearCacheStats, serializationService) : null;
+
+        EvictionChecker evictionChecker = createEvictionChecker(nearCacheConfig);
+        this.segments = new NativeNearCacheRecordStore[SEGMENT_COUNT];
+        this.locks = new ReentrantLock[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new NativeNearCacheRecordStore<>(nearCacheConfig, nearCacheStats, evictionChecker,
+                    malloc, MEM, serializationService, classLoader, snapshotPreloader);
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private EvictionChecker createEvictionChecker(NearCacheConfig nearCacheConfig) {
+        MaxSizePolicy maxSizePolicy = nearCacheConfig.getEvictionConfig().getMaxSizePolicy();
+        if (maxSizePolicy != MaxSizePolicy.ENTRY_COUNT) {
+            throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s! Only %s is supported.",
+                    maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT));
+        }
+        int maxSize = nearCacheConfig.getEvictionConfig().getSize();
+        return () -> size() >= maxSize;
+    }
+
+    @Override
+    public void initialize() {
+        for (NativeNearCacheRecordStore<V> segment : segments) {
+            segment.initialize();
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        Data keyData = toData(key);
+        return withSegment(keyData, segment -> segment.get(keyData));
+    }
+
+    @Override
+    public void put(K key, Data keyData, V value, Data valueData) {
+        Data dataKey = keyData != null ? keyData : toData(key);
+        withSegment(dataKey, segment -> {
+            segment.put(dataKey, dataKey, value, valueData);
+            return null;
+        });
+    }
+
+    @Override
+    public long tryReserveForUpdate(K key, Data keyData, NearCache.UpdateSemantic updateSemantic) {
+        Data dataKey = keyData != null ? keyData : toData(key);
+        return withSegment(dataKey, segment -> segment.tryReserveForUpdate(dataKey, dataKey, updateSemantic));
+    }
+
+    @Nullable
+    @Override
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        Data keyData = toData(key);
+        return withSegment(keyData, segment -> segment.tryPublishReserved(keyData, value, reservationId, deserialize));
+    }
+
+    @Override
+    public void invalidate(K key) {
+        Data keyData = toData(key);
+        withSegment(keyData, segment -> {
+            segment.invalidate(keyData);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        int size = 0;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            locks[i].lock();
+            try {
+                size += segments[i].clearRecords();
+            } finally {
+                segments[i].releaseRemovedRecords();
+                locks[i].unlock();
+            }
+        }
+        if (snapshotPreloader != null) {
+            snapshotPreloader.markAllChanged();
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(0L);
+        nearCacheStats.incrementInvalidations(size);
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void destroy() {
+        clear();
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            locks[i].lock();
+            try {
+                segments[i].dispose();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+        if (snapshotPreloader != null) {
+            snapshotPreloader.destroy();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (NativeNearCacheRecordStore<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns an on-heap copy of the record.
+     */
+    @Override
+    public NearCacheRecord getRecord(K key) {
+        Data keyData = toData(key);
+        return withSegment(keyData, segment -> {
+            NativeNearCacheRecord record = segment.getRecord(keyData);
+            return record == null ? null : record.toHeapRecord();
+        });
+    }
+
+    @Override
+    public NearCacheStats getNearCacheStats() {
+        return nearCacheStats;
+    }
+
+    /**
+     * Returns the native memory allocated by this store, including the
+     * indexes of the segments.
+     */
+    public long getUsedNativeMemory() {
+        return malloc.getUsedMemory();
+    }
+
+    @Override
+    public void doExpiration() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            locks[i].lock();
+            try {
+                segments[i].doExpiration();
+            } finally {
+                segments[i].releaseRemovedRecords();
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Evicts from the first non-empty segment, starting at a random one.
+     */
+    @Override
+    public boolean doEviction(boolean withoutMaxSizeCheck) {
+        if (evictionDisabled) {
+            return false;
+        }
+        int start = ThreadLocalRandomProvider.get().nextInt(SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            int index = (start + i) & (SEGMENT_COUNT - 1);
+            if (segments[index].size() == 0) {
+                continue;
+            }
+            locks[index].lock();
+            try {
+                return segments[index].doEviction(withoutMaxSizeCheck);
+            } finally {
+                segments[index].releaseRemovedRecords();
+                locks[index].unlock();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.loadKeys(adapter);
+        } else if (snapshotPreloader != null) {
+            snapshotPreloader.load(staleReadDetector, adapter, (keyData, valueData, creationTime)
+                    -> withSegment(keyData, segment -> segment.loadSnapshotEntry(keyData, valueData, creationTime)));
+        }
+    }
+
+    @Override
+    public void storeKeys() {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.storeKeys(new KeyIterator());
+        } else if (snapshotPreloader != null) {
+            snapshotPreloader.store(staleReadDetector, this::collectSnapshotEntries);
+        }
+    }
+
+    private void collectSnapshotEntries(EntryCollector collector) {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            locks[i].lock();
+            try {
+                segments[i].collectSnapshotEntries(collector);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    @Override
+    public void setStaleReadDetector(StaleReadDetector detector) {
+        this.staleReadDetector = detector;
+        for (NativeNearCacheRecordStore<V> segment : segments) {
+            segment.setStaleReadDetector(detector);
+        }
+    }
+
+    private Data toData(Object key) {
+        return serializationService.toData(key);
+    }
+
+    private <T> T withSegment(Data keyData, Function<NativeNearCacheRecordStore<V>, T> function) {
+        int index = hashToIndex(keyData.getPartitionHash(), SEGMENT_COUNT);
+        NativeNearCacheRecordStore<V> segment = segments[index];
+        locks[index].lock();
+        try {
+            return function.apply(segment);
+        } finally {
+            segment.releaseRemovedRecords();
+            locks[index].unlock();
+        }
+    }
+
+    /**
+     * Iterates over on-heap copies of the keys, copying the keys of one
+     * segment at a time.
+     */
+    private final class KeyIterator implements Iterator<Data> {
+
+        private int nextSegment;
+        private Iterator<Data> segmentKeys = Collections.emptyIterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!segmentKeys.hasNext() && nextSegment < SEGMENT_COUNT) {
+                int index = nextSegment++;
+                locks[index].lock();
+                try {
+                    segmentKeys = segments[index].keys().iterator();
+                } finally {
+                    locks[index].unlock();
+                }
+            }
+            return segmentKeys.hasNext();
+        }
+
+        @Override
+        public Data next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return segmentKeys.next();
+        }
+    }
+}
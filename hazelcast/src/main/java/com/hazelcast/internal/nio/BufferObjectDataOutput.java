@@ -21,6 +21,7 @@ import com.hazelcast.spi.impl.SerializationServiceSupport;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteOrder;
 
 public interface BufferObjectDataOutput extends ObjectDataOutput, Closeable,
@@ -72,5 +73,11 @@ public interface BufferObjectDataOutput extends ObjectDataOutput, Closeable,
 
     void position(int newPos);
 
+    /**
+     * Writes the bytes written so far to the given stream, without copying
+     * them to a new array like {@link #toByteArray()}.
+     */
+    void writeTo(OutputStream out) throws IOException;
+
     void clear();
 }
@@ -313,11 +313,11 @@ public final class Packet extends HeapData implements OutboundFrame {
          */
         SERVER_CONTROL,
         /**
-         * Unused packet type. Available for future use.
+         * Several small packets coalesced into a single frame, see {@link PacketBatch}.
          * <p>
          * {@code ordinal = 5}
          */
-        UNDEFINED5,
+        BATCH,
         /**
          * Unused packet type. Available for future use.
          * <p>
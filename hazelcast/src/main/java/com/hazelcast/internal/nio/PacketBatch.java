@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Packet.FLAG_4_0;
+
+/**
+ * Coalesces several small packets into a single {@link Packet.Type#BATCH}
+ * packet and unpacks them on the receiving side.
+ * <p>
+ * The payload of a batch packet is the sequence of the batched packets,
+ * each encoded as its flags, partition ID, payload size and payload. The
+ * order of the packets is preserved.
+ * <p>
+ * Only non-urgent operation packets are batched: urgent packets must not
+ * wait behind a batch and other packet types are typically either large or
+ * rare.
+ */
+public final class PacketBatch {
+
+    /**
+     * The maximum frame length of a packet to be added to a batch.
+     */
+    public static final int MAX_BATCHED_PACKET_SIZE = 1 << 12;
+
+    /**
+     * The maximum payload size of a batch packet.
+     */
+    public static final int MAX_BATCH_SIZE = 1 << 16;
+
+    static final int ENTRY_HEADER_SIZE = SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
+
+    private final List<Packet> packets = new ArrayList<>();
+    private int payloadSize;
+
+    /**
+     * Returns {@code true} if the packet can be added to a batch.
+     */
+    public static boolean isBatchable(Packet packet) {
+        return packet.getPacketType() == Packet.Type.OPERATION
+                && !packet.isUrgent()
+                && packet.getFrameLength() <= MAX_BATCHED_PACKET_SIZE;
+    }
+
+    /**
+     * Adds the packet to the batch, if it fits.
+     *
+     * @return {@code true} if the packet was added, {@code false} if the batch is full
+     */
+    public boolean add(Packet packet) {
+        assert isBatchable(packet) : packet;
+        int entrySize = ENTRY_HEADER_SIZE + packet.totalSize();
+        if (!packets.isEmpty() && payloadSize + entrySize > MAX_BATCH_SIZE) {
+            return false;
+        }
+        packets.add(packet);
+        payloadSize += entrySize;
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return packets.isEmpty();
+    }
+
+    /**
+     * Returns the packet to send and clears this batch. If the batch has a
+     * single packet, it's returned as is.
+     */
+    public Packet toPacket() {
+        assert !packets.isEmpty() : "empty batch";
+        try {
+            if (packets.size() == 1) {
+                return packets.get(0);
+            }
+            ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+            for (Packet packet : packets) {
+                payload.putChar(packet.getFlags());
+                payload.putInt(packet.getPartitionId());
+                payload.putInt(packet.totalSize());
+                if (packet.totalSize() > 0) {
+                    payload.put(packet.toByteArray());
+                }
+            }
+            return new Packet(payload.array()).resetFlagsTo(FLAG_4_0).setPacketType(Packet.Type.BATCH);
+        } finally {
+            packets.clear();
+            payloadSize = 0;
+        }
+    }
+
+    /**
+     * Unpacks the packets from the given batch packet and passes them to the
+     * consumer, in the order in which they were added to the batch.
+     */
+    public static void unpack(Packet batch, Consumer<Packet> consumer) {
+        assert batch.getPacketType() == Packet.Type.BATCH : batch;
+        ByteBuffer src = ByteBuffer.wrap(batch.toByteArray());
+        while (src.hasRemaining()) {
+            char flags = src.getChar();
+            int partitionId = src.getInt();
+            byte[] payload = new byte[src.getInt()];
+            src.get(payload);
+            consumer.accept(new Packet(payload, partitionId).resetFlagsTo(flags));
+        }
+    }
+}
@@ -17,7 +17,10 @@
 package com.hazelcast.internal.partition;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.SerializationUtil;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.logging.ILogger;
@@ -29,25 +32,41 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.TargetAware;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
 
+import static com.hazelcast.internal.cluster.Versions.V6_0;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.partition.ChunkSerDeHelper.readChunkedOperations;
 
 /**
  * Contains fragment namespaces along with their
  * partition versions and migration data operations
+ * <p>
+ * If compression is enabled, the migration data
+ * operations are written as a single DEFLATE
+ * compressed byte array.
  *
  * @since 3.9
  */
 public class ReplicaFragmentMigrationState
         implements IdentifiedDataSerializable, TargetAware, Versioned {
 
+    private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
     private Map<ServiceNamespace, long[]> namespaces;
     private Collection<Operation> migrationOperations;
 
     private transient ChunkSerDeHelper chunkSerDeHelper;
+    private transient boolean compressionEnabled;
+    private transient volatile long payloadBytes;
+    private transient volatile long wireBytes;
 
     public ReplicaFragmentMigrationState() {
     }
@@ -58,10 +77,22 @@ public class ReplicaFragmentMigrationState
                                          boolean chunkedMigrationEnabled,
                                          int maxTotalChunkedDataInBytes, ILogger logger,
                                          int partitionId) {
+        this(namespaces, migrationOperations, chunkSuppliers, chunkedMigrationEnabled,
+                maxTotalChunkedDataInBytes, logger, partitionId, false);
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    public ReplicaFragmentMigrationState(Map<ServiceNamespace, long[]> namespaces,
+                                         Collection<Operation> migrationOperations,
+                                         Collection<ChunkSupplier> chunkSuppliers,
+                                         boolean chunkedMigrationEnabled,
+                                         int maxTotalChunkedDataInBytes, ILogger logger,
+                                         int partitionId, boolean compressionEnabled) {
         this.namespaces = namespaces;
         this.migrationOperations = migrationOperations;
         this.chunkSerDeHelper = new ChunkSerDeHelper(logger, partitionId,
                 chunkSuppliers, chunkedMigrationEnabled, maxTotalChunkedDataInBytes);
+        this.compressionEnabled = compressionEnabled;
     }
 
     public Map<ServiceNamespace, long[]> getNamespaceVersionMap() {
@@ -72,6 +103,22 @@ public class ReplicaFragmentMigrationState
         return migrationOperations;
     }
 
+    /**
+     * @return the size of the serialized migration data operations
+     * written by the last serialization of this state
+     */
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    /**
+     * @return the size of the migration data operations as sent, i.e.
+     * after compression, written by the last serialization of this state
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
     @Override
     public int getFactoryId() {
         return PartitionDataSerializerHook.F_ID;
@@ -90,11 +137,70 @@ public class ReplicaFragmentMigrationState
             out.writeLongArray(e.getValue());
         }
 
+        // RU_COMPAT_5_5
+        boolean compress = compressionEnabled && out.getVersion().isGreaterOrEqual(V6_0);
+        if (out.getVersion().isGreaterOrEqual(V6_0)) {
+            out.writeBoolean(compress);
+        }
+
+        if (compress) {
+            writeCompressedOperations((BufferObjectDataOutput) out);
+        } else {
+            BufferObjectDataOutput bufferedOut = (BufferObjectDataOutput) out;
+            int start = bufferedOut.position();
+            writeOperations(out);
+            payloadBytes = wireBytes = bufferedOut.position() - start;
+        }
+    }
+
+    private void writeOperations(ObjectDataOutput out) throws IOException {
         SerializationUtil.writeCollection(migrationOperations, out);
 
         chunkSerDeHelper.writeChunkedOperations(out);
     }
 
+    private void writeCompressedOperations(BufferObjectDataOutput out) throws IOException {
+        int start = out.position();
+        // the lengths of the uncompressed and compressed data are written once they're known
+        out.writeInt(0);
+        out.writeInt(0);
+
+        InternalSerializationService serializationService = (InternalSerializationService) out.getSerializationService();
+        int uncompressedLength;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (BufferObjectDataOutput operationsOut = serializationService.createObjectDataOutput()) {
+            operationsOut.setVersion(out.getVersion());
+            writeOperations(operationsOut);
+            uncompressedLength = operationsOut.position();
+            // not closed, that would close the output
+            DeflaterOutputStream deflaterOut = new DeflaterOutputStream(asOutputStream(out), deflater,
+                    COMPRESSION_BUFFER_SIZE);
+            operationsOut.writeTo(deflaterOut);
+            deflaterOut.finish();
+        } finally {
+            deflater.end();
+        }
+
+        out.writeInt(start, uncompressedLength);
+        out.writeInt(start + INT_SIZE_IN_BYTES, out.position() - start - 2 * INT_SIZE_IN_BYTES);
+        payloadBytes = uncompressedLength;
+        wireBytes = out.position() - start;
+    }
+
+    private static OutputStream asOutputStream(ObjectDataOutput out) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) throws IOException {
+                out.write(bytes, off, len);
+            }
+        };
+    }
+
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         int namespaceSize = in.readInt();
@@ -104,10 +210,45 @@ public class ReplicaFragmentMigrationState
             long[] replicaVersions = in.readLongArray();
             namespaces.put(namespace, replicaVersions);
         }
+        // RU_COMPAT_5_5
+        boolean compressed = in.getVersion().isGreaterOrEqual(V6_0) && in.readBoolean();
+        if (compressed) {
+            readCompressedOperations((BufferObjectDataInput) in);
+        } else {
+            readOperations(in);
+        }
+    }
+
+    private void readOperations(ObjectDataInput in) throws IOException {
         migrationOperations = SerializationUtil.readCollection(in);
         migrationOperations = readChunkedOperations(in, migrationOperations);
     }
 
+    private void readCompressedOperations(BufferObjectDataInput in) throws IOException {
+        byte[] uncompressed = new byte[in.readInt()];
+        byte[] compressed = new byte[in.readInt()];
+        in.readFully(compressed);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int length = inflater.inflate(uncompressed);
+            if (length != uncompressed.length || !inflater.finished()) {
+                throw new IOException("Corrupted compressed migration data, expected " + uncompressed.length
+                        + " bytes, but inflated " + length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted compressed migration data", e);
+        } finally {
+            inflater.end();
+        }
+
+        InternalSerializationService serializationService = (InternalSerializationService) in.getSerializationService();
+        BufferObjectDataInput operationsIn = serializationService.createObjectDataInput(uncompressed);
+        operationsIn.setVersion(in.getVersion());
+        readOperations(operationsIn);
+    }
+
     @Override
     public void setTarget(Address address) {
         for (Operation op : migrationOperations) {
@@ -65,6 +65,12 @@ public interface MigrationManager {
 
     int getMaxTotalChunkedDataInBytes();
 
+    /**
+     * @return {@code true} if the data sent to migration destinations
+     * should be compressed
+     */
+    boolean isMigrationCompressionEnabled();
+
     boolean removeFinalizingMigration(MigrationInfo migration);
 
     boolean isFinalizingMigrationRegistered(int partitionId);
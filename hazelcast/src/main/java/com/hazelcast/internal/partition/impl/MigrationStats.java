@@ -31,13 +31,18 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_ELAPSED_MIGRATION_OPERATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_ELAPSED_MIGRATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_LAST_REPARTITION_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_MIGRATION_THROUGHPUT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_PLANNED_MIGRATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_COMPLETED_MIGRATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_DESTINATION_COMMIT_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_OPERATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_MIGRATED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_MIGRATED_WIRE_BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Collection of stats for partition migration tasks.
@@ -82,6 +87,23 @@ public class MigrationStats {
      */
     private final MigrationTimer migrationTime = new MigrationTimer();
 
+    /**
+     * size of the migration data sent by this member as a migration source, before compression
+     */
+    @Probe(name = MIGRATION_METRIC_TOTAL_MIGRATED_BYTES, unit = BYTES)
+    private final LongAdder totalMigratedBytes = new LongAdder();
+
+    /**
+     * size of the migration data sent by this member as a migration source, after compression
+     */
+    @Probe(name = MIGRATION_METRIC_TOTAL_MIGRATED_WIRE_BYTES, unit = BYTES)
+    private final LongAdder totalMigratedWireBytes = new LongAdder();
+
+    /**
+     * elapsed time from sending migration fragments to their acknowledgement by the destination
+     */
+    private final LongAdder totalFragmentTransferNanos = new LongAdder();
+
     /**
      * Marks start of new repartitioning.
      * Resets stats from previous repartitioning round.
@@ -264,6 +286,44 @@ public class MigrationStats {
         return migrationTime.getTotalElapsedNanoseconds();
     }
 
+    /**
+     * Records a migration fragment sent by this member as a migration source
+     * and acknowledged by the destination.
+     *
+     * @param payloadBytes  size of the fragment before compression
+     * @param wireBytes     size of the fragment after compression
+     * @param transferNanos elapsed time from sending the fragment to its acknowledgement
+     */
+    public void recordMigratedFragment(long payloadBytes, long wireBytes, long transferNanos) {
+        totalMigratedBytes.add(payloadBytes);
+        totalMigratedWireBytes.add(wireBytes);
+        totalFragmentTransferNanos.add(transferNanos);
+    }
+
+    /**
+     * @see #totalMigratedBytes
+     */
+    public long getTotalMigratedBytes() {
+        return totalMigratedBytes.sum();
+    }
+
+    /**
+     * @see #totalMigratedWireBytes
+     */
+    public long getTotalMigratedWireBytes() {
+        return totalMigratedWireBytes.sum();
+    }
+
+    /**
+     * @return the average number of migration data bytes, before compression,
+     * transferred per second by a single migration of this member as a source
+     */
+    @Probe(name = MIGRATION_METRIC_MIGRATION_THROUGHPUT, unit = BYTES)
+    public long getMigrationThroughput() {
+        long nanos = totalFragmentTransferNanos.sum();
+        return nanos == 0 ? 0 : (long) (totalMigratedBytes.sum() * ((double) SECONDS.toNanos(1) / nanos));
+    }
+
     public MigrationState toMigrationState() {
         return new MigrationStateImpl(lastRepartitionTime, plannedMigrations,
                 completedMigrations.intValue(), getElapsedMigrationTime());
@@ -283,7 +343,10 @@ public class MigrationStats {
                     .append(", elapsedDestinationCommitTime=").append(getElapsedDestinationCommitTime()).append("ms")
                     .append(", totalElapsedDestinationCommitTime=").append(getTotalElapsedDestinationCommitTime()).append("ms")
                     .append(", elapsedMigrationTime=").append(getElapsedMigrationTime()).append("ms")
-                    .append(", totalElapsedMigrationTime=").append(getTotalElapsedMigrationTime()).append("ms");
+                    .append(", totalElapsedMigrationTime=").append(getTotalElapsedMigrationTime()).append("ms")
+                    .append(", totalMigratedBytes=").append(getTotalMigratedBytes())
+                    .append(", totalMigratedWireBytes=").append(getTotalMigratedWireBytes())
+                    .append(", migrationThroughput=").append(getMigrationThroughput()).append("B/s");
         }
         return s.toString();
     }
@@ -35,9 +35,11 @@ import com.hazelcast.internal.partition.impl.MigrationManager;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.ThreadUtil;
+import com.hazelcast.internal.util.Timer;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
@@ -61,6 +63,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
 import java.util.logging.Level;
 
+import static com.hazelcast.internal.cluster.Versions.V6_0;
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
 import static com.hazelcast.internal.util.CollectionUtil.isNotEmpty;
 import static java.util.Collections.emptyList;
@@ -84,11 +87,12 @@ import static java.util.Collections.singleton;
  * @since 5.1 If chunked migration is enabled,
  * it also subdivides fragments into chunks.
  */
-public class MigrationRequestOperation extends BaseMigrationOperation {
+public class MigrationRequestOperation extends BaseMigrationOperation implements Versioned {
 
     private int maxTotalChunkedDataInBytes;
     private boolean chunkedMigrationEnabled;
     private boolean fragmentedMigrationEnabled;
+    private boolean compressionEnabled;
 
     private transient ServiceNamespacesContext namespacesContext;
     private transient Map<ServiceNamespace, Collection<ChunkSupplier>>
@@ -100,10 +104,19 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     public MigrationRequestOperation(MigrationInfo migrationInfo, List<MigrationInfo> completedMigrations,
                                      int partitionStateVersion, boolean fragmentedMigrationEnabled,
                                      boolean chunkedMigrationEnabled, int maxTotalChunkedDataInBytes) {
+        this(migrationInfo, completedMigrations, partitionStateVersion, fragmentedMigrationEnabled,
+                chunkedMigrationEnabled, maxTotalChunkedDataInBytes, false);
+    }
+
+    public MigrationRequestOperation(MigrationInfo migrationInfo, List<MigrationInfo> completedMigrations,
+                                     int partitionStateVersion, boolean fragmentedMigrationEnabled,
+                                     boolean chunkedMigrationEnabled, int maxTotalChunkedDataInBytes,
+                                     boolean compressionEnabled) {
         super(migrationInfo, completedMigrations, partitionStateVersion);
         this.fragmentedMigrationEnabled = fragmentedMigrationEnabled;
         this.chunkedMigrationEnabled = chunkedMigrationEnabled;
         this.maxTotalChunkedDataInBytes = maxTotalChunkedDataInBytes;
+        this.compressionEnabled = compressionEnabled;
     }
 
     @Override
@@ -167,12 +180,13 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         ExecutorService asyncExecutor = getNodeEngine().getExecutionService().getExecutor(ExecutionService.ASYNC_EXECUTOR);
 
         Address target = migrationInfo.getDestinationAddress();
+        long startNanos = Timer.nanos();
         nodeEngine.getOperationService()
                 .createInvocationBuilder(IPartitionService.SERVICE_NAME, operation, target)
                 .setResultDeserialized(true)
                 .setCallTimeout(partitionService.getPartitionMigrationTimeout())
                 .invoke()
-                .whenCompleteAsync(new MigrationCallback(), asyncExecutor);
+                .whenCompleteAsync(new MigrationCallback(migrationState, startNanos), asyncExecutor);
     }
 
     private void trySendNewFragment() {
@@ -360,7 +374,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
 
         return new ReplicaFragmentMigrationState(versions, operations,
                 suppliers, chunkedMigrationEnabled, maxTotalChunkedDataInBytes,
-                getLogger(), getPartitionId());
+                getLogger(), getPartitionId(), compressionEnabled);
     }
 
     @Override
@@ -411,6 +425,10 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         out.writeBoolean(fragmentedMigrationEnabled);
         out.writeBoolean(chunkedMigrationEnabled);
         out.writeInt(maxTotalChunkedDataInBytes);
+        // RU_COMPAT_5_5
+        if (out.getVersion().isGreaterOrEqual(V6_0)) {
+            out.writeBoolean(compressionEnabled);
+        }
     }
 
     @Override
@@ -419,6 +437,10 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         fragmentedMigrationEnabled = in.readBoolean();
         chunkedMigrationEnabled = in.readBoolean();
         maxTotalChunkedDataInBytes = in.readInt();
+        // RU_COMPAT_5_5
+        if (in.getVersion().isGreaterOrEqual(V6_0)) {
+            compressionEnabled = in.readBoolean();
+        }
     }
 
     /**
@@ -427,7 +449,12 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
      */
     private final class MigrationCallback implements BiConsumer<Object, Throwable> {
 
-        private MigrationCallback() {
+        private final ReplicaFragmentMigrationState migrationState;
+        private final long startNanos;
+
+        private MigrationCallback(ReplicaFragmentMigrationState migrationState, long startNanos) {
+            this.migrationState = migrationState;
+            this.startNanos = startNanos;
         }
 
         @Override
@@ -436,6 +463,11 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
                 logThrowable(throwable);
                 completeMigration(false);
             } else if (Boolean.TRUE.equals(result)) {
+                if (migrationState != null) {
+                    InternalPartitionServiceImpl partitionService = getService();
+                    partitionService.getMigrationManager().getStats().recordMigratedFragment(
+                            migrationState.getPayloadBytes(), migrationState.getWireBytes(), Timer.nanosElapsed(startNanos));
+                }
                 // ASYNC executor is of CONCRETE type (does not share threads with other executors)
                 // and is never used for user-supplied code.
                 getNodeEngine().getExecutionService().submit(ExecutionService.ASYNC_EXECUTOR,
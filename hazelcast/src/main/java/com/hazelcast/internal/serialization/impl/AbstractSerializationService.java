@@ -29,6 +29,7 @@ import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactoryImpl;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolThreadLocal;
 import com.hazelcast.internal.serialization.impl.compact.CompactGenericRecord;
+import com.hazelcast.internal.serialization.impl.compact.CompactMutableGenericRecord;
 import com.hazelcast.internal.serialization.impl.compact.CompactStreamSerializer;
 import com.hazelcast.internal.serialization.impl.compact.CompactStreamSerializerAdapter;
 import com.hazelcast.internal.serialization.impl.compact.CompactWithSchemaStreamSerializerAdapter;
@@ -625,6 +626,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
 
     private SerializerAdapter lookupDefaultSerializer(Class type, boolean includeSchema) {
         if ((CompactGenericRecord.class.isAssignableFrom(type)
+                || CompactMutableGenericRecord.class.isAssignableFrom(type)
                 || compactStreamSerializer.isRegisteredAsCompact(type))) {
             return getCompactSerializer(includeSchema);
         }
@@ -25,6 +25,7 @@ import com.hazelcast.internal.util.collection.ArrayUtils;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
@@ -460,6 +461,13 @@ public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput impleme
         return newBuffer;
     }
 
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        if (buffer != null && pos > 0) {
+            out.write(buffer, 0, pos);
+        }
+    }
+
     @Override
     @SuppressWarnings("MagicNumber")
     public void clear() {
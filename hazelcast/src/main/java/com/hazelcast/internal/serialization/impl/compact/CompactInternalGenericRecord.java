@@ -35,6 +35,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.function.IntFunction;
@@ -883,6 +884,48 @@ public class CompactInternalGenericRecord extends CompactGenericRecord implement
         }
     }
 
+    /**
+     * Copies the binary of the fields to the writer without deserializing
+     * them, except for the variable-size fields with the given names, which
+     * are left to the caller to write.
+     *
+     * @param source the byte array this record is read from
+     */
+    void copyFieldsTo(DefaultCompactWriter writer, byte[] source, Set<String> excludedFieldNames) {
+        writer.copyFixedSizeFields(source, dataStartPosition);
+        int numberOfVariableSizeFields = schema.getNumberOfVariableSizeFields();
+        if (numberOfVariableSizeFields == 0) {
+            return;
+        }
+        FieldDescriptor[] fields = new FieldDescriptor[numberOfVariableSizeFields];
+        int[] positions = new int[numberOfVariableSizeFields];
+        for (FieldDescriptor fd : schema.getFields()) {
+            int index = fd.getIndex();
+            if (index != -1) {
+                fields[index] = fd;
+                positions[index] = readVariableSizeFieldPosition(fd);
+            }
+        }
+        // The fields are not necessarily written in the order of their
+        // indexes, a field ends where the one written after it starts
+        int[] sortedPositions = positions.clone();
+        Arrays.sort(sortedPositions);
+        for (int i = 0; i < numberOfVariableSizeFields; i++) {
+            FieldDescriptor fd = fields[i];
+            if (excludedFieldNames.contains(fd.getFieldName())) {
+                continue;
+            }
+            int position = positions[i];
+            int length = 0;
+            if (position != NULL_OFFSET) {
+                int next = Arrays.binarySearch(sortedPositions, position) + 1;
+                int end = next < numberOfVariableSizeFields ? sortedPositions[next] : variableOffsetsPosition;
+                length = end - position;
+            }
+            writer.copyVariableSizeField(fd, source, position, length);
+        }
+    }
+
     private HazelcastSerializationException throwUnknownFieldException(@Nonnull String fieldName) {
         return new HazelcastSerializationException("Invalid field name: '" + fieldName
                 + "' for " + schema);
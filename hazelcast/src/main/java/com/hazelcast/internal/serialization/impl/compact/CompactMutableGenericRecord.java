@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.nio.serialization.genericrecord.MutableGenericRecord;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * {@link MutableGenericRecord} over a Compact serialized object.
+ * <p>
+ * The fields that are not set are read from a
+ * {@link CompactInternalGenericRecord} over the serialized object, and the
+ * values of the set fields are kept in a {@link DeserializedGenericRecord}.
+ * When this record is serialized, the binary of the fields that are not set
+ * is copied from the serialized object, see
+ * {@link CompactStreamSerializer#writeMutableGenericRecord}.
+ * <p>
+ * See the javadoc of {@link com.hazelcast.internal.serialization.impl.InternalGenericRecord}
+ * for GenericRecord class hierarchy.
+ */
+@SuppressWarnings("MethodCount")
+public class CompactMutableGenericRecord extends AbstractGenericRecordBuilder implements MutableGenericRecord {
+
+    private final InternalSerializationService serializationService;
+    private final SortedMap<String, Object> values = new TreeMap<>();
+    private final DeserializedGenericRecord setFields;
+    private Data data;
+    private CompactInternalGenericRecord record;
+
+    public CompactMutableGenericRecord(InternalSerializationService serializationService, Data data) {
+        this.serializationService = serializationService;
+        reset(data);
+        this.setFields = new DeserializedGenericRecord(record.getSchema(), values);
+    }
+
+    public Schema getSchema() {
+        return record.getSchema();
+    }
+
+    /**
+     * Returns {@code true} if some fields are set since the record is
+     * created or last serialized with {@link #toData()}.
+     */
+    public boolean isModified() {
+        return !values.isEmpty();
+    }
+
+    /**
+     * Returns the serialized form of this record. If some fields are set,
+     * the record is serialized again and continues over the new serialized
+     * form.
+     */
+    public Data toData() {
+        if (isModified()) {
+            reset(serializationService.toData(this));
+        }
+        return data;
+    }
+
+    Set<String> getSetFieldNames() {
+        return values.keySet();
+    }
+
+    CompactInternalGenericRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * Returns the byte array {@link #getRecord()} is read from.
+     */
+    byte[] getRecordBinary() {
+        return data.toByteArray();
+    }
+
+    private void reset(Data data) {
+        try {
+            this.record = (CompactInternalGenericRecord) serializationService.readAsInternalGenericRecord(data);
+        } catch (IOException e) {
+            throw new HazelcastSerializationException(e);
+        }
+        this.data = data;
+        values.clear();
+    }
+
+    private boolean isSet(String fieldName) {
+        return values.containsKey(fieldName);
+    }
+
+    @Override
+    protected GenericRecordBuilder write(@Nonnull String fieldName, Object value, FieldKind fieldKind) {
+        checkTypeWithSchema(getSchema(), fieldName, fieldKind);
+        values.put(fieldName, value);
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public GenericRecord build() {
+        TreeMap<String, Object> objects = new TreeMap<>();
+        for (String fieldName : getFieldNames()) {
+            objects.put(fieldName, isSet(fieldName) ? values.get(fieldName) : record.readAny(fieldName));
+        }
+        return new DeserializedGenericRecord(getSchema(), objects);
+    }
+
+    @Nonnull
+    @Override
+    public GenericRecordBuilder newBuilder() {
+        return record.newBuilder();
+    }
+
+    @Nonnull
+    @Override
+    public GenericRecordBuilder newBuilderWithClone() {
+        return build().newBuilderWithClone();
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getFieldNames() {
+        return record.getFieldNames();
+    }
+
+    @Nonnull
+    @Override
+    public FieldKind getFieldKind(@Nonnull String fieldName) {
+        return record.getFieldKind(fieldName);
+    }
+
+    @Override
+    public boolean getBoolean(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getBoolean(fieldName) : record.getBoolean(fieldName);
+    }
+
+    @Override
+    public char getChar(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getChar(fieldName) : record.getChar(fieldName);
+    }
+
+    @Override
+    public byte getInt8(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getInt8(fieldName) : record.getInt8(fieldName);
+    }
+
+    @Override
+    public short getInt16(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getInt16(fieldName) : record.getInt16(fieldName);
+    }
+
+    @Override
+    public int getInt32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getInt32(fieldName) : record.getInt32(fieldName);
+    }
+
+    @Override
+    public long getInt64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getInt64(fieldName) : record.getInt64(fieldName);
+    }
+
+    @Override
+    public float getFloat32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getFloat32(fieldName) : record.getFloat32(fieldName);
+    }
+
+    @Override
+    public double getFloat64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getFloat64(fieldName) : record.getFloat64(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public String getString(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getString(fieldName) : record.getString(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public BigDecimal getDecimal(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getDecimal(fieldName) : record.getDecimal(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public LocalTime getTime(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getTime(fieldName) : record.getTime(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public LocalDate getDate(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getDate(fieldName) : record.getDate(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public LocalDateTime getTimestamp(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getTimestamp(fieldName) : record.getTimestamp(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public OffsetDateTime getTimestampWithTimezone(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getTimestampWithTimezone(fieldName) : record.getTimestampWithTimezone(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public GenericRecord getGenericRecord(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getGenericRecord(fieldName) : record.getGenericRecord(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public boolean[] getArrayOfBoolean(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfBoolean(fieldName) : record.getArrayOfBoolean(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public char[] getArrayOfChar(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfChar(fieldName) : record.getArrayOfChar(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public byte[] getArrayOfInt8(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfInt8(fieldName) : record.getArrayOfInt8(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public short[] getArrayOfInt16(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfInt16(fieldName) : record.getArrayOfInt16(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public int[] getArrayOfInt32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfInt32(fieldName) : record.getArrayOfInt32(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public long[] getArrayOfInt64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfInt64(fieldName) : record.getArrayOfInt64(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public float[] getArrayOfFloat32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfFloat32(fieldName) : record.getArrayOfFloat32(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public double[] getArrayOfFloat64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfFloat64(fieldName) : record.getArrayOfFloat64(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public String[] getArrayOfString(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfString(fieldName) : record.getArrayOfString(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public BigDecimal[] getArrayOfDecimal(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfDecimal(fieldName) : record.getArrayOfDecimal(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public LocalTime[] getArrayOfTime(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfTime(fieldName) : record.getArrayOfTime(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public LocalDate[] getArrayOfDate(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfDate(fieldName) : record.getArrayOfDate(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public LocalDateTime[] getArrayOfTimestamp(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfTimestamp(fieldName) : record.getArrayOfTimestamp(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public OffsetDateTime[] getArrayOfTimestampWithTimezone(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfTimestampWithTimezone(fieldName) : record.getArrayOfTimestampWithTimezone(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public GenericRecord[] getArrayOfGenericRecord(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfGenericRecord(fieldName) : record.getArrayOfGenericRecord(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Boolean getNullableBoolean(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getNullableBoolean(fieldName) : record.getNullableBoolean(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Byte getNullableInt8(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getNullableInt8(fieldName) : record.getNullableInt8(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Short getNullableInt16(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getNullableInt16(fieldName) : record.getNullableInt16(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Integer getNullableInt32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getNullableInt32(fieldName) : record.getNullableInt32(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Long getNullableInt64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getNullableInt64(fieldName) : record.getNullableInt64(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Float getNullableFloat32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getNullableFloat32(fieldName) : record.getNullableFloat32(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Double getNullableFloat64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getNullableFloat64(fieldName) : record.getNullableFloat64(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Boolean[] getArrayOfNullableBoolean(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfNullableBoolean(fieldName) : record.getArrayOfNullableBoolean(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Byte[] getArrayOfNullableInt8(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfNullableInt8(fieldName) : record.getArrayOfNullableInt8(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Short[] getArrayOfNullableInt16(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfNullableInt16(fieldName) : record.getArrayOfNullableInt16(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Integer[] getArrayOfNullableInt32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfNullableInt32(fieldName) : record.getArrayOfNullableInt32(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Long[] getArrayOfNullableInt64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfNullableInt64(fieldName) : record.getArrayOfNullableInt64(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Float[] getArrayOfNullableFloat32(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfNullableFloat32(fieldName) : record.getArrayOfNullableFloat32(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public Double[] getArrayOfNullableFloat64(@Nonnull String fieldName) {
+        return isSet(fieldName) ? setFields.getArrayOfNullableFloat64(fieldName) : record.getArrayOfNullableFloat64(fieldName);
+    }
+
+    @Override
+    public String toString() {
+        return build().toString();
+    }
+}
@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.hazelcast.internal.serialization.impl.FieldOperations.fieldOperations;
@@ -112,6 +113,8 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
     void write(BufferObjectDataOutput out, Object o, boolean includeSchemaOnBinary) throws IOException {
         if (o instanceof CompactGenericRecord compactGenericRecord) {
             writeGenericRecord(out, compactGenericRecord, includeSchemaOnBinary);
+        } else if (o instanceof CompactMutableGenericRecord mutableGenericRecord) {
+            writeMutableGenericRecord(out, mutableGenericRecord, includeSchemaOnBinary);
         } else {
             writeObject(out, o, includeSchemaOnBinary);
         }
@@ -132,6 +135,32 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
         writer.end();
     }
 
+    /**
+     * Writes the record by copying the binary of the fields that are not set
+     * and writing only the set fields. When the schemas are included in the
+     * binary, the record is written field by field instead, as the binary of
+     * the nested Compact fields does not have them.
+     */
+    void writeMutableGenericRecord(BufferObjectDataOutput output, CompactMutableGenericRecord record,
+                                   boolean includeSchemaOnBinary) throws IOException {
+        Schema schema = record.getSchema();
+        putToSchemaService(includeSchemaOnBinary, schema);
+        writeSchema(output, includeSchemaOnBinary, schema);
+        DefaultCompactWriter writer = new DefaultCompactWriter(this, output, schema, includeSchemaOnBinary);
+        Set<String> fieldNames;
+        if (includeSchemaOnBinary) {
+            fieldNames = schema.getFieldNames();
+        } else {
+            fieldNames = record.getSetFieldNames();
+            record.getRecord().copyFieldsTo(writer, record.getRecordBinary(), fieldNames);
+        }
+        for (String fieldName : fieldNames) {
+            FieldKind fieldKind = schema.getField(fieldName).getKind();
+            fieldOperations(fieldKind).writeFieldFromRecordToWriter(writer, record, fieldName);
+        }
+        writer.end();
+    }
+
     public List<Schema> allSchemas() {
         return List.copyOf(classToSchemaMap.values());
     }
@@ -219,10 +248,28 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
     }
 
     private CompactSerializableRegistration getOrCreateRegistration(Class clazz) {
-        return classToRegistrationMap.computeIfAbsent(clazz, aClass -> {
-            CompactSerializer serializer = javaRecordSerializer.isRecord(aClass) ? javaRecordSerializer : reflectiveSerializer;
-            return new CompactSerializableRegistration(aClass, aClass.getName(), serializer);
-        });
+        CompactSerializableRegistration currentRegistration = classToRegistrationMap.get(clazz);
+        if (currentRegistration != null) {
+            return currentRegistration;
+        }
+        // Looking up the generated serializer may load a class, so it is
+        // done outside CHM lock in computeIfAbsent.
+        CompactSerializableRegistration newRegistration
+                = new CompactSerializableRegistration(clazz, clazz.getName(), zeroConfigSerializer(clazz));
+        return classToRegistrationMap.computeIfAbsent(clazz, k -> newRegistration);
+    }
+
+    /**
+     * Returns the serializer for a class that has no explicitly configured
+     * serializer. The serializer generated at compile time is preferred if
+     * it exists, then the record serializer and the reflective serializer.
+     */
+    private CompactSerializer zeroConfigSerializer(Class clazz) {
+        CompactSerializer serializer = GeneratedCompactSerializer.forClass(clazz);
+        if (serializer != null) {
+            return serializer;
+        }
+        return javaRecordSerializer.isRecord(clazz) ? javaRecordSerializer : reflectiveSerializer;
     }
 
     private CompactSerializableRegistration getOrCreateRegistration(String typeName) {
@@ -293,11 +340,7 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
             String typeName = registration.element2;
             CompactSerializer serializer = registration.element3;
             if (serializer == null) {
-                if (javaRecordSerializer.isRecord(clazz)) {
-                    serializer = javaRecordSerializer;
-                } else {
-                    serializer = reflectiveSerializer;
-                }
+                serializer = zeroConfigSerializer(clazz);
             }
             CompactSerializableRegistration serializableRegistration
                     = new CompactSerializableRegistration(clazz, typeName, serializer);
@@ -360,17 +403,10 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
                         + "serializable class '" + className + "'.");
             }
 
-            CompactSerializer serializer;
-            if (javaRecordSerializer.isRecord(clazz)) {
-                serializer = javaRecordSerializer;
-            } else {
-                serializer = reflectiveSerializer;
-            }
-
             CompactSerializableRegistration registration = new CompactSerializableRegistration(
                     clazz,
                     className,
-                    serializer
+                    zeroConfigSerializer(clazz)
             );
 
             saveRegistration(registration);
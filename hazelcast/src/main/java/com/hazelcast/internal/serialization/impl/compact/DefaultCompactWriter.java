@@ -36,6 +36,7 @@ import java.time.OffsetDateTime;
 
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.serialization.impl.compact.OffsetReader.BYTE_OFFSET_READER_RANGE;
+import static com.hazelcast.internal.serialization.impl.compact.OffsetReader.NULL_OFFSET;
 import static com.hazelcast.internal.serialization.impl.compact.OffsetReader.SHORT_OFFSET_READER_RANGE;
 import static com.hazelcast.nio.serialization.FieldKind.BOOLEAN;
 import static com.hazelcast.nio.serialization.FieldKind.ARRAY_OF_BOOLEAN;
@@ -403,6 +404,42 @@ public class DefaultCompactWriter implements CompactWriter {
         fieldOffsets[index] = fieldPosition;
     }
 
+    /**
+     * Copies the fixed-size fields section of a binary written with the
+     * same schema, starting at the given offset of the source. The fixed-size
+     * fields can still be overwritten afterward.
+     */
+    void copyFixedSizeFields(byte[] source, int offset) {
+        int position = out.position();
+        try {
+            out.position(dataStartPosition);
+            out.write(source, offset, schema.getFixedSizeFieldsLength());
+        } catch (IOException e) {
+            throw illegalStateException(e);
+        } finally {
+            out.position(position);
+        }
+    }
+
+    /**
+     * Copies the binary of a variable-size field written with the same
+     * schema, or marks it as {@code null} if the offset is
+     * {@link OffsetReader#NULL_OFFSET}.
+     */
+    void copyVariableSizeField(FieldDescriptor field, byte[] source, int offset, int length) {
+        int index = field.getIndex();
+        if (offset == NULL_OFFSET) {
+            fieldOffsets[index] = -1;
+            return;
+        }
+        fieldOffsets[index] = out.position() - dataStartPosition;
+        try {
+            out.write(source, offset, length);
+        } catch (IOException e) {
+            throw illegalStateException(e);
+        }
+    }
+
     private int getFixedSizeFieldPosition(@Nonnull String fieldName, @Nonnull FieldKind fieldKind) {
         FieldDescriptor fieldDefinition = checkFieldDefinition(fieldName, fieldKind);
         return fieldDefinition.getOffset() + dataStartPosition;
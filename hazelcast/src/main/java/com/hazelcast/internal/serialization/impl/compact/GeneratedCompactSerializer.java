@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.GenerateCompactSerializer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Base class of the serializers generated at compile time for the classes
+ * annotated with {@link GenerateCompactSerializer}.
+ * <p>
+ * The generated serializer writes the same fields with the same kinds as
+ * the {@link ReflectiveCompactSerializer} would, and carries the id of the
+ * resulting schema computed at compile time. When the data being read was
+ * written with that schema, the generated code skips the per-field schema
+ * lookups the reflective path does to support class evolution.
+ * <p>
+ * The serializer for the class {@code com.example.Foo} is generated as
+ * {@code com.example.Foo$$CompactSerializer}.
+ *
+ * @param <T> Type of the serialized/deserialized class
+ */
+public abstract class GeneratedCompactSerializer<T> implements CompactSerializer<T> {
+
+    /**
+     * Suffix appended to the binary name of the annotated class to get the
+     * name of the generated serializer.
+     */
+    public static final String CLASS_NAME_SUFFIX = "$$CompactSerializer";
+
+    private final Class<T> clazz;
+    private final String typeName;
+    private final long schemaId;
+
+    protected GeneratedCompactSerializer(Class<T> clazz, String typeName, long schemaId) {
+        this.clazz = clazz;
+        this.typeName = typeName;
+        this.schemaId = schemaId;
+    }
+
+    /**
+     * Returns the id of the schema written by this serializer, as computed
+     * at compile time.
+     */
+    public long getSchemaId() {
+        return schemaId;
+    }
+
+    @Nonnull
+    @Override
+    public String getTypeName() {
+        return typeName;
+    }
+
+    @Nonnull
+    @Override
+    public Class<T> getCompactClass() {
+        return clazz;
+    }
+
+    @Nonnull
+    @Override
+    public final T read(@Nonnull CompactReader reader) {
+        boolean exactSchema = reader instanceof CompactInternalGenericRecord record
+                && record.getSchema().getSchemaId() == schemaId;
+        return read(reader, exactSchema);
+    }
+
+    /**
+     * Reads the object.
+     *
+     * @param reader      reader to read fields of an object
+     * @param exactSchema {@code true} if the data was written with the schema
+     *                    of this serializer, so all fields exist with the
+     *                    expected kinds
+     * @return the object created as a result of read method
+     */
+    @Nonnull
+    protected abstract T read(@Nonnull CompactReader reader, boolean exactSchema);
+
+    /**
+     * Returns true if the field with the given name exists with either of
+     * the given kinds. Mirrors the check the reflective serializer does for
+     * each field.
+     */
+    protected static boolean hasField(CompactReader reader, String fieldName, FieldKind kind,
+                                      FieldKind compatibleKind) {
+        FieldKind actualKind = reader.getFieldKind(fieldName);
+        return actualKind == kind || actualKind == compatibleKind;
+    }
+
+    // The collections are written as arrays of their elements, as in
+    // the reflective serializer.
+
+    protected static <E> E[] toArray(Collection<E> collection, IntFunction<E[]> generator) {
+        return collection == null ? null : collection.toArray(generator);
+    }
+
+    protected static <K> K[] keysToArray(Map<K, ?> map, IntFunction<K[]> generator) {
+        return map == null ? null : map.keySet().toArray(generator);
+    }
+
+    protected static <V> V[] valuesToArray(Map<?, V> map, IntFunction<V[]> generator) {
+        return map == null ? null : map.values().toArray(generator);
+    }
+
+    protected static <E> ArrayList<E> toArrayList(E[] array) {
+        return array == null ? null : new ArrayList<>(Arrays.asList(array));
+    }
+
+    protected static <E> HashSet<E> toHashSet(E[] array) {
+        return array == null ? null : new HashSet<>(Arrays.asList(array));
+    }
+
+    protected static <K, V> HashMap<K, V> toHashMap(K[] keys, V[] values) {
+        if (keys == null || values == null) {
+            return null;
+        }
+        HashMap<K, V> map = new HashMap<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the generated serializer of the given class, or {@code null}
+     * if the class is not annotated with {@link GenerateCompactSerializer}
+     * or the annotation processor did not run for it.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <T> GeneratedCompactSerializer<T> forClass(Class<T> clazz) {
+        if (!clazz.isAnnotationPresent(GenerateCompactSerializer.class)) {
+            return null;
+        }
+        Class<?> serializerClass;
+        try {
+            // The generated serializer is always next to the class, so no
+            // other class loaders are tried
+            serializerClass = Class.forName(clazz.getName() + CLASS_NAME_SUFFIX, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        GeneratedCompactSerializer<T> serializer;
+        try {
+            serializer = (GeneratedCompactSerializer<T>) serializerClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new HazelcastSerializationException("Could not create the generated Compact serializer "
+                    + serializerClass.getName(), e);
+        }
+        if (serializer.getCompactClass() != clazz) {
+            throw new HazelcastSerializationException("The generated Compact serializer " + serializerClass.getName()
+                    + " is for " + serializer.getCompactClass() + ", not for " + clazz);
+        }
+        return serializer;
+    }
+}
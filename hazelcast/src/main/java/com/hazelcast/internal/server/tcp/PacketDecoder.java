@@ -20,6 +20,7 @@ import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.nio.InboundHandlerWithCounters;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatch;
 import com.hazelcast.internal.nio.PacketIOHelper;
 import com.hazelcast.internal.server.ServerConnection;
 
@@ -34,7 +35,9 @@ import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
  * The {@link InboundHandler} for member to member communication.
  * <p>
  * It reads as many packets from the src {@link ByteBuffer} as possible, and
- * each of the Packets is sent to the destination.
+ * each of the Packets is sent to the destination. The {@link Packet.Type#BATCH}
+ * packets are unpacked and the batched packets are sent to the destination
+ * one by one.
  *
  * @see Consumer
  * @see PacketEncoder
@@ -43,6 +46,8 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
 
     protected final ServerConnection connection;
     private final PacketIOHelper packetReader = new PacketIOHelper();
+    // prevent lambda allocation for each batch
+    private final Consumer<Packet> dispatchFn = this::dispatch;
 
     public PacketDecoder(ServerConnection connection, Consumer<Packet> dst) {
         this.connection = connection;
@@ -73,6 +78,14 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
     }
 
     protected void onPacketComplete(Packet packet) {
+        if (packet.getPacketType() == Packet.Type.BATCH) {
+            PacketBatch.unpack(packet, dispatchFn);
+        } else {
+            dispatch(packet);
+        }
+    }
+
+    private void dispatch(Packet packet) {
         if (packet.isFlagRaised(FLAG_URGENT)) {
             priorityPacketsRead.inc();
         } else {
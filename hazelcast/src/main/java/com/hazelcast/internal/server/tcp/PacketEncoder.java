@@ -19,9 +19,11 @@ package com.hazelcast.internal.server.tcp;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatch;
 import com.hazelcast.internal.nio.PacketIOHelper;
 
 import java.nio.ByteBuffer;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
@@ -36,6 +38,13 @@ import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
  * It makes use of a flyweight to allow the sharing of a packet-instance over
  * multiple connections. The flyweight contains the actual 'position' state of
  * what has been written.
+ * <p>
+ * If batching is enabled, the small operation packets which are already
+ * waiting in the queue when a packet is taken are coalesced into a single
+ * {@link Packet.Type#BATCH} packet, see {@link PacketBatch}. No packet is
+ * held back waiting for others, so batching doesn't add latency. The packets
+ * are sent one by one while the receiving member may not be able to unpack
+ * a batch.
  *
  * @see PacketDecoder
  */
@@ -43,7 +52,27 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
 
     private final PacketIOHelper packetWriter = new PacketIOHelper();
 
+    private final PacketBatch batch;
+    private final BooleanSupplier batchingSupported;
+
     private Packet packet;
+    // a packet taken from the src which didn't fit into the last batch
+    private Packet pending;
+
+    public PacketEncoder() {
+        this(null);
+    }
+
+    /**
+     * @param batchingSupported if not {@code null}, small operation packets
+     *                          are coalesced into batch packets as long as it
+     *                          returns {@code true}, i.e. while the receiving
+     *                          member is able to unpack them
+     */
+    public PacketEncoder(BooleanSupplier batchingSupported) {
+        this.batch = batchingSupported != null ? new PacketBatch() : null;
+        this.batchingSupported = batchingSupported;
+    }
 
     @Override
     public void handlerAdded() {
@@ -56,7 +85,7 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
         try {
             for (; ; ) {
                 if (packet == null) {
-                    packet = src.get();
+                    packet = nextPacket();
 
                     if (packet == null) {
                         // everything is processed, so we are done
@@ -76,4 +105,20 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
             dst.flip();
         }
     }
+
+    private Packet nextPacket() {
+        Packet next = pending != null ? pending : src.get();
+        pending = null;
+        if (batch == null || next == null || !PacketBatch.isBatchable(next) || !batchingSupported.getAsBoolean()) {
+            return next;
+        }
+        batch.add(next);
+        for (Packet p = src.get(); p != null; p = src.get()) {
+            if (!PacketBatch.isBatchable(p) || !batch.add(p)) {
+                pending = p;
+                break;
+            }
+        }
+        return batch.toPacket();
+    }
 }
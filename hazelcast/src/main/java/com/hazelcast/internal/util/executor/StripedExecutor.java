@@ -163,6 +163,20 @@ public final class StripedExecutor implements Executor {
         return workers[index];
     }
 
+    /**
+     * Returns {@code true} if the current thread is a worker thread of this
+     * executor.
+     */
+    public boolean isWorkerThread() {
+        Thread thread = Thread.currentThread();
+        for (Worker worker : workers) {
+            if (worker == thread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public List<BlockingQueue<Runnable>> getTaskQueues() {
         List<BlockingQueue<Runnable>> taskQueues = new ArrayList<>(workers.length);
         for (Worker worker : workers) {
@@ -1189,6 +1189,10 @@ public final class Processors {
      * distributed} {@link Edge#ordered monotonicOrder} {@link
      * Edge#allToOne allToOne} so it preserves the ordering when merging
      * the data from all upstream processors.
+     * <p>
+     * If {@link com.hazelcast.spi.properties.ClusterProperty#JET_SORT_SPILL_THRESHOLD}
+     * is set, sorted runs are spilled to local files and merged in the
+     * {@code complete} phase, in which case the items must be serializable.
      *
      * @since Jet 4.3
      */
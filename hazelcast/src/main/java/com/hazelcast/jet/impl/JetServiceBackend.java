@@ -101,6 +101,7 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
     private static final int SHUTDOWN_JOBS_MAX_WAIT_SECONDS = 10;
 
     private static final int JOB_UPLOAD_STORE_PERIOD = 30;
+    private static final int LOCAL_SNAPSHOT_CLEANUP_PERIOD = 60;
 
     private NodeEngineImpl nodeEngine;
     private final ILogger logger;
@@ -115,11 +116,13 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
     private JobCoordinationService jobCoordinationService;
     private JobClassLoaderService jobClassLoaderService;
     private JobExecutionService jobExecutionService;
+    private LocalSnapshotService localSnapshotService;
     private final AtomicInteger numConcurrentAsyncOps = new AtomicInteger();
     private final Supplier<int[]> sharedPartitionKeys = memoizeConcurrent(this::computeSharedPartitionKeys);
     private final JobUploadStore jobUploadStore = new JobUploadStore();
     private final ConcurrentMap<String, Long> connectorInitializeCounts = new ConcurrentHashMap<>();
     private ScheduledFuture<?> jobUploadStoreCheckerFuture;
+    private ScheduledFuture<?> localSnapshotCleanupFuture;
 
     public JetServiceBackend(Node node) {
         this.logger = node.getLogger(getClass());
@@ -139,6 +142,7 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
         jobCoordinationService = createJobCoordinationService();
         jobClassLoaderService = new JobClassLoaderService(nodeEngine, jobRepository);
         jobExecutionService = new JobExecutionService(nodeEngine, taskletExecutionService, jobClassLoaderService);
+        localSnapshotService = new LocalSnapshotService(nodeEngine);
 
         MetricsService metricsService = nodeEngine.getService(MetricsService.SERVICE_NAME);
         metricsService.registerPublisher(nodeEngine ->
@@ -161,6 +165,22 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
         // Run periodically to clean expired jar uploads
         this.jobUploadStoreCheckerFuture = nodeEngine.getExecutionService().scheduleWithRepetition(
                 jobUploadStore::cleanExpiredUploads, 0, JOB_UPLOAD_STORE_PERIOD, SECONDS);
+
+        if (localSnapshotService.isEnabled()) {
+            this.localSnapshotCleanupFuture = nodeEngine.getExecutionService().scheduleWithRepetition(
+                    this::deleteLocalSnapshotsOfCompletedJobs, LOCAL_SNAPSHOT_CLEANUP_PERIOD,
+                    LOCAL_SNAPSHOT_CLEANUP_PERIOD, SECONDS);
+        }
+    }
+
+    private void deleteLocalSnapshotsOfCompletedJobs() {
+        if (!jobRepository.jobRecordsMapExists()) {
+            // the job records might not be loaded yet, e.g. after a cluster restart
+            return;
+        }
+        localSnapshotService.deleteCompletedJobs(jobId ->
+                jobExecutionService.getExecutionIdForJobId(jobId) != null
+                        || jobRepository.getJobRecord(jobId) != null);
     }
 
     public ConcurrentMap<String, Long> getConnectorInitializeCounts() {
@@ -290,6 +310,9 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
         if (jobUploadStoreCheckerFuture != null) {
             jobUploadStoreCheckerFuture.cancel(true);
         }
+        if (localSnapshotCleanupFuture != null) {
+            localSnapshotCleanupFuture.cancel(true);
+        }
 
         if (jobExecutionService != null) {
             jobExecutionService.shutdown();
@@ -354,6 +377,10 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
         return jobClassLoaderService;
     }
 
+    public LocalSnapshotService getLocalSnapshotService() {
+        return localSnapshotService;
+    }
+
     public JobExecutionService getJobExecutionService() {
         return jobExecutionService;
     }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.cluster.MemberInfo;
+import com.hazelcast.internal.util.UUIDSerializationUtil;
+import com.hazelcast.jet.impl.SnapshotValidationRecord.SnapshotValidationKey;
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.jet.Util.idToString;
+
+/**
+ * Describes a snapshot written to local files, see {@link
+ * com.hazelcast.spi.properties.ClusterProperty#JET_SNAPSHOT_LOCAL_DIRECTORY}.
+ * It's stored in the snapshot map instead of the snapshot data.
+ * <p>
+ * It contains the execution which wrote the files and the members which
+ * participated in it, ordered by their address. Each member replicates its
+ * files to the next member in this order, see {@link #backupOf}.
+ */
+public class LocalSnapshotManifest implements IdentifiedDataSerializable {
+
+    public static final SnapshotValidationKey KEY = SnapshotValidationKey.LOCAL_SNAPSHOT_MANIFEST;
+
+    private long executionId;
+    private List<UUID> memberUuids;
+
+    public LocalSnapshotManifest() {
+    }
+
+    LocalSnapshotManifest(long executionId, Collection<MemberInfo> participants) {
+        this.executionId = executionId;
+        this.memberUuids = participants.stream()
+                .sorted(Comparator.comparing(member -> member.getAddress().toString()))
+                .map(MemberInfo::getUuid)
+                .toList();
+    }
+
+    public long executionId() {
+        return executionId;
+    }
+
+    /**
+     * Returns the UUIDs of the members which wrote the files, ordered by their
+     * address.
+     */
+    public List<UUID> memberUuids() {
+        return memberUuids;
+    }
+
+    /**
+     * Returns the UUID of the member which holds the copy of the files of
+     * the given member, or {@code null} if the execution had a single member.
+     */
+    @Nullable
+    public UUID backupOf(UUID memberUuid) {
+        return next(memberUuids, memberUuid);
+    }
+
+    /**
+     * Returns the address of the member to which the given member replicates
+     * its files, or {@code null} if the member is the only participant. It's
+     * the next participant ordered by address, the same order the {@link
+     * LocalSnapshotManifest} uses.
+     */
+    @Nullable
+    public static Address backupOf(Address memberAddress, Collection<Address> participants) {
+        List<Address> sorted = new ArrayList<>(participants);
+        sorted.sort(Comparator.comparing(Address::toString));
+        return next(sorted, memberAddress);
+    }
+
+    /**
+     * Returns the element after the given one in the list, wrapping around,
+     * or {@code null} if the list has a single element.
+     */
+    @Nullable
+    static <T> T next(List<T> list, T element) {
+        int index = list.indexOf(element);
+        assert index >= 0 : "not a participant: " + element;
+        return list.size() > 1 ? list.get((index + 1) % list.size()) : null;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetInitDataSerializerHook.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return JetInitDataSerializerHook.LOCAL_SNAPSHOT_MANIFEST;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(executionId);
+        out.writeInt(memberUuids.size());
+        for (UUID uuid : memberUuids) {
+            UUIDSerializationUtil.writeUUID(out, uuid);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        executionId = in.readLong();
+        int size = in.readInt();
+        List<UUID> uuids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            uuids.add(UUIDSerializationUtil.readUUID(in));
+        }
+        memberUuids = uuids;
+    }
+
+    @Override
+    public String toString() {
+        return "LocalSnapshotManifest{" +
+                "executionId=" + idToString(executionId) +
+                ", memberUuids=" + memberUuids +
+                '}';
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.jet.impl.util.LocalSnapshotStore;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.ClusterProperty;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.function.LongPredicate;
+
+import static com.hazelcast.jet.Util.idFromString;
+import static com.hazelcast.jet.Util.idToString;
+
+/**
+ * Manages the local snapshot files of the Jet jobs on this member, see
+ * {@link ClusterProperty#JET_SNAPSHOT_LOCAL_DIRECTORY}.
+ * <p>
+ * The files of a vertex are stored in {@code
+ * <root>/<jobId>/<executionId>/<memberUuid>/<vertexId>.snapshot}, the copy
+ * of the files of another member, for which this member is the backup, in
+ * {@code <root>/<jobId>/<executionId>/<memberUuid>.backup/}.
+ */
+public class LocalSnapshotService {
+
+    private static final String BACKUP_SUFFIX = ".backup";
+
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final Path root;
+
+    LocalSnapshotService(NodeEngine nodeEngine) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(getClass());
+        String directory = nodeEngine.getProperties().getString(ClusterProperty.JET_SNAPSHOT_LOCAL_DIRECTORY);
+        this.root = directory != null ? Paths.get(directory) : null;
+    }
+
+    /**
+     * Returns whether local snapshots are configured on this member.
+     */
+    public boolean isEnabled() {
+        return root != null;
+    }
+
+    /**
+     * Creates the store for the snapshots of the given vertex written by this
+     * member, identified by the given UUID. Returns {@code null} if local
+     * snapshots aren't configured.
+     */
+    @Nullable
+    public LocalSnapshotStore createStore(long jobId, long executionId, UUID localUuid, int vertexId,
+                                          String vertexName) {
+        if (root == null) {
+            return null;
+        }
+        return new LocalSnapshotStore(snapshotFile(primaryDirectory(jobId, executionId, localUuid), vertexId),
+                vertexName);
+    }
+
+    /**
+     * Applies a block replicated by the primary member to the copy of its
+     * file held by this member.
+     *
+     * @param replace     if true, the payload is the whole file, otherwise it's
+     *                    a block to append
+     * @param compactedTo the snapshot ID up to which the primary compacted
+     *                    its file before appending the block or {@link
+     *                    LocalSnapshotStore#NO_SNAPSHOT}
+     */
+    public void applyReplica(long jobId, long executionId, UUID primaryUuid, int vertexId, String vertexName,
+                             boolean replace, long compactedTo, byte[] payload) throws IOException {
+        if (root == null) {
+            throw new IOException("The local snapshot directory isn't configured on member "
+                    + nodeEngine.getThisAddress()
+                    + ", set the " + ClusterProperty.JET_SNAPSHOT_LOCAL_DIRECTORY.getName() + " property on all members");
+        }
+        Path file = snapshotFile(backupDirectory(jobId, executionId, primaryUuid), vertexId);
+        if (replace) {
+            Files.createDirectories(file.getParent());
+            LocalSnapshotStore.replace(file, payload);
+            return;
+        }
+        if (compactedTo != LocalSnapshotStore.NO_SNAPSHOT) {
+            LocalSnapshotStore.compact(file, compactedTo);
+        }
+        LocalSnapshotStore.appendBlock(file, vertexName, payload);
+    }
+
+    /**
+     * Returns the directory with the files written by the given member.
+     */
+    @Nonnull
+    Path primaryDirectory(long jobId, long executionId, UUID memberUuid) {
+        return executionDirectory(jobId, executionId).resolve(memberUuid.toString());
+    }
+
+    /**
+     * Returns the directory with the copy of the files of the given member,
+     * held by its backup member.
+     */
+    @Nonnull
+    Path backupDirectory(long jobId, long executionId, UUID primaryUuid) {
+        return executionDirectory(jobId, executionId).resolve(primaryUuid + BACKUP_SUFFIX);
+    }
+
+    /**
+     * Deletes the files of all executions of the job on this member except
+     * for the given one. Called once the given execution has a confirmed
+     * snapshot, from which the job will be restored.
+     */
+    public void deleteOtherExecutions(long jobId, long executionId) {
+        if (root == null) {
+            return;
+        }
+        Path jobDirectory = root.resolve(idToString(jobId));
+        if (!Files.isDirectory(jobDirectory)) {
+            return;
+        }
+        String executionName = idToString(executionId);
+        try (DirectoryStream<Path> executions = Files.newDirectoryStream(jobDirectory)) {
+            for (Path execution : executions) {
+                if (!execution.getFileName().toString().equals(executionName)) {
+                    IOUtil.delete(execution);
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to delete the local snapshots of previous executions of job "
+                    + idToString(jobId), e);
+        }
+    }
+
+    /**
+     * Deletes the files of the jobs for which the predicate returns false.
+     */
+    void deleteCompletedJobs(LongPredicate isJobActive) {
+        if (root == null || !Files.isDirectory(root)) {
+            return;
+        }
+        try (DirectoryStream<Path> jobs = Files.newDirectoryStream(root)) {
+            for (Path job : jobs) {
+                long jobId = idFromString(job.getFileName().toString());
+                if (jobId != -1 && !isJobActive.test(jobId)) {
+                    logger.fine("Deleting the local snapshots of completed job %s", idToString(jobId));
+                    IOUtil.delete(job);
+                }
+            }
+        } catch (Exception e) {
+            logger.warning("Failed to delete the local snapshots of completed jobs in " + root, e);
+        }
+    }
+
+    private Path executionDirectory(long jobId, long executionId) {
+        return root.resolve(idToString(jobId)).resolve(idToString(executionId));
+    }
+
+    static Path snapshotFile(Path directory, int vertexId) {
+        return directory.resolve(vertexId + LocalSnapshotStore.FILE_SUFFIX);
+    }
+}
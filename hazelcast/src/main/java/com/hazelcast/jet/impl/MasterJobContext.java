@@ -538,10 +538,18 @@ public class MasterJobContext {
         dag.iterator().forEachRemaining(originalVertices::add);
 
         Map<String, Integer> vertexToOrdinal = new HashMap<>();
-        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
         Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
                 () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
-        dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
+        LocalSnapshotManifest localSnapshotManifest = (LocalSnapshotManifest) snapshotMap.get(LocalSnapshotManifest.KEY);
+        if (localSnapshotManifest != null) {
+            // each member reads its own files and the files of the members it was the backup for
+            Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read",
+                    ReadLocalSnapshotP.metaSupplier(mc.jobId(), localSnapshotManifest, resolvedSnapshotId));
+            dag.edge(between(readSnapshotVertex, explodeVertex));
+        } else {
+            Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+            dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
+        }
 
         int index = 0;
         // add the edges
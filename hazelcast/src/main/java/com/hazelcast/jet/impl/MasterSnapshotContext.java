@@ -44,6 +44,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.logging.Level;
 
+import static com.hazelcast.internal.cluster.Versions.V6_0;
 import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.jet.core.JobStatus.RUNNING;
 import static com.hazelcast.jet.impl.JobRepository.exportedSnapshotMapName;
@@ -51,6 +52,7 @@ import static com.hazelcast.jet.impl.JobRepository.safeImap;
 import static com.hazelcast.jet.impl.JobRepository.snapshotDataMapName;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.Util.jobNameAndExecutionId;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_LOCAL_DIRECTORY;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
@@ -91,6 +93,11 @@ class MasterSnapshotContext {
          * be null.
          */
         final CompletableFuture<Void> future;
+        /**
+         * If true, the snapshot is written to local files on the members. It's
+         * decided when the snapshot begins.
+         */
+        boolean isLocal;
 
         SnapshotRequest(@Nullable String snapshotName, boolean isTerminal, @Nullable CompletableFuture<Void> future) {
             this.snapshotName = snapshotName;
@@ -110,7 +117,7 @@ class MasterSnapshotContext {
         }
 
         public int snapshotFlags() {
-            return SnapshotFlags.create(isTerminal, isExport());
+            return SnapshotFlags.create(isTerminal, isExport(), isLocal);
         }
 
         public String mapName() {
@@ -176,6 +183,11 @@ class MasterSnapshotContext {
         tryBeginSnapshot();
     }
 
+    private boolean isLocalSnapshotEnabled() {
+        return mc.nodeEngine().getProperties().getString(JET_SNAPSHOT_LOCAL_DIRECTORY) != null
+                && mc.nodeEngine().getClusterService().getClusterVersion().isGreaterOrEqual(V6_0);
+    }
+
     void tryBeginSnapshot() {
         mc.coordinationService().submitToCoordinatorThread(() -> {
             final SnapshotRequest requestedSnapshot;
@@ -200,6 +212,7 @@ class MasterSnapshotContext {
                     return;
                 }
                 snapshotInProgress = true;
+                requestedSnapshot.isLocal = !requestedSnapshot.isExport() && isLocalSnapshotEnabled();
                 mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName);
                 localExecutionId = mc.executionId();
             } finally {
@@ -328,6 +341,11 @@ class MasterSnapshotContext {
                 // to have failOnIndeterminateOperationState enabled.
                 IMap<Object, Object> snapshotMap = safeImap(mc.nodeEngine().getHazelcastInstance().getMap(mapName));
                 try {
+                    if (requestedSnapshot.isLocal) {
+                        // the members wrote the snapshot to local files, the manifest tells where to find them
+                        snapshotMap.put(LocalSnapshotManifest.KEY,
+                                new LocalSnapshotManifest(executionId, mc.executionPlanMap().keySet()));
+                    }
                     SnapshotValidationRecord validationRecord = new SnapshotValidationRecord(snapshotId,
                             mergedResult.getNumChunks(), mergedResult.getNumBytes(),
                             mc.jobExecutionRecord().ongoingSnapshotStartTime(), mc.jobId(), mc.jobName(),
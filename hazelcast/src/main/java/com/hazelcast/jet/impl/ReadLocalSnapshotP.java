@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
+import com.hazelcast.jet.impl.util.LocalSnapshotStore;
+import com.hazelcast.jet.impl.util.LocalSnapshotStore.RestoredState;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.jet.impl.util.Util.uncheckCall;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_LOCAL_DIRECTORY;
+import static java.util.Collections.emptyList;
+
+/**
+ * Reads a snapshot written to local files, see {@link
+ * com.hazelcast.spi.properties.ClusterProperty#JET_SNAPSHOT_LOCAL_DIRECTORY},
+ * and emits it in the same form as the entries of the snapshot map, to be
+ * passed to {@link ExplodeSnapshotP}.
+ * <p>
+ * Each member reads the files it wrote itself. The files of the members
+ * which participated in the snapshotting execution, but aren't in the
+ * cluster anymore, are read by their backup member from its copy.
+ */
+public final class ReadLocalSnapshotP extends AbstractProcessor {
+
+    private final long jobId;
+    private final long executionId;
+    private final long snapshotId;
+    private final boolean readOwnFiles;
+    private final List<UUID> readBackupsOf;
+
+    private InternalSerializationService serializationService;
+    private byte[] valueTerminator;
+    private Traverser<Entry<SnapshotDataKey, byte[]>> traverser;
+    private int sequence;
+
+    private ReadLocalSnapshotP(long jobId, long executionId, long snapshotId, boolean readOwnFiles,
+                               List<UUID> readBackupsOf) {
+        this.jobId = jobId;
+        this.executionId = executionId;
+        this.snapshotId = snapshotId;
+        this.readOwnFiles = readOwnFiles;
+        this.readBackupsOf = readBackupsOf;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) throws IOException {
+        NodeEngineImpl nodeEngine = ((ProcCtx) context).nodeEngine();
+        serializationService = ((ProcCtx) context).serializationService();
+        byte[] terminatorWithHeader = serializationService.toData(SnapshotDataValueTerminator.INSTANCE).toByteArray();
+        valueTerminator = Arrays.copyOfRange(terminatorWithHeader, HeapData.TYPE_OFFSET, terminatorWithHeader.length);
+
+        JetServiceBackend jetServiceBackend = nodeEngine.getService(JetServiceBackend.SERVICE_NAME);
+        LocalSnapshotService localSnapshotService = jetServiceBackend.getLocalSnapshotService();
+        if (!localSnapshotService.isEnabled()) {
+            throw new JetException("Snapshot " + snapshotId + " was written to local files, but "
+                    + JET_SNAPSHOT_LOCAL_DIRECTORY.getName()
+                    + " isn't set on member " + nodeEngine.getThisAddress());
+        }
+        List<Path> files = new ArrayList<>();
+        if (readOwnFiles) {
+            UUID localUuid = nodeEngine.getLocalMember().getUuid();
+            addFiles(localSnapshotService.primaryDirectory(jobId, executionId, localUuid), files);
+        }
+        for (UUID primaryUuid : readBackupsOf) {
+            addFiles(localSnapshotService.backupDirectory(jobId, executionId, primaryUuid), files);
+        }
+        getLogger().info("Restoring snapshot " + snapshotId + " of execution " + idToString(executionId)
+                + " from " + files.size() + " local files");
+        traverser = Traversers.traverseIterable(files)
+                              .flatMap(file -> uncheckCall(() -> chunks(file)));
+    }
+
+    @Override
+    public boolean complete() {
+        return emitFromTraverser(traverser);
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return false;
+    }
+
+    private static void addFiles(Path directory, List<Path> files) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            // the member had no state to save
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + LocalSnapshotStore.FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+    }
+
+    /**
+     * Reads the state in the file and splits it to chunks in the format
+     * written by {@link AsyncSnapshotWriterImpl}.
+     */
+    private Traverser<Entry<SnapshotDataKey, byte[]>> chunks(Path file) throws IOException {
+        RestoredState state = LocalSnapshotStore.restore(file, snapshotId);
+        List<Entry<SnapshotDataKey, byte[]>> chunks = new ArrayList<>();
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        for (Entry<Data, Data> entry : state.entries()) {
+            writeWithoutHeader(entry.getKey(), chunk);
+            writeWithoutHeader(entry.getValue(), chunk);
+            if (chunk.size() >= AsyncSnapshotWriterImpl.DEFAULT_CHUNK_SIZE) {
+                chunks.add(completeChunk(state.vertexName(), chunk));
+            }
+        }
+        if (chunk.size() > 0) {
+            chunks.add(completeChunk(state.vertexName(), chunk));
+        }
+        return Traversers.traverseIterable(chunks);
+    }
+
+    private Entry<SnapshotDataKey, byte[]> completeChunk(String vertexName, ByteArrayOutputStream chunk) {
+        chunk.write(valueTerminator, 0, valueTerminator.length);
+        byte[] bytes = chunk.toByteArray();
+        chunk.reset();
+        return entry(new SnapshotDataKey(0, snapshotId, vertexName, sequence++), bytes);
+    }
+
+    private static void writeWithoutHeader(Data src, ByteArrayOutputStream dst) {
+        byte[] bytes = src.toByteArray();
+        dst.write(bytes, HeapData.TYPE_OFFSET, bytes.length - HeapData.TYPE_OFFSET);
+    }
+
+    /**
+     * Returns the meta-supplier reading the local snapshot described by the
+     * given manifest.
+     */
+    @Nonnull
+    static ProcessorMetaSupplier metaSupplier(long jobId, LocalSnapshotManifest manifest, long snapshotId) {
+        return new MetaSupplier(jobId, manifest.executionId(), snapshotId, new ArrayList<>(manifest.memberUuids()));
+    }
+
+    private static final class MetaSupplier implements ProcessorMetaSupplier {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final long jobId;
+        private final long executionId;
+        private final long snapshotId;
+        private final ArrayList<UUID> memberUuids;
+        private transient Map<Address, UUID> uuidsByAddress;
+
+        MetaSupplier(long jobId, long executionId, long snapshotId, ArrayList<UUID> memberUuids) {
+            this.jobId = jobId;
+            this.executionId = executionId;
+            this.snapshotId = snapshotId;
+            this.memberUuids = memberUuids;
+        }
+
+        @Override
+        public int preferredLocalParallelism() {
+            return 1;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            uuidsByAddress = new HashMap<>();
+            for (Member member : context.hazelcastInstance().getCluster().getMembers()) {
+                uuidsByAddress.put(member.getAddress(), member.getUuid());
+            }
+        }
+
+        @Nonnull
+        @Override
+        public Function<? super Address, ? extends ProcessorSupplier> get(@Nonnull List<Address> addresses) {
+            Set<UUID> presentUuids = new HashSet<>();
+            for (Address address : addresses) {
+                presentUuids.add(uuidsByAddress.get(address));
+            }
+            // the files of a member which left are read by its backup
+            Map<UUID, List<UUID>> backupsToRead = new HashMap<>();
+            for (UUID memberUuid : memberUuids) {
+                if (presentUuids.contains(memberUuid)) {
+                    continue;
+                }
+                UUID backupUuid = LocalSnapshotManifest.next(memberUuids, memberUuid);
+                if (backupUuid == null || !presentUuids.contains(backupUuid)) {
+                    throw new JetException("Unable to restore snapshot " + snapshotId + " of job " + idToString(jobId)
+                            + " from local files: neither member " + memberUuid + " nor its backup member "
+                            + backupUuid + " is a participant of the job");
+                }
+                backupsToRead.computeIfAbsent(backupUuid, x -> new ArrayList<>()).add(memberUuid);
+            }
+
+            long jobId = this.jobId;
+            long executionId = this.executionId;
+            long snapshotId = this.snapshotId;
+            return address -> {
+                UUID uuid = uuidsByAddress.get(address);
+                boolean readOwnFiles = memberUuids.contains(uuid);
+                List<UUID> readBackupsOf = backupsToRead.getOrDefault(uuid, emptyList());
+                return ProcessorSupplier.of(() ->
+                        new ReadLocalSnapshotP(jobId, executionId, snapshotId, readOwnFiles, readBackupsOf));
+            };
+        }
+    }
+}
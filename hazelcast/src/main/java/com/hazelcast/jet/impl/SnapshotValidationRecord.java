@@ -124,6 +124,10 @@ public class SnapshotValidationRecord implements IdentifiedDataSerializable {
     }
 
     enum SnapshotValidationKey {
-        KEY
+        KEY,
+        /**
+         * The key of the {@link LocalSnapshotManifest}.
+         */
+        LOCAL_SNAPSHOT_MANIFEST
     }
 }
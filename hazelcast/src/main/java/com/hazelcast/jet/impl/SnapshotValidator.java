@@ -50,7 +50,9 @@ final class SnapshotValidator {
                     "snapshot %s in IMap %s (%d entries) is damaged. Unable to restore the state for %s.",
                     nameOrId, snapshotMap.getName(), snapshotMap.size(), jobIdString));
         }
-        if (validationRecord.numChunks() != snapshotMap.size() - 1) {
+        // a local snapshot has a manifest instead of the chunks
+        int numRecords = snapshotMap.containsKey(LocalSnapshotManifest.KEY) ? 2 : 1;
+        if (validationRecord.numChunks() != snapshotMap.size() - numRecords) {
             // fallback validation that counts using aggregate(), ignoring different snapshot IDs
             long filteredCount = snapshotMap.aggregate(
                     Aggregators.count(),
@@ -59,7 +61,7 @@ final class SnapshotValidator {
             if (validationRecord.numChunks() != filteredCount) {
                 throw new JetException(String.format(
                         "State for %s in IMap '%s' is corrupted: it should have %,d entries, but has %,d",
-                        jobIdString, snapshotMap.getName(), validationRecord.numChunks(), snapshotMap.size() - 1));
+                        jobIdString, snapshotMap.getName(), validationRecord.numChunks(), snapshotMap.size() - numRecords));
             }
         }
         if (snapshotId != NO_SNAPSHOT && snapshotId != validationRecord.snapshotId()) {
@@ -69,6 +69,7 @@ import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.jet.core.metrics.MetricNames.EXECUTION_COMPLETION_TIME;
 import static com.hazelcast.jet.core.metrics.MetricNames.EXECUTION_START_TIME;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.IO_EXECUTOR;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.JOB_OFFLOADABLE_EXECUTOR;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableMap;
@@ -126,6 +127,9 @@ public class ExecutionContext implements DynamicMetricsProvider {
     private InternalSerializationService serializationService;
     private final AtomicBoolean executionCompleted = new AtomicBoolean();
 
+    // accessed under executionLock
+    private boolean previousLocalSnapshotsDeleted;
+
     public ExecutionContext(NodeEngineImpl nodeEngine, long jobId, long executionId, boolean isLightJob) {
         this.jobId = jobId;
         this.executionId = executionId;
@@ -374,7 +378,14 @@ public class ExecutionContext implements DynamicMetricsProvider {
                         snapshotId, jobNameAndExecutionId());
                 return completedFuture(null);
             }
-            return snapshotContext.startNewSnapshotPhase2(snapshotId, success);
+            CompletableFuture<Void> future = snapshotContext.startNewSnapshotPhase2(snapshotId, success);
+            if (success && snapshotContext.isLocalSnapshot() && !previousLocalSnapshotsDeleted) {
+                // the job will be restored from this execution's files from now on
+                previousLocalSnapshotsDeleted = true;
+                nodeEngine.getExecutionService().execute(IO_EXECUTOR, () ->
+                        jetServiceBackend.getLocalSnapshotService().deleteOtherExecutions(jobId, executionId));
+            }
+            return future;
         }
     }
 
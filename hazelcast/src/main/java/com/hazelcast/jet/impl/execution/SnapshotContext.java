@@ -98,6 +98,13 @@ public class SnapshotContext {
      */
     private volatile boolean lastPhase1Successful;
 
+    /**
+     * Id of the last local snapshot of this execution for which phase 2 was
+     * started with success. The job will be restored from this or a later
+     * snapshot. {@code -1} if there's no such snapshot.
+     */
+    private volatile long lastConfirmedLocalSnapshotId = -1;
+
     /**
      * The snapshotId of the snapshot that should be performed. It's equal to
      * {@link #activeSnapshotIdPhase1} most of the time, except for the case when the
@@ -173,6 +180,23 @@ public class SnapshotContext {
         return SnapshotFlags.isExportOnly(snapshotFlags);
     }
 
+    /**
+     * Returns whether the current snapshot should be written to local files
+     * instead of to the snapshot map.
+     */
+    public boolean isLocalSnapshot() {
+        return SnapshotFlags.isLocal(snapshotFlags);
+    }
+
+    /**
+     * Returns the ID of the last local snapshot of this execution which the
+     * coordinator confirmed to be the snapshot to restore from, or {@code
+     * -1} if there's none.
+     */
+    public long lastConfirmedLocalSnapshotId() {
+        return lastConfirmedLocalSnapshotId;
+    }
+
     boolean isLastPhase1Successful() {
         return lastPhase1Successful;
     }
@@ -276,6 +300,9 @@ public class SnapshotContext {
             throw new CancellationException("execution cancelled");
         }
         this.lastPhase1Successful = success;
+        if (success && isLocalSnapshot()) {
+            lastConfirmedLocalSnapshotId = snapshotId;
+        }
         assert numPrioritySsTasklets == 0 : "numPrioritySsTasklets=" + numPrioritySsTasklets;
 
         boolean casSuccess = numRemainingTasklets.compareAndSet(0, numPTasklets);
@@ -59,12 +59,15 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
 import static com.hazelcast.internal.util.executor.ExecutorType.CACHED;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
 import static com.hazelcast.internal.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MIN_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS;
@@ -72,6 +75,7 @@ import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATI
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.emptyList;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toList;
@@ -80,6 +84,14 @@ public class TaskletExecutionService {
 
     public static final String TASKLET_INIT_CLOSE_EXECUTOR_NAME = "jet:tasklet_initClose";
 
+    // the period over which the utilization of cooperative workers is measured
+    private static final long UTILIZATION_WINDOW_NANOS = MILLISECONDS.toNanos(100);
+    // a worker below this utilization looks for a tasklet to steal
+    private static final int IDLE_UTILIZATION_PERCENT = 50;
+    // a worker above this utilization is a candidate to steal a tasklet from
+    private static final int BUSY_UTILIZATION_PERCENT = 90;
+    private static final int HUNDRED_PERCENT = 100;
+
     private final ExecutorService blockingTaskletExecutor = newCachedThreadPool(new BlockingTaskThreadFactory());
     private final ExecutionService hzExecutionService;
     private final CooperativeWorker[] cooperativeWorkers;
@@ -93,6 +105,7 @@ public class TaskletExecutionService {
     private final Object lock = new Object();
     private final IdleStrategy idlerCooperative;
     private final IdleStrategy idlerNonCooperative;
+    private final boolean workStealingEnabled;
 
     public TaskletExecutionService(NodeEngine nodeEngine, int threadCount, HazelcastProperties properties) {
         hzExecutionService = nodeEngine.getExecutionService();
@@ -110,6 +123,11 @@ public class TaskletExecutionService {
             properties, JET_IDLE_NONCOOPERATIVE_MIN_MICROSECONDS, JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS
         );
 
+        workStealingEnabled = properties.getBoolean(JET_COOPERATIVE_WORK_STEALING_ENABLED);
+        if (workStealingEnabled) {
+            logger.info("Work stealing between cooperative worker threads is enabled");
+        }
+
         Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker());
         Arrays.setAll(cooperativeThreadPool, i -> new CooperativeWorkerThread(cooperativeWorkers[i],
                 String.format("hz.%s.jet.cooperative.thread-%d", hzInstanceName, i)));
@@ -335,6 +353,19 @@ public class TaskletExecutionService {
         }
     }
 
+    /**
+     * Runs the cooperative tasklets assigned to it in a loop on a single
+     * thread.
+     * <p>
+     * The worker measures its utilization: the share of time spent in
+     * iterations in which some tasklet made progress. If work stealing is
+     * enabled, it also measures the time spent in each tasklet call. A worker
+     * whose utilization drops below 50% posts a
+     * steal request to the busiest worker. The busy worker serves the request
+     * between two iterations, so the tasklet being moved is never running at
+     * that time: it hands over the tasklet whose load best evens out the two
+     * workers, but only if that lowers the load of the busier one.
+     */
     private final class CooperativeWorker implements Runnable {
         private static final int COOPERATIVE_LOGGING_THRESHOLD = 5;
 
@@ -342,6 +373,21 @@ public class TaskletExecutionService {
         private final CopyOnWriteArrayList<TaskletTracker> trackers;
         @Probe(name = "iterationCount")
         private final Counter iterationCount = SwCounter.newSwCounter();
+        @Probe(name = "busyTime", unit = NS)
+        private final Counter busyNanos = SwCounter.newSwCounter();
+        @Probe(name = "utilization", unit = PERCENT)
+        private volatile int utilizationPercent;
+        @Probe(name = "stolenTaskletCount")
+        private final Counter stolenTaskletCount = MwCounter.newMwCounter();
+
+        // a worker that asked this worker to hand over a tasklet
+        private final AtomicReference<CooperativeWorker> stealRequest = new AtomicReference<>();
+        // guards the hand-over of a tasklet to this worker against this worker stopping
+        private final Object handOverLock = new Object();
+        // set under handOverLock when this worker stops running tasklets
+        private boolean stopped;
+        private long windowStart;
+        private long windowBusyNanos;
 
         private final ProgressTracker progressTracker = new ProgressTracker();
         // prevent lambda allocation on each iteration
@@ -361,6 +407,7 @@ public class TaskletExecutionService {
         public void run() {
             myThread = currentThread();
             contextContainer = Contexts.container();
+            windowStart = System.nanoTime();
 
             IdleStrategy idlerLocal = idlerCooperative;
             long idleCount = 0;
@@ -368,9 +415,14 @@ public class TaskletExecutionService {
             while (!isShutdown) {
                 finestLogEnabled = logger.isFinestEnabled();
                 progressTracker.reset();
+                long iterationStart = System.nanoTime();
                 // garbage-free iteration -- relies on implementation in COWArrayList that doesn't use an Iterator
                 trackers.forEach(runTasklet);
                 iterationCount.inc();
+                recordIteration(iterationStart, progressTracker.isMadeProgress());
+                if (workStealingEnabled) {
+                    serveStealRequest();
+                }
                 if (!progressTracker.isMadeProgress() && newTaskletSemaphore.drainPermits() > 0) {
                     progressTracker.madeProgress();
                 }
@@ -379,26 +431,151 @@ public class TaskletExecutionService {
                 } else {
                     if (trackers.isEmpty()) {
                         newTaskletSemaphore.drainPermits();
-                        if (trackers.isEmpty() && !isShutdown) {
-                            try {
-                                newTaskletSemaphore.acquire();
-                            } catch (InterruptedException e) {
-                                logger.severe("Cooperative worker interrupted", e);
-                                return;
-                            }
+                        if (trackers.isEmpty() && !isShutdown && !awaitTasklets()) {
+                            break;
                         }
                     } else {
                         idlerLocal.idle(++idleCount);
                     }
                 }
             }
+            stop();
+        }
+
+        /**
+         * Stops accepting handed over tasklets and completes the remaining
+         * ones. A tasklet handed over before this method took the lock is
+         * already in the list.
+         */
+        private void stop() {
+            synchronized (handOverLock) {
+                stopped = true;
+            }
             trackers.forEach(t -> t.executionTracker.taskletDone());
             trackers.clear();
         }
 
+        private boolean awaitTasklets() {
+            try {
+                if (workStealingEnabled) {
+                    // wake up periodically to update the utilization and look for a tasklet to steal
+                    newTaskletSemaphore.tryAcquire(UTILIZATION_WINDOW_NANOS, NANOSECONDS);
+                } else {
+                    utilizationPercent = 0;
+                    newTaskletSemaphore.acquire();
+                    startUtilizationWindow(System.nanoTime());
+                }
+                return true;
+            } catch (InterruptedException e) {
+                logger.severe("Cooperative worker interrupted", e);
+                return false;
+            }
+        }
+
+        private void recordIteration(long iterationStart, boolean madeProgress) {
+            long now = System.nanoTime();
+            if (madeProgress) {
+                busyNanos.inc(now - iterationStart);
+                windowBusyNanos += now - iterationStart;
+            }
+            long windowLength = now - windowStart;
+            if (windowLength < UTILIZATION_WINDOW_NANOS) {
+                return;
+            }
+            utilizationPercent = (int) (windowBusyNanos * HUNDRED_PERCENT / windowLength);
+            if (workStealingEnabled) {
+                for (TaskletTracker t : trackers) {
+                    t.lastWindowCpuNanos = t.windowCpuNanos;
+                    t.windowCpuNanos = 0;
+                }
+                if (utilizationPercent < IDLE_UTILIZATION_PERCENT) {
+                    requestSteal();
+                }
+            }
+            startUtilizationWindow(now);
+        }
+
+        private void startUtilizationWindow(long now) {
+            windowStart = now;
+            windowBusyNanos = 0;
+        }
+
+        private void requestSteal() {
+            CooperativeWorker victim = null;
+            for (CooperativeWorker worker : cooperativeWorkers) {
+                if (worker != this
+                        && worker.utilizationPercent >= BUSY_UTILIZATION_PERCENT
+                        && worker.trackers.size() > 1
+                        && (victim == null || worker.utilizationPercent > victim.utilizationPercent)) {
+                    victim = worker;
+                }
+            }
+            if (victim != null) {
+                victim.stealRequest.compareAndSet(null, this);
+            }
+        }
+
+        /**
+         * Hands over a tasklet to the worker which requested it, if there's a
+         * request. Must be called between iterations.
+         */
+        private void serveStealRequest() {
+            CooperativeWorker thief = stealRequest.get();
+            if (thief == null) {
+                return;
+            }
+            stealRequest.set(null);
+            TaskletTracker t = selectTaskletToHandOver(thief);
+            if (t == null || isShutdown) {
+                return;
+            }
+            synchronized (thief.handOverLock) {
+                if (thief.stopped) {
+                    // the thief already completed its tasklets, we keep ours and complete it when we stop
+                    return;
+                }
+                // The thief can see the tasklet only after we've removed it from our list and,
+                // since we're between iterations, it isn't running. The COW list publishes
+                // the tasklet state to the thief.
+                trackers.remove(t);
+                thief.trackers.add(t);
+            }
+            thief.stolenTaskletCount.inc();
+            thief.newTaskletSemaphore.release();
+            LockSupport.unpark(thief.myThread);
+            if (logger.isFineEnabled()) {
+                logger.fine("Moved " + t.tasklet + " from " + myThread.getName() + " to " + thief.myThread.getName());
+            }
+        }
+
+        private TaskletTracker selectTaskletToHandOver(CooperativeWorker thief) {
+            if (trackers.size() < 2) {
+                return null;
+            }
+            long ownLoad = 0;
+            for (TaskletTracker t : trackers) {
+                ownLoad += t.lastWindowCpuNanos;
+            }
+            long thiefLoad = thief.utilizationPercent * UTILIZATION_WINDOW_NANOS / HUNDRED_PERCENT;
+            // moving a tasklet with load L gives max(ownLoad - L, thiefLoad + L), we look for the
+            // L closest to the half of the difference, but only if it makes the maximum lower
+            TaskletTracker best = null;
+            long bestDistance = Long.MAX_VALUE;
+            for (TaskletTracker t : trackers) {
+                long load = t.lastWindowCpuNanos;
+                long distance = Math.abs(2 * load - (ownLoad - thiefLoad));
+                if (load > 0 && thiefLoad + load < ownLoad && distance < bestDistance) {
+                    best = t;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        }
+
         private void runTasklet(TaskletTracker t) {
+            boolean measure = finestLogEnabled || workStealingEnabled;
             long start = 0;
-            if (finestLogEnabled) {
+            if (measure) {
                 start = System.nanoTime();
             }
             try {
@@ -418,9 +595,11 @@ public class TaskletExecutionService {
                 dismissTasklet(t);
             }
 
-            if (finestLogEnabled) {
-                long elapsedMs = NANOSECONDS.toMillis((System.nanoTime() - start));
-                if (elapsedMs > COOPERATIVE_LOGGING_THRESHOLD) {
+            if (measure) {
+                long elapsed = System.nanoTime() - start;
+                t.windowCpuNanos += elapsed;
+                long elapsedMs = NANOSECONDS.toMillis(elapsed);
+                if (finestLogEnabled && elapsedMs > COOPERATIVE_LOGGING_THRESHOLD) {
                     logger.finest("Cooperative tasklet call of '" + t.tasklet + "' took more than "
                             + COOPERATIVE_LOGGING_THRESHOLD + " ms: " + elapsedMs + "ms");
                 }
@@ -439,6 +618,11 @@ public class TaskletExecutionService {
         final ExecutionTracker executionTracker;
         final ClassLoader jobClassLoader;
 
+        // the time spent in the tasklet calls in the current and in the last
+        // utilization window, accessed only by the owning cooperative worker
+        long windowCpuNanos;
+        long lastWindowCpuNanos;
+
         TaskletTracker(Tasklet tasklet, ExecutionTracker executionTracker, ClassLoader jobClassLoader) {
             this.tasklet = tasklet;
             this.executionTracker = executionTracker;
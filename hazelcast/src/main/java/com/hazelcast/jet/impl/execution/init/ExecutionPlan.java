@@ -37,6 +37,8 @@ import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.function.RunnableEx;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.JobClassLoaderService;
+import com.hazelcast.jet.impl.LocalSnapshotManifest;
+import com.hazelcast.jet.impl.LocalSnapshotService;
 import com.hazelcast.jet.impl.execution.ConcurrentInboundEdgeStream;
 import com.hazelcast.jet.impl.execution.ConveyorCollector;
 import com.hazelcast.jet.impl.execution.ConveyorCollectorWithPartition;
@@ -52,7 +54,9 @@ import com.hazelcast.jet.impl.execution.Tasklet;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcSupplierCtx;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.LocalSnapshotTarget;
 import com.hazelcast.jet.impl.util.ImdgUtil;
+import com.hazelcast.jet.impl.util.LocalSnapshotStore;
 import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
@@ -61,6 +65,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.security.auth.Subject;
 import java.io.File;
 import java.io.IOException;
@@ -73,6 +78,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
@@ -234,7 +240,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     StoreSnapshotTasklet ssTasklet = new StoreSnapshotTasklet(snapshotContext,
                             ConcurrentInboundEdgeStream.create(ssConveyor, 0, 0, true, jobPrefix + "/ssFrom", null),
                             new AsyncSnapshotWriterImpl(nodeEngine, snapshotContext, vertex.name(), memberIndex, memberCount,
-                                    jobSerializationService),
+                                    jobSerializationService, createLocalSnapshotTarget(jobId, executionId, vertex)),
                             storeSnapshotLogger, vertex.name(), higherPriorityVertices.contains(vertex.vertexId()));
                     tasklets.add(ssTasklet);
                 }
@@ -439,6 +445,20 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
 
     // End implementation of IdentifiedDataSerializable
 
+    @Nullable
+    private LocalSnapshotTarget createLocalSnapshotTarget(long jobId, long executionId, VertexDef vertex) {
+        LocalSnapshotService localSnapshotService =
+                ((JetServiceBackend) nodeEngine.getService(JetServiceBackend.SERVICE_NAME)).getLocalSnapshotService();
+        if (!localSnapshotService.isEnabled()) {
+            return null;
+        }
+        UUID localUuid = nodeEngine.getLocalMember().getUuid();
+        LocalSnapshotStore store =
+                localSnapshotService.createStore(jobId, executionId, localUuid, vertex.vertexId(), vertex.name());
+        Address backupAddress = LocalSnapshotManifest.backupOf(nodeEngine.getThisAddress(), partitionAssignment.keySet());
+        return new LocalSnapshotTarget(store, backupAddress, jobId, executionId, localUuid, vertex.vertexId());
+    }
+
     @SuppressWarnings("rawtypes")
     private CompletableFuture<?> initProcSuppliers(
             long jobId,
@@ -27,6 +27,7 @@ import com.hazelcast.jet.impl.JobRepository.UpdateJobExecutionRecordEntryProcess
 import com.hazelcast.jet.impl.JobResult;
 import com.hazelcast.jet.impl.JobSummary;
 import com.hazelcast.jet.impl.JobSuspensionCauseImpl;
+import com.hazelcast.jet.impl.LocalSnapshotManifest;
 import com.hazelcast.jet.impl.SnapshotValidationRecord;
 import com.hazelcast.jet.impl.connector.WriteFileP;
 import com.hazelcast.jet.impl.operation.AddJobStatusListenerOperation;
@@ -46,6 +47,7 @@ import com.hazelcast.jet.impl.operation.IsJobUserCancelledOperation;
 import com.hazelcast.jet.impl.operation.JoinSubmittedJobOperation;
 import com.hazelcast.jet.impl.operation.NotifyMemberShutdownOperation;
 import com.hazelcast.jet.impl.operation.PrepareForPassiveClusterOperation;
+import com.hazelcast.jet.impl.operation.ReplicateLocalSnapshotOperation;
 import com.hazelcast.jet.impl.operation.ResumeJobOperation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation.SnapshotPhase1Result;
@@ -122,6 +124,8 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
     public static final int UPLOAD_JOB_METADATA_OP = 52;
     public static final int UPLOAD_JOB_MULTIPART_OP = 53;
     public static final int UPDATE_JOB_CONFIG_OP = 54;
+    public static final int LOCAL_SNAPSHOT_MANIFEST = 55;
+    public static final int REPLICATE_LOCAL_SNAPSHOT_OP = 56;
 
     public static final int FACTORY_ID = FactoryIdHelper.getFactoryId(JET_IMPL_DS_FACTORY, JET_IMPL_DS_FACTORY_ID);
 
@@ -190,6 +194,8 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
                 case UPLOAD_JOB_METADATA_OP -> new UploadJobMetaDataOperation();
                 case UPLOAD_JOB_MULTIPART_OP -> new UploadJobMultiPartOperation();
                 case GET_JOB_USER_CANCELLED_OP -> new IsJobUserCancelledOperation();
+                case LOCAL_SNAPSHOT_MANIFEST -> new LocalSnapshotManifest();
+                case REPLICATE_LOCAL_SNAPSHOT_OP -> new ReplicateLocalSnapshotOperation();
                 default -> throw new IllegalArgumentException("Unknown type id " + typeId);
             };
         }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.operation;
+
+import com.hazelcast.internal.util.UUIDSerializationUtil;
+import com.hazelcast.jet.impl.LocalSnapshotService;
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+
+/**
+ * Sent by a member to its backup member to replicate a block appended to
+ * one of its local snapshot files, see {@link
+ * LocalSnapshotService#applyReplica}. If the backup missed a block, the
+ * whole file is sent instead.
+ */
+public class ReplicateLocalSnapshotOperation extends AsyncJobOperation {
+
+    private long executionId;
+    private UUID primaryUuid;
+    private int vertexId;
+    private String vertexName;
+    private boolean replace;
+    private long compactedTo;
+    private byte[] payload;
+
+    // for deserialization
+    public ReplicateLocalSnapshotOperation() {
+    }
+
+    public ReplicateLocalSnapshotOperation(long jobId, long executionId, UUID primaryUuid, int vertexId,
+                                           String vertexName, boolean replace, long compactedTo, byte[] payload) {
+        super(jobId);
+        this.executionId = executionId;
+        this.primaryUuid = primaryUuid;
+        this.vertexId = vertexId;
+        this.vertexName = vertexName;
+        this.replace = replace;
+        this.compactedTo = compactedTo;
+        this.payload = payload;
+    }
+
+    @Override
+    protected CompletableFuture<Void> doRun() {
+        LocalSnapshotService localSnapshotService = getJetServiceBackend().getLocalSnapshotService();
+        return CompletableFuture.runAsync(() -> uncheckRun(() -> localSnapshotService.applyReplica(
+                        jobId(), executionId, primaryUuid, vertexId, vertexName, replace, compactedTo, payload)),
+                getNodeEngine().getExecutionService().getExecutor(ExecutionService.IO_EXECUTOR));
+    }
+
+    @Override
+    public int getClassId() {
+        return JetInitDataSerializerHook.REPLICATE_LOCAL_SNAPSHOT_OP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLong(executionId);
+        UUIDSerializationUtil.writeUUID(out, primaryUuid);
+        out.writeInt(vertexId);
+        out.writeString(vertexName);
+        out.writeBoolean(replace);
+        out.writeLong(compactedTo);
+        out.writeByteArray(payload);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        executionId = in.readLong();
+        primaryUuid = UUIDSerializationUtil.readUUID(in);
+        vertexId = in.readInt();
+        vertexName = in.readString();
+        replace = in.readBoolean();
+        compactedTo = in.readLong();
+        payload = in.readByteArray();
+    }
+}
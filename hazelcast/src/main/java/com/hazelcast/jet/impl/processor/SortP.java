@@ -16,51 +16,292 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.PriorityQueue;
 
+import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SORT_SPILL_THRESHOLD;
+import static java.util.Comparator.comparing;
+
+/**
+ * Sorts all received items and emits them in the {@code complete} phase.
+ * <p>
+ * The received items are sorted in chunks of {@value #SORT_CHUNK_SIZE}
+ * items as they arrive and the sorted chunks are merged when emitting, so
+ * that a single call doesn't sort more than one chunk.
+ * <p>
+ * If {@link com.hazelcast.spi.properties.ClusterProperty#JET_SORT_SPILL_THRESHOLD}
+ * is set, the processor performs an external merge sort: whenever the
+ * in-memory buffer reaches the threshold, its sorted chunks are merged to a
+ * local file as a sorted run. On completion, the spilled runs and the
+ * remaining in-memory items are merged. If there are more than {@value
+ * #MERGE_FAN_IN} runs, the runs are first merged to longer runs, {@value
+ * #MERGE_FAN_IN} at a time, so that the number of open files and the cost of
+ * selecting the next item stay bounded. The runs are written in batches so
+ * that a single call doesn't block the cooperative thread for long.
+ */
 public class SortP<T> extends AbstractProcessor {
 
-    private final PriorityQueue<T> priorityQueue;
-    private final Traverser<T> resultTraverser;
+    private static final int SPILL_BATCH_SIZE = 1024;
+    private static final int SORT_CHUNK_SIZE = 4096;
+    private static final int MERGE_FAN_IN = 64;
+
+    private final Comparator<T> comparator;
+    private final Comparator<Cursor<T>> cursorComparator;
+    private final List<SpillFile<T>> runs = new ArrayList<>();
+    private final Traverser<T> resultTraverser = this::nextSorted;
 
     private long maxItems;
+    private long spillThreshold;
+    private Path spillDirectory;
+    private InternalSerializationService serializationService;
+
+    private List<T> buffer = new ArrayList<>();
+    // the items of the buffer before this index are sorted in chunks of SORT_CHUNK_SIZE
+    private int sortedSize;
 
+    // the run being written and the items merged to it
+    private SpillFile<T> spillingRun;
+    private PriorityQueue<Cursor<T>> spillQueue;
+    // the number of runs at the start of the list being merged to the spilling run
+    private int mergedRunCount;
+
+    private PriorityQueue<Cursor<T>> mergeQueue;
+
+    @SuppressWarnings("unchecked")
     public SortP(@Nullable Comparator<T> comparator) {
-        this.priorityQueue = new PriorityQueue<>(comparator);
-        this.resultTraverser = priorityQueue::poll;
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
+        this.cursorComparator = comparing(Cursor::head, this.comparator);
     }
 
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxItems = context.maxProcessorAccumulatedRecords();
+        if (context instanceof ProcCtx procCtx) {
+            HazelcastProperties properties = procCtx.nodeEngine().getProperties();
+            spillThreshold = properties.getLong(JET_SORT_SPILL_THRESHOLD);
+            if (spillThreshold > 0) {
+                spillDirectory = SpillFile.spillDirectory(properties);
+                serializationService = procCtx.serializationService();
+            }
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    protected boolean tryProcess0(@Nonnull Object item) {
-        if (priorityQueue.size() == maxItems) {
+    protected boolean tryProcess0(@Nonnull Object item) throws IOException {
+        if (spillingRun != null && !spillBatch()) {
+            return false;
+        }
+        if (buffer.size() == maxItems) {
             throw new AccumulationLimitExceededException();
         }
 
-        priorityQueue.add((T) item);
+        buffer.add((T) item);
+        if (buffer.size() - sortedSize == SORT_CHUNK_SIZE) {
+            sortChunk();
+        }
+        if (spillThreshold > 0 && buffer.size() >= spillThreshold) {
+            sortChunk();
+            startSpill(chunkCursors(), 0);
+            buffer = new ArrayList<>();
+            sortedSize = 0;
+        }
         return true;
     }
 
     @Override
     public boolean complete() {
+        if (mergeQueue == null) {
+            try {
+                if (spillingRun != null && !spillBatch()) {
+                    return false;
+                }
+                if (runs.size() > MERGE_FAN_IN) {
+                    startSpill(runCursors(runs.subList(0, MERGE_FAN_IN)), MERGE_FAN_IN);
+                    return false;
+                }
+                startMerge();
+            } catch (IOException e) {
+                throw rethrow(e);
+            }
+        }
         return emitFromTraverser(resultTraverser);
     }
 
+    /**
+     * Sorts the items added to the buffer since the last sorted chunk.
+     */
+    private void sortChunk() {
+        buffer.subList(sortedSize, buffer.size()).sort(comparator);
+        sortedSize = buffer.size();
+    }
+
+    /**
+     * Starts merging the given cursors to a new run.
+     *
+     * @param mergedRunCount the number of runs at the start of the list
+     *                       which are merged and are to be removed once done
+     */
+    private void startSpill(PriorityQueue<Cursor<T>> cursors, int mergedRunCount) throws IOException {
+        spillingRun = new SpillFile<>(spillDirectory, serializationService);
+        runs.add(spillingRun);
+        spillQueue = cursors;
+        this.mergedRunCount = mergedRunCount;
+    }
+
+    /**
+     * Writes the next batch of the merged items to the current run.
+     *
+     * @return {@code true} if all items were spilled
+     */
+    private boolean spillBatch() throws IOException {
+        for (int i = 0; i < SPILL_BATCH_SIZE; i++) {
+            T item = poll(spillQueue);
+            if (item == null) {
+                // the merged runs were fully read and deleted
+                runs.subList(0, mergedRunCount).clear();
+                spillingRun = null;
+                spillQueue = null;
+                return true;
+            }
+            spillingRun.write(item);
+        }
+        return false;
+    }
+
+    private void startMerge() throws IOException {
+        sortChunk();
+        if (!runs.isEmpty()) {
+            getLogger().fine("Merging " + runs.size() + " spilled runs and " + buffer.size() + " in-memory items");
+        }
+        mergeQueue = chunkCursors();
+        mergeQueue.addAll(runCursors(runs));
+    }
+
+    private T nextSorted() {
+        try {
+            return poll(mergeQueue);
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Returns the smallest item of the cursors and advances its cursor, or
+     * {@code null} if all cursors are exhausted.
+     */
+    @Nullable
+    private T poll(PriorityQueue<Cursor<T>> cursors) throws IOException {
+        Cursor<T> cursor = cursors.poll();
+        if (cursor == null) {
+            return null;
+        }
+        T item = cursor.head();
+        if (cursor.advance()) {
+            cursors.add(cursor);
+        }
+        return item;
+    }
+
+    private PriorityQueue<Cursor<T>> chunkCursors() {
+        PriorityQueue<Cursor<T>> cursors = new PriorityQueue<>(cursorComparator);
+        for (int from = 0; from < buffer.size(); from += SORT_CHUNK_SIZE) {
+            cursors.add(new ChunkCursor<>(buffer, from, Math.min(from + SORT_CHUNK_SIZE, buffer.size())));
+        }
+        return cursors;
+    }
+
+    private PriorityQueue<Cursor<T>> runCursors(List<SpillFile<T>> runsToMerge) throws IOException {
+        PriorityQueue<Cursor<T>> cursors = new PriorityQueue<>(Math.max(1, runsToMerge.size()), cursorComparator);
+        for (SpillFile<T> run : runsToMerge) {
+            if (run.startReading()) {
+                cursors.add(new RunCursor<>(run));
+            }
+        }
+        return cursors;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (SpillFile<T> run : runs) {
+            run.close();
+        }
+    }
+
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        return runs.isEmpty();
+    }
+
+    /**
+     * A position in a sorted sequence of items.
+     */
+    private interface Cursor<T> {
+
+        /**
+         * Returns the item at the current position.
+         */
+        T head();
+
+        /**
+         * Moves to the next item.
+         *
+         * @return {@code false} if there are no more items
+         */
+        boolean advance() throws IOException;
+    }
+
+    /**
+     * A cursor over a sorted chunk of the in-memory buffer. It releases the
+     * references to the items it moved past.
+     */
+    private static final class ChunkCursor<T> implements Cursor<T> {
+        private final List<T> items;
+        private final int end;
+        private int position;
+
+        ChunkCursor(List<T> items, int start, int end) {
+            this.items = items;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public T head() {
+            return items.get(position);
+        }
+
+        @Override
+        public boolean advance() {
+            items.set(position++, null);
+            return position < end;
+        }
+    }
+
+    private record RunCursor<T>(SpillFile<T> run) implements Cursor<T> {
+        @Override
+        public T head() {
+            return run.head();
+        }
+
+        @Override
+        public boolean advance() throws IOException {
+            return run.advance();
+        }
     }
 }
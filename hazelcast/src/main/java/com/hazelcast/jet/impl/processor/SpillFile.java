@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A sequence of items spilled to a local file by processors which can't keep
+ * all their state in memory, for example by {@link SortP}. Items are written
+ * in their serialized form, each prefixed with its length. The file is first
+ * written in full and then read back exactly once, after which it is deleted.
+ */
+public final class SpillFile<T> implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final InternalSerializationService serializationService;
+
+    private DataOutputStream out;
+    private DataInputStream in;
+    private long size;
+    private long remaining;
+    private T head;
+
+    public SpillFile(Path directory, InternalSerializationService serializationService) throws IOException {
+        this.file = Files.createTempFile(directory, "hz-jet-spill-", ".bin");
+        this.serializationService = serializationService;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    /**
+     * Returns the directory configured by {@link ClusterProperty#JET_SPILL_DIRECTORY},
+     * creating it if it doesn't exist.
+     */
+    public static Path spillDirectory(HazelcastProperties properties) throws IOException {
+        String directory = properties.getString(ClusterProperty.JET_SPILL_DIRECTORY);
+        Path path = Paths.get(directory != null ? directory : System.getProperty("java.io.tmpdir"));
+        return Files.createDirectories(path);
+    }
+
+    /**
+     * Appends the item to the file.
+     */
+    public void write(T item) throws IOException {
+        byte[] bytes = serializationService.toData(item).toByteArray();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        size++;
+    }
+
+    /**
+     * Finishes writing and positions the file at its first item.
+     *
+     * @return {@code false} if the file is empty
+     */
+    public boolean startReading() throws IOException {
+        out.close();
+        out = null;
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+        remaining = size;
+        return advance();
+    }
+
+    /**
+     * Returns the item the file is positioned at.
+     */
+    public T head() {
+        return head;
+    }
+
+    /**
+     * Moves to the next item. Deletes the file once all items were read.
+     *
+     * @return {@code false} if there are no more items
+     */
+    public boolean advance() throws IOException {
+        if (remaining == 0) {
+            head = null;
+            close();
+            return false;
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        Data data = new HeapData(bytes);
+        head = serializationService.toObject(data);
+        remaining--;
+        return true;
+    }
+
+    /**
+     * Returns the number of items written to the file.
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            if (in != null) {
+                in.close();
+                in = null;
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.util;
 
+import com.hazelcast.cluster.Address;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.internal.nio.Bits;
 import com.hazelcast.internal.partition.IPartitionService;
@@ -23,9 +24,12 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.jet.impl.operation.ReplicateLocalSnapshotOperation;
+import com.hazelcast.jet.impl.util.LocalSnapshotStore.Commit;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
 import com.hazelcast.nio.ObjectDataInput;
@@ -33,22 +37,28 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.partition.PartitionAware;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.spi.impl.operationservice.Operation;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import static com.hazelcast.jet.impl.JobRepository.safeImap;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_LOCAL_DIRECTORY;
 
 public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
@@ -70,8 +80,12 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     private final SnapshotContext snapshotContext;
     private final String vertexName;
     private final int memberCount;
+    private final LocalSnapshotTarget localSnapshotTarget;
     private IMap<SnapshotDataKey, Object> currentMap;
     private long currentSnapshotId;
+    private boolean currentSnapshotLocal;
+    // false if the backup might have missed a block of the local snapshot file
+    private volatile boolean replicaInSync = true;
     private final AtomicReference<Throwable> firstError = new AtomicReference<>();
     private final AtomicInteger numActiveFlushes = new AtomicInteger();
 
@@ -87,8 +101,10 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                                    String vertexName,
                                    int memberIndex,
                                    int memberCount,
-                                   InternalSerializationService serializationService) {
-        this(DEFAULT_CHUNK_SIZE, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService);
+                                   InternalSerializationService serializationService,
+                                   @Nullable LocalSnapshotTarget localSnapshotTarget) {
+        this(DEFAULT_CHUNK_SIZE, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService,
+                localSnapshotTarget);
     }
 
     // for test
@@ -99,6 +115,17 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                             int memberIndex,
                             int memberCount,
                             InternalSerializationService serializationService) {
+        this(chunkSize, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService, null);
+    }
+
+    private AsyncSnapshotWriterImpl(int chunkSize,
+                                    NodeEngine nodeEngine,
+                                    SnapshotContext snapshotContext,
+                                    String vertexName,
+                                    int memberIndex,
+                                    int memberCount,
+                                    InternalSerializationService serializationService,
+                                    @Nullable LocalSnapshotTarget localSnapshotTarget) {
         if (Integer.bitCount(chunkSize) != 1) {
             throw new IllegalArgumentException("chunkSize must be a power of two, but is " + chunkSize);
         }
@@ -108,6 +135,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         this.snapshotContext = snapshotContext;
         this.vertexName = vertexName;
         this.memberCount = memberCount;
+        this.localSnapshotTarget = localSnapshotTarget;
         currentSnapshotId = snapshotContext.currentSnapshotId();
 
         useBigEndian = serializationService.getByteOrder().equals(ByteOrder.BIG_ENDIAN);
@@ -163,6 +191,13 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     @Override
     @CheckReturnValue
     public boolean offer(Entry<? extends Data, ? extends Data> entry) {
+        if (!initCurrentMap()) {
+            return false;
+        }
+        if (currentSnapshotLocal) {
+            offerToLocalStore(entry);
+            return true;
+        }
         int partitionId = partitionService.getPartitionId(entry.getKey());
         int length = entry.getKey().totalSize() + entry.getValue().totalSize() - 2 * HeapData.TYPE_OFFSET;
 
@@ -279,10 +314,77 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             // to have failOnIndeterminateOperationState enabled.
             currentMap = safeImap(nodeEngine.getHazelcastInstance().getMap(mapName));
             this.currentSnapshotId = snapshotContext.currentSnapshotId();
+            this.currentSnapshotLocal = snapshotContext.isLocalSnapshot();
         }
         return true;
     }
 
+    private void offerToLocalStore(Entry<? extends Data, ? extends Data> entry) {
+        if (localSnapshotTarget == null) {
+            firstError.compareAndSet(null, new JetException("Snapshot " + currentSnapshotId + " should be written to "
+                    + "local files, but " + JET_SNAPSHOT_LOCAL_DIRECTORY.getName() + " isn't set on member "
+                    + nodeEngine.getThisAddress()));
+            return;
+        }
+        localSnapshotTarget.store().put(entry.getKey(), entry.getValue());
+        totalKeys++;
+    }
+
+    /**
+     * Appends the entries offered since the last snapshot to the local file
+     * and replicates the appended block to the backup member. Both are done
+     * on the IO executor and counted as one pending async op.
+     */
+    private void commitLocalStore() {
+        long snapshotId = currentSnapshotId;
+        long confirmedSnapshotId = snapshotContext.lastConfirmedLocalSnapshotId();
+        numActiveFlushes.incrementAndGet();
+        try {
+            nodeEngine.getExecutionService().execute(ExecutionService.IO_EXECUTOR, () -> {
+                try {
+                    Commit commit = localSnapshotTarget.store().commit(snapshotId, confirmedSnapshotId);
+                    totalPayloadBytes += commit.block().length;
+                    replicateLocalStore(commit);
+                } catch (Throwable e) {
+                    localStoreFailed(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            localStoreFailed(e);
+        }
+    }
+
+    private void replicateLocalStore(Commit commit) throws IOException {
+        Address backupAddress = localSnapshotTarget.backupAddress();
+        if (backupAddress == null) {
+            numActiveFlushes.decrementAndGet();
+            return;
+        }
+        // if the backup missed a block, replace its copy with the whole file
+        Operation op = replicaInSync
+                ? localSnapshotTarget.replicateOperation(vertexName, false, commit.compactedTo(), commit.block())
+                : localSnapshotTarget.replicateOperation(vertexName, true, LocalSnapshotStore.NO_SNAPSHOT,
+                        localSnapshotTarget.store().readCommitted());
+        nodeEngine.getOperationService()
+                  .invokeOnTarget(JetServiceBackend.SERVICE_NAME, op, backupAddress)
+                  .whenComplete((r, t) -> {
+                      if (t != null) {
+                          localStoreFailed(t);
+                      } else {
+                          replicaInSync = true;
+                          numActiveFlushes.decrementAndGet();
+                      }
+                  });
+    }
+
+    private void localStoreFailed(Throwable e) {
+        logger.severe("Error writing local snapshot " + currentSnapshotId + " of " + vertexName, e);
+        // the backup might not have the block or the primary might have compacted the file
+        replicaInSync = false;
+        firstError.compareAndSet(null, e);
+        numActiveFlushes.decrementAndGet();
+    }
+
     /**
      * Flush all partitions and reset current map. No further items can be
      * offered until new snapshot is seen in {@link #snapshotContext}.
@@ -297,9 +399,15 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             return false;
         }
 
-        for (int i = 0; i < buffers.length; i++) {
-            if (!flushPartition(i)) {
-                return false;
+        if (currentSnapshotLocal) {
+            if (localSnapshotTarget != null) {
+                commitLocalStore();
+            }
+        } else {
+            for (int i = 0; i < buffers.length; i++) {
+                if (!flushPartition(i)) {
+                    return false;
+                }
             }
         }
 
@@ -336,6 +444,23 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         return partitionKeys[partitionId];
     }
 
+    /**
+     * Where the snapshots of the vertex are written to when the snapshot is
+     * {@linkplain SnapshotContext#isLocalSnapshot() local}.
+     *
+     * @param store         the local file of the vertex
+     * @param backupAddress the member to replicate the file to, {@code null}
+     *                      if this member is the only participant
+     */
+    public record LocalSnapshotTarget(@Nonnull LocalSnapshotStore store, @Nullable Address backupAddress,
+                                      long jobId, long executionId, @Nonnull UUID memberUuid, int vertexId) {
+
+        Operation replicateOperation(String vertexName, boolean replace, long compactedTo, byte[] payload) {
+            return new ReplicateLocalSnapshotOperation(jobId, executionId, memberUuid, vertexId, vertexName,
+                    replace, compactedTo, payload);
+        }
+    }
+
     public static final class SnapshotDataKey implements IdentifiedDataSerializable, PartitionAware {
         private int partitionKey;
         private long snapshotId;
@@ -0,0 +1,601 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.jet.Util.entry;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The snapshots of one vertex on one member, stored in a local file. Unlike
+ * the snapshot {@code IMap}, which gets the whole state of the vertex with
+ * every snapshot, the file only gets the entries which changed since the
+ * previous snapshot.
+ * <p>
+ * The entries of a snapshot are {@linkplain #put put} to the store and then
+ * {@linkplain #commit committed}. The store keeps a 64-bit hash of the value
+ * of each committed entry, a commit appends a block with the entries whose
+ * value changed and with the removal of the entries which weren't put again.
+ * A key can be put multiple times in a snapshot, e.g. a broadcast key saved
+ * by every processor, each occurrence is tracked as a separate entry. The
+ * block is tagged with the snapshot ID, so that the file can be {@linkplain
+ * #restore restored} to any snapshot it contains.
+ * <p>
+ * A block becomes visible once the committed length in the file header is
+ * updated, so a failed commit leaves the previous snapshots intact. Once the
+ * appended blocks outgrow {@link #COMPACTION_FACTOR} times the size of the
+ * live entries, the blocks up to the last snapshot confirmed by the
+ * coordinator are merged into one. Later blocks are kept, because the job
+ * might still be restored from the confirmed snapshot.
+ * <p>
+ * The file operations are static, so that the backup member can apply the
+ * blocks replicated from the primary to its copy of the file and get a
+ * byte-for-byte equal result.
+ * <p>
+ * The class isn't thread-safe. {@link #put} must not be called concurrently
+ * with {@link #commit}.
+ */
+public class LocalSnapshotStore {
+
+    /**
+     * Snapshot ID meaning no snapshot, e.g. no compaction in {@link Commit}.
+     */
+    public static final long NO_SNAPSHOT = -1;
+
+    /**
+     * The suffix of the snapshot files.
+     */
+    public static final String FILE_SUFFIX = ".snapshot";
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    /**
+     * Magic bytes for the file header.
+     */
+    private static final int MAGIC_BYTES = 0x4A534E50;
+
+    /**
+     * File format for the file header.
+     */
+    private static final int FILE_FORMAT_SNAPSHOT_BLOCKS = 1;
+
+    private static final int COMMITTED_LENGTH_OFFSET = 2 * INT_SIZE_IN_BYTES;
+
+    /**
+     * Size of the file header without the vertex name bytes: magic, format,
+     * committed length and the length of the vertex name.
+     */
+    private static final int HEADER_OVERHEAD = COMMITTED_LENGTH_OFFSET + LONG_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
+
+    /**
+     * Size of the block header: snapshot ID and record count.
+     */
+    private static final int BLOCK_HEADER_SIZE = LONG_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
+
+    /**
+     * Size of a removal record without the key bytes: type, occurrence and key length.
+     */
+    private static final int REMOVE_RECORD_OVERHEAD = BYTE_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+
+    /**
+     * Size of a put record without the key and value bytes: removal overhead and value length.
+     */
+    private static final int PUT_RECORD_OVERHEAD = REMOVE_RECORD_OVERHEAD + INT_SIZE_IN_BYTES;
+
+    private static final byte RECORD_PUT = 0;
+    private static final byte RECORD_REMOVE = 1;
+
+    /**
+     * The file is compacted when it grows beyond this factor of the size of the live entries.
+     */
+    private static final int COMPACTION_FACTOR = 2;
+
+    private final Path file;
+    private final String vertexName;
+
+    private final Map<EntryKey, EntryState> committed = new HashMap<>();
+    private final Map<EntryKey, Data> pendingPuts = new LinkedHashMap<>();
+    private int epoch;
+    private long liveBytes;
+    private long fileLength;
+    private long baseSnapshotId = NO_SNAPSHOT;
+
+    /**
+     * Creates a store writing to the given file. The file and its directory
+     * are created with the first commit.
+     */
+    public LocalSnapshotStore(Path file, String vertexName) {
+        this.file = file;
+        this.vertexName = vertexName;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Adds an entry to the snapshot being written. The entry is only kept
+     * until the commit if its value differs from the committed one.
+     */
+    public void put(Data key, Data value) {
+        EntryKey entryKey;
+        EntryState state;
+        // find the first occurrence of the key which wasn't put yet in this snapshot
+        for (int occurrence = 0; ; occurrence++) {
+            entryKey = new EntryKey(key, occurrence);
+            state = committed.get(entryKey);
+            if ((state == null || state.epoch != epoch) && !pendingPuts.containsKey(entryKey)) {
+                break;
+            }
+        }
+
+        if (state != null && state.valueHash == value.hash64() && state.valueSize == value.totalSize()) {
+            state.epoch = epoch;
+        } else {
+            pendingPuts.put(entryKey, value);
+        }
+    }
+
+    /**
+     * Appends the changes since the last commit to the file as a block of the
+     * given snapshot. The entries which weren't put since the last commit are
+     * removed. If the commit fails, the entries put since the last commit are
+     * discarded.
+     *
+     * @param snapshotId          the ID of the snapshot the entries belong to
+     * @param confirmedSnapshotId the ID of the latest snapshot the job can be
+     *                            restored from, the file is only compacted up
+     *                            to this snapshot
+     * @return the appended block and the compaction done before appending it
+     */
+    @Nonnull
+    public Commit commit(long snapshotId, long confirmedSnapshotId) throws IOException {
+        try {
+            List<EntryKey> removals = new ArrayList<>();
+            long newLiveBytes = liveBytes;
+            for (Entry<EntryKey, EntryState> entry : committed.entrySet()) {
+                EntryState state = entry.getValue();
+                if (state.epoch != epoch && !pendingPuts.containsKey(entry.getKey())) {
+                    removals.add(entry.getKey());
+                    newLiveBytes -= state.recordSize;
+                }
+            }
+            for (Entry<EntryKey, Data> entry : pendingPuts.entrySet()) {
+                EntryState state = committed.get(entry.getKey());
+                newLiveBytes += putRecordSize(entry.getKey(), entry.getValue()) - (state != null ? state.recordSize : 0);
+            }
+            byte[] block = createBlock(snapshotId, removals);
+
+            long compactedTo = NO_SNAPSHOT;
+            if (fileLength > 0 && confirmedSnapshotId > baseSnapshotId
+                    && fileLength + block.length > COMPACTION_FACTOR * (headerSize(vertexName) + newLiveBytes)) {
+                fileLength = compact(file, confirmedSnapshotId);
+                baseSnapshotId = confirmedSnapshotId;
+                compactedTo = confirmedSnapshotId;
+            }
+            fileLength = appendBlock(file, vertexName, block);
+            if (baseSnapshotId == NO_SNAPSHOT) {
+                baseSnapshotId = snapshotId;
+            }
+
+            for (EntryKey removal : removals) {
+                committed.remove(removal);
+            }
+            for (Entry<EntryKey, Data> entry : pendingPuts.entrySet()) {
+                Data value = entry.getValue();
+                committed.put(entry.getKey(), new EntryState(value.hash64(), value.totalSize(),
+                        putRecordSize(entry.getKey(), value), epoch));
+            }
+            liveBytes = newLiveBytes;
+            pendingPuts.clear();
+            epoch++;
+            return new Commit(block, compactedTo);
+        } catch (IOException | RuntimeException e) {
+            discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Discards the entries put since the last commit.
+     */
+    public void discard() {
+        pendingPuts.clear();
+        epoch++;
+    }
+
+    /**
+     * Returns the committed content of the file, used to replace the copy of
+     * the file on the backup member.
+     */
+    @Nonnull
+    public byte[] readCommitted() throws IOException {
+        if (fileLength == 0) {
+            return new byte[0];
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.readNBytes(Math.toIntExact(fileLength));
+        }
+    }
+
+    private byte[] createBlock(long snapshotId, List<EntryKey> removals) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(snapshotId);
+        out.writeInt(pendingPuts.size() + removals.size());
+        for (Entry<EntryKey, Data> entry : pendingPuts.entrySet()) {
+            writePutRecord(out, entry.getKey(), entry.getValue().toByteArray());
+        }
+        for (EntryKey removal : removals) {
+            out.writeByte(RECORD_REMOVE);
+            out.writeInt(removal.occurrence);
+            writeBytes(out, removal.key.toByteArray());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Appends a block to the file and makes it visible by updating the
+     * committed length in the header. Creates the file, if it doesn't exist.
+     *
+     * @return the new committed length of the file
+     */
+    public static long appendBlock(Path file, String vertexName, byte[] block) throws IOException {
+        if (!Files.exists(file)) {
+            Files.createDirectories(file.getParent());
+            byte[] name = vertexName.getBytes(UTF_8);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_OVERHEAD + name.length)
+                    .putInt(MAGIC_BYTES)
+                    .putInt(FILE_FORMAT_SNAPSHOT_BLOCKS)
+                    .putLong(HEADER_OVERHEAD + name.length)
+                    .putInt(name.length)
+                    .put(name)
+                    .flip();
+            try (FileChannel channel = FileChannel.open(file, CREATE_NEW, WRITE)) {
+                channel.write(header);
+                channel.force(false);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+            long fileLength = readCommittedLength(channel, file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, fileLength, block.length);
+            try {
+                buffer.put(block);
+                buffer.force();
+            } finally {
+                unmap(buffer);
+            }
+
+            // the appended block becomes visible once the committed length is updated
+            long length = fileLength + block.length;
+            ByteBuffer header = ByteBuffer.allocate(LONG_SIZE_IN_BYTES).putLong(length).flip();
+            channel.write(header, COMMITTED_LENGTH_OFFSET);
+            channel.force(false);
+            return length;
+        }
+    }
+
+    /**
+     * Merges the blocks of the file up to the given snapshot into a single
+     * block tagged with the ID of the last merged block. The later blocks
+     * are kept as they are. The file is rewritten to a temporary file, which
+     * then replaces it.
+     *
+     * @return the new committed length of the file
+     */
+    public static long compact(Path file, long snapshotId) throws IOException {
+        Map<EntryKey, byte[]> entries = new LinkedHashMap<>();
+        ByteArrayOutputStream laterBlocks = new ByteArrayOutputStream();
+        String vertexName;
+        long baseId = NO_SNAPSHOT;
+        try (DataInputStream in = openForRead(file)) {
+            vertexName = readVertexName(in);
+            long remaining = committedRemaining(file, vertexName);
+            DataOutputStream laterOut = new DataOutputStream(laterBlocks);
+            while (remaining > 0) {
+                long blockId = in.readLong();
+                int recordCount = in.readInt();
+                remaining -= BLOCK_HEADER_SIZE;
+                if (blockId <= snapshotId) {
+                    baseId = blockId;
+                    remaining -= readRecords(in, recordCount, entries);
+                } else {
+                    laterOut.writeLong(blockId);
+                    laterOut.writeInt(recordCount);
+                    remaining -= copyRecords(in, recordCount, laterOut);
+                }
+            }
+        }
+        if (baseId == NO_SNAPSHOT) {
+            // nothing to merge
+            return committedLength(file);
+        }
+
+        byte[] name = vertexName.getBytes(UTF_8);
+        Path tmpFile = file.resolveSibling(file.getFileName() + TMP_SUFFIX);
+        long length = HEADER_OVERHEAD + name.length + BLOCK_HEADER_SIZE + laterBlocks.size();
+        for (Entry<EntryKey, byte[]> entry : entries.entrySet()) {
+            length += PUT_RECORD_OVERHEAD + entry.getKey().key.totalSize() + entry.getValue().length;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC_BYTES);
+            out.writeInt(FILE_FORMAT_SNAPSHOT_BLOCKS);
+            out.writeLong(length);
+            out.writeInt(name.length);
+            out.write(name);
+            out.writeLong(baseId);
+            out.writeInt(entries.size());
+            for (Entry<EntryKey, byte[]> entry : entries.entrySet()) {
+                writePutRecord(out, entry.getKey(), entry.getValue());
+            }
+            laterBlocks.writeTo(out);
+        }
+        forceAndMove(tmpFile, file);
+        return length;
+    }
+
+    /**
+     * Replaces the file with the given content, which is the committed
+     * content of another copy of the file.
+     */
+    public static void replace(Path file, byte[] content) throws IOException {
+        Path tmpFile = file.resolveSibling(file.getFileName() + TMP_SUFFIX);
+        Files.write(tmpFile, content);
+        forceAndMove(tmpFile, file);
+    }
+
+    /**
+     * Reads the state of the vertex at the given snapshot from the file.
+     * If the file has no block of the snapshot, the vertex completed before
+     * the snapshot and the returned state has no entries.
+     *
+     * @throws IOException if the file is damaged or if it was compacted
+     *                     beyond the given snapshot
+     */
+    @Nonnull
+    public static RestoredState restore(Path file, long snapshotId) throws IOException {
+        Map<EntryKey, byte[]> entries = new LinkedHashMap<>();
+        String vertexName;
+        boolean found = false;
+        try (DataInputStream in = openForRead(file)) {
+            vertexName = readVertexName(in);
+            long remaining = committedRemaining(file, vertexName);
+            boolean first = true;
+            while (remaining > 0) {
+                long blockId = in.readLong();
+                int recordCount = in.readInt();
+                if (first && blockId > snapshotId) {
+                    throw new IOException("Local snapshot file " + file + " doesn't contain snapshot " + snapshotId
+                            + ", the first snapshot in the file is " + blockId);
+                }
+                first = false;
+                if (blockId > snapshotId) {
+                    break;
+                }
+                remaining -= BLOCK_HEADER_SIZE + readRecords(in, recordCount, entries);
+                found = blockId == snapshotId;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Local snapshot file " + file + " is truncated", e);
+        }
+        List<Entry<Data, Data>> result = new ArrayList<>(found ? entries.size() : 0);
+        if (found) {
+            for (Entry<EntryKey, byte[]> entry : entries.entrySet()) {
+                result.add(entry(entry.getKey().key, new HeapData(entry.getValue())));
+            }
+        }
+        return new RestoredState(vertexName, result);
+    }
+
+    private static DataInputStream openForRead(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC_BYTES || in.readInt() != FILE_FORMAT_SNAPSHOT_BLOCKS) {
+                throw new IOException("Unexpected header of the local snapshot file " + file);
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the rest of the header after the magic bytes and the format.
+     */
+    private static String readVertexName(DataInputStream in) throws IOException {
+        in.readLong();
+        byte[] name = new byte[in.readInt()];
+        in.readFully(name);
+        return new String(name, UTF_8);
+    }
+
+    private static long committedRemaining(Path file, String vertexName) throws IOException {
+        return committedLength(file) - headerSize(vertexName);
+    }
+
+    private static long committedLength(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            return readCommittedLength(channel, file);
+        }
+    }
+
+    private static long readCommittedLength(FileChannel channel, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(LONG_SIZE_IN_BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, COMMITTED_LENGTH_OFFSET + buffer.position()) < 0) {
+                throw new IOException("Local snapshot file " + file + " is truncated");
+            }
+        }
+        return buffer.flip().getLong();
+    }
+
+    /**
+     * Replays the records of a block into the given map.
+     *
+     * @return the number of bytes read
+     */
+    private static long readRecords(DataInputStream in, int recordCount, Map<EntryKey, byte[]> entries)
+            throws IOException {
+        long size = 0;
+        for (int i = 0; i < recordCount; i++) {
+            byte type = in.readByte();
+            int occurrence = in.readInt();
+            byte[] key = readBytes(in);
+            EntryKey entryKey = new EntryKey(new HeapData(key), occurrence);
+            if (type == RECORD_PUT) {
+                byte[] value = readBytes(in);
+                entries.put(entryKey, value);
+                size += PUT_RECORD_OVERHEAD + key.length + value.length;
+            } else {
+                entries.remove(entryKey);
+                size += REMOVE_RECORD_OVERHEAD + key.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Copies the records of a block to the given output.
+     *
+     * @return the number of bytes copied
+     */
+    private static long copyRecords(DataInputStream in, int recordCount, DataOutputStream out) throws IOException {
+        long size = 0;
+        for (int i = 0; i < recordCount; i++) {
+            byte type = in.readByte();
+            out.writeByte(type);
+            out.writeInt(in.readInt());
+            byte[] key = readBytes(in);
+            writeBytes(out, key);
+            size += REMOVE_RECORD_OVERHEAD + key.length;
+            if (type == RECORD_PUT) {
+                byte[] value = readBytes(in);
+                writeBytes(out, value);
+                size += INT_SIZE_IN_BYTES + value.length;
+            }
+        }
+        return size;
+    }
+
+    private static void writePutRecord(DataOutputStream out, EntryKey entryKey, byte[] value) throws IOException {
+        out.writeByte(RECORD_PUT);
+        out.writeInt(entryKey.occurrence);
+        writeBytes(out, entryKey.key.toByteArray());
+        writeBytes(out, value);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void forceAndMove(Path tmpFile, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(tmpFile, WRITE)) {
+            channel.force(false);
+        }
+        Files.move(tmpFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private static long headerSize(String vertexName) {
+        return HEADER_OVERHEAD + vertexName.getBytes(UTF_8).length;
+    }
+
+    private static int putRecordSize(EntryKey entryKey, Data value) {
+        return PUT_RECORD_OVERHEAD + entryKey.key.totalSize() + value.totalSize();
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        // release the mapping eagerly, so the file can be renamed or deleted on all platforms
+        if (UNSAFE_AVAILABLE) {
+            UNSAFE.invokeCleaner(buffer);
+        }
+    }
+
+    /**
+     * The result of {@link #commit}.
+     *
+     * @param block       the appended block
+     * @param compactedTo the snapshot ID up to which the file was compacted
+     *                    before appending the block or {@link #NO_SNAPSHOT}
+     */
+    public record Commit(byte[] block, long compactedTo) {
+    }
+
+    /**
+     * The state of a vertex read by {@link #restore}.
+     */
+    public record RestoredState(String vertexName, List<Entry<Data, Data>> entries) {
+    }
+
+    private record EntryKey(Data key, int occurrence) {
+    }
+
+    private static final class EntryState {
+
+        private final long valueHash;
+        private final int valueSize;
+        private final int recordSize;
+        private int epoch;
+
+        EntryState(long valueHash, int valueSize, int recordSize, int epoch) {
+            this.valueHash = valueHash;
+            this.valueSize = valueSize;
+            this.recordSize = recordSize;
+            this.epoch = epoch;
+        }
+    }
+}
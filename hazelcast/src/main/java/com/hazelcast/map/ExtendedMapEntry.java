@@ -16,6 +16,9 @@
 
 package com.hazelcast.map;
 
+import com.hazelcast.nio.serialization.genericrecord.MutableGenericRecord;
+import com.hazelcast.spi.annotation.Beta;
+
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
@@ -47,4 +50,24 @@ public interface ExtendedMapEntry<K, V> extends Entry<K, V> {
      */
     V setValueWithoutChangingExpiryTime(V value);
 
+    /**
+     * Returns a view of the Compact serialized value of the entry, whose
+     * fields can be read and updated without deserializing the whole value.
+     * The fields updated through the view replace the value of the entry,
+     * as if {@link Entry#setValue} was called with the updated value; the
+     * binary of the other fields is copied as it is.
+     * <p>
+     * Calling {@link Entry#setValue} or
+     * {@link #setValue(Object, long, TimeUnit)} afterwards detaches the view
+     * from the entry.
+     *
+     * @return the view of the value, or {@code null} if the entry has no value
+     * @throws UnsupportedOperationException if the value is not Compact
+     *                                       serialized
+     * @since 6.0
+     */
+    @Beta
+    default MutableGenericRecord getValueAsMutableGenericRecord() {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -19,10 +19,12 @@ package com.hazelcast.map.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.compact.CompactMutableGenericRecord;
 import com.hazelcast.map.ExtendedMapEntry;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.genericrecord.MutableGenericRecord;
 import com.hazelcast.query.impl.CachedQueryEntry;
 import com.hazelcast.query.impl.getters.Extractors;
 
@@ -68,6 +70,7 @@ public class LazyMapEntry<K, V> extends CachedQueryEntry<K, V>
     private transient long newTtl = UNSET;
     private transient boolean modified;
     private transient boolean changeExpiryOnUpdate = true;
+    private transient CompactMutableGenericRecord mutableValue;
 
     public LazyMapEntry() {
     }
@@ -85,12 +88,14 @@ public class LazyMapEntry<K, V> extends CachedQueryEntry<K, V>
                              boolean changeExpiryOnUpdate) {
         super.init(serializationService, key, value, extractors);
         this.modified = false;
+        this.mutableValue = null;
         this.newTtl = ttl;
         this.changeExpiryOnUpdate = changeExpiryOnUpdate;
         return this;
     }
 
     public void setValueByInMemoryFormat(InMemoryFormat inMemoryFormat, Object value) {
+        mutableValue = null;
         if (inMemoryFormat == InMemoryFormat.OBJECT) {
             valueObject = (V) value;
             valueData = null;
@@ -106,6 +111,7 @@ public class LazyMapEntry<K, V> extends CachedQueryEntry<K, V>
         V oldValue = getValue();
         this.valueObject = value;
         this.valueData = null;
+        this.mutableValue = null;
         this.changeExpiryOnUpdate = true;
         this.newTtl = UNSET;
         return oldValue;
@@ -132,6 +138,66 @@ public class LazyMapEntry<K, V> extends CachedQueryEntry<K, V>
         modified = true;
         valueObject = null;
         valueData = null;
+        mutableValue = null;
+    }
+
+    @Override
+    public MutableGenericRecord getValueAsMutableGenericRecord() {
+        if (mutableValue == null) {
+            Data data = getValueData();
+            if (data == null) {
+                return null;
+            }
+            if (!data.isCompact()) {
+                throw new UnsupportedOperationException("The value is not Compact serialized");
+            }
+            mutableValue = new CompactMutableGenericRecord(serializationService, data);
+        }
+        return mutableValue;
+    }
+
+    /**
+     * Replaces the value with the serialized form of the mutable view of it,
+     * if some of its fields are updated.
+     */
+    private void applyMutableValue() {
+        if (mutableValue != null && mutableValue.isModified()) {
+            modified = true;
+            valueData = mutableValue.toData();
+            valueObject = null;
+        }
+    }
+
+    @Override
+    public V getValue() {
+        applyMutableValue();
+        return super.getValue();
+    }
+
+    @Override
+    public Data getValueData() {
+        applyMutableValue();
+        return super.getValueData();
+    }
+
+    @Override
+    public Object getByPrioritizingDataValue() {
+        applyMutableValue();
+        return super.getByPrioritizingDataValue();
+    }
+
+    @Override
+    public Object getByPrioritizingObjectValue() {
+        applyMutableValue();
+        return super.getByPrioritizingObjectValue();
+    }
+
+    @Override
+    protected Object getTargetObject(boolean key) {
+        if (!key) {
+            applyMutableValue();
+        }
+        return super.getTargetObject(key);
     }
 
     /**
@@ -144,7 +210,7 @@ public class LazyMapEntry<K, V> extends CachedQueryEntry<K, V>
     }
 
     public boolean isModified() {
-        return modified;
+        return modified || (mutableValue != null && mutableValue.isModified());
     }
 
     public long getNewTtl() {
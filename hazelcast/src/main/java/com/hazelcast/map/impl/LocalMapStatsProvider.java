@@ -35,6 +35,8 @@ import com.hazelcast.internal.util.ExceptionUtil;
 import com.hazelcast.internal.util.MapUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.map.impl.mapstore.MapStoreBloomFilter;
+import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindManager;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
 import com.hazelcast.map.impl.proxy.MapProxyImpl;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -120,6 +122,7 @@ public class LocalMapStatsProvider {
         LocalMapOnDemandCalculatedStats onDemandStats = new LocalMapOnDemandCalculatedStats();
         addNearCacheStats(mapName, stats, onDemandStats);
         addIndexStats(mapName, stats);
+        addWriteBehindFlushStats(mapName, stats);
         updateMapOnDemandStats(mapName, onDemandStats);
 
         return onDemandStats.updateAndGet(stats);
@@ -153,6 +156,7 @@ public class LocalMapStatsProvider {
             LocalMapOnDemandCalculatedStats onDemand = ((LocalMapOnDemandCalculatedStats) entry.getValue());
             addNearCacheStats(mapName, existingStats, onDemand);
             addIndexStats(mapName, existingStats);
+            addWriteBehindFlushStats(mapName, existingStats);
             addStructureStats(mapName, onDemand);
 
             LocalMapStatsImpl updatedStats = onDemand.updateAndGet(existingStats);
@@ -251,6 +255,11 @@ public class LocalMapStatsProvider {
         // without looking entry count in map keys that
         // are not contained by a map can be locked
         onDemandStats.incrementLockedEntryCount(recordStore.getLockedEntryCount());
+        MapStoreBloomFilter bloomFilter = recordStore.getMapStoreBloomFilter();
+        if (bloomFilter != null) {
+            onDemandStats.incrementMapStoreBloomFilterCounts(bloomFilter.getSkippedLoadCount(),
+                    bloomFilter.getFalsePositiveCount());
+        }
     }
 
     private void addStatsOfBackupReplica(RecordStore recordStore, LocalMapOnDemandCalculatedStats onDemandStats) {
@@ -344,6 +353,14 @@ public class LocalMapStatsProvider {
         onDemandStats.incrementHeapCost(nearCacheStats.getOwnedEntryMemoryCost());
     }
 
+    private void addWriteBehindFlushStats(String mapName, LocalMapStatsImpl localMapStats) {
+        MapContainer mapContainer = mapServiceContext.getExistingMapContainer(mapName);
+        if (mapContainer != null
+                && mapContainer.getMapStoreContext().getMapStoreManager() instanceof WriteBehindManager writeBehindManager) {
+            localMapStats.setWriteBehindFlushStats(writeBehindManager.getFlushStats());
+        }
+    }
+
     private void addIndexStats(String mapName, LocalMapStatsImpl localMapStats) {
         MapContainer mapContainer = mapServiceContext.getExistingMapContainer(mapName);
         if (mapContainer == null) {
@@ -472,6 +489,8 @@ public class LocalMapStatsProvider {
         private long merkleTreesCost;
         private long lockedEntryCount;
         private long dirtyEntryCount;
+        private long mapStoreBloomFilterSkippedLoadCount;
+        private long mapStoreBloomFilterFalsePositiveCount;
         private long lastAccessTime;
         private long lastUpdateTime;
 
@@ -515,6 +534,11 @@ public class LocalMapStatsProvider {
             this.dirtyEntryCount += dirtyEntryCount;
         }
 
+        public void incrementMapStoreBloomFilterCounts(long skippedLoadCount, long falsePositiveCount) {
+            this.mapStoreBloomFilterSkippedLoadCount += skippedLoadCount;
+            this.mapStoreBloomFilterFalsePositiveCount += falsePositiveCount;
+        }
+
         public void incrementHeapCost(long heapCost) {
             this.heapCost += heapCost;
         }
@@ -536,6 +560,8 @@ public class LocalMapStatsProvider {
             stats.setMerkleTreesCost(merkleTreesCost);
             stats.setLockedEntryCount(lockedEntryCount);
             stats.setDirtyEntryCount(dirtyEntryCount);
+            stats.setMapStoreBloomFilterSkippedLoadCount(mapStoreBloomFilterSkippedLoadCount);
+            stats.setMapStoreBloomFilterFalsePositiveCount(mapStoreBloomFilterFalsePositiveCount);
             stats.setLastAccessTime(lastAccessTime);
             stats.setLastUpdateTime(lastUpdateTime);
             return stats;
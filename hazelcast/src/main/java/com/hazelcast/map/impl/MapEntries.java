@@ -25,12 +25,14 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.CollectionUtil;
 
 import java.io.IOException;
+import java.util.AbstractCollection;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * MapEntries is a collection of {@link Data} instances for keys and values of a {@link java.util.Map.Entry}.
@@ -70,6 +72,43 @@ public final class MapEntries implements IdentifiedDataSerializable {
         return entries;
     }
 
+    /**
+     * Returns a read-only view of the entries. Unlike {@link #entries()}, it
+     * doesn't copy the entries into a list, but creates each entry as it is
+     * iterated, e.g. while the entries are encoded into a client message.
+     */
+    public Collection<Map.Entry<Data, Data>> entriesView() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Map.Entry<Data, Data>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < MapEntries.this.size();
+                    }
+
+                    @Override
+                    public Map.Entry<Data, Data> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<Data, Data> entry = new AbstractMap.SimpleImmutableEntry<>(keys.get(index),
+                                values.get(index));
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MapEntries.this.size();
+            }
+        };
+    }
+
     public Data getKey(int index) {
         return keys.get(index);
     }
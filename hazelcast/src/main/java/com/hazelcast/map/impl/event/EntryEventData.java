@@ -22,6 +22,7 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.BinaryInterface;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.spi.impl.eventservice.KeyedEvent;
 
 import java.io.IOException;
 
@@ -29,7 +30,7 @@ import java.io.IOException;
  * An entry's event data.
  */
 @BinaryInterface
-public class EntryEventData extends AbstractEventData {
+public class EntryEventData extends AbstractEventData implements KeyedEvent {
 
     protected Data dataKey;
     protected Data dataNewValue;
@@ -60,6 +61,11 @@ public class EntryEventData extends AbstractEventData {
         return dataKey;
     }
 
+    @Override
+    public Object getEventKey() {
+        return dataKey;
+    }
+
     public Data getDataNewValue() {
         return dataNewValue;
     }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * A Bloom filter of the keys which may exist in the {@link
+ * com.hazelcast.map.MapLoader} of a single map partition. It's used to skip
+ * loading the keys which certainly don't exist in the external store.
+ * <p>
+ * The filter is populated with the keys dispatched to the partition by the
+ * {@linkplain com.hazelcast.map.impl.MapKeyLoader map key loader} and the keys
+ * put into the record store. Keys are never removed, a key deleted from the
+ * external store is just a false positive. Until the key loading {@linkplain
+ * #onKeyLoadFinished finishes} on the partition, the filter doesn't prove any
+ * key absent.
+ * <p>
+ * Keys are added on the partition thread, the lookups may also come from the
+ * threads running offloaded map store operations.
+ */
+public final class MapStoreBloomFilter {
+
+    /**
+     * The false-positive probability the filter is sized for when holding
+     * the expected number of keys.
+     */
+    public static final double TARGET_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private static final double LN_2 = Math.log(2);
+    private static final int BITS_PER_WORD_SHIFT = 6;
+    private static final int MAX_HASH_COUNT = 16;
+    private static final double PERCENT = 100d;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final MwCounter skippedLoadCount = newMwCounter();
+    private final MwCounter falsePositiveCount = newMwCounter();
+
+    private volatile boolean keysReceived;
+    private volatile boolean ready;
+
+    public MapStoreBloomFilter(int expectedKeyCount) {
+        checkPositive("expectedKeyCount", expectedKeyCount);
+        double bitsPerKey = -Math.log(TARGET_FALSE_POSITIVE_PROBABILITY) / (LN_2 * LN_2);
+        int wordCount = (int) Math.ceil(expectedKeyCount * bitsPerKey / Long.SIZE);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << BITS_PER_WORD_SHIFT;
+        this.hashCount = Math.max(1, Math.min(MAX_HASH_COUNT, (int) Math.round(bitsPerKey * LN_2)));
+    }
+
+    /**
+     * Adds the key to the filter.
+     */
+    public void add(Data key) {
+        long hash = key.hash64();
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> Integer.SIZE);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(hash1 + i * hash2);
+            int word = (int) (bit >>> BITS_PER_WORD_SHIFT);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the key may have been added to the filter.
+     */
+    public boolean mightContain(Data key) {
+        long hash = key.hash64();
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> Integer.SIZE);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(hash1 + i * hash2);
+            if ((words.get((int) (bit >>> BITS_PER_WORD_SHIFT)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(int combinedHash) {
+        return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitCount;
+    }
+
+    /**
+     * Returns {@code true} if the filter proves the key doesn't exist in the
+     * external store, so it doesn't need to be loaded. Counts the skipped
+     * load.
+     */
+    public boolean isProvenAbsent(Data key) {
+        if (!ready || mightContain(key)) {
+            return false;
+        }
+        skippedLoadCount.inc();
+        return true;
+    }
+
+    /**
+     * Records that the given number of keys which the filter didn't prove
+     * absent weren't found in the external store.
+     */
+    public void onLoadMisses(int count) {
+        if (ready && count > 0) {
+            falsePositiveCount.inc(count);
+        }
+    }
+
+    /**
+     * Adds the keys dispatched to the partition by the map key loader.
+     */
+    public void onKeysLoaded(Iterable<Data> keys) {
+        for (Data key : keys) {
+            add(key);
+        }
+        keysReceived = true;
+    }
+
+    /**
+     * Called when the key loading has finished on the partition. The filter
+     * starts proving keys absent only if the key loading was successful and
+     * the partition received some keys: a map loader without {@link
+     * com.hazelcast.map.MapLoader#loadAllKeys()} doesn't return any keys.
+     */
+    public void onKeyLoadFinished(boolean successful) {
+        ready = successful && keysReceived;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Removes all keys and stops proving keys absent until the next key
+     * loading finishes.
+     */
+    public void clear() {
+        ready = false;
+        keysReceived = false;
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+    }
+
+    public long getSkippedLoadCount() {
+        return skippedLoadCount.get();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositiveCount.get();
+    }
+
+    /**
+     * Returns the observed false-positive rate in percents: the share of the
+     * lookups of absent keys which the filter failed to prove absent.
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate(falsePositiveCount.get(), skippedLoadCount.get());
+    }
+
+    public static double falsePositiveRate(long falsePositiveCount, long skippedLoadCount) {
+        long absentKeyLookups = falsePositiveCount + skippedLoadCount;
+        return absentKeyLookups == 0 ? 0 : PERCENT * falsePositiveCount / absentKeyLookups;
+    }
+
+    @Override
+    public String toString() {
+        return "MapStoreBloomFilter{"
+                + "bitCount=" + bitCount
+                + ", hashCount=" + hashCount
+                + ", ready=" + ready
+                + ", skippedLoadCount=" + skippedLoadCount.get()
+                + ", falsePositiveCount=" + falsePositiveCount.get()
+                + '}';
+    }
+}
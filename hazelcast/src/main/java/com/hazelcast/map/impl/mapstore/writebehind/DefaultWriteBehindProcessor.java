@@ -180,6 +180,18 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
         return failedTries;
     }
 
+    /**
+     * Stores or deletes a batch of entries with a single batch call of the
+     * map store. The entries of a failed batch are retried one by one.
+     *
+     * @param batch         entries of distinct keys.
+     * @param operationType type of the store operation of all the entries.
+     * @return failed entry list if any.
+     */
+    List<DelayedEntry> processBatch(List<DelayedEntry> batch, StoreOperationType operationType) {
+        return callHandler(batch, operationType);
+    }
+
     private List<DelayedEntry> processEntriesOneByOne(Collection<DelayedEntry> delayedEntries,
                                                       StoreOperationType operationType) {
         List<DelayedEntry> totalFailures = null;
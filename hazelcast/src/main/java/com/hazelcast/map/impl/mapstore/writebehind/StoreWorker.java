@@ -46,6 +46,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * write behind queues and passes them to {@link #writeBehindProcessor}.
  * <p>
  * Only one {@link StoreWorker} task is created for a map on a member.
+ * If the {@link WriteBehindFlushPipeline} is enabled, the entries of the
+ * owned partitions are passed to it instead.
  */
 public class StoreWorker implements Runnable {
     private final String mapName;
@@ -53,6 +55,8 @@ public class StoreWorker implements Runnable {
     private final IPartitionService partitionService;
     private final ExecutionService executionService;
     private final WriteBehindProcessor writeBehindProcessor;
+    private final WriteBehindFlushPipeline flushPipeline;
+    private final WriteBehindFlushStats flushStats;
     /**
      * Run on backup nodes after this interval.
      */
@@ -68,13 +72,16 @@ public class StoreWorker implements Runnable {
     private long lastHighestStoreTime;
     private volatile boolean running;
 
-    public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor) {
+    public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor,
+                       WriteBehindFlushPipeline flushPipeline, WriteBehindFlushStats flushStats) {
         this.mapName = mapStoreContext.getMapName();
         this.mapServiceContext = mapStoreContext.getMapServiceContext();
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
         this.partitionService = nodeEngine.getPartitionService();
         this.executionService = nodeEngine.getExecutionService();
         this.writeBehindProcessor = writeBehindProcessor;
+        this.flushPipeline = flushPipeline;
+        this.flushStats = flushStats;
         this.backupDelayMillis = getReplicaWaitTimeMillis();
         this.lastHighestStoreTime = Clock.currentTimeMillis();
         this.writeDelayMillis = SECONDS.toMillis(getWriteDelaySeconds(mapStoreContext));
@@ -144,7 +151,11 @@ public class StoreWorker implements Runnable {
         }
 
         if (!isEmpty(ownersList)) {
-            Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(ownersList);
+            long startNanos = System.nanoTime();
+            Map<Integer, List<DelayedEntry>> failuresPerPartition = flushPipeline != null
+                    ? flushPipeline.process(ownersList)
+                    : writeBehindProcessor.process(ownersList);
+            flushStats.recordFlush(System.nanoTime() - startNanos);
             removeFinishedStoreOperationsFromQueues(mapName, ownersList);
             reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
         }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.mapstore.writebehind.AbstractWriteBehindProcessor.StoreOperationType;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.lang.Thread.currentThread;
+
+/**
+ * Member-wide flush pipeline of a write-behind map with write-coalescing.
+ * <p>
+ * The {@link StoreWorker} gathers the entries which are ready to be stored
+ * from all the partitions owned by this member. This pipeline collapses
+ * them to the last store operation per key, splits the survivors into
+ * deletes and writes and cuts them into batches of at most
+ * {@link #maxBatchSize} entries. Since the keys of the batches are distinct,
+ * the batches are stored in parallel on the given executor and the number
+ * of concurrent writers is bounded by its pool size.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED
+ */
+class WriteBehindFlushPipeline {
+
+    private static final Comparator<DelayedEntry> STORE_TIME_COMPARATOR
+            = Comparator.comparingLong(DelayedEntry::getStoreTime);
+
+    private final DefaultWriteBehindProcessor processor;
+    private final ExecutorService executor;
+    private final int maxBatchSize;
+    private final WriteBehindFlushStats stats;
+    private final ILogger logger;
+
+    WriteBehindFlushPipeline(DefaultWriteBehindProcessor processor, ExecutorService executor,
+                             int maxBatchSize, WriteBehindFlushStats stats, ILogger logger) {
+        this.processor = processor;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.stats = stats;
+        this.logger = logger;
+    }
+
+    /**
+     * Stores the given entries.
+     *
+     * @param delayedEntries entries gathered from the owned partitions.
+     * @return not-stored entries per partition.
+     */
+    Map<Integer, List<DelayedEntry>> process(List<DelayedEntry> delayedEntries) {
+        List<DelayedEntry> deletes = new ArrayList<>();
+        List<DelayedEntry> writes = new ArrayList<>();
+        for (DelayedEntry entry : collapse(delayedEntries)) {
+            if (entry.getValue() == null) {
+                deletes.add(entry);
+            } else {
+                writes.add(entry);
+            }
+        }
+
+        List<Batch> batches = new ArrayList<>();
+        addBatches(batches, deletes, StoreOperationType.DELETE);
+        addBatches(batches, writes, StoreOperationType.WRITE);
+
+        Map<Integer, List<DelayedEntry>> failuresPerPartition = new HashMap<>();
+        if (batches.size() == 1) {
+            addFailures(failuresPerPartition, batches.get(0).call());
+            return failuresPerPartition;
+        }
+
+        List<Future<List<DelayedEntry>>> futures = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            futures.add(submit(batch));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            addFailures(failuresPerPartition, await(futures.get(i), batches.get(i)));
+        }
+        return failuresPerPartition;
+    }
+
+    /**
+     * Keeps only the last store operation of every key. Since entries are
+     * sorted by their store times, a later entry of a key overrides the
+     * earlier ones.
+     */
+    private static Iterable<DelayedEntry> collapse(List<DelayedEntry> delayedEntries) {
+        delayedEntries.sort(STORE_TIME_COMPARATOR);
+        Map<Object, DelayedEntry> lastEntries = new LinkedHashMap<>();
+        for (DelayedEntry entry : delayedEntries) {
+            lastEntries.put(entry.getKey(), entry);
+        }
+        return lastEntries.values();
+    }
+
+    private void addBatches(List<Batch> batches, List<DelayedEntry> entries, StoreOperationType operationType) {
+        for (int from = 0; from < entries.size(); from += maxBatchSize) {
+            int to = Math.min(from + maxBatchSize, entries.size());
+            batches.add(new Batch(entries.subList(from, to), operationType));
+        }
+    }
+
+    private Future<List<DelayedEntry>> submit(Batch batch) {
+        try {
+            return executor.submit(batch);
+        } catch (RejectedExecutionException e) {
+            logger.finest("Write-behind flush executor rejected a batch, storing it on the caller thread", e);
+            return CompletableFuture.completedFuture(batch.call());
+        }
+    }
+
+    /**
+     * Waits for the batch to be stored. A batch which was not stored, or
+     * whose completion can't be awaited since the flushing thread is
+     * interrupted, is reported as failed so that its entries are retried.
+     */
+    private List<DelayedEntry> await(Future<List<DelayedEntry>> future, Batch batch) {
+        if (currentThread().isInterrupted()) {
+            return batch.entries;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            return batch.entries;
+        } catch (ExecutionException e) {
+            logger.warning("Write-behind batch of " + batch.entries.size() + " entries could not be stored",
+                    e.getCause());
+            return batch.entries;
+        }
+    }
+
+    private static void addFailures(Map<Integer, List<DelayedEntry>> failuresPerPartition,
+                                    List<DelayedEntry> failures) {
+        for (DelayedEntry entry : failures) {
+            failuresPerPartition.computeIfAbsent(entry.getPartitionId(), k -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private final class Batch implements Callable<List<DelayedEntry>> {
+
+        private final List<DelayedEntry> entries;
+        private final StoreOperationType operationType;
+
+        Batch(List<DelayedEntry> entries, StoreOperationType operationType) {
+            this.entries = entries;
+            this.operationType = operationType;
+        }
+
+        @Override
+        public List<DelayedEntry> call() {
+            stats.recordBatch(entries.size());
+            return processor.processBatch(entries, operationType);
+        }
+    }
+}
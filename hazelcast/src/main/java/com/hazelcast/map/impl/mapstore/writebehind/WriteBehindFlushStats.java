@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Statistics of the write-behind flushes of a map on this member.
+ * <p>
+ * The flushes are recorded by the {@link StoreWorker} of the map and the
+ * batches by the {@link WriteBehindFlushPipeline}, if it is enabled.
+ */
+public class WriteBehindFlushStats {
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushLatencyNanos = new AtomicLong();
+    private final AtomicLong maxFlushLatencyNanos = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedEntryCount = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    void recordFlush(long latencyNanos) {
+        flushCount.incrementAndGet();
+        totalFlushLatencyNanos.addAndGet(latencyNanos);
+        maxFlushLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    void recordBatch(int size) {
+        batchCount.incrementAndGet();
+        batchedEntryCount.addAndGet(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    /**
+     * Returns the number of flushes which stored at least one entry.
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Returns the total time spent in flushes in milliseconds.
+     */
+    public long getTotalFlushLatencyMillis() {
+        return NANOSECONDS.toMillis(totalFlushLatencyNanos.get());
+    }
+
+    /**
+     * Returns the duration of the longest flush in milliseconds.
+     */
+    public long getMaxFlushLatencyMillis() {
+        return NANOSECONDS.toMillis(maxFlushLatencyNanos.get());
+    }
+
+    /**
+     * Returns the number of batches stored by the flush pipeline.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Returns the total number of entries in the batches stored by the
+     * flush pipeline.
+     */
+    public long getBatchedEntryCount() {
+        return batchedEntryCount.get();
+    }
+
+    /**
+     * Returns the size of the largest batch stored by the flush pipeline.
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBehindFlushStats{"
+                + "flushCount=" + getFlushCount()
+                + ", totalFlushLatencyMillis=" + getTotalFlushLatencyMillis()
+                + ", maxFlushLatencyMillis=" + getMaxFlushLatencyMillis()
+                + ", batchCount=" + getBatchCount()
+                + ", batchedEntryCount=" + getBatchedEntryCount()
+                + ", maxBatchSize=" + getMaxBatchSize()
+                + '}';
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.mapstore.writebehind;
 
+import com.hazelcast.config.MapStoreConfig;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
@@ -24,8 +25,15 @@ import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.MapStoreManager;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.concurrent.ExecutorService;
 
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindProcessors.createWriteBehindProcessor;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_WRITE_BEHIND_FLUSH_EXECUTOR;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_FLUSH_MAX_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED;
 
 /**
  * Write behind map store manager.
@@ -33,13 +41,15 @@ import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindProcessors.
 public class WriteBehindManager implements MapStoreManager {
 
     private final WriteBehindProcessor writeBehindProcessor;
+    private final WriteBehindFlushStats flushStats = new WriteBehindFlushStats();
     private final StoreWorker storeWorker;
     private final MapStoreContext mapStoreContext;
 
     public WriteBehindManager(MapStoreContext mapStoreContext) {
         this.mapStoreContext = mapStoreContext;
         this.writeBehindProcessor = newWriteBehindProcessor(mapStoreContext);
-        this.storeWorker = new StoreWorker(mapStoreContext, writeBehindProcessor);
+        this.storeWorker = new StoreWorker(mapStoreContext, writeBehindProcessor,
+                newFlushPipelineOrNull(mapStoreContext), flushStats);
     }
 
     @Override
@@ -58,6 +68,28 @@ public class WriteBehindManager implements MapStoreManager {
         return MapDataStores.createWriteBehindStore(mapStoreContext, partitionId, writeBehindProcessor);
     }
 
+    public WriteBehindFlushStats getFlushStats() {
+        return flushStats;
+    }
+
+    private WriteBehindFlushPipeline newFlushPipelineOrNull(MapStoreContext mapStoreContext) {
+        NodeEngine nodeEngine = mapStoreContext.getMapServiceContext().getNodeEngine();
+        HazelcastProperties properties = nodeEngine.getProperties();
+        MapStoreConfig mapStoreConfig = mapStoreContext.getMapStoreConfig();
+        // without write-coalescing every store operation on a key has to be
+        // stored in order, which can't be done with batches
+        if (!properties.getBoolean(MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED) || !mapStoreConfig.isWriteCoalescing()) {
+            return null;
+        }
+        int writeBatchSize = mapStoreConfig.getWriteBatchSize();
+        int maxBatchSize = writeBatchSize > 1
+                ? writeBatchSize
+                : properties.getInteger(MAP_WRITE_BEHIND_FLUSH_MAX_BATCH_SIZE);
+        ExecutorService executor = nodeEngine.getExecutionService().getExecutor(MAP_WRITE_BEHIND_FLUSH_EXECUTOR);
+        return new WriteBehindFlushPipeline((DefaultWriteBehindProcessor) writeBehindProcessor, executor,
+                maxBatchSize, flushStats, mapStoreContext.getLogger(WriteBehindFlushPipeline.class));
+    }
+
     private WriteBehindProcessor newWriteBehindProcessor(final MapStoreContext mapStoreContext) {
         WriteBehindProcessor writeBehindProcessor = createWriteBehindProcessor(mapStoreContext);
         StoreListener<DelayedEntry> storeListener = new InternalStoreListener(mapStoreContext);
@@ -186,6 +186,8 @@ public enum PutOpSteps implements IMapOpStep {
                         state.isChangeExpiryOnUpdate(), state.getTtl(), state.getMaxIdle(), UNSET,
                         state.getNow(), state.getStaticParams().isBackup());
                 state.setOldValue(oldValue);
+                // the storage may have relocated the record when updating its value
+                record = recordStore.getRecord(state.getKey());
             }
 
             state.setRecord(record);
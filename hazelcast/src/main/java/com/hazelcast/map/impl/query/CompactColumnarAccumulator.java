@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.ColumnarAggregator;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.compact.FieldDescriptor;
+import com.hazelcast.internal.serialization.impl.compact.OffsetReader;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.serialization.impl.compact.OffsetReader.NULL_OFFSET;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+
+/**
+ * Accumulates the values of a top-level numeric field of Compact map values
+ * into a {@link ColumnarAggregator}. The values are read directly from the
+ * serialized form and passed to the aggregator in batches of primitives,
+ * without deserializing the entries and boxing the values.
+ * <p>
+ * The entries for which the value can't be read this way (non-Compact or
+ * deserialized values, missing or {@code null} fields, field kinds not
+ * supported by the aggregator, attributes with custom extractors) are
+ * accumulated with {@link Aggregator#accumulate}. The pending batch is
+ * accumulated first, so the values are accumulated in the order of the
+ * entries.
+ * <p>
+ * Not thread-safe.
+ */
+final class CompactColumnarAccumulator {
+
+    static final int BATCH_SIZE = 1024;
+
+    private static final Column UNSUPPORTED = new Column(null, null, false);
+
+    private final Aggregator aggregator;
+    private final ColumnarAggregator columnarAggregator;
+    private final String fieldName;
+    private final InternalSerializationService serializationService;
+    private final BufferObjectDataInput in;
+    private final Long2ObjectHashMap<Column> columnsBySchemaId = new Long2ObjectHashMap<>();
+    private final long[] longValues = new long[BATCH_SIZE];
+    private final double[] doubleValues = new double[BATCH_SIZE];
+
+    private FieldKind batchKind;
+    private int batchSize;
+
+    private CompactColumnarAccumulator(Aggregator aggregator, InternalSerializationService serializationService) {
+        this.aggregator = aggregator;
+        this.columnarAggregator = (ColumnarAggregator) aggregator;
+        this.fieldName = columnarAggregator.getAttributePath();
+        this.serializationService = serializationService;
+        this.in = serializationService.createObjectDataInput(new byte[0]);
+    }
+
+    /**
+     * Returns an accumulator for the given aggregator or {@code null} if the
+     * aggregator doesn't aggregate a top-level attribute in batches.
+     */
+    private static CompactColumnarAccumulator createIfSupported(Aggregator aggregator,
+                                                                SerializationService serializationService) {
+        if (aggregator instanceof ColumnarAggregator columnar
+                && serializationService instanceof InternalSerializationService ss
+                && isTopLevelAttribute(columnar.getAttributePath())) {
+            return new CompactColumnarAccumulator(aggregator, ss);
+        }
+        return null;
+    }
+
+    /**
+     * Accumulates the entries into the aggregator, in batches if the
+     * aggregator supports it.
+     */
+    @SuppressWarnings("unchecked")
+    static void accumulateAll(Aggregator aggregator, Iterable<QueryableEntry> entries,
+                              SerializationService serializationService) {
+        CompactColumnarAccumulator accumulator = createIfSupported(aggregator, serializationService);
+        if (accumulator == null) {
+            for (QueryableEntry entry : entries) {
+                aggregator.accumulate(entry);
+            }
+            return;
+        }
+        for (QueryableEntry entry : entries) {
+            accumulator.accumulate(entry);
+        }
+        accumulator.flush();
+    }
+
+    private static boolean isTopLevelAttribute(String attributePath) {
+        if (attributePath == null || attributePath.isEmpty()) {
+            return false;
+        }
+        return attributePath.indexOf('.') < 0
+                && attributePath.indexOf('[') < 0
+                && !KEY_ATTRIBUTE_NAME.value().equals(attributePath)
+                && !THIS_ATTRIBUTE_NAME.value().equals(attributePath);
+    }
+
+    @SuppressWarnings("unchecked")
+    void accumulate(QueryableEntry entry) {
+        if (!addToBatch(entry)) {
+            flush();
+            aggregator.accumulate(entry);
+        }
+    }
+
+    /**
+     * Accumulates the pending batch. Must be called after the last entry.
+     */
+    void flush() {
+        if (batchSize == 0) {
+            return;
+        }
+        if (ColumnarAggregator.isFloatingPointKind(batchKind)) {
+            columnarAggregator.accumulateDoubleColumn(batchKind, doubleValues, batchSize);
+        } else {
+            columnarAggregator.accumulateLongColumn(batchKind, longValues, batchSize);
+        }
+        batchSize = 0;
+    }
+
+    private boolean addToBatch(QueryableEntry entry) {
+        Data data = entry.getValueDataIfPresent();
+        if (data == null || !data.isCompact() || entry.hasCustomExtractor(fieldName)) {
+            return false;
+        }
+        try {
+            in.init(data.toByteArray(), DATA_OFFSET);
+            Column column = getColumn(in.readLong(), data);
+            if (column == UNSUPPORTED) {
+                return false;
+            }
+            int position = column.readPosition(in);
+            if (position == NULL_OFFSET) {
+                return false;
+            }
+            if (batchKind != column.kind || batchSize == BATCH_SIZE) {
+                flush();
+                batchKind = column.kind;
+            }
+            addValue(position);
+            return true;
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void addValue(int position) throws IOException {
+        switch (batchKind) {
+            case INT8:
+                longValues[batchSize] = in.readByte(position);
+                break;
+            case INT16:
+                longValues[batchSize] = in.readShort(position);
+                break;
+            case INT32:
+                longValues[batchSize] = in.readInt(position);
+                break;
+            case INT64:
+                longValues[batchSize] = in.readLong(position);
+                break;
+            case FLOAT32:
+                doubleValues[batchSize] = in.readFloat(position);
+                break;
+            case FLOAT64:
+                doubleValues[batchSize] = in.readDouble(position);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected field kind: " + batchKind);
+        }
+        batchSize++;
+    }
+
+    private Column getColumn(long schemaId, Data data) throws IOException {
+        Column column = columnsBySchemaId.get(schemaId);
+        if (column == null) {
+            column = resolveColumn(serializationService.extractSchemaFromData(data));
+            columnsBySchemaId.put(schemaId, column);
+        }
+        return column;
+    }
+
+    private Column resolveColumn(Schema schema) {
+        FieldDescriptor fd = schema.getField(fieldName);
+        if (fd == null) {
+            return UNSUPPORTED;
+        }
+        FieldKind kind = columnKind(fd.getKind());
+        if (kind == null || !columnarAggregator.canAccumulateColumn(kind)) {
+            return UNSUPPORTED;
+        }
+        return new Column(fd, kind, schema.getNumberOfVariableSizeFields() != 0);
+    }
+
+    /**
+     * Returns the non-nullable kind of the numeric field kinds, {@code null}
+     * for other kinds.
+     */
+    private static FieldKind columnKind(FieldKind kind) {
+        return switch (kind) {
+            case INT8, NULLABLE_INT8 -> FieldKind.INT8;
+            case INT16, NULLABLE_INT16 -> FieldKind.INT16;
+            case INT32, NULLABLE_INT32 -> FieldKind.INT32;
+            case INT64, NULLABLE_INT64 -> FieldKind.INT64;
+            case FLOAT32, NULLABLE_FLOAT32 -> FieldKind.FLOAT32;
+            case FLOAT64, NULLABLE_FLOAT64 -> FieldKind.FLOAT64;
+            default -> null;
+        };
+    }
+
+    /**
+     * The layout of the field in the values with a particular schema.
+     */
+    private static final class Column {
+        private final FieldDescriptor fd;
+        private final FieldKind kind;
+        private final boolean nullable;
+        private final boolean hasVariableSizeFields;
+
+        Column(FieldDescriptor fd, FieldKind kind, boolean hasVariableSizeFields) {
+            this.fd = fd;
+            this.kind = kind;
+            this.nullable = fd != null && fd.getKind() != kind;
+            this.hasVariableSizeFields = hasVariableSizeFields;
+        }
+
+        /**
+         * Returns the position of the field value, given the input
+         * positioned after the schema ID, or {@link OffsetReader#NULL_OFFSET}
+         * if the value is {@code null}.
+         */
+        int readPosition(BufferObjectDataInput in) throws IOException {
+            if (!hasVariableSizeFields) {
+                return in.position() + fd.getOffset();
+            }
+            int dataLength = in.readInt();
+            int dataStart = in.position();
+            if (!nullable) {
+                return dataStart + fd.getOffset();
+            }
+            int offset = OffsetReader.readerFor(dataLength).read(in, dataStart + dataLength, fd.getIndex());
+            return offset == NULL_OFFSET ? NULL_OFFSET : dataStart + offset;
+        }
+    }
+}
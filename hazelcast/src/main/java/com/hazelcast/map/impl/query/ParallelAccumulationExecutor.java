@@ -80,13 +80,13 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         for (QueryableEntry entry : entries) {
             buffer.add(entry);
             if (buffer.size() == THREAD_SPLIT_COUNT) {
-                futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer)));
+                futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer, serializationService)));
                 buffer = new ArrayList<>();
             }
         }
 
         if (!buffer.isEmpty()) {
-            futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer)));
+            futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer, serializationService)));
         }
 
         return returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING);
@@ -99,18 +99,19 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
     private static final class AccumulatePartitionCallable implements Callable<Aggregator> {
         private final Aggregator aggregator;
         private final Iterable<QueryableEntry> entries;
+        private final SerializationService serializationService;
 
-        private AccumulatePartitionCallable(Aggregator aggregator, Iterable<QueryableEntry> entries) {
+        private AccumulatePartitionCallable(Aggregator aggregator, Iterable<QueryableEntry> entries,
+                                            SerializationService serializationService) {
             this.aggregator = aggregator;
             this.entries = entries;
+            this.serializationService = serializationService;
         }
 
         @Override
         public Aggregator call() {
             try {
-                for (QueryableEntry entry : entries) {
-                    aggregator.accumulate(entry);
-                }
+                CompactColumnarAccumulator.accumulateAll(aggregator, entries, serializationService);
             } finally {
                 aggregator.onAccumulationFinished();
             }
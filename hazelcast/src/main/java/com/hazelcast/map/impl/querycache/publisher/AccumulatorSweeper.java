@@ -27,6 +27,10 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.map.impl.querycache.publisher.MergingEventPublisher.sendOrdered;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED;
+import static java.util.Collections.singletonList;
+
 /**
  * Responsible for sweeping all registered accumulators of a {@link PublisherContext}.
  * This is needed in situations like ownership changes/graceful shutdown.
@@ -63,7 +67,7 @@ public final class AccumulatorSweeper {
                     // send end event
                     QueryCacheEventData eventData = createEndOfSequenceEvent(partitionId,
                             accumulatorRegistry.getInfo().getMapName());
-                    processor.process(eventData);
+                    sendEndOfSequenceEvent(processor, accumulator, eventData);
                 }
             }
         }
@@ -94,7 +98,7 @@ public final class AccumulatorSweeper {
                 // send end event
                 QueryCacheEventData endOfSequenceEvent = createEndOfSequenceEvent(partitionId,
                         accumulator.getInfo().getMapName());
-                processor.process(endOfSequenceEvent);
+                sendEndOfSequenceEvent(processor, accumulator, endOfSequenceEvent);
             }
         }
     }
@@ -104,6 +108,8 @@ public final class AccumulatorSweeper {
         EventPublisherAccumulatorProcessor processor
                 = new EventPublisherAccumulatorProcessor(context.getQueryCacheEventService());
 
+        boolean adaptivePublisher = publisherContext.getNodeEngine().getProperties()
+                .getBoolean(MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED);
         AccumulatorInfoSupplier infoSupplier = publisherContext.getAccumulatorInfoSupplier();
         ConcurrentMap<String, ConcurrentMap<String, AccumulatorInfo>> all = infoSupplier.getAll();
         for (ConcurrentMap<String, AccumulatorInfo> oneMapsAccumulators : all.values()) {
@@ -111,7 +117,11 @@ public final class AccumulatorSweeper {
                 if (accumulatorInfo.getDelaySeconds() == 0) {
                     processor.setInfo(accumulatorInfo);
                     QueryCacheEventData endOfSequenceEvent = createEndOfSequenceEvent(partitionId, accumulatorInfo.getMapName());
-                    processor.process(endOfSequenceEvent);
+                    if (adaptivePublisher) {
+                        sendOrdered(context, accumulatorInfo.getCacheId(), singletonList(endOfSequenceEvent));
+                    } else {
+                        processor.process(endOfSequenceEvent);
+                    }
                 }
             }
         }
@@ -129,6 +139,16 @@ public final class AccumulatorSweeper {
         }
     }
 
+    private static void sendEndOfSequenceEvent(EventPublisherAccumulatorProcessor processor, Accumulator accumulator,
+                                               QueryCacheEventData endOfSequenceEvent) {
+        if (accumulator instanceof AdaptivePublisherAccumulator adaptiveAccumulator) {
+            // the events of the accumulator may still wait in its merging publisher
+            adaptiveAccumulator.publishEndOfSequence(endOfSequenceEvent);
+        } else {
+            processor.process(endOfSequenceEvent);
+        }
+    }
+
     /**
      * In graceful shutdown, we are flushing all unsent events in an {@code Accumulator}. This event
      * will be the last event of an {@code Accumulator} upon flush and it is used to inform subscriber-side
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.publisher;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.querycache.QueryCacheContext;
+import com.hazelcast.map.impl.querycache.accumulator.AccumulatorHandler;
+import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
+import com.hazelcast.map.impl.querycache.accumulator.BasicAccumulator;
+import com.hazelcast.map.impl.querycache.event.QueryCacheEventData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * An {@link com.hazelcast.map.impl.querycache.accumulator.Accumulator} which
+ * sizes its batches by the rate of the events of its partition.
+ * <p>
+ * The batch size is the number of events expected to arrive within
+ * {@link #maxDelayMillis}, derived from a moving average of the intervals
+ * between events. A slow partition publishes every event immediately, a busy
+ * one fills larger batches. Once the backlog reaches the batch size, it is
+ * published at once. Batches are handed to the {@link MergingEventPublisher}
+ * of the query cache, which merges the batches of all partitions into a
+ * single payload per subscriber.
+ * <p>
+ * If the query cache coalesces, an update of a key which is not published
+ * yet takes over the sequence of the previous update, like in
+ * {@link CoalescingPublisherAccumulator}, so the sequences of a partition
+ * stay contiguous for the subscriber.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED
+ */
+class AdaptivePublisherAccumulator extends BasicAccumulator<QueryCacheEventData> {
+
+    /**
+     * Weight of the latest interval in the moving average is {@code 1/8}.
+     */
+    private static final int AVERAGE_SHIFT = 3;
+
+    /**
+     * Index map to hold last unpublished event sequence per key, if the
+     * query cache coalesces.
+     */
+    private final Map<Data, Long> index = new HashMap<>();
+    private final MergingEventPublisher publisher;
+    private final long maxDelayMillis;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+
+    private long lastEventNanos;
+    private long averageIntervalNanos;
+
+    AdaptivePublisherAccumulator(QueryCacheContext context, AccumulatorInfo info,
+                                 MergingEventPublisher publisher, long maxDelayMillis) {
+        super(context, info);
+        this.publisher = publisher;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxDelayNanos = MILLISECONDS.toNanos(maxDelayMillis);
+        // larger batches would overwrite unpublished events in the buffer
+        this.maxBatchSize = Math.max(1, info.getBufferSize());
+        this.averageIntervalNanos = maxDelayNanos;
+        this.lastEventNanos = System.nanoTime();
+    }
+
+    @Override
+    public void accumulate(QueryCacheEventData eventData) {
+        setSequence(eventData);
+        getBuffer().add(eventData);
+        int batchSize = nextBatchSize();
+
+        if (!getInfo().isPublishable()) {
+            return;
+        }
+
+        int backlog = size();
+        if (backlog >= batchSize) {
+            poll(handler, backlog);
+        } else {
+            publishExpired();
+        }
+    }
+
+    /**
+     * Publishes the events which waited for at least the given delay or
+     * {@link #maxDelayMillis}, whichever is shorter, through the merging
+     * handler of this accumulator regardless of the given handler.
+     */
+    @Override
+    public int poll(AccumulatorHandler<QueryCacheEventData> handler, long delay, TimeUnit unit) {
+        return super.poll(this.handler, Math.min(unit.toMillis(delay), maxDelayMillis), MILLISECONDS);
+    }
+
+    /**
+     * Publishes the end of sequence event of this partition behind its
+     * already published events.
+     */
+    void publishEndOfSequence(QueryCacheEventData endOfSequenceEvent) {
+        publisher.publish(singletonList(endOfSequenceEvent));
+    }
+
+    @Override
+    public void reset() {
+        index.clear();
+        super.reset();
+    }
+
+    int getBatchSize() {
+        long batchSize = maxDelayNanos / Math.max(1, averageIntervalNanos);
+        return (int) Math.max(1, Math.min(maxBatchSize, batchSize));
+    }
+
+    private int nextBatchSize() {
+        long now = System.nanoTime();
+        // an idle period counts like an event which arrived after the
+        // maximum delay, so a partition becoming busy adapts quickly
+        long interval = Math.min(now - lastEventNanos, maxDelayNanos);
+        lastEventNanos = now;
+        averageIntervalNanos += (interval - averageIntervalNanos) >> AVERAGE_SHIFT;
+        return getBatchSize();
+    }
+
+    private int publishExpired() {
+        return super.poll(handler, maxDelayMillis, MILLISECONDS);
+    }
+
+    private void setSequence(QueryCacheEventData eventData) {
+        if (!getInfo().isCoalesce()) {
+            eventData.setSequence(partitionSequencer.nextSequence());
+            return;
+        }
+
+        Data dataKey = eventData.getDataKey();
+        Long sequence = index.get(dataKey);
+        if (sequence != null) {
+            eventData.setSequence(sequence);
+        } else {
+            long nextSequence = partitionSequencer.nextSequence();
+            eventData.setSequence(nextSequence);
+            index.put(dataKey, nextSequence);
+        }
+    }
+
+    @Override
+    protected AccumulatorHandler<QueryCacheEventData> createAccumulatorHandler(QueryCacheContext context,
+                                                                               AccumulatorInfo info) {
+        return new MergingHandler();
+    }
+
+    /**
+     * Collects the polled events and hands them to the
+     * {@link MergingEventPublisher} as a single batch.
+     */
+    private class MergingHandler implements AccumulatorHandler<QueryCacheEventData> {
+
+        private List<QueryCacheEventData> events = new ArrayList<>();
+
+        @Override
+        public void handle(QueryCacheEventData eventData, boolean lastElement) {
+            events.add(eventData);
+            if (!lastElement) {
+                return;
+            }
+
+            List<QueryCacheEventData> batch = events;
+            events = new ArrayList<>();
+            if (getInfo().isCoalesce()) {
+                for (QueryCacheEventData event : batch) {
+                    index.remove(event.getDataKey());
+                }
+            }
+            publisher.publish(batch);
+        }
+
+        @Override
+        public void reset() {
+            events.clear();
+        }
+    }
+}
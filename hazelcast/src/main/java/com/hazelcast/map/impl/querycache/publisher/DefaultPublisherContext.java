@@ -42,6 +42,7 @@ import java.util.function.Function;
 
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flushAllAccumulators;
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED;
 
 /**
  * Default implementation of {@link PublisherContext}.
@@ -51,6 +52,7 @@ import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
 public class DefaultPublisherContext implements PublisherContext {
 
     private static final long SCAN_PERIOD_SECONDS = 5L;
+    private static final long ADAPTIVE_SCAN_PERIOD_SECONDS = 1L;
     private static final long ORPHANED_QUERY_CACHE_REMOVAL_DELAY_SECONDS = TimeUnit.MINUTES.toSeconds(10);
 
     private final QueryCacheContext context;
@@ -176,7 +178,10 @@ public class DefaultPublisherContext implements PublisherContext {
 
     private void startBackgroundAccumulatorScanner() {
         QueryCacheScheduler scheduler = context.getQueryCacheScheduler();
-        scheduler.scheduleWithRepetition(new AccumulatorScannerTask(context), SCAN_PERIOD_SECONDS);
+        // adaptive accumulators leave the tail of a burst to the scanner
+        long scanPeriodSeconds = nodeEngine.getProperties().getBoolean(MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED)
+                ? ADAPTIVE_SCAN_PERIOD_SECONDS : SCAN_PERIOD_SECONDS;
+        scheduler.scheduleWithRepetition(new AccumulatorScannerTask(context), scanPeriodSeconds);
     }
 
     private void handleSubscriberAddRemove() {
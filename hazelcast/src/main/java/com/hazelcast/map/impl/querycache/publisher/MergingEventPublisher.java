@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.publisher;
+
+import com.hazelcast.map.impl.querycache.QueryCacheContext;
+import com.hazelcast.map.impl.querycache.event.BatchEventData;
+import com.hazelcast.map.impl.querycache.event.QueryCacheEventData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+
+/**
+ * Merges the event batches published by the partition accumulators of a
+ * {@link com.hazelcast.map.QueryCache QueryCache} into a single payload per
+ * subscriber.
+ * <p>
+ * Partition threads only enqueue their batches. One of them at a time
+ * drains the queue and sends the merged batches, so the batches of a
+ * partition are sent in the order they were published. All payloads of the
+ * query cache are sent with the same order key, which keeps them in order
+ * on the way to the subscriber.
+ *
+ * @see AdaptivePublisherAccumulator
+ */
+class MergingEventPublisher {
+
+    /**
+     * Maximum number of events in a merged payload.
+     */
+    static final int MAX_MERGED_EVENT_COUNT = 1024;
+
+    private final String cacheId;
+    private final QueryCacheContext context;
+    private final int orderKey;
+    private final Queue<List<QueryCacheEventData>> batches = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    MergingEventPublisher(String cacheId, QueryCacheContext context) {
+        this.cacheId = cacheId;
+        this.context = context;
+        this.orderKey = orderKey(cacheId, context);
+    }
+
+    /**
+     * Publishes the given events of a partition. Called by the partition
+     * thread which owns the events.
+     */
+    void publish(List<QueryCacheEventData> events) {
+        batches.offer(events);
+        // the sender re-checks the queue after it steps down, so a batch
+        // enqueued while another thread was sending is never left behind
+        while (!batches.isEmpty() && sending.compareAndSet(false, true)) {
+            try {
+                sendMerged();
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+
+    private void sendMerged() {
+        List<QueryCacheEventData> merged = new ArrayList<>();
+        while (merged.size() < MAX_MERGED_EVENT_COUNT) {
+            List<QueryCacheEventData> batch = batches.poll();
+            if (batch == null) {
+                break;
+            }
+            merged.addAll(batch);
+        }
+        if (!merged.isEmpty()) {
+            send(context, cacheId, orderKey, merged);
+        }
+    }
+
+    /**
+     * Sends the given events, which don't follow any event published by
+     * this member, in the order of the merged payloads of the query cache.
+     */
+    static void sendOrdered(QueryCacheContext context, String cacheId, List<QueryCacheEventData> events) {
+        send(context, cacheId, orderKey(cacheId, context), events);
+    }
+
+    private static void send(QueryCacheContext context, String cacheId, int orderKey, List<QueryCacheEventData> events) {
+        // a batch is sent even for a single event, since the batch carries
+        // the order key to the client
+        String thisNodesAddress = context.getThisNodesAddress().toString();
+        BatchEventData batchEventData = new BatchEventData(events, thisNodesAddress, orderKey);
+        context.getQueryCacheEventService().sendEventToSubscriber(cacheId, batchEventData, orderKey);
+    }
+
+    private static int orderKey(String cacheId, QueryCacheContext context) {
+        return hashToIndex(cacheId.hashCode(), context.getPartitionCount());
+    }
+}
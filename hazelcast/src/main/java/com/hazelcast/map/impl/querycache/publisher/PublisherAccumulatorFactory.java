@@ -20,6 +20,10 @@ import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.accumulator.Accumulator;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorFactory;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_MAX_DELAY_MILLIS;
 
 /**
  * Factory which is responsible for creating {@link Accumulator} implementations.
@@ -30,6 +34,7 @@ import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
 public class PublisherAccumulatorFactory implements AccumulatorFactory {
 
     private final QueryCacheContext context;
+    private MergingEventPublisher mergingEventPublisher;
 
     public PublisherAccumulatorFactory(QueryCacheContext context) {
         this.context = context;
@@ -37,6 +42,12 @@ public class PublisherAccumulatorFactory implements AccumulatorFactory {
 
     @Override
     public Accumulator createAccumulator(AccumulatorInfo info) {
+        HazelcastProperties properties = context.getPublisherContext().getNodeEngine().getProperties();
+        if (properties.getBoolean(MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED)) {
+            long maxDelayMillis = properties.getMillis(MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_MAX_DELAY_MILLIS);
+            return new AdaptivePublisherAccumulator(context, info, getOrCreateMergingEventPublisher(info), maxDelayMillis);
+        }
+
         long delayTime = info.getDelaySeconds();
 
         if (delayTime <= 0L) {
@@ -49,4 +60,15 @@ public class PublisherAccumulatorFactory implements AccumulatorFactory {
             }
         }
     }
+
+    /**
+     * Returns the publisher shared by the accumulators of all partitions,
+     * since a factory is created per query cache.
+     */
+    private synchronized MergingEventPublisher getOrCreateMergingEventPublisher(AccumulatorInfo info) {
+        if (mergingEventPublisher == null) {
+            mergingEventPublisher = new MergingEventPublisher(info.getCacheId(), context);
+        }
+        return mergingEventPublisher;
+    }
 }
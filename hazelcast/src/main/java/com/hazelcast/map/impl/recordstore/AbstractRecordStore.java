@@ -47,6 +47,10 @@ import com.hazelcast.wan.impl.CallerProvenance;
 
 import javax.annotation.Nonnull;
 
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_NATIVE_STORAGE_MAP_NAMES;
+
 /**
  * Contains record store common parts.
  */
@@ -175,9 +179,16 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (memoryFormat == BINARY && MEM_AVAILABLE && isNativeStorageConfigured()) {
+            return new NativeStorageImpl(getExpirySystem(), serializationService);
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
+    private boolean isNativeStorageConfigured() {
+        return mapServiceContext.getNodeEngine().getProperties().containsName(MAP_NATIVE_STORAGE_MAP_NAMES, name);
+    }
+
     @Override
     public String getName() {
         return name;
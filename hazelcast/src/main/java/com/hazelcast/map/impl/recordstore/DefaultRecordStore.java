@@ -44,6 +44,7 @@ import com.hazelcast.map.impl.event.EntryEventData;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
+import com.hazelcast.map.impl.mapstore.MapStoreBloomFilter;
 import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueue;
 import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindStore;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
@@ -61,6 +62,7 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
 import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.wan.impl.CallerProvenance;
 
 import javax.annotation.Nonnull;
@@ -88,6 +90,7 @@ import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.map.impl.MapKeyLoaderUtil.getMaxSizePerNode;
 import static com.hazelcast.map.impl.mapstore.MapDataStores.EMPTY_MAP_DATA_STORE;
 import static com.hazelcast.map.impl.record.Record.UNSET;
 import static com.hazelcast.map.impl.recordstore.StaticParams.PUT_BACKUP_FOR_ENTRY_PROCESSOR_PARAMS;
@@ -147,6 +150,13 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     private final Set<MapOperation> offloadedOperations = new LinkedHashSet<>();
     // mapStoreOffloadedOperationsCount is for accessed by single thread
     private final SwCounter mapStoreOffloadedOperationsCount = newSwCounter();
+    /**
+     * Proves the keys absent in the map loader, {@code null} if not enabled.
+     *
+     * @see ClusterProperty#MAP_LOAD_BLOOM_FILTER_ENABLED
+     */
+    @Nullable
+    private final MapStoreBloomFilter mapStoreBloomFilter;
 
     public DefaultRecordStore(MapContainer mapContainer,
                               int partitionId,
@@ -161,9 +171,22 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         this.interceptorRegistry = mapContainer.getInterceptorRegistry();
         this.wanReplicateEvictions = mapContainer.getWanContext().isWanReplicationEnabled()
                 && mapServiceContext.getNodeEngine().getProperties().getBoolean(ClusterProperty.WAN_REPLICATE_IMAP_EVICTIONS);
+        this.mapStoreBloomFilter = createMapStoreBloomFilter();
         initJsonMetadataStore();
     }
 
+    @Nullable
+    private MapStoreBloomFilter createMapStoreBloomFilter() {
+        HazelcastProperties properties = mapServiceContext.getNodeEngine().getProperties();
+        if (keyLoader == null
+                || !properties.getBoolean(ClusterProperty.MAP_LOAD_BLOOM_FILTER_ENABLED)
+                || getMaxSizePerNode(mapContainer.getMapConfig().getEvictionConfig()) > 0) {
+            return null;
+        }
+        return new MapStoreBloomFilter(
+                properties.getInteger(ClusterProperty.MAP_LOAD_BLOOM_FILTER_EXPECTED_KEYS_PER_PARTITION));
+    }
+
     @Override
     public void incMapStoreOffloadedOperationsCount() {
         mapStoreOffloadedOperationsCount.inc();
@@ -179,6 +202,11 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         return mapStoreOffloadedOperationsCount.get();
     }
 
+    @Override
+    public MapStoreBloomFilter getMapStoreBloomFilter() {
+        return mapStoreBloomFilter;
+    }
+
     // Overridden in EE
     protected void initJsonMetadataStore() {
         // Forcibly initialize on-heap Json Metadata Store to avoid
@@ -249,12 +277,17 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (newRecord == null) {
             newRecord = createRecord(dataKey, replicatedRecord != null
                     ? replicatedRecord.getValue() : null, now);
+            // copied before the put, the storage may keep its own copy of the record
+            Records.copyMetadataFrom(replicatedRecord, newRecord);
             storage.put(dataKey, newRecord);
+            if (mapStoreBloomFilter != null) {
+                mapStoreBloomFilter.add(dataKey);
+            }
         } else {
-            storage.updateRecordValue(dataKey, newRecord, replicatedRecord.getValue());
+            newRecord = storage.updateRecordValue(dataKey, newRecord, replicatedRecord.getValue());
+            Records.copyMetadataFrom(replicatedRecord, newRecord);
         }
 
-        Records.copyMetadataFrom(replicatedRecord, newRecord);
         expirySystem.add(dataKey, expiryMetadata, now);
         mutationObserver.onReplicationPutRecord(dataKey, newRecord, indexesMustBePopulated);
 
@@ -493,16 +526,30 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
      * found, associated fields in BiTuple is set to {@link Record#UNSET}
      */
     public BiTuple<Object, Long> loadValueWithTtl(Data key, long now) {
-        Object value = mapDataStore.load(key);
+        Object value = loadFromMapStore(key);
         return getOldValueWithTtlTupleOrNull(value, now);
     }
 
     public Object loadValueOfKey(Data key, long now) {
-        Object value = mapDataStore.load(key);
+        Object value = loadFromMapStore(key);
         BiTuple<Object, Long> valueWithTtl = getOldValueWithTtlTupleOrNull(value, now);
         return valueWithTtl == null ? null : valueWithTtl.element1;
     }
 
+    private Object loadFromMapStore(Data key) {
+        if (mapStoreBloomFilter == null) {
+            return mapDataStore.load(key);
+        }
+        if (mapStoreBloomFilter.isProvenAbsent(key)) {
+            return null;
+        }
+        Object value = mapDataStore.load(key);
+        if (value == null) {
+            mapStoreBloomFilter.onLoadMisses(1);
+        }
+        return value;
+    }
+
     @Nullable
     public BiTuple<Object, Long> getOldValueWithTtlTupleOrNull(Object loadedValue, long now) {
         Object value = loadedValue;
@@ -819,8 +866,10 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
 
     public List loadMultipleKeys(Collection keysToLoad) {
         long now = getNow();
-        Map loadedKeyValuePairs = mapDataStore.loadAll(keysToLoad);
+        Collection keys = removeProvenAbsentKeys(keysToLoad);
+        Map loadedKeyValuePairs = mapDataStore.loadAll(keys);
         List keyBiTupleList = new ArrayList<>();
+        int foundKeyCount = 0;
         Set<Map.Entry> set = loadedKeyValuePairs.entrySet();
         for (Map.Entry entry : set) {
             Object loadedKey = entry.getKey();
@@ -838,6 +887,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                 // from a map-loader, so we can continue with the rest.
                 continue;
             }
+            foundKeyCount++;
 
             BiTuple<Object, Long> biTuple = getOldValueWithTtlTupleOrNull(loadedValue, now);
             if (biTuple != null) {
@@ -851,9 +901,25 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                 keyBiTupleList.add(biTuple);
             }
         }
+        if (mapStoreBloomFilter != null) {
+            mapStoreBloomFilter.onLoadMisses(keys.size() - foundKeyCount);
+        }
         return keyBiTupleList;
     }
 
+    private Collection removeProvenAbsentKeys(Collection keysToLoad) {
+        if (mapStoreBloomFilter == null || !mapStoreBloomFilter.isReady()) {
+            return keysToLoad;
+        }
+        List<Object> keys = new ArrayList<>(keysToLoad.size());
+        for (Object key : keysToLoad) {
+            if (!(key instanceof Data dataKey) || !mapStoreBloomFilter.isProvenAbsent(dataKey)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
     public Map<Data, Object> putAndGetLoadedEntries(List loadedKeyAndOldValueWithTtlPairs,
                                                     Address callerAddress) {
         if (CollectionUtil.isEmpty(loadedKeyAndOldValueWithTtlPairs)) {
@@ -1075,6 +1141,9 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                             boolean backup) {
         storage.put(key, record);
         expirySystem.add(key, ttl, maxIdle, expiryTime, now, now);
+        if (mapStoreBloomFilter != null) {
+            mapStoreBloomFilter.add(key);
+        }
 
         if (entryEventType == EntryEventType.LOADED) {
             mutationObserver.onLoadRecord(key, record, backup);
@@ -1095,6 +1164,10 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (mapDataStore != EMPTY_MAP_DATA_STORE && store) {
             newValue = putIntoMapStore(record, key, newValue,
                     ttl, maxIdle, now, transactionId);
+            if (mapDataStore.isPostProcessingMapStore()) {
+                // the storage may have relocated the record when updating its value
+                record = storage.get(key);
+            }
         }
 
         return updateMemory(record, key, oldValue, newValue, changeExpiryOnUpdate,
@@ -1138,7 +1211,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         long expirationTime = expirySystem.calculateExpirationTime(ttlMillis, maxIdleMillis, now, now);
         newValue = mapDataStore.add(key, newValue, expirationTime, now, transactionId);
         if (mapDataStore.isPostProcessingMapStore()) {
-            storage.updateRecordValue(key, record, newValue);
+            record = storage.updateRecordValue(key, record, newValue);
         }
         onStore(record);
         return newValue;
@@ -1174,9 +1247,10 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                 return MapMergeResponse.NO_MERGE_APPLIED;
             }
             boolean persist = persistenceEnabledFor(provenance);
-            Record newRecord = putNewRecord(key, null, newValue, UNSET, UNSET, UNSET, now,
+            putNewRecord(key, null, newValue, UNSET, UNSET, UNSET, now,
                     null, ADDED, persist, false);
-            mergeRecordExpiration(key, newRecord, mergingEntry, now);
+            // the storage may keep its own copy of the put record
+            mergeRecordExpiration(key, storage.get(key), mergingEntry, now);
             return MapMergeResponse.RECORD_CREATED;
         } else {
             oldValue = copyToHeapWhenNeeded(record.getValue());
@@ -1215,7 +1289,8 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             boolean persist = persistenceEnabledFor(provenance);
             updateRecord(record, key, oldValue, newValue, true, UNSET, UNSET, UNSET,
                     now, null, persist, true, false);
-            mergeRecordExpiration(key, record, mergingEntry, now);
+            // the storage may have relocated the record when updating its value
+            mergeRecordExpiration(key, storage.get(key), mergingEntry, now);
             return MapMergeResponse.RECORD_UPDATED;
         }
     }
@@ -1521,6 +1596,9 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public void loadAllFromStore(List<Data> keys,
                                  boolean replaceExistingValues) {
         if (!keys.isEmpty()) {
+            if (mapStoreBloomFilter != null) {
+                mapStoreBloomFilter.onKeysLoaded(keys);
+            }
             Future<?> f = recordStoreLoader.loadValues(keys, replaceExistingValues);
             addLoadingFuture(f);
         }
@@ -1537,6 +1615,9 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         }
 
         keyLoader.trackLoading(lastBatch, exception);
+        if (lastBatch && mapStoreBloomFilter != null) {
+            mapStoreBloomFilter.onKeyLoadFinished(exception == null);
+        }
 
         if (lastBatch) {
             logger.finest("Completed loading map " + name + " on partitionId=" + partitionId);
@@ -1636,6 +1717,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             expirySystem.clear();
             storage.clear(false);
             stats.reset();
+            clearMapStoreBloomFilter();
         }
     }
 
@@ -1648,6 +1730,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public void clearPartition(boolean onShutdown, boolean onStorageDestroy) {
         clearLockStore();
         mapDataStore.reset();
+        clearMapStoreBloomFilter();
 
         if (onShutdown) {
             if (hasPooledMemoryAllocator()) {
@@ -1664,6 +1747,12 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         }
     }
 
+    private void clearMapStoreBloomFilter() {
+        if (mapStoreBloomFilter != null) {
+            mapStoreBloomFilter.clear();
+        }
+    }
+
     private boolean hasPooledMemoryAllocator() {
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
         NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
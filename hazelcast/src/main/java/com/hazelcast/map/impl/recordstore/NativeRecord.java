@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReaderWriter;
+
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+
+/**
+ * Flyweight {@link Record} over an entry block kept in native memory by
+ * {@link NativeStorageImpl}. Every accessor reads or writes the block directly,
+ * so metadata updates done through this record are visible to the storage.
+ * <p>
+ * Layout of an entry block:
+ * <pre>
+ * +--------------------+  0
+ * | next entry address |  address of the next block in the collision chain
+ * +--------------------+  8
+ * | sequence           |
+ * +--------------------+ 16
+ * | version            |
+ * | hits               |
+ * | creation time      |
+ * | last access time   |
+ * | last update time   |
+ * | last stored time   |
+ * | block size         |
+ * | key length         |
+ * | value length       |
+ * +--------------------+ 52
+ * | key bytes          |
+ * | value bytes        |
+ * +--------------------+
+ * </pre>
+ * A record is only valid until the entry it points to is removed or its value
+ * is replaced with a bigger one. Callers must always continue with the record
+ * returned from {@link Storage#updateRecordValue}.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+final class NativeRecord implements Record<Data> {
+
+    static final int NEXT_OFFSET = 0;
+    static final int SEQUENCE_OFFSET = 8;
+    static final int VERSION_OFFSET = 16;
+    static final int HITS_OFFSET = 20;
+    static final int CREATION_TIME_OFFSET = 24;
+    static final int LAST_ACCESS_TIME_OFFSET = 28;
+    static final int LAST_UPDATE_TIME_OFFSET = 32;
+    static final int LAST_STORED_TIME_OFFSET = 36;
+    static final int BLOCK_SIZE_OFFSET = 40;
+    static final int KEY_LENGTH_OFFSET = 44;
+    static final int VALUE_LENGTH_OFFSET = 48;
+    static final int HEADER_SIZE = 52;
+
+    private final MemoryAccessor mem;
+    private final long address;
+
+    NativeRecord(MemoryAccessor mem, long address) {
+        this.mem = mem;
+        this.address = address;
+    }
+
+    long address() {
+        return address;
+    }
+
+    int blockSize() {
+        return mem.getInt(address + BLOCK_SIZE_OFFSET);
+    }
+
+    int keyLength() {
+        return mem.getInt(address + KEY_LENGTH_OFFSET);
+    }
+
+    int valueLength() {
+        return mem.getInt(address + VALUE_LENGTH_OFFSET);
+    }
+
+    Data getKey() {
+        return readData(address + HEADER_SIZE, keyLength());
+    }
+
+    @Override
+    public Data getValue() {
+        return readData(address + HEADER_SIZE + keyLength(), valueLength());
+    }
+
+    /**
+     * Values of native records can only be replaced through
+     * {@link NativeStorageImpl#updateRecordValue}, since the new
+     * value may not fit into the current block.
+     */
+    @Override
+    public void setValue(Data value) {
+        throw new UnsupportedOperationException("NativeRecord#setValue");
+    }
+
+    @Override
+    public long getCost() {
+        return blockSize();
+    }
+
+    @Override
+    public int getVersion() {
+        return mem.getInt(address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(int version) {
+        mem.putInt(address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return mem.getInt(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        mem.putInt(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getSequence() {
+        return mem.getLong(address + SEQUENCE_OFFSET);
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+        mem.putLong(address + SEQUENCE_OFFSET, sequence);
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return mem.getInt(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        mem.putInt(address + CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return mem.getInt(address + LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return mem.getInt(address + LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return mem.getInt(address + LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int lastStoredTime) {
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, lastStoredTime);
+    }
+
+    /**
+     * Copies the metadata of the given record into this record's block.
+     */
+    void copyMetadataFrom(Record record) {
+        setVersion(record.getVersion());
+        setHits(Math.max(record.getHits(), 0));
+        setSequence(record.getSequence());
+        setRawCreationTime(record.getRawCreationTime());
+        setRawLastAccessTime(record.getRawLastAccessTime());
+        setRawLastUpdateTime(record.getRawLastUpdateTime());
+        setRawLastStoredTime(record.getRawLastStoredTime());
+    }
+
+    private Data readData(long dataAddress, int length) {
+        byte[] bytes = new byte[length];
+        mem.copyToByteArray(dataAddress, bytes, 0, length);
+        return new HeapData(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NativeRecord)) {
+            return false;
+        }
+        return address == ((NativeRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(address);
+    }
+
+    @Override
+    public String toString() {
+        return "NativeRecord{address=" + address
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", blockSize=" + blockSize()
+                + '}';
+    }
+}
@@ -0,0 +1,642 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.HashUtil.fastLongMix;
+import static com.hazelcast.internal.util.QuickMath.modPowerOfTwo;
+import static com.hazelcast.map.impl.recordstore.NativeRecord.BLOCK_SIZE_OFFSET;
+import static com.hazelcast.map.impl.recordstore.NativeRecord.HEADER_SIZE;
+import static com.hazelcast.map.impl.recordstore.NativeRecord.KEY_LENGTH_OFFSET;
+import static com.hazelcast.map.impl.recordstore.NativeRecord.NEXT_OFFSET;
+import static com.hazelcast.map.impl.recordstore.NativeRecord.VALUE_LENGTH_OFFSET;
+
+/**
+ * {@link Storage} implementation which keeps keys, values and record metadata
+ * in native memory, outside the reach of the garbage collector.
+ * <p>
+ * Entries are indexed by the 64-bit hash of their serialized key in a
+ * {@link HashSlotArray8byteKeyImpl}. The value part of a slot holds the address
+ * of the first entry block with that hash; colliding keys are chained through the
+ * {@link NativeRecord#NEXT_OFFSET next} pointer of the blocks. See {@link NativeRecord}
+ * for the layout of an entry block.
+ * <p>
+ * Records returned from this storage are flyweights over the native blocks and are
+ * valid only up to the next mutation of the same entry. Keys and values handed out
+ * are on-heap copies.
+ * <p>
+ * Not thread-safe, must only be accessed by the partition thread owning the record store.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NativeStorageImpl implements Storage<Data, Record> {
+
+    private static final int SLOT_VALUE_LENGTH = LONG_SIZE_IN_BYTES;
+    private static final int SLOT_LENGTH = LONG_SIZE_IN_BYTES + SLOT_VALUE_LENGTH;
+    private static final int INITIAL_INDEX_CAPACITY = 256;
+    private static final float INDEX_LOAD_FACTOR = 0.6f;
+
+    private final UnsafeMemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final EntryIndex index;
+    private final SerializationService serializationService;
+    private final ExpirySystem expirySystem;
+
+    private boolean indexAllocated;
+    private int size;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator = new NativeEntryCostEstimator();
+
+    public NativeStorageImpl(ExpirySystem expirySystem, SerializationService serializationService) {
+        this.malloc = new UnsafeMemoryAllocator();
+        this.mem = MEM;
+        this.index = new EntryIndex(new MemoryManagerBean(malloc, mem));
+        this.serializationService = serializationService;
+        this.expirySystem = expirySystem;
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        long keyHash = key.hash64();
+        byte[] keyBytes = key.toByteArray();
+        Data value = serializationService.toData(record.getValue());
+
+        long newAddress = allocateEntry(keyBytes, value.toByteArray());
+        NativeRecord newRecord = new NativeRecord(mem, newAddress);
+        newRecord.copyMetadataFrom(record);
+
+        long existing = findEntry(keyHash, keyBytes);
+        if (existing == NULL_ADDRESS) {
+            linkNewEntry(keyHash, newAddress);
+            size++;
+            updateCostEstimate(entryCostEstimator.calculateEntryCost(key, newRecord));
+        } else {
+            updateCostEstimate(-entryCostEstimator.calculateValueCost(new NativeRecord(mem, existing)));
+            replaceEntry(keyHash, existing, newAddress);
+            updateCostEstimate(entryCostEstimator.calculateValueCost(newRecord));
+        }
+    }
+
+    @Override
+    public Record updateRecordValue(Data key, Record record, Object value) {
+        if (!(record instanceof NativeRecord nativeRecord)) {
+            // not stored yet, see DefaultRecordStore#putIntoMapStore
+            record.setValue(serializationService.toData(value));
+            return record;
+        }
+
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(nativeRecord));
+
+        byte[] valueBytes = serializationService.toData(value).toByteArray();
+        long address = nativeRecord.address();
+        int keyLength = nativeRecord.keyLength();
+        NativeRecord updatedRecord;
+        if (HEADER_SIZE + keyLength + valueBytes.length <= nativeRecord.blockSize()) {
+            writeValue(address, keyLength, valueBytes);
+            updatedRecord = nativeRecord;
+        } else {
+            byte[] keyBytes = key.toByteArray();
+            long newAddress = allocateEntry(keyBytes, valueBytes);
+            updatedRecord = new NativeRecord(mem, newAddress);
+            updatedRecord.copyMetadataFrom(nativeRecord);
+            replaceEntry(key.hash64(), address, newAddress);
+        }
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(updatedRecord));
+        return updatedRecord;
+    }
+
+    @Override
+    public Record get(Data key) {
+        long address = findEntry(key.hash64(), key.toByteArray());
+        return address == NULL_ADDRESS ? null : new NativeRecord(mem, address);
+    }
+
+    @Override
+    public Record getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("NativeStorageImpl#getIfSameKey");
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, @Nonnull Record record) {
+        long keyHash = dataKey.hash64();
+        long address = record instanceof NativeRecord nativeRecord
+                ? nativeRecord.address()
+                : findEntry(keyHash, dataKey.toByteArray());
+        if (address == NULL_ADDRESS || !unlinkEntry(keyHash, address)) {
+            return;
+        }
+
+        updateCostEstimate(-entryCostEstimator.calculateEntryCost(dataKey, new NativeRecord(mem, address)));
+        freeEntry(address);
+        size--;
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findEntry(key.hash64(), key.toByteArray()) != NULL_ADDRESS;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The iterator walks the index slots and looks each key up again before
+     * returning its entry, so entries removed in the meantime are skipped and
+     * returned records always point to live blocks.
+     */
+    @Override
+    public Iterator<Map.Entry<Data, Record>> mutationTolerantIterator() {
+        return new MutationTolerantIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        if (indexAllocated) {
+            forEachEntryAddress(this::freeEntry);
+            index.clear();
+            index.trimToSize();
+        }
+        size = 0;
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+        if (indexAllocated) {
+            index.dispose();
+            indexAllocated = false;
+        }
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    /**
+     * @return number of native memory bytes currently used by this storage,
+     * including the index
+     */
+    public long getUsedNativeMemory() {
+        return malloc.getUsedMemory();
+    }
+
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+
+        List<EntryView> samples = new ArrayList<>(sampleCount);
+        long capacity = index.capacity();
+        long slot = ThreadLocalRandomProvider.get().nextLong(capacity);
+        for (long visited = 0; visited < capacity && samples.size() < sampleCount; visited++) {
+            long address = index.chainHeadOfSlot(slot);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                NativeRecord record = new NativeRecord(mem, address);
+                Data key = record.getKey();
+                samples.add(new LazyEvictableEntryView<>(key, record,
+                        expirySystem.getExpiryMetadata(key), serializationService));
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, (key, record) -> keys.add(key));
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size,
+                (key, record) -> entries.add(new AbstractMap.SimpleEntry<>(key, record.getValue())));
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    /**
+     * Fetches at least {@code size} entries starting at the given {@code pointers},
+     * walking the home slots of the keys from the highest to the lowest one. The
+     * pointer index is a home slot and not the slot an entry is actually kept in:
+     * with linear probing, colliding keys are kept in the slots following their
+     * home slot and removals shift them back, so the actual slot of an entry may
+     * change between two calls while its home slot only depends on its hash and
+     * the index capacity. Resizes of the index are handled the same way as in
+     * {@link com.hazelcast.internal.util.SampleableConcurrentHashMap}: a new pointer
+     * is appended and entries which must have already been seen with a previous
+     * capacity are skipped.
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size,
+                                         BiConsumer<Data, NativeRecord> entryConsumer) {
+        int capacity = indexAllocated ? (int) index.capacity() : 0;
+        pointers = checkPointers(pointers, capacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+
+        int nextSlot = lastPointer.getIndex() >= 0 && lastPointer.getIndex() < capacity
+                ? lastPointer.getIndex()
+                : capacity - 1;
+        int counter = 0;
+        while (nextSlot >= 0 && counter < size) {
+            long homeSlot = nextSlot--;
+            for (long slot = index.nextSlotOfHome(homeSlot, homeSlot); slot >= 0;
+                 slot = index.nextSlotOfHome(homeSlot, slot + 1)) {
+                long address = index.chainHeadOfSlot(slot);
+                while (address != NULL_ADDRESS) {
+                    NativeRecord record = new NativeRecord(mem, address);
+                    Data key = record.getKey();
+                    if (hasNotBeenObserved(key, pointers)) {
+                        entryConsumer.accept(key, record);
+                        counter++;
+                    }
+                    address = mem.getLong(address + NEXT_OFFSET);
+                }
+            }
+        }
+        lastPointer.setIndex(nextSlot);
+        return pointers;
+    }
+
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int currentCapacity) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean indexResized = lastPointer.getSize() != currentCapacity;
+        // clone pointers to avoid mutating given reference
+        // add new pointer if resize happened during iteration
+        int newLength = !iterationStarted && indexResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+
+        // reset last pointer if we haven't started iteration or there was a resize
+        if (iterationStarted || indexResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, currentCapacity);
+        }
+        return updatedPointers;
+    }
+
+    private static boolean hasNotBeenObserved(Data key, IterationPointer[] pointers) {
+        if (pointers.length < 2) {
+            // there was no resize yet so we most definitely haven't observed the entry
+            return true;
+        }
+        long slotHash = EntryIndex.slotHash(key.hash64());
+        // check only the pointers up to the last, we haven't observed it with the last pointer
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer iterationPointer = pointers[i];
+            int capacity = iterationPointer.getSize();
+            if (capacity <= 0) {
+                continue;
+            }
+            if (modPowerOfTwo(slotHash, capacity) > iterationPointer.getIndex()) {
+                // the home slot of the entry on the given capacity has already been walked,
+                // so we have observed it
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long findEntry(long keyHash, byte[] keyBytes) {
+        if (!indexAllocated) {
+            return NULL_ADDRESS;
+        }
+        long slotValueAddress = index.get(keyHash);
+        if (slotValueAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long address = mem.getLong(slotValueAddress);
+        while (address != NULL_ADDRESS) {
+            if (keyEquals(address, keyBytes)) {
+                return address;
+            }
+            address = mem.getLong(address + NEXT_OFFSET);
+        }
+        return NULL_ADDRESS;
+    }
+
+    private boolean keyEquals(long address, byte[] keyBytes) {
+        if (mem.getInt(address + KEY_LENGTH_OFFSET) != keyBytes.length) {
+            return false;
+        }
+        long keyAddress = address + HEADER_SIZE;
+        // compare from the end, the beginning holds the partition hash and type which are likely to match
+        for (int i = keyBytes.length - 1; i >= 0; i--) {
+            if (mem.getByte(keyAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void linkNewEntry(long keyHash, long address) {
+        if (!indexAllocated) {
+            index.gotoNew();
+            indexAllocated = true;
+        }
+        SlotAssignmentResult slot = index.ensure(keyHash);
+        if (!slot.isNew()) {
+            // prepend to the collision chain
+            mem.putLong(address + NEXT_OFFSET, mem.getLong(slot.address()));
+        }
+        mem.putLong(slot.address(), address);
+    }
+
+    private void replaceEntry(long keyHash, long oldAddress, long newAddress) {
+        mem.putLong(newAddress + NEXT_OFFSET, mem.getLong(oldAddress + NEXT_OFFSET));
+        long slotValueAddress = index.get(keyHash);
+        long address = mem.getLong(slotValueAddress);
+        if (address == oldAddress) {
+            mem.putLong(slotValueAddress, newAddress);
+        } else {
+            long previous = address;
+            while ((address = mem.getLong(previous + NEXT_OFFSET)) != oldAddress) {
+                previous = address;
+            }
+            mem.putLong(previous + NEXT_OFFSET, newAddress);
+        }
+        freeEntry(oldAddress);
+    }
+
+    private boolean unlinkEntry(long keyHash, long entryAddress) {
+        long slotValueAddress = index.get(keyHash);
+        if (slotValueAddress == NULL_ADDRESS) {
+            return false;
+        }
+        long next = mem.getLong(entryAddress + NEXT_OFFSET);
+        long address = mem.getLong(slotValueAddress);
+        if (address == entryAddress) {
+            if (next == NULL_ADDRESS) {
+                index.remove(keyHash);
+            } else {
+                mem.putLong(slotValueAddress, next);
+            }
+            return true;
+        }
+        long previous = address;
+        while ((address = mem.getLong(previous + NEXT_OFFSET)) != NULL_ADDRESS) {
+            if (address == entryAddress) {
+                mem.putLong(previous + NEXT_OFFSET, next);
+                return true;
+            }
+            previous = address;
+        }
+        return false;
+    }
+
+    private long allocateEntry(byte[] keyBytes, byte[] valueBytes) {
+        int blockSize = HEADER_SIZE + keyBytes.length + valueBytes.length;
+        long address = malloc.allocate(blockSize);
+        mem.putInt(address + BLOCK_SIZE_OFFSET, blockSize);
+        mem.putInt(address + KEY_LENGTH_OFFSET, keyBytes.length);
+        mem.copyFromByteArray(keyBytes, 0, address + HEADER_SIZE, keyBytes.length);
+        writeValue(address, keyBytes.length, valueBytes);
+        return address;
+    }
+
+    private void writeValue(long address, int keyLength, byte[] valueBytes) {
+        mem.putInt(address + VALUE_LENGTH_OFFSET, valueBytes.length);
+        mem.copyFromByteArray(valueBytes, 0, address + HEADER_SIZE + keyLength, valueBytes.length);
+    }
+
+    private void freeEntry(long address) {
+        malloc.free(address, mem.getInt(address + BLOCK_SIZE_OFFSET));
+    }
+
+    private void forEachEntryAddress(EntryAddressConsumer consumer) {
+        long capacity = index.capacity();
+        for (long slot = 0; slot < capacity; slot++) {
+            long address = index.chainHeadOfSlot(slot);
+            while (address != NULL_ADDRESS) {
+                // read the next pointer first, the consumer may free the block
+                long next = mem.getLong(address + NEXT_OFFSET);
+                consumer.accept(address);
+                address = next;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryAddressConsumer {
+        void accept(long address);
+    }
+
+    /**
+     * Exposes slot-level access to the hash slot array, which is needed to resume
+     * iteration from an {@link IterationPointer} and to pick random samples.
+     */
+    private static final class EntryIndex extends HashSlotArray8byteKeyImpl {
+
+        EntryIndex(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, SLOT_VALUE_LENGTH, INITIAL_INDEX_CAPACITY, INDEX_LOAD_FACTOR);
+        }
+
+        /**
+         * @return address of the first entry block kept in the given slot or
+         * {@link MemoryAllocator#NULL_ADDRESS} if the slot is unassigned
+         */
+        long chainHeadOfSlot(long slot) {
+            return mem().getLong(slotBase(address(), slot) + LONG_SIZE_IN_BYTES);
+        }
+
+        /**
+         * Returns the first slot at or after {@code fromSlot}, in probing order,
+         * which holds a key whose home slot is {@code homeSlot}, or {@code -1} if
+         * the run of assigned slots ends before such a slot is found. Starting
+         * from the home slot itself, this visits all the keys of a home slot.
+         */
+        long nextSlotOfHome(long homeSlot, long fromSlot) {
+            long baseAddress = address();
+            long mask = capacity() - 1;
+            // the index is never full, so the run of assigned slots always ends
+            for (long slot = fromSlot & mask; isAssigned(baseAddress, slot); slot = (slot + 1) & mask) {
+                if ((slotHash(baseAddress, slot) & mask) == homeSlot) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        static long slotHash(long keyHash) {
+            return fastLongMix(keyHash);
+        }
+    }
+
+    private final class MutationTolerantIterator implements Iterator<Map.Entry<Data, Record>> {
+
+        private final ArrayDeque<Data> chainKeys = new ArrayDeque<>();
+        private long nextSlot;
+        private Map.Entry<Data, Record> next;
+
+        MutationTolerantIterator() {
+            nextSlot = indexAllocated ? index.capacity() - 1 : -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<Data, Record> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Data, Record> entry = next;
+            next = null;
+            return entry;
+        }
+
+        private Map.Entry<Data, Record> advance() {
+            while (true) {
+                Data key;
+                while ((key = chainKeys.poll()) != null) {
+                    Record record = get(key);
+                    if (record != null) {
+                        return new AbstractMap.SimpleImmutableEntry<>(key, record);
+                    }
+                }
+                if (!indexAllocated) {
+                    return null;
+                }
+                // the index may have shrunk since the last call
+                nextSlot = Math.min(nextSlot, index.capacity() - 1);
+                if (nextSlot < 0) {
+                    return null;
+                }
+                // walk home slots for the same reason as fetchNext, removals shift entries between slots
+                long homeSlot = nextSlot--;
+                for (long slot = index.nextSlotOfHome(homeSlot, homeSlot); slot >= 0;
+                     slot = index.nextSlotOfHome(homeSlot, slot + 1)) {
+                    long address = index.chainHeadOfSlot(slot);
+                    while (address != NULL_ADDRESS) {
+                        chainKeys.add(new NativeRecord(mem, address).getKey());
+                        address = mem.getLong(address + NEXT_OFFSET);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates the native memory cost of the entries: the entry
+     * block plus its share of the index.
+     */
+    private static final class NativeEntryCostEstimator implements EntryCostEstimator<Data, Record> {
+
+        private long estimate;
+
+        @Override
+        public long getEstimate() {
+            return estimate;
+        }
+
+        @Override
+        public void adjustEstimateBy(long adjustment) {
+            estimate += adjustment;
+        }
+
+        @Override
+        public long calculateValueCost(Record record) {
+            return record.getCost();
+        }
+
+        @Override
+        public long calculateEntryCost(Data key, Record record) {
+            return SLOT_LENGTH + record.getCost();
+        }
+
+        @Override
+        public void reset() {
+            estimate = 0;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
+import com.hazelcast.map.impl.mapstore.MapStoreBloomFilter;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
@@ -686,6 +687,15 @@ public interface RecordStore<R extends Record> {
 
     long getMapStoreOffloadedOperationsCount();
 
+    /**
+     * Returns the Bloom filter of the keys existing in the map loader or
+     * {@code null} if it's not enabled for this map.
+     *
+     * @see com.hazelcast.spi.properties.ClusterProperty#MAP_LOAD_BLOOM_FILTER_ENABLED
+     */
+    @Nullable
+    MapStoreBloomFilter getMapStoreBloomFilter();
+
     boolean isTieredStorageEnabled();
 
     default void disposeOnSplitBrainHeal() {
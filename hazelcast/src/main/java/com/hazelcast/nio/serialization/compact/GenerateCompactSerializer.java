@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization.compact;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class or a record to have its {@link CompactSerializer} generated
+ * at compile time by the annotation processor shipped in the
+ * {@code hazelcast-compact-processor} artifact.
+ * <p>
+ * The generated serializer produces the same schema as the zero-config
+ * (reflective) Compact serialization would, so the annotated class stays
+ * compatible with members and clients that serialize it reflectively. It
+ * is picked up automatically when the class is serialized with Compact
+ * without an explicitly configured serializer. If the processor did not
+ * run, the class falls back to the reflective serialization.
+ * <p>
+ * The non-static, non-transient fields of the annotated class and its
+ * superclasses must either be accessible from the package of the class or
+ * have a getter and a setter accessible from it. The class must have an
+ * accessible no-arg constructor. Records are created through their
+ * canonical constructor.
+ *
+ * @since 6.0
+ */
+@Beta
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GenerateCompactSerializer {
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization.genericrecord;
+
+import com.hazelcast.map.ExtendedMapEntry;
+import com.hazelcast.spi.annotation.Beta;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link GenericRecord} whose fields can be updated in place, over the
+ * serialized form of a Compact object.
+ * <p>
+ * The fields are read from the serialized form on demand, so only the fields
+ * that are accessed are deserialized. The setters only record the new values
+ * of the fields, they can be called multiple times for the same field and the
+ * getters return the last value set. When the record is serialized again, the
+ * binary of the fields that are not set is copied as it is and only the set
+ * fields are written, so updating a few fields of a large object does not
+ * require deserializing and serializing all of its fields.
+ * <p>
+ * The fields can only be set to values of the kinds in the schema of the
+ * record; adding or removing fields is not possible.
+ * <p>
+ * It is obtained from the entries passed to the
+ * {@link com.hazelcast.map.EntryProcessor EntryProcessors}, and the updates
+ * are applied to the value of the entry:
+ * <pre>{@code
+ * map.executeOnKey(key, (EntryProcessor<Object, Object, Object>) entry -> {
+ *     MutableGenericRecord record = ((ExtendedMapEntry<Object, Object>) entry)
+ *             .getValueAsMutableGenericRecord();
+ *     record.setInt32("visits", record.getInt32("visits") + 1);
+ *     return null;
+ * });
+ * }</pre>
+ * Instances of this interface are not thread-safe.
+ *
+ * @see ExtendedMapEntry#getValueAsMutableGenericRecord()
+ * @since 6.0
+ */
+@Beta
+public interface MutableGenericRecord extends GenericRecord, GenericRecordBuilder {
+
+    /**
+     * Returns a snapshot of the current state of this record. Unlike the
+     * other builders, the fields of this record can still be set after the
+     * snapshot is built, without affecting it.
+     *
+     * @return a new GenericRecord with the current values of the fields
+     */
+    @Nonnull
+    @Override
+    GenericRecord build();
+}
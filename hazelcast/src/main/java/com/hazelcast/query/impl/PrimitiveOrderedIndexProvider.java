@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.monitor.impl.PerIndexStats;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.query.impl.getters.Extractors;
+
+/**
+ * Provides on-heap indexes which use {@link PrimitiveOrderedIndexStore} for
+ * sorted indexes on a single attribute. All other indexes are the same as
+ * the ones provided by {@link DefaultIndexProvider}.
+ */
+public class PrimitiveOrderedIndexProvider implements IndexProvider {
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    @Override
+    public InternalIndex createIndex(
+            Node node,
+            IndexConfig config,
+            Extractors extractors,
+            InternalSerializationService ss,
+            IndexCopyBehavior copyBehavior,
+            PerIndexStats stats,
+            int partitionCount,
+            int partitionId,
+            String mapName) {
+        return new PrimitiveOrderedIndexImpl(node, config, ss, extractors, copyBehavior, stats, partitionCount, mapName);
+    }
+
+    private static final class PrimitiveOrderedIndexImpl extends IndexImpl {
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        PrimitiveOrderedIndexImpl(
+                Node node,
+                IndexConfig config,
+                InternalSerializationService ss,
+                Extractors extractors,
+                IndexCopyBehavior copyBehavior,
+                PerIndexStats stats,
+                int partitionCount,
+                String mapName) {
+            super(node, config, ss, extractors, copyBehavior, stats, partitionCount, mapName);
+        }
+
+        @Override
+        protected IndexStore createIndexStore(Node node, IndexConfig config,
+                                              PerIndexStats stats, String mapName, int ignored) {
+            // composite values are not representable as primitive keys
+            if (config.getType() == IndexType.SORTED && config.getAttributes().size() == 1) {
+                return new PrimitiveOrderedIndexStore(copyBehavior);
+            }
+            return super.createIndexStore(node, config, stats, mapName, ignored);
+        }
+    }
+}
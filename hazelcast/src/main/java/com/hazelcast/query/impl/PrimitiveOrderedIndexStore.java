@@ -0,0 +1,1136 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.query.Predicate;
+
+import javax.annotation.Nonnull;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptySet;
+
+/**
+ * Ordered index store specialized for numeric and temporal attributes.
+ * <p>
+ * Instead of a skip list of per-value maps, the non-null index entries are
+ * kept as a sorted array of small blocks. Each block holds the attribute
+ * values encoded as primitive {@code long}s next to the entries themselves,
+ * ordered by the encoded value and then by the entry key bytes. Range scans
+ * walk the blocks sequentially and no per-value objects are retained.
+ * <p>
+ * The key type is chosen by the first non-null value inserted. Supported are
+ * {@link Long}, {@link Integer}, {@link Short}, {@link Byte}, {@link Double},
+ * {@link Float}, {@link Date} and {@link LocalDate}. If a value of another
+ * type is inserted later, the store migrates its content into a regular
+ * {@link OrderedIndexStore} and delegates to it from then on.
+ * <p>
+ * Blocks are immutable: every mutation replaces the affected block and
+ * structural changes (splits and merges) replace the block array, so the
+ * iterators are weakly consistent and never fail on concurrent updates.
+ * Mutations are guarded by the global write lock of the store.
+ */
+@SuppressWarnings({"rawtypes", "checkstyle:methodcount"})
+public class PrimitiveOrderedIndexStore extends BaseSingleValueIndexStore {
+
+    /**
+     * The maximum number of entries in a block, full blocks are split in two.
+     */
+    static final int MAX_BLOCK_SIZE = 128;
+
+    private static final int MERGE_THRESHOLD = MAX_BLOCK_SIZE / 4;
+    private static final Block[] EMPTY_BLOCKS = new Block[0];
+
+    private final IndexCopyBehavior copyBehavior;
+    private final NavigableMap<Data, QueryableEntry> nullEntries = new ConcurrentSkipListMap<>(DATA_COMPARATOR);
+
+    private volatile Block[] blocks = EMPTY_BLOCKS;
+    private volatile KeyType keyType;
+    private volatile OrderedIndexStore fallback;
+
+    public PrimitiveOrderedIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn, true);
+        assert copyOn != null;
+        this.copyBehavior = copyOn;
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.insertInternal(value, record);
+        }
+        if (value == NULL) {
+            return nullEntries.put(record.getKeyData(), record);
+        }
+
+        KeyType type = keyType;
+        if (type == null) {
+            type = KeyType.forValue(value);
+            if (type == null) {
+                return switchToFallback().insertInternal(value, record);
+            }
+            keyType = type;
+        } else if (!type.canStore(value)) {
+            return switchToFallback().insertInternal(value, record);
+        }
+        return insertEncoded(type.encode(value), record);
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.removeInternal(value, recordKey);
+        }
+        if (value == NULL) {
+            return nullEntries.remove(recordKey);
+        }
+
+        KeyType type = keyType;
+        if (type == null || !type.canStore(value)) {
+            return null;
+        }
+        return removeEncoded(type.encode(value), recordKey);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // Same as for OrderedIndexStore, needed to support InPredicate queries.
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    public Comparable canonicalizeScalarForStorage(Comparable value) {
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            blocks = EMPTY_BLOCKS;
+            nullEntries.clear();
+            keyType = null;
+            fallback = null;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(@Nonnull Comparable value) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(value, false));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable searchedValue, boolean descending) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(comparison, searchedValue, descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        return new OrderedIndexStore.IteratorFromBatch(
+                getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(@Nonnull Comparable value, boolean descending) {
+        return getSqlRecordIteratorBatch(value, descending, null);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparable value,
+            boolean descending,
+            Data lastEntryKeyData
+    ) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.getSqlRecordIteratorBatch(value, descending, lastEntryKeyData);
+        }
+        if (value == NULL) {
+            return nullEntries.isEmpty() ? emptyIterator() : nullGroup(descending, lastEntryKeyData);
+        }
+        if (value == POSITIVE_INFINITY) {
+            return emptyIterator();
+        }
+
+        KeyType type = keyType;
+        if (type == null) {
+            return emptyIterator();
+        }
+        // like OrderedIndexStore, report the looked up value as the index key
+        GroupIterator iterator;
+        if (type.canEncodeArgument(value)) {
+            long key = type.encodeArgument(value);
+            iterator = new GroupIterator(blocks, type, descending, key, true, key, true, value, lastEntryKeyData);
+        } else {
+            iterator = new GroupIterator(blocks, type, descending, value, true, value, true, value, lastEntryKeyData);
+        }
+        return iterator.reportingIndexKey(value);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        return getSqlRecordIteratorBatch(NULL, true, POSITIVE_INFINITY, true, descending, null);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparison comparison,
+            @Nonnull Comparable searchedValue,
+            boolean descending
+    ) {
+        return getSqlRecordIteratorBatch(comparison, searchedValue, descending, null);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparison comparison,
+            @Nonnull Comparable searchedValue,
+            boolean descending,
+            Data lastEntryKeyData
+    ) {
+        switch (comparison) {
+            case LESS:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, false, descending, lastEntryKeyData);
+            case LESS_OR_EQUAL:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, true, descending, lastEntryKeyData);
+            case GREATER:
+                return getSqlRecordIteratorBatch(searchedValue, false, POSITIVE_INFINITY, true, descending, lastEntryKeyData);
+            case GREATER_OR_EQUAL:
+                return getSqlRecordIteratorBatch(searchedValue, true, POSITIVE_INFINITY, true, descending, lastEntryKeyData);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparable from,
+            boolean fromInclusive,
+            @Nonnull Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        return getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending, null);
+    }
+
+    @Override
+    @SuppressWarnings({"checkstyle:NPathComplexity", "checkstyle:CyclomaticComplexity"})
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparable from,
+            boolean fromInclusive,
+            @Nonnull Comparable to,
+            boolean toInclusive,
+            boolean descending,
+            Data lastEntryKeyData
+    ) {
+        boolean useCursor = lastEntryKeyData != null;
+        if (useCursor && !descending && !fromInclusive) {
+            throw new IllegalArgumentException("If `lastEntryKeyData` is not null then `from` must be inclusive");
+        }
+        if (useCursor && descending && !toInclusive) {
+            throw new IllegalArgumentException("If `lastEntryKeyData` is not null then `to` must be inclusive");
+        }
+
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending, lastEntryKeyData);
+        }
+
+        int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+        if (order == 0) {
+            if (!fromInclusive || !toInclusive) {
+                return emptyIterator();
+            }
+            return getSqlRecordIteratorBatch(from, descending, lastEntryKeyData);
+        } else if (order > 0) {
+            return emptyIterator();
+        }
+
+        // NULL is ordered before all other values, so it can only be the lower bound
+        boolean includeNulls = from == NULL && fromInclusive && !nullEntries.isEmpty();
+        Iterator<IndexKeyEntries> nonNulls = nonNullRange(from, fromInclusive, to, toInclusive, descending,
+                descending ? to : from, lastEntryKeyData);
+        if (!includeNulls) {
+            return nonNulls;
+        }
+
+        Iterator<IndexKeyEntries> nulls = nullGroup(descending, descending ? null : lastEntryKeyData);
+        return descending ? concat(nonNulls, nulls) : concat(nulls, nonNulls);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            return toResultSet(collect(getSqlRecordIteratorBatch(value, false), null));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> records = null;
+            for (Comparable value : values) {
+                records = collect(getSqlRecordIteratorBatch(value, false), records);
+            }
+            return toResultSet(records);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            return toResultSet(collect(getSqlRecordIteratorBatch(comparison, searchedValue, false), null));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            return toResultSet(collect(getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, false), null));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Returns the number of blocks the non-null entries are currently kept in.
+     */
+    int blockCount() {
+        return blocks.length;
+    }
+
+    /**
+     * Returns {@code true} if an unsupported value type was inserted and the
+     * store delegates to a regular {@link OrderedIndexStore}.
+     */
+    boolean isFallback() {
+        return fallback != null;
+    }
+
+    private Iterator<IndexKeyEntries> nonNullRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                                   boolean descending, Comparable cursorValue, Data lastEntryKeyData) {
+        KeyType type = keyType;
+        if (type == null) {
+            return emptyIterator();
+        }
+
+        boolean fromUnbounded = from == NULL;
+        boolean toUnbounded = to == POSITIVE_INFINITY;
+        if ((!fromUnbounded && !type.canEncodeArgument(from)) || (!toUnbounded && !type.canEncodeArgument(to))) {
+            // the bounds are not representable as keys, filter the keys one by one
+            return new GroupIterator(blocks, type, descending, from, fromInclusive, to, toInclusive, cursorValue,
+                    lastEntryKeyData);
+        }
+
+        long lo = fromUnbounded ? Long.MIN_VALUE : type.encodeArgument(from);
+        long hi = toUnbounded ? Long.MAX_VALUE : type.encodeArgument(to);
+        return new GroupIterator(blocks, type, descending, lo, fromUnbounded || fromInclusive, hi,
+                toUnbounded || toInclusive, cursorValue, lastEntryKeyData);
+    }
+
+    private Iterator<IndexKeyEntries> nullGroup(boolean descending, Data lastEntryKeyData) {
+        NavigableMap<Data, QueryableEntry> entries = descending ? nullEntries.descendingMap() : nullEntries;
+        if (lastEntryKeyData != null) {
+            entries = entries.tailMap(lastEntryKeyData, false);
+        }
+        return Stream.of(new IndexKeyEntries(NULL, entries.values().iterator())).iterator();
+    }
+
+    private OrderedIndexStore switchToFallback() {
+        OrderedIndexStore store = new OrderedIndexStore(copyBehavior);
+        for (QueryableEntry entry : nullEntries.values()) {
+            store.insertInternal(NULL, entry);
+        }
+        KeyType type = keyType;
+        for (Block block : blocks) {
+            for (int i = 0; i < block.keys.length; i++) {
+                store.insertInternal(type.decode(block.keys[i]), block.entries[i]);
+            }
+        }
+        fallback = store;
+        blocks = EMPTY_BLOCKS;
+        nullEntries.clear();
+        return store;
+    }
+
+    private Object insertEncoded(long key, QueryableEntry entry) {
+        Block[] root = blocks;
+        if (root.length == 0) {
+            blocks = new Block[]{new Block(new long[]{key}, new QueryableEntry[]{entry})};
+            return null;
+        }
+
+        Data keyData = entry.getKeyData();
+        int blockIndex = blockFor(root, key, keyData);
+        Block block = root[blockIndex];
+        int position = block.search(key, keyData);
+        if (position >= 0) {
+            QueryableEntry oldEntry = block.entries[position];
+            root[blockIndex] = block.replace(position, entry);
+            return oldEntry;
+        }
+
+        position = -position - 1;
+        if (block.size() < MAX_BLOCK_SIZE) {
+            root[blockIndex] = block.insert(position, key, entry);
+            return null;
+        }
+
+        // Appending to the last block is the common case for monotonically
+        // increasing values, keep the old block full instead of halving it.
+        boolean append = blockIndex == root.length - 1 && position == block.size();
+        Block[] split = append
+                ? new Block[]{block, new Block(new long[]{key}, new QueryableEntry[]{entry})}
+                : block.insert(position, key, entry).split();
+        Block[] newRoot = new Block[root.length + 1];
+        System.arraycopy(root, 0, newRoot, 0, blockIndex);
+        newRoot[blockIndex] = split[0];
+        newRoot[blockIndex + 1] = split[1];
+        System.arraycopy(root, blockIndex + 1, newRoot, blockIndex + 2, root.length - blockIndex - 1);
+        blocks = newRoot;
+        return null;
+    }
+
+    private Object removeEncoded(long key, Data keyData) {
+        Block[] root = blocks;
+        if (root.length == 0) {
+            return null;
+        }
+
+        int blockIndex = blockFor(root, key, keyData);
+        Block block = root[blockIndex];
+        int position = block.search(key, keyData);
+        if (position < 0) {
+            return null;
+        }
+
+        QueryableEntry oldEntry = block.entries[position];
+        if (block.size() == 1) {
+            Block[] newRoot = new Block[root.length - 1];
+            System.arraycopy(root, 0, newRoot, 0, blockIndex);
+            System.arraycopy(root, blockIndex + 1, newRoot, blockIndex, root.length - blockIndex - 1);
+            blocks = newRoot;
+            return oldEntry;
+        }
+
+        Block shrunk = block.remove(position);
+        int next = blockIndex + 1;
+        if (shrunk.size() < MERGE_THRESHOLD && next < root.length && shrunk.size() + root[next].size() <= MAX_BLOCK_SIZE) {
+            Block[] newRoot = new Block[root.length - 1];
+            System.arraycopy(root, 0, newRoot, 0, blockIndex);
+            newRoot[blockIndex] = shrunk.merge(root[next]);
+            System.arraycopy(root, next + 1, newRoot, next, root.length - next - 1);
+            blocks = newRoot;
+        } else {
+            root[blockIndex] = shrunk;
+        }
+        return oldEntry;
+    }
+
+    /**
+     * Returns the index of the last block whose first entry is not greater
+     * than the given one, or {@code 0} if there is no such block.
+     */
+    private static int blockFor(Block[] root, long key, Data keyData) {
+        int low = 1;
+        int high = root.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (root[mid].compareWith(0, key, keyData) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    private static Map<Data, QueryableEntry> collect(Iterator<IndexKeyEntries> iterator, Map<Data, QueryableEntry> records) {
+        while (iterator.hasNext()) {
+            Iterator<QueryableEntry> entries = iterator.next().getEntries();
+            while (entries.hasNext()) {
+                if (records == null) {
+                    records = new HashMap<>();
+                }
+                QueryableEntry entry = entries.next();
+                records.put(entry.getKeyData(), entry);
+            }
+        }
+        return records;
+    }
+
+    private static Set<QueryableEntry> toResultSet(Map<Data, QueryableEntry> records) {
+        // the collected map is always a private copy, so no result copy functor is needed
+        return records == null ? emptySet() : new SingleResultSet(records);
+    }
+
+    private static Iterator<IndexKeyEntries> concat(Iterator<IndexKeyEntries> first, Iterator<IndexKeyEntries> second) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return first.hasNext() || second.hasNext();
+            }
+
+            @Override
+            public IndexKeyEntries next() {
+                return first.hasNext() ? first.next() : second.next();
+            }
+        };
+    }
+
+    /**
+     * Supported attribute types and their order-preserving encoding as a
+     * signed {@code long}.
+     */
+    enum KeyType {
+        LONG(Long.class) {
+            @Override
+            long encode(Comparable value) {
+                return (Long) value;
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return key;
+            }
+        },
+        INTEGER(Integer.class) {
+            @Override
+            long encode(Comparable value) {
+                return (Integer) value;
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return (int) key;
+            }
+        },
+        SHORT(Short.class) {
+            @Override
+            long encode(Comparable value) {
+                return (Short) value;
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return (short) key;
+            }
+        },
+        BYTE(Byte.class) {
+            @Override
+            long encode(Comparable value) {
+                return (Byte) value;
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return (byte) key;
+            }
+        },
+        DOUBLE(Double.class) {
+            @Override
+            long encode(Comparable value) {
+                // flips the magnitude bits of negative values, so the signed
+                // order of the result matches Double.compare
+                long bits = Double.doubleToLongBits((Double) value);
+                return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return Double.longBitsToDouble(key ^ ((key >> (Long.SIZE - 1)) & Long.MAX_VALUE));
+            }
+        },
+        FLOAT(Float.class) {
+            @Override
+            long encode(Comparable value) {
+                int bits = Float.floatToIntBits((Float) value);
+                return bits ^ ((bits >> (Integer.SIZE - 1)) & Integer.MAX_VALUE);
+            }
+
+            @Override
+            Comparable decode(long key) {
+                int bits = (int) key;
+                return Float.intBitsToFloat(bits ^ ((bits >> (Integer.SIZE - 1)) & Integer.MAX_VALUE));
+            }
+        },
+        DATE(Date.class) {
+            @Override
+            long encode(Comparable value) {
+                return ((Date) value).getTime();
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return new Date(key);
+            }
+        },
+        LOCAL_DATE(LocalDate.class) {
+            @Override
+            long encode(Comparable value) {
+                return ((LocalDate) value).toEpochDay();
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return LocalDate.ofEpochDay(key);
+            }
+        };
+
+        private final Class<?> valueClass;
+
+        KeyType(Class<?> valueClass) {
+            this.valueClass = valueClass;
+        }
+
+        abstract long encode(Comparable value);
+
+        abstract Comparable decode(long key);
+
+        static KeyType forValue(Comparable value) {
+            for (KeyType type : values()) {
+                if (type.valueClass == value.getClass()) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Stored values must be of the exact type, so that decoded keys are
+         * equal to the values they were encoded from.
+         */
+        boolean canStore(Comparable value) {
+            return value.getClass() == valueClass;
+        }
+
+        /**
+         * Query arguments may additionally be of any integral type if the
+         * keys are integral, mixed-type comparison of those is numeric.
+         */
+        boolean canEncodeArgument(Comparable value) {
+            return canStore(value) || isIntegral() && isIntegral(value);
+        }
+
+        long encodeArgument(Comparable value) {
+            return canStore(value) ? encode(value) : ((Number) value).longValue();
+        }
+
+        private boolean isIntegral() {
+            return this == LONG || this == INTEGER || this == SHORT || this == BYTE;
+        }
+
+        private static boolean isIntegral(Comparable value) {
+            return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+        }
+    }
+
+    /**
+     * Immutable sorted run of index entries. Entries are ordered by the
+     * encoded attribute value and then by the entry key bytes.
+     */
+    static final class Block {
+        final long[] keys;
+        final QueryableEntry[] entries;
+
+        Block(long[] keys, QueryableEntry[] entries) {
+            this.keys = keys;
+            this.entries = entries;
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        int compareWith(int position, long key, Data keyData) {
+            int order = Long.compare(keys[position], key);
+            return order != 0 ? order : DATA_COMPARATOR.compare(entries[position].getKeyData(), keyData);
+        }
+
+        /**
+         * Binary search for the given entry, returns its position or
+         * {@code -(insertion point) - 1} if it is absent.
+         */
+        int search(long key, Data keyData) {
+            int low = 0;
+            int high = keys.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = compareWith(mid, key, keyData);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Returns the position of the first key which is greater than (or
+         * equal to, if inclusive) the given one, {@link #size()} if none.
+         */
+        int lowerBound(long key, boolean inclusive) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key || !inclusive && keys[mid] == key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Block replace(int position, QueryableEntry entry) {
+            QueryableEntry[] newEntries = entries.clone();
+            newEntries[position] = entry;
+            return new Block(keys, newEntries);
+        }
+
+        Block insert(int position, long key, QueryableEntry entry) {
+            int size = keys.length;
+            long[] newKeys = new long[size + 1];
+            QueryableEntry[] newEntries = new QueryableEntry[size + 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(entries, 0, newEntries, 0, position);
+            newKeys[position] = key;
+            newEntries[position] = entry;
+            System.arraycopy(keys, position, newKeys, position + 1, size - position);
+            System.arraycopy(entries, position, newEntries, position + 1, size - position);
+            return new Block(newKeys, newEntries);
+        }
+
+        Block remove(int position) {
+            int size = keys.length;
+            long[] newKeys = new long[size - 1];
+            QueryableEntry[] newEntries = new QueryableEntry[size - 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(entries, 0, newEntries, 0, position);
+            System.arraycopy(keys, position + 1, newKeys, position, size - position - 1);
+            System.arraycopy(entries, position + 1, newEntries, position, size - position - 1);
+            return new Block(newKeys, newEntries);
+        }
+
+        Block[] split() {
+            int half = keys.length / 2;
+            return new Block[]{slice(0, half), slice(half, keys.length)};
+        }
+
+        Block merge(Block next) {
+            int size = keys.length;
+            long[] newKeys = new long[size + next.keys.length];
+            QueryableEntry[] newEntries = new QueryableEntry[newKeys.length];
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            System.arraycopy(entries, 0, newEntries, 0, size);
+            System.arraycopy(next.keys, 0, newKeys, size, next.keys.length);
+            System.arraycopy(next.entries, 0, newEntries, size, next.keys.length);
+            return new Block(newKeys, newEntries);
+        }
+
+        private Block slice(int from, int to) {
+            long[] newKeys = new long[to - from];
+            QueryableEntry[] newEntries = new QueryableEntry[to - from];
+            System.arraycopy(keys, from, newKeys, 0, newKeys.length);
+            System.arraycopy(entries, from, newEntries, 0, newEntries.length);
+            return new Block(newKeys, newEntries);
+        }
+    }
+
+    /**
+     * Iterates over the groups of entries sharing the same key within a
+     * range of keys, in ascending or descending order.
+     * <p>
+     * The range is either given as encoded bounds, or as arbitrary
+     * comparable bounds which are then checked against every decoded key.
+     */
+    private static final class GroupIterator implements Iterator<IndexKeyEntries> {
+        private final Block[] root;
+        private final KeyType type;
+        private final boolean descending;
+        private final long lo;
+        private final boolean loInclusive;
+        private final long hi;
+        private final boolean hiInclusive;
+        private final Comparable filterFrom;
+        private final boolean filterFromInclusive;
+        private final Comparable filterTo;
+        private final boolean filterToInclusive;
+        private final Comparable cursorValue;
+        private Data lastEntryKeyData;
+
+        private Comparable indexKey;
+        private int blockIndex;
+        private Block block;
+        private int position;
+        private IndexKeyEntries next;
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        GroupIterator(Block[] root, KeyType type, boolean descending, long lo, boolean loInclusive,
+                      long hi, boolean hiInclusive, Comparable cursorValue, Data lastEntryKeyData) {
+            this(root, type, descending, lo, loInclusive, hi, hiInclusive, null, false, null, false,
+                    cursorValue, lastEntryKeyData);
+        }
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        GroupIterator(Block[] root, KeyType type, boolean descending, Comparable from, boolean fromInclusive,
+                      Comparable to, boolean toInclusive, Comparable cursorValue, Data lastEntryKeyData) {
+            this(root, type, descending, Long.MIN_VALUE, true, Long.MAX_VALUE, true,
+                    from == NULL ? null : from, fromInclusive, to == POSITIVE_INFINITY ? null : to, toInclusive,
+                    cursorValue, lastEntryKeyData);
+        }
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        private GroupIterator(Block[] root, KeyType type, boolean descending, long lo, boolean loInclusive,
+                              long hi, boolean hiInclusive, Comparable filterFrom, boolean filterFromInclusive,
+                              Comparable filterTo, boolean filterToInclusive, Comparable cursorValue,
+                              Data lastEntryKeyData) {
+            this.root = root;
+            this.type = type;
+            this.descending = descending;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.filterFrom = filterFrom;
+            this.filterFromInclusive = filterFromInclusive;
+            this.filterTo = filterTo;
+            this.filterToInclusive = filterToInclusive;
+            this.cursorValue = cursorValue;
+            this.lastEntryKeyData = lastEntryKeyData;
+            if (descending) {
+                seekLast();
+            } else {
+                seekFirst();
+            }
+        }
+
+        /**
+         * Makes the iterator report the given value as the key of all groups
+         * instead of the decoded keys.
+         */
+        GroupIterator reportingIndexKey(Comparable indexKey) {
+            this.indexKey = indexKey;
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && block != null) {
+                next = nextGroup();
+            }
+            return next != null;
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IndexKeyEntries result = next;
+            next = null;
+            return result;
+        }
+
+        /**
+         * Positions on the first entry with a key not below the lower bound.
+         */
+        private void seekFirst() {
+            // the first block whose last key is within the lower bound
+            int low = 0;
+            int high = root.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long last = root[mid].keys[root[mid].size() - 1];
+                if (last < lo || !loInclusive && last == lo) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            blockIndex = low;
+            if (blockIndex < root.length) {
+                block = root[blockIndex];
+                position = block.lowerBound(lo, loInclusive);
+                if (position == block.size()) {
+                    // the block was replaced concurrently
+                    advance();
+                }
+            }
+        }
+
+        /**
+         * Positions on the last entry with a key not above the upper bound.
+         */
+        private void seekLast() {
+            // the last block whose first key is within the upper bound
+            int low = 0;
+            int high = root.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long first = root[mid].keys[0];
+                if (first < hi || hiInclusive && first == hi) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            blockIndex = low - 1;
+            if (blockIndex >= 0) {
+                block = root[blockIndex];
+                position = block.lowerBound(hi, !hiInclusive) - 1;
+                if (position < 0) {
+                    advance();
+                }
+            }
+        }
+
+        /**
+         * Moves to the next entry in the iteration order, crossing block
+         * boundaries if needed. Sets {@code block} to {@code null} at the end.
+         */
+        private void advance() {
+            if (descending) {
+                if (--position >= 0) {
+                    return;
+                }
+                while (--blockIndex >= 0) {
+                    block = root[blockIndex];
+                    if (block.size() > 0) {
+                        position = block.size() - 1;
+                        return;
+                    }
+                }
+            } else {
+                if (++position < block.size()) {
+                    return;
+                }
+                while (++blockIndex < root.length) {
+                    block = root[blockIndex];
+                    if (block.size() > 0) {
+                        position = 0;
+                        return;
+                    }
+                }
+            }
+            block = null;
+        }
+
+        private boolean withinBounds(long key) {
+            if (descending) {
+                return key > lo || loInclusive && key == lo;
+            } else {
+                return key < hi || hiInclusive && key == hi;
+            }
+        }
+
+        private boolean passesFilter(Comparable value) {
+            if (filterFrom != null) {
+                int order = SPECIAL_AWARE_COMPARATOR.compare(value, filterFrom);
+                if (order < 0 || order == 0 && !filterFromInclusive) {
+                    return false;
+                }
+            }
+            if (filterTo != null) {
+                int order = SPECIAL_AWARE_COMPARATOR.compare(value, filterTo);
+                return order < 0 || order == 0 && filterToInclusive;
+            }
+            return true;
+        }
+
+        /**
+         * Consumes the entries of the next key group. Returns {@code null} if
+         * the group is filtered out.
+         */
+        private IndexKeyEntries nextGroup() {
+            long key = block.keys[position];
+            if (!withinBounds(key)) {
+                block = null;
+                return null;
+            }
+
+            GroupEntries group = consumeGroup(key);
+            Comparable value = type.decode(key);
+            if ((filterFrom != null || filterTo != null) && !passesFilter(value)) {
+                return null;
+            }
+            if (lastEntryKeyData != null) {
+                // the cursor may only point into the first group of the range
+                if (SPECIAL_AWARE_COMPARATOR.compare(cursorValue, value) == 0) {
+                    group.skipUntilAfter(lastEntryKeyData);
+                }
+                lastEntryKeyData = null;
+            }
+            return new IndexKeyEntries(indexKey != null ? indexKey : value, group);
+        }
+
+        private GroupEntries consumeGroup(long key) {
+            GroupEntries group = new GroupEntries(descending);
+            while (block != null && block.keys[position] == key) {
+                Block current = block;
+                int start = position;
+                int end = start;
+                while (block == current && block.keys[position] == key) {
+                    end = position;
+                    advance();
+                }
+                if (descending) {
+                    group.add(current, end, start + 1);
+                } else {
+                    group.add(current, start, end + 1);
+                }
+            }
+            return group;
+        }
+    }
+
+    /**
+     * Iterates over the entries of a single key group, which are kept as
+     * segments of one or more immutable blocks.
+     */
+    private static final class GroupEntries implements Iterator<QueryableEntry> {
+        private final boolean descending;
+        private final List<Segment> segments = new ArrayList<>(2);
+
+        private int segment;
+        private Block block;
+        private int position;
+        private int end;
+
+        GroupEntries(boolean descending) {
+            this.descending = descending;
+        }
+
+        void add(Block block, int from, int to) {
+            segments.add(descending ? new Segment(block, to - 1, from - 1) : new Segment(block, from, to));
+            if (this.block == null) {
+                openSegment(0);
+            }
+        }
+
+        void skipUntilAfter(Data lastEntryKeyData) {
+            while (hasNext()) {
+                int order = DATA_COMPARATOR.compare(block.entries[position].getKeyData(), lastEntryKeyData);
+                if (descending ? order < 0 : order > 0) {
+                    return;
+                }
+                step();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (block != null && position == end) {
+                if (segment + 1 < segments.size()) {
+                    openSegment(segment + 1);
+                } else {
+                    block = null;
+                }
+            }
+            return block != null;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            QueryableEntry entry = block.entries[position];
+            step();
+            return entry;
+        }
+
+        private void step() {
+            position += descending ? -1 : 1;
+        }
+
+        private void openSegment(int index) {
+            Segment current = segments.get(index);
+            segment = index;
+            block = current.block();
+            position = current.start();
+            end = current.end();
+        }
+    }
+
+    /**
+     * Positions {@code [start, end)} of a block in the iteration order.
+     */
+    private record Segment(Block block, int start, int end) {
+    }
+}
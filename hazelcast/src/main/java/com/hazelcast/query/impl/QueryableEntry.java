@@ -76,6 +76,14 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
 
     protected abstract Object getTargetObject(boolean key);
 
+    /**
+     * Returns {@code true} if the value attribute with the given name is
+     * extracted by a custom {@link com.hazelcast.query.extractor.ValueExtractor}.
+     */
+    public boolean hasCustomExtractor(String attributeName) {
+        return extractors != null && extractors.hasCustomExtractor(attributeName);
+    }
+
     /**
      * Returns a converter corresponding to the attribute with the given name.
      * Never {@code null}, but may return {@link TypeConverters#NULL_CONVERTER}
@@ -93,6 +93,14 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Returns {@code true} if a custom {@link ValueExtractor} is configured
+     * for the given attribute name (without arguments).
+     */
+    public boolean hasCustomExtractor(String attributeName) {
+        return extractors.containsKey(attributeName);
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * {@link Ringbuffer} implementation which keeps the serialized items in
+ * native memory, outside the reach of the garbage collector.
+ * <p>
+ * The payloads of the items are appended to a circular byte region. For every
+ * slot of the ringbuffer, the position of the payload in the region and its
+ * length are kept in primitive arrays, so the ringbuffer does not hold any
+ * reference per item. An item is only copied out of the region when it is
+ * read; the returned {@link Data} is an on-heap copy.
+ * <p>
+ * The region is written sequentially. Before an append would overwrite the
+ * payload of an item which is still referenced by a slot, the region is
+ * compacted into a new one, twice as large as the live payloads. When items
+ * are written in sequence order, as by adds, backups and migrations, the
+ * payloads of evicted items are the ones being overwritten and no compaction
+ * is needed once the region has grown large enough.
+ * <p>
+ * Only {@link Data} items, or {@code null}, can be stored. Like the
+ * {@link ArrayRingbuffer}, this class is not thread-safe and must only be
+ * accessed by the partition thread owning the ringbuffer. The native memory is
+ * released by {@link #clear()} and {@link #dispose()}.
+ *
+ * @param <E> the type of the data stored in the ringbuffer, always {@link Data}
+ */
+public class NativeRingbuffer<E> implements Ringbuffer<E> {
+
+    static final int MIN_REGION_SIZE = 4096;
+
+    private static final int NULL_LENGTH = -1;
+    private static final int MIN_FREE_REGION_FRACTION = 4;
+
+    private final UnsafeMemoryAllocator malloc = new UnsafeMemoryAllocator();
+    private final MemoryAccessor mem = MEM;
+    private final long[] positions;
+    private final int[] lengths;
+    private final int capacity;
+
+    private long tailSequence = -1;
+    private long headSequence = tailSequence + 1;
+
+    private long address = NULL_ADDRESS;
+    private long regionSize;
+    // logical position of the next payload, the physical offset is the position modulo the region size
+    private long writePosition;
+    // no live payload starts before this position, it is recalculated lazily
+    private long lowestLivePosition;
+    private long usedBytes;
+
+    public NativeRingbuffer(int capacity) {
+        this.capacity = capacity;
+        this.positions = new long[capacity];
+        this.lengths = new int[capacity];
+        Arrays.fill(lengths, NULL_LENGTH);
+    }
+
+    @Override
+    public long tailSequence() {
+        return tailSequence;
+    }
+
+    @Override
+    public long peekNextTailSequence() {
+        return tailSequence + 1;
+    }
+
+    @Override
+    public void setTailSequence(long sequence) {
+        this.tailSequence = sequence;
+    }
+
+    @Override
+    public long headSequence() {
+        return headSequence;
+    }
+
+    @Override
+    public void setHeadSequence(long sequence) {
+        this.headSequence = sequence;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long size() {
+        return tailSequence - headSequence + 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public long add(E item) {
+        tailSequence++;
+
+        if (tailSequence - capacity == headSequence) {
+            headSequence++;
+        }
+
+        write(toIndex(tailSequence), (Data) item);
+
+        return tailSequence;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E read(long sequence) {
+        checkReadSequence(sequence);
+        return (E) readSlot(toIndex(sequence));
+    }
+
+    @Override
+    public void checkBlockableReadSequence(long readSequence) {
+        if (readSequence > tailSequence + 1) {
+            throw new IllegalArgumentException("sequence:" + readSequence
+                    + " is too large. The current tailSequence is:" + tailSequence);
+        }
+
+        if (readSequence < headSequence) {
+            throw new StaleSequenceException("sequence:" + readSequence
+                    + " is too small. The current headSequence is:" + headSequence
+                    + " tailSequence is:" + tailSequence, headSequence);
+        }
+    }
+
+    @Override
+    public void checkReadSequence(long sequence) {
+        if (sequence > tailSequence) {
+            throw new IllegalArgumentException("sequence:" + sequence
+                    + " is too large. The current tailSequence is:" + tailSequence);
+        }
+
+        if (sequence < headSequence) {
+            throw new StaleSequenceException("sequence:" + sequence
+                    + " is too small. The current headSequence is:" + headSequence
+                    + " tailSequence is:" + tailSequence, headSequence);
+        }
+    }
+
+    @Override
+    public void set(long seq, E data) {
+        write(toIndex(seq), (Data) data);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(lengths, NULL_LENGTH);
+        freeRegion();
+        tailSequence = -1;
+        headSequence = tailSequence + 1;
+    }
+
+    @Override
+    public void dispose() {
+        Arrays.fill(lengths, NULL_LENGTH);
+        freeRegion();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new ReadOnlyRingbufferIterator<>(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned array is a copy, the items are copied out of native memory
+     * and changes to the array are not reflected in this ringbuffer.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E[] getItems() {
+        Object[] items = new Object[capacity];
+        for (int index = 0; index < capacity; index++) {
+            items[index] = readSlot(index);
+        }
+        return (E[]) items;
+    }
+
+    /**
+     * Returns the number of payload bytes of the items currently stored.
+     */
+    long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Returns the size of the native byte region, {@code 0} if none is allocated.
+     */
+    long getRegionSize() {
+        return regionSize;
+    }
+
+    private int toIndex(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private Data readSlot(int index) {
+        int length = lengths[index];
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        copyFromRegion(positions[index], payload, length);
+        return new HeapData(payload);
+    }
+
+    private void write(int index, Data item) {
+        if (lengths[index] != NULL_LENGTH) {
+            usedBytes -= lengths[index];
+            lengths[index] = NULL_LENGTH;
+        }
+        if (item == null) {
+            return;
+        }
+
+        byte[] payload = item.toByteArray();
+        int length = payload.length;
+        ensureRoom(length);
+        copyToRegion(payload, writePosition, length);
+        positions[index] = writePosition;
+        lengths[index] = length;
+        writePosition += length;
+        usedBytes += length;
+    }
+
+    /**
+     * Makes sure that appending {@code length} bytes at the write position
+     * does not overwrite a live payload, compacting the region into a larger
+     * one if needed.
+     */
+    private void ensureRoom(int length) {
+        if (writePosition + length - regionSize <= lowestLivePosition) {
+            return;
+        }
+        lowestLivePosition = findLowestLivePosition();
+        long overwrittenUpTo = writePosition + length - regionSize;
+        long freeAfterWrite = lowestLivePosition - overwrittenUpTo;
+        if (freeAfterWrite >= 0 && freeAfterWrite >= regionSize / MIN_FREE_REGION_FRACTION) {
+            return;
+        }
+        compact(Math.max(MIN_REGION_SIZE, nextPowerOfTwo(2 * (usedBytes + length))));
+    }
+
+    private long findLowestLivePosition() {
+        long lowest = writePosition;
+        for (int index = 0; index < capacity; index++) {
+            if (lengths[index] != NULL_LENGTH && positions[index] < lowest) {
+                lowest = positions[index];
+            }
+        }
+        return lowest;
+    }
+
+    /**
+     * Copies the live payloads in sequence order, starting from the head,
+     * into a new region of the given size and frees the old region.
+     */
+    private void compact(long newRegionSize) {
+        long newAddress = malloc.allocate(newRegionSize);
+        long newWritePosition = 0;
+        int headIndex = toIndex(headSequence);
+        for (int i = 0; i < capacity; i++) {
+            int index = (headIndex + i) % capacity;
+            int length = lengths[index];
+            if (length == NULL_LENGTH) {
+                continue;
+            }
+            long position = positions[index];
+            long offset = position & (regionSize - 1);
+            long firstPart = Math.min(length, regionSize - offset);
+            mem.copyMemory(address + offset, newAddress + newWritePosition, firstPart);
+            if (firstPart < length) {
+                mem.copyMemory(address, newAddress + newWritePosition + firstPart, length - firstPart);
+            }
+            positions[index] = newWritePosition;
+            newWritePosition += length;
+        }
+
+        if (address != NULL_ADDRESS) {
+            malloc.free(address, regionSize);
+        }
+        address = newAddress;
+        regionSize = newRegionSize;
+        writePosition = newWritePosition;
+        lowestLivePosition = 0;
+    }
+
+    private void copyToRegion(byte[] source, long position, int length) {
+        long offset = position & (regionSize - 1);
+        int firstPart = (int) Math.min(length, regionSize - offset);
+        mem.copyFromByteArray(source, 0, address + offset, firstPart);
+        if (firstPart < length) {
+            mem.copyFromByteArray(source, firstPart, address, length - firstPart);
+        }
+    }
+
+    private void copyFromRegion(long position, byte[] destination, int length) {
+        long offset = position & (regionSize - 1);
+        int firstPart = (int) Math.min(length, regionSize - offset);
+        mem.copyToByteArray(address + offset, destination, 0, firstPart);
+        if (firstPart < length) {
+            mem.copyToByteArray(address, destination, firstPart, length - firstPart);
+        }
+    }
+
+    private void freeRegion() {
+        if (address != NULL_ADDRESS) {
+            malloc.free(address, regionSize);
+            address = NULL_ADDRESS;
+        }
+        regionSize = 0;
+        writePosition = 0;
+        lowestLivePosition = 0;
+        usedBytes = 0;
+    }
+}
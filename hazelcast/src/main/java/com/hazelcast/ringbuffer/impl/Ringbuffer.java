@@ -185,4 +185,12 @@ public interface Ringbuffer<E> extends Iterable<E> {
      * sequence and the modulo of the array.
      */
     E[] getItems();
+
+    /**
+     * Releases the resources held by this ringbuffer outside the Java heap,
+     * if any. The items are dropped, so the ringbuffer must not be read
+     * afterwards.
+     */
+    default void dispose() {
+    }
 }
@@ -40,7 +40,9 @@ import java.io.IOException;
 import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.config.InMemoryFormat.values;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
 import static com.hazelcast.internal.namespace.NamespaceUtil.runWithNamespace;
+import static com.hazelcast.spi.properties.ClusterProperty.RINGBUFFER_NATIVE_STORAGE_NAMES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -124,7 +126,9 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         this(namespace, partitionId);
 
         this.inMemoryFormat = config.getInMemoryFormat();
-        this.ringbuffer = new ArrayRingbuffer<>(config.getCapacity());
+        this.ringbuffer = isNativeStorageConfigured(nodeEngine)
+                ? new NativeRingbuffer<>(config.getCapacity())
+                : new ArrayRingbuffer<>(config.getCapacity());
         this.userCodeNamespace = config.getUserCodeNamespace();
 
         final long ttlMs = SECONDS.toMillis(config.getTimeToLiveSeconds());
@@ -148,9 +152,33 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         this.config = config;
         this.userCodeNamespace = config.getUserCodeNamespace();
         this.serializationService = nodeEngine.getSerializationService();
+        if (ringbuffer instanceof ArrayRingbuffer && isNativeStorageConfigured(nodeEngine)) {
+            // a replicated container is always deserialized into an on-heap ringbuffer
+            moveToNativeRingbuffer();
+        }
         initRingbufferStore(NamespaceUtil.getClassLoaderForNamespace(nodeEngine, config.getUserCodeNamespace()), nodeEngine);
     }
 
+    private boolean isNativeStorageConfigured(NodeEngine nodeEngine) {
+        if (inMemoryFormat != BINARY || !MEM_AVAILABLE || objectNamespace == null
+                || !RingbufferService.SERVICE_NAME.equals(objectNamespace.getServiceName())) {
+            return false;
+        }
+        String name = objectNamespace.getObjectName();
+        return nodeEngine.getProperties().containsName(RINGBUFFER_NATIVE_STORAGE_NAMES,
+                name, RingbufferService.getConfigName(name));
+    }
+
+    private void moveToNativeRingbuffer() {
+        Ringbuffer<E> nativeRingbuffer = new NativeRingbuffer<>((int) ringbuffer.getCapacity());
+        nativeRingbuffer.setTailSequence(ringbuffer.tailSequence());
+        nativeRingbuffer.setHeadSequence(ringbuffer.headSequence());
+        for (long seq = ringbuffer.headSequence(); seq <= ringbuffer.tailSequence(); seq++) {
+            nativeRingbuffer.set(seq, ringbuffer.read(seq));
+        }
+        ringbuffer = nativeRingbuffer;
+    }
+
     private void initRingbufferStore(ClassLoader classLoader, NodeEngine nodeEngine) {
         this.store = RingbufferStoreWrapper.create(objectNamespace,
                 config.getRingbufferStoreConfig(),
@@ -719,4 +747,22 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
             expirationPolicy.clear();
         }
     }
+
+    /**
+     * Returns {@code true} if the items of this container are kept in native
+     * memory, which must be released with {@link #dispose()} by the partition
+     * thread once the container is removed.
+     */
+    public boolean usesNativeStorage() {
+        return ringbuffer instanceof NativeRingbuffer;
+    }
+
+    /**
+     * Releases the native memory held by the ringbuffer, if any. Must be
+     * called on the partition thread, the container must not be used
+     * afterwards.
+     */
+    public void dispose() {
+        ringbuffer.dispose();
+    }
 }
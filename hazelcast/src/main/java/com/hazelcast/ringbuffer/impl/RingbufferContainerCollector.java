@@ -50,12 +50,22 @@ class RingbufferContainerCollector extends AbstractContainerCollector<Ringbuffer
 
     @Override
     protected void destroy(RingbufferContainer container) {
-        container.clear();
+        release(container);
     }
 
     @Override
     protected void destroyBackup(RingbufferContainer container) {
+        release(container);
+    }
+
+    /**
+     * Clears a container unlinked from the service by this collector and
+     * releases its native memory. The service no longer sees the container,
+     * so it is released here, once merged or when it is not collected.
+     */
+    private static void release(RingbufferContainer container) {
         container.clear();
+        container.dispose();
     }
 
     @Override
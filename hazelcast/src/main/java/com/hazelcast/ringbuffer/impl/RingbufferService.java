@@ -40,6 +40,7 @@ import com.hazelcast.ringbuffer.impl.operations.MergeOperation;
 import com.hazelcast.ringbuffer.impl.operations.ReplicationOperation;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.merge.AbstractContainerMerger;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.merge.RingbufferMergeData;
@@ -48,15 +49,18 @@ import com.hazelcast.spi.merge.SplitBrainMergeTypes.RingbufferMergeTypes;
 import com.hazelcast.splitbrainprotection.SplitBrainProtectionOn;
 import com.hazelcast.splitbrainprotection.SplitBrainProtectionService;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 
 import static com.hazelcast.internal.config.ConfigValidator.checkRingbufferConfig;
 import static com.hazelcast.internal.partition.MigrationEndpoint.DESTINATION;
@@ -64,6 +68,7 @@ import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutSynchronized;
 import static com.hazelcast.internal.util.MapUtil.isNullOrEmpty;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * The SPI Service that deals with the {@link com.hazelcast.ringbuffer.Ringbuffer}.
@@ -83,6 +88,7 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
     public static final String SERVICE_NAME = "hz:impl:ringbufferService";
 
     private static final Object NULL_OBJECT = new Object();
+    private static final int SHUTDOWN_DISPOSE_TIMEOUT_SECONDS = 10;
 
     /**
      * Map from namespace to actual ringbuffer containers. The namespace
@@ -152,17 +158,83 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
         if (partitionContainers == null) {
             return;
         }
-        partitionContainers.remove(namespace);
+        RingbufferContainer container = partitionContainers.remove(namespace);
+        if (container != null) {
+            disposeOnPartitionThread(partitionId, container, new CountDownLatch(1));
+        }
     }
 
     @Override
     public void reset() {
+        // containers collected for a split-brain merge have already been unlinked
+        // from this map by the collector, which releases them once merged
+        disposeAll();
+    }
+
+    /**
+     * Releases the native memory of all linked containers on their partition
+     * threads and unlinks them.
+     *
+     * @return a latch counted down once every disposal has run
+     */
+    private CountDownLatch disposeAll() {
+        List<Entry<Integer, RingbufferContainer>> nativeContainers = new ArrayList<>();
+        for (Entry<Integer, Map<ObjectNamespace, RingbufferContainer>> entry : containers.entrySet()) {
+            for (RingbufferContainer container : entry.getValue().values()) {
+                if (container.usesNativeStorage()) {
+                    nativeContainers.add(Map.entry(entry.getKey(), container));
+                }
+            }
+        }
         containers.clear();
+
+        CountDownLatch latch = new CountDownLatch(nativeContainers.size());
+        for (Entry<Integer, RingbufferContainer> entry : nativeContainers) {
+            disposeOnPartitionThread(entry.getKey(), entry.getValue(), latch);
+        }
+        return latch;
+    }
+
+    /**
+     * Releases the native memory of a removed container on its partition
+     * thread, since the caller may run on any thread while operations on
+     * the partition may still be reading the container.
+     */
+    private void disposeOnPartitionThread(int partitionId, RingbufferContainer container, CountDownLatch latch) {
+        if (!container.usesNativeStorage()) {
+            latch.countDown();
+            return;
+        }
+        nodeEngine.getOperationService().execute(new PartitionSpecificRunnable() {
+            @Override
+            public void run() {
+                try {
+                    container.dispose();
+                } finally {
+                    latch.countDown();
+                }
+            }
+
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+        });
     }
 
     @Override
     public void shutdown(boolean terminate) {
-        reset();
+        CountDownLatch latch = disposeAll();
+        // the operation executor is shut down right after the services and drops
+        // the runnables still queued, so wait for the disposals to run
+        try {
+            if (!latch.await(SHUTDOWN_DISPOSE_TIMEOUT_SECONDS, SECONDS)) {
+                nodeEngine.getLogger(getClass()).warning("Native memory of " + latch.getCount()
+                        + " ringbuffers has not been released within " + SHUTDOWN_DISPOSE_TIMEOUT_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -236,7 +308,10 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
         checkNotNull(ringbuffer, "ringbuffer can't be null");
         ringbuffer.init(config, nodeEngine);
         ringbuffer.getStore().instrument(nodeEngine);
-        getOrCreateRingbufferContainers(partitionId).put(ringbuffer.getNamespace(), ringbuffer);
+        RingbufferContainer previous = getOrCreateRingbufferContainers(partitionId).put(ringbuffer.getNamespace(), ringbuffer);
+        if (previous != null && previous != ringbuffer) {
+            previous.dispose();
+        }
     }
 
     @Override
@@ -297,6 +372,7 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
             final RingbufferContainer container = entry.getValue();
             if (thresholdReplicaIndex < 0 || container.getConfig().getTotalBackupCount() < thresholdReplicaIndex) {
                 iterator.remove();
+                container.dispose();
             }
         }
     }
@@ -372,7 +448,7 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
         }
     }
 
-    private static String getConfigName(String name) {
+    static String getConfigName(String name) {
         if (name.startsWith(TOPIC_RB_PREFIX)) {
             name = name.substring(TOPIC_RB_PREFIX.length());
         }
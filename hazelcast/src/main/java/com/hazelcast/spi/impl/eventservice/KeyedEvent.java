@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice;
+
+/**
+ * An event about a key, e.g. an entry event of a map. When the delivery
+ * queue of a listener overflows, a queued event can be replaced by a newer
+ * event of the same key.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#EVENT_LISTENER_QUEUE_OVERFLOW_POLICY
+ */
+public interface KeyedEvent {
+
+    /**
+     * Returns the key of this event, or {@code null} if the event can't be
+     * replaced by another one.
+     *
+     * @return the key of this event
+     */
+    Object getEventKey();
+}
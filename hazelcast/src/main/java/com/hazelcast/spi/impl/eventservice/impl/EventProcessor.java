@@ -60,6 +60,10 @@ public class EventProcessor implements StripedRunnable {
         if (registration == null) {
             return;
         }
+        if (eventService.isListenerQueueEnabled()) {
+            eventService.getOrCreateEventQueue(registration).offer(event);
+            return;
+        }
         service.dispatchEvent(event, registration.getListener());
     }
 
@@ -20,7 +20,9 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.cluster.impl.MemberImpl;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
@@ -63,6 +65,8 @@ import java.util.logging.Level;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.internal.cluster.Versions.V5_3;
+import static com.hazelcast.internal.cluster.Versions.V6_0;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_DISCRIMINATOR_LISTENER;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_DISCRIMINATOR_SERVICE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENT_QUEUE_SIZE;
@@ -72,6 +76,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_MET
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_THREAD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_TOTAL_FAILURE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_PREFIX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_TAG_TOPIC;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
@@ -81,6 +86,9 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.spi.impl.InternalCompletableFuture.newCompletedFuture;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_LISTENER_QUEUE_CAPACITY;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_LISTENER_QUEUE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_LISTENER_QUEUE_OVERFLOW_POLICY;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_SYNC_TIMEOUT_MILLIS;
@@ -109,9 +117,14 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * This order can still be broken in some cases. This is possible because remote events are asynchronous,
  * and we don't wait for the response before publishing the next event. The previously published
  * event can be retransmitted causing it to be received by the target node at a later time.
+ * <p>
+ * If {@link com.hazelcast.spi.properties.ClusterProperty#EVENT_LISTENER_QUEUE_ENABLED} is set, the events
+ * of every local listener are queued in its {@link ListenerEventQueue}, which occupies at most one slot of
+ * the executor, and, once the cluster version is at least 6.0, the asynchronous remote events are batched per
+ * subscriber and order key stripe by a {@link RemoteEventBatcher}.
  */
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
-public class EventServiceImpl implements EventService, StaticMetricsProvider {
+public class EventServiceImpl implements EventService, StaticMetricsProvider, DynamicMetricsProvider {
 
     public static final String SERVICE_NAME = "hz:core:eventService";
 
@@ -184,6 +197,11 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     private final ConcurrentMap<UUID, Object> listenerCache = new ConcurrentHashMap<>();
 
+    private final boolean listenerQueueEnabled;
+    private final int listenerQueueCapacity;
+    private final ListenerQueueOverflowPolicy listenerQueueOverflowPolicy;
+    private final ConcurrentMap<Address, RemoteEventBatcher> remoteEventBatchers = new ConcurrentHashMap<>();
+
     public EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
         this.serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
@@ -194,6 +212,10 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         this.eventQueueTimeoutMs = hazelcastProperties.getMillis(EVENT_QUEUE_TIMEOUT_MILLIS);
         this.sendEventSyncTimeoutMillis = hazelcastProperties.getInteger(EVENT_SYNC_TIMEOUT_MILLIS);
         this.eventSyncFrequency = loadEventSyncFrequency();
+        this.listenerQueueEnabled = hazelcastProperties.getBoolean(EVENT_LISTENER_QUEUE_ENABLED);
+        this.listenerQueueCapacity = hazelcastProperties.getInteger(EVENT_LISTENER_QUEUE_CAPACITY);
+        this.listenerQueueOverflowPolicy = hazelcastProperties.getEnum(EVENT_LISTENER_QUEUE_OVERFLOW_POLICY,
+                ListenerQueueOverflowPolicy.class);
 
         this.eventExecutor = new StripedExecutor(
                 nodeEngine.getNode().getLogger(EventServiceImpl.class),
@@ -219,6 +241,25 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, EVENT_PREFIX);
+        if (listenerQueueEnabled) {
+            registry.registerDynamicMetricsProvider(this);
+        }
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        descriptor.withPrefix(EVENT_PREFIX);
+        for (EventServiceSegment<?> segment : segments.values()) {
+            for (Registration registration : segment.getRegistrationIdMap().values()) {
+                ListenerEventQueue eventQueue = registration.getEventQueue();
+                if (eventQueue != null) {
+                    context.collect(descriptor.copy()
+                            .withDiscriminator(EVENT_DISCRIMINATOR_LISTENER, registration.getId().toString())
+                            .withTag(EVENT_DISCRIMINATOR_SERVICE, registration.getServiceName())
+                            .withTag(EVENT_TAG_TOPIC, registration.getTopic()), eventQueue);
+                }
+            }
+        }
     }
 
     @Override
@@ -602,7 +643,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
         Registration reg = (Registration) registration;
         try {
-            if (reg.getListener() != null) {
+            if (reg.getListener() != null && listenerQueueEnabled) {
+                getOrCreateEventQueue(reg).offer(event);
+            } else if (reg.getListener() != null) {
                 eventExecutor.execute(new LocalEventDispatcher(this, serviceName, event, reg.getListener(),
                         orderKey, eventQueueTimeoutMs));
             } else {
@@ -645,19 +688,67 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                     logger.finest("Sync event delivery failed. Event: " + eventEnvelope, e);
                 }
             }
+        } else if (listenerQueueEnabled && isEventBatchingSupported()) {
+            getOrCreateRemoteEventBatcher(subscriber).send(eventEnvelope, orderKey);
         } else {
-            Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
-                    .setPacketType(Packet.Type.EVENT);
+            transmit(subscriber, eventEnvelope, orderKey);
+        }
+    }
 
-            ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
-            if (!cm.transmit(packet, subscriber)) {
-                if (nodeEngine.isRunning()) {
-                    logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
-                }
+    /**
+     * Sends the {@code payload}, an {@link EventEnvelope} or an {@link EventEnvelopeBatch}, as an event packet.
+     */
+    void transmit(Address subscriber, Object payload, int orderKey) {
+        Packet packet = new Packet(serializationService.toBytes(payload), orderKey)
+                .setPacketType(Packet.Type.EVENT);
+
+        ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
+        if (!cm.transmit(packet, subscriber)) {
+            if (nodeEngine.isRunning()) {
+                logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
             }
         }
     }
 
+    private RemoteEventBatcher getOrCreateRemoteEventBatcher(Address subscriber) {
+        // one stripe per event thread, so the batches are processed in parallel on the subscriber
+        return remoteEventBatchers.computeIfAbsent(subscriber,
+                address -> new RemoteEventBatcher(this, address, eventThreadCount));
+    }
+
+    /**
+     * Members before 6.0 can't read an {@link EventEnvelopeBatch}, so the
+     * events are sent one by one until the cluster version is upgraded.
+     */
+    private boolean isEventBatchingSupported() {
+        return nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(V6_0);
+    }
+
+    boolean isListenerQueueEnabled() {
+        return listenerQueueEnabled;
+    }
+
+    /**
+     * Returns the delivery queue of the local listener registration.
+     */
+    ListenerEventQueue getOrCreateEventQueue(Registration registration) {
+        return registration.getOrCreateEventQueue(this, listenerQueueCapacity, listenerQueueOverflowPolicy,
+                eventQueueTimeoutMs);
+    }
+
+    void onListenerQueueOverflow(Registration registration, Object droppedEvent) {
+        logFailure("Listener queue overloaded! %s dropped for %s:%s",
+                droppedEvent, registration.getServiceName(), registration.getTopic());
+    }
+
+    void onListenerQueueRejected(Registration registration) {
+        rejectedCount.inc();
+        if (eventExecutor.isLive()) {
+            logFailure("EventQueue overloaded! Failed to schedule the listener queue of %s:%s",
+                    registration.getServiceName(), registration.getTopic());
+        }
+    }
+
     /**
      * Returns the {@link EventServiceSegment} for the {@code service}. If the segment is {@code null} and
      * {@code forceCreate} is {@code true}, the segment is created and registered with the {@link MetricsRegistry}.
@@ -799,6 +890,7 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     public void onMemberLeft(MemberImpl member) {
         Address address = member.getAddress();
+        remoteEventBatchers.remove(address);
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.internal.util.executor.StripedRunnable;
+import com.hazelcast.spi.impl.eventservice.EventPublishingService;
+import com.hazelcast.spi.impl.eventservice.KeyedEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_LISTENER_COALESCED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_LISTENER_DELIVERED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_LISTENER_DROPPED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_LISTENER_QUEUE_LAG;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_LISTENER_QUEUE_SIZE;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The delivery queue of a local listener registration.
+ * <p>
+ * The queue is drained by a single task on the event executor, keyed by the
+ * registration ID. The task dispatches at most {@value #MAX_DRAIN_COUNT}
+ * events, or as many as fit in {@link #MAX_DRAIN_NANOS}, and then resubmits
+ * itself, so a listener occupies at most one slot of the executor queue and
+ * a slow listener yields the event thread to the listeners sharing it.
+ * Since the events of a listener are dispatched one at a time in the order
+ * they were queued, the order of the events with the same order key is kept.
+ * <p>
+ * When the queue is full, the {@link ListenerQueueOverflowPolicy} applies.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#EVENT_LISTENER_QUEUE_ENABLED
+ */
+final class ListenerEventQueue implements StripedRunnable {
+
+    static final int MAX_DRAIN_COUNT = 128;
+    static final long MAX_DRAIN_NANOS = MILLISECONDS.toNanos(1);
+
+    private final EventServiceImpl eventService;
+    private final Registration registration;
+    private final int capacity;
+    private final ListenerQueueOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<QueuedEvent> events = new ArrayDeque<>();
+    /**
+     * The queued events per key, maintained only for
+     * {@link ListenerQueueOverflowPolicy#COALESCE}.
+     */
+    private final Map<Object, QueuedEvent> eventsByKey = new HashMap<>();
+    private boolean scheduled;
+
+    @Probe(name = EVENT_METRIC_LISTENER_DELIVERED_COUNT)
+    private final MwCounter deliveredCount = newMwCounter();
+    @Probe(name = EVENT_METRIC_LISTENER_DROPPED_COUNT)
+    private final MwCounter droppedCount = newMwCounter();
+    @Probe(name = EVENT_METRIC_LISTENER_COALESCED_COUNT)
+    private final MwCounter coalescedCount = newMwCounter();
+
+    ListenerEventQueue(EventServiceImpl eventService, Registration registration, int capacity,
+                       ListenerQueueOverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+        this.eventService = eventService;
+        this.registration = registration;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = MILLISECONDS.toNanos(blockTimeoutMillis);
+    }
+
+    /**
+     * Queues the event for delivery to the listener.
+     *
+     * @return {@code false} if the event was dropped
+     */
+    boolean offer(Object event) {
+        Object key = overflowPolicy == ListenerQueueOverflowPolicy.COALESCE && event instanceof KeyedEvent keyedEvent
+                ? keyedEvent.getEventKey() : null;
+        boolean schedule;
+        lock.lock();
+        try {
+            if (events.size() >= capacity) {
+                OverflowResult result = handleOverflow(event, key);
+                if (result != OverflowResult.QUEUE) {
+                    return result == OverflowResult.COALESCED;
+                }
+            }
+            QueuedEvent queuedEvent = new QueuedEvent(event, key, System.nanoTime());
+            events.addLast(queuedEvent);
+            if (key != null) {
+                eventsByKey.put(key, queuedEvent);
+            }
+            schedule = !scheduled;
+            scheduled = true;
+        } finally {
+            lock.unlock();
+        }
+
+        if (schedule) {
+            submit();
+        }
+        return true;
+    }
+
+    @Override
+    public void run() {
+        EventPublishingService<Object, Object> service = eventService.nodeEngine.getService(registration.getServiceName());
+        long deadlineNanos = System.nanoTime() + MAX_DRAIN_NANOS;
+        for (int i = 0; i < MAX_DRAIN_COUNT; i++) {
+            QueuedEvent queuedEvent = poll();
+            if (queuedEvent == null) {
+                return;
+            }
+            dispatch(service, queuedEvent.event);
+            if (System.nanoTime() - deadlineNanos > 0) {
+                break;
+            }
+        }
+        // yield the event thread to the other listeners sharing it
+        submit();
+    }
+
+    @Override
+    public int getKey() {
+        return registration.getId().hashCode();
+    }
+
+    @Probe(name = EVENT_METRIC_LISTENER_QUEUE_SIZE)
+    int size() {
+        lock.lock();
+        try {
+            return events.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns for how long the oldest queued event has been waiting.
+     */
+    @Probe(name = EVENT_METRIC_LISTENER_QUEUE_LAG, unit = MS)
+    long lagMillis() {
+        lock.lock();
+        try {
+            QueuedEvent oldest = events.peekFirst();
+            return oldest == null ? 0 : NANOSECONDS.toMillis(System.nanoTime() - oldest.queuedNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    Registration getRegistration() {
+        return registration;
+    }
+
+    private OverflowResult handleOverflow(Object event, Object key) {
+        return switch (overflowPolicy) {
+            case BLOCK -> block(event);
+            case COALESCE -> coalesce(event, key);
+            case DROP_OLDEST -> dropOldest();
+        };
+    }
+
+    private OverflowResult block(Object event) {
+        if (awaitNotFull()) {
+            return OverflowResult.QUEUE;
+        }
+        droppedCount.inc();
+        eventService.onListenerQueueOverflow(registration, event);
+        return OverflowResult.DROPPED;
+    }
+
+    private OverflowResult coalesce(Object event, Object key) {
+        QueuedEvent queuedEvent = key == null ? null : eventsByKey.get(key);
+        if (queuedEvent == null) {
+            return dropOldest();
+        }
+        queuedEvent.event = event;
+        coalescedCount.inc();
+        return OverflowResult.COALESCED;
+    }
+
+    /**
+     * Waits for the queue to have room. Event threads don't wait, since the
+     * queue may only be drained by the waiting thread itself.
+     */
+    private boolean awaitNotFull() {
+        if (eventService.getEventExecutor().isWorkerThread()) {
+            return false;
+        }
+        long remainingNanos = blockTimeoutNanos;
+        try {
+            while (events.size() >= capacity) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private OverflowResult dropOldest() {
+        QueuedEvent oldest = events.pollFirst();
+        removeFromIndex(oldest);
+        droppedCount.inc();
+        eventService.onListenerQueueOverflow(registration, oldest.event);
+        return OverflowResult.QUEUE;
+    }
+
+    private QueuedEvent poll() {
+        lock.lock();
+        try {
+            QueuedEvent queuedEvent = events.pollFirst();
+            if (queuedEvent == null) {
+                scheduled = false;
+                return null;
+            }
+            removeFromIndex(queuedEvent);
+            notFull.signal();
+            return queuedEvent;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeFromIndex(QueuedEvent queuedEvent) {
+        if (queuedEvent.key != null) {
+            eventsByKey.remove(queuedEvent.key, queuedEvent);
+        }
+    }
+
+    private void dispatch(EventPublishingService<Object, Object> service, Object event) {
+        try {
+            service.dispatchEvent(event, registration.getListener());
+            deliveredCount.inc();
+        } catch (Exception e) {
+            eventService.logger.warning("Error while dispatching event to " + registration, e);
+        }
+    }
+
+    private void submit() {
+        try {
+            eventService.getEventExecutor().execute(this);
+        } catch (RejectedExecutionException e) {
+            // the queued events are scheduled again by the next offer
+            lock.lock();
+            try {
+                scheduled = false;
+            } finally {
+                lock.unlock();
+            }
+            eventService.onListenerQueueRejected(registration);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ListenerEventQueue{registration=" + registration + '}';
+    }
+
+    private enum OverflowResult {
+        QUEUE,
+        COALESCED,
+        DROPPED
+    }
+
+    private static final class QueuedEvent {
+
+        private final Object key;
+        private final long queuedNanos;
+        private Object event;
+
+        QueuedEvent(Object event, Object key, long queuedNanos) {
+            this.event = event;
+            this.key = key;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+/**
+ * Policy applied when the delivery queue of a listener is full.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#EVENT_LISTENER_QUEUE_OVERFLOW_POLICY
+ */
+public enum ListenerQueueOverflowPolicy {
+
+    /**
+     * The publisher waits until the queue has room, for a bounded time.
+     * The event is dropped if the queue is still full afterwards.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued event is dropped.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The queued event of the same key is replaced by the new one. The
+     * oldest queued event is dropped if there is none.
+     *
+     * @see com.hazelcast.spi.impl.eventservice.KeyedEvent
+     */
+    COALESCE
+}
@@ -41,6 +41,7 @@ public class Registration implements EventRegistration, Versioned {
     private Address subscriber;
     private boolean localOnly;
     private transient Object listener;
+    private transient volatile ListenerEventQueue eventQueue;
 
     public Registration() {
     }
@@ -92,6 +93,25 @@ public class Registration implements EventRegistration, Versioned {
         this.listener = listener;
     }
 
+    ListenerEventQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    ListenerEventQueue getOrCreateEventQueue(EventServiceImpl eventService, int capacity,
+                                             ListenerQueueOverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+        ListenerEventQueue queue = eventQueue;
+        if (queue == null) {
+            synchronized (this) {
+                queue = eventQueue;
+                if (queue == null) {
+                    queue = new ListenerEventQueue(eventService, this, capacity, overflowPolicy, blockTimeoutMillis);
+                    eventQueue = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
     // Registration equals() and hashCode() relies on the ID field only,
     // because the registration ID is unique in the cluster
     @Override
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.cluster.Address;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+
+/**
+ * Batches the asynchronous events sent to a remote member.
+ * <p>
+ * The events are split into stripes by their order key, one stripe per event
+ * thread. Publishers only enqueue their envelopes to the stripe of the event.
+ * One of them at a time drains a stripe and sends the queued envelopes in a
+ * single packet, so an event is sent right away when there is no contention
+ * and batches form as the publishers contend. The packets of a stripe are sent
+ * with the index of the stripe as the order key, so the events with the same
+ * order key are received in the order they were sent, while the stripes are
+ * still processed in parallel on the subscriber.
+ *
+ * @see EventEnvelopeBatch
+ */
+final class RemoteEventBatcher {
+
+    static final int MAX_BATCH_SIZE = 64;
+
+    private final EventServiceImpl eventService;
+    private final Address subscriber;
+    private final Stripe[] stripes;
+
+    RemoteEventBatcher(EventServiceImpl eventService, Address subscriber, int stripeCount) {
+        this.eventService = eventService;
+        this.subscriber = subscriber;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i);
+        }
+    }
+
+    void send(EventEnvelope envelope, int orderKey) {
+        stripes[hashToIndex(orderKey, stripes.length)].send(envelope);
+    }
+
+    private final class Stripe {
+
+        private final int orderKey;
+        private final Queue<EventEnvelope> envelopes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Stripe(int orderKey) {
+            this.orderKey = orderKey;
+        }
+
+        void send(EventEnvelope envelope) {
+            envelopes.offer(envelope);
+            // the sender re-checks the queue after it steps down, so an envelope
+            // enqueued while another thread was sending is never left behind
+            while (!envelopes.isEmpty() && sending.compareAndSet(false, true)) {
+                try {
+                    sendBatch();
+                } finally {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void sendBatch() {
+            List<EventEnvelope> batch = new ArrayList<>();
+            while (batch.size() < MAX_BATCH_SIZE) {
+                EventEnvelope envelope = envelopes.poll();
+                if (envelope == null) {
+                    break;
+                }
+                batch.add(envelope);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            Object payload = batch.size() == 1 ? batch.get(0) : new EventEnvelopeBatch(batch);
+            eventService.transmit(subscriber, payload, orderKey);
+        }
+    }
+}
@@ -43,8 +43,24 @@ public class RemoteEventProcessor extends EventProcessor implements StripedRunna
 
     @Override
     public void run() {
+        Object payload;
+        try {
+            payload = eventService.nodeEngine.toObject(packet);
+        } catch (Exception e) {
+            eventService.logger.warning("Error while logging processing event", e);
+            return;
+        }
+        if (payload instanceof EventEnvelopeBatch batch) {
+            for (EventEnvelope eventEnvelope : batch.getEnvelopes()) {
+                processSafely(eventEnvelope);
+            }
+        } else {
+            processSafely((EventEnvelope) payload);
+        }
+    }
+
+    private void processSafely(EventEnvelope eventEnvelope) {
         try {
-            EventEnvelope eventEnvelope = eventService.nodeEngine.toObject(packet);
             process(eventEnvelope);
         } catch (ReplicatedMapCantBeCreatedOnLiteMemberException e) {
             // this happens when there is a lite member in the cluster
@@ -111,6 +111,16 @@ public interface ExecutionService {
      */
     String MAP_LOAD_ALL_KEYS_EXECUTOR = "hz:map-loadAllKeys";
 
+    /**
+     * Name of the executor that stores the batches of the member-wide
+     * write-behind flush pipeline. This is the executor you want to
+     * configure when you want to limit or increase the number of
+     * concurrent map store writers.
+     *
+     * @see com.hazelcast.spi.properties.ClusterProperty#MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED
+     */
+    String MAP_WRITE_BEHIND_FLUSH_EXECUTOR = "hz:map-write-behind-flush";
+
     /**
      * Name of the Management Center executor. Used to execute blocking tasks
      * related with operations run by Management Center.
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An {@link OperationQueue} for a single consumer thread where the normal
+ * operations are stored in a bounded, array-backed
+ * {@link ManyToOneConcurrentArrayQueue}. Unlike the {@link OperationQueueImpl},
+ * adding a normal operation doesn't allocate a node and doesn't take a lock.
+ * <p>
+ * Priority operations are rare and are never rejected, so they are stored in
+ * an unbounded queue. Since the consumer always checks the priority queue
+ * first, no trigger task is needed.
+ * <p>
+ * When the consumer has nothing to take, it idles using the
+ * {@link IdleStrategy}, or parks if there is none. The consumer announces
+ * that it is idle before it checks the queues one last time, so a producer
+ * which adds a task afterwards wakes it up.
+ * <p>
+ * Only the {@link Operation operations} sent by an invocation on this member
+ * are subject to back pressure. When the normal queue is full, or other tasks
+ * are overflowing, the invoking thread backs off until there is room. If there
+ * is still no room after {@link #OFFER_TIMEOUT_NANOS}, a
+ * {@link HazelcastOverloadException} is thrown, so that two operation threads
+ * which invoke operations on each other's full queues can't deadlock.
+ * <p>
+ * All other normal tasks, e.g. the {@link Packet packets} added by the IO
+ * threads, which must neither block nor fail, the operations executed by the
+ * internal services without an invocation, the {@link PartitionSpecificRunnable
+ * partition-specific runnables} and any task the consumer thread adds to its
+ * own queue, are stored in an unbounded overflow queue when the normal queue
+ * is full. Once the overflow queue is in use, all tasks go there until the
+ * consumer has drained it, so the tasks keep their order.
+ */
+public final class ArrayOperationQueue implements OperationQueue {
+
+    static final long OFFER_TIMEOUT_NANOS = SECONDS.toNanos(10);
+
+    private static final IdleStrategy OFFER_IDLER = new BackoffIdleStrategy(
+            0, 0, MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(100));
+
+    private final ManyToOneConcurrentArrayQueue<Object> normalQueue;
+    private final Queue<Object> overflowQueue = new ConcurrentLinkedQueue<>();
+    private final Queue<Object> priorityQueue = new ConcurrentLinkedQueue<>();
+    private final IdleStrategy idleStrategy;
+    private Thread consumerThread;
+    private volatile boolean idle;
+
+    /**
+     * Creates a new {@link ArrayOperationQueue}.
+     *
+     * @param capacity     the capacity of the normal queue, rounded up to the next power of two
+     * @param idleStrategy the idleStrategy. If null, the consumer will block.
+     */
+    public ArrayOperationQueue(int capacity, IdleStrategy idleStrategy) {
+        this.normalQueue = new ManyToOneConcurrentArrayQueue<>(capacity);
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Sets the consumer thread. It should be called before the queue is
+     * safely published.
+     *
+     * @param consumerThread the consumer thread.
+     * @throws NullPointerException when consumerThread null.
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+        } else if (!offer(task)) {
+            if (isBackPressured(task)) {
+                offerWithBackoff(task);
+            } else {
+                overflowQueue.add(task);
+            }
+        }
+
+        if (idle) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    private boolean offer(Object task) {
+        // the overflowing tasks are taken after the normal queue is drained,
+        // so don't let other tasks refill it in the meantime
+        return overflowQueue.isEmpty() && normalQueue.offer(task);
+    }
+
+    /**
+     * Checks if the task is an operation sent by an invocation from another
+     * thread than the consumer, so the producer can wait until there is room.
+     */
+    private boolean isBackPressured(Object task) {
+        return task instanceof Operation op
+                && OperationAccessor.hasActiveInvocation(op)
+                && Thread.currentThread() != consumerThread;
+    }
+
+    private void offerWithBackoff(Object task) {
+        long deadlineNanos = System.nanoTime() + OFFER_TIMEOUT_NANOS;
+        for (long idleCount = 0; ; idleCount++) {
+            // the consumer may be idle if it didn't see the tasks added in the meantime
+            if (idle) {
+                LockSupport.unpark(consumerThread);
+            }
+            OFFER_IDLER.idle(idleCount);
+            if (offer(task)) {
+                return;
+            }
+            if (System.nanoTime() - deadlineNanos > 0) {
+                throw new HazelcastOverloadException("Timed out while adding an operation to the full operation queue of "
+                        + consumerThread.getName() + ", capacity: " + normalQueue.capacity());
+            }
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        for (long idleCount = 0; ; idleCount++) {
+            Object item = priorityOnly ? priorityQueue.poll() : poll();
+            if (item != null) {
+                return item;
+            }
+
+            if (consumerThread.isInterrupted()) {
+                throw new InterruptedException();
+            }
+
+            idle(idleCount, priorityOnly);
+        }
+    }
+
+    private void idle(long idleCount, boolean priorityOnly) {
+        idle = true;
+        try {
+            // a task added before the flag was published is seen here,
+            // a task added afterwards unparks this thread
+            if (priorityQueue.isEmpty() && (priorityOnly || (normalQueue.isEmpty() && overflowQueue.isEmpty()))) {
+                if (idleStrategy == null) {
+                    LockSupport.park(this);
+                } else {
+                    idleStrategy.idle(idleCount);
+                }
+            }
+        } finally {
+            idle = false;
+        }
+    }
+
+    @Override
+    public Object poll() {
+        Object priorityItem = priorityQueue.poll();
+        if (priorityItem != null) {
+            return priorityItem;
+        }
+        Object normalItem = normalQueue.poll();
+        if (normalItem != null) {
+            return normalItem;
+        }
+        return overflowQueue.poll();
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size() + overflowQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + priorityQueue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return normalQueue.isEmpty() && overflowQueue.isEmpty() && priorityQueue.isEmpty();
+    }
+}
@@ -95,6 +95,21 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class OperationExecutorImpl implements OperationExecutor, StaticMetricsProvider {
     private static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
+    /**
+     * The capacity of the queue of a partition thread. If it is positive, the
+     * normal operations are stored in a bounded, array-backed
+     * {@link ArrayOperationQueue}; otherwise, in an unbounded {@link MPSCQueue}.
+     */
+    private static final HazelcastProperty QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.queue.capacity", 0);
+    /**
+     * If TPC is enabled and a partition task is submitted on the reactor thread
+     * owning the partition, e.g. a client request read from a TPC socket, the
+     * task is run to completion right away instead of being handed off through
+     * the operation queue.
+     */
+    private static final HazelcastProperty TPC_RUN_TO_COMPLETION
+            = new HazelcastProperty("hazelcast.internal.tpc.runToCompletion", true);
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
     private final ThreadAffinity threadAffinity = newSystemThreadAffinity("hazelcast.operation.thread.affinity");
     private final ILogger logger;
@@ -114,6 +129,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private final OperationRunner adHocOperationRunner;
     private final int priorityThreadCount;
     private final TpcServerBootstrap tpcServerBootstrap;
+    private final boolean tpcRunToCompletion;
     private final NodeEngine engine;
 
     @SuppressWarnings("java:S107")
@@ -133,6 +149,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         this.adHocOperationRunner = runnerFactory.createAdHocRunner();
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
+        this.tpcRunToCompletion = tpcServerBootstrap.isEnabled() && properties.getBoolean(TPC_RUN_TO_COMPLETION);
         if (tpcServerBootstrap.isEnabled()) {
             this.partitionThreads = initTpcPartitionThreads(tpcServerBootstrap, hzName, nodeExtension, configClassLoader);
         } else {
@@ -176,19 +193,28 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         }
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        int queueCapacity = properties.getInteger(QUEUE_CAPACITY);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<>(idleStrategy);
+            PartitionOperationThread partitionThread;
+            if (queueCapacity > 0) {
+                ArrayOperationQueue operationQueue = new ArrayOperationQueue(queueCapacity, idleStrategy);
+                partitionThread = new PartitionOperationThread(threadName, threadId,
+                        operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                operationQueue.setConsumerThread(partitionThread);
+            } else {
+                // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
+                MPSCQueue<Object> normalQueue = new MPSCQueue<>(idleStrategy);
 
-            OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
+                OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
 
-            PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId,
-                    operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                partitionThread = new PartitionOperationThread(threadName, threadId,
+                        operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                normalQueue.setConsumerThread(partitionThread);
+            }
             partitionThread.setThreadAffinity(threadAffinity);
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -433,10 +459,27 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
             genericQueue.add(task, priority);
         } else {
             OperationThread partitionThread = partitionThreads[toPartitionThreadIndex(partitionId)];
-            partitionThread.queue.add(task, priority);
+            if (tpcRunToCompletion && isRunToCompletionAllowed(partitionThread)) {
+                partitionThread.process(task);
+            } else {
+                partitionThread.queue.add(task, priority);
+            }
         }
     }
 
+    /**
+     * Checks if a task for a partition of the given partition thread can be
+     * processed on the calling thread without a handoff. This is the case if
+     * the caller is the reactor thread owning the partition, it isn't
+     * processing a task already, so the task doesn't run nested inside
+     * another one, and there are no queued tasks the task could overtake.
+     */
+    private static boolean isRunToCompletionAllowed(OperationThread partitionThread) {
+        return Thread.currentThread() == partitionThread
+                && !partitionThread.processing
+                && partitionThread.queue.isEmpty();
+    }
+
     @Override
     public void executeOnPartitionThreads(Runnable task) {
         checkNotNull(task, "task can't be null");
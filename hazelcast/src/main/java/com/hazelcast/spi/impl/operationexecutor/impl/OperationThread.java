@@ -63,6 +63,9 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     // This field wil only be accessed by the thread itself when doing 'self'
     // calls. So no need for any form of synchronization.
     OperationRunner currentRunner;
+    // Set while a task is processed. Like the currentRunner, it is only
+    // accessed by the thread itself.
+    boolean processing;
 
     // All these counters are updated by this OperationThread (so a single writer)
     // and are read by the MetricsRegistry.
@@ -136,6 +139,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     }
 
     void process(Object task) {
+        processing = true;
         try {
             if (task.getClass() == Packet.class) {
                 process((Packet) task);
@@ -158,6 +162,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
             logger.severe("Failed to process: " + task + " on: " + getName(), t);
         } finally {
             currentRunner = null;
+            processing = false;
         }
     }
 
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.internal.util.QuickMath.isPowerOfTwo;
+
+/**
+ * Lock-free table of the pending invocations keyed by their call IDs.
+ * <p>
+ * Call IDs are handed out by a sequence, so the pending invocations occupy a
+ * sliding window of consecutive IDs. The table is a ring of slots indexed by
+ * the low bits of the call ID: registering and deregistering an invocation
+ * is a single CAS on its slot, without boxing the call ID or allocating a
+ * hash node. The ring is split into {@value #STRIPE_COUNT} interleaved
+ * stripes, so consecutive call IDs, which are usually registered by
+ * different threads, land on different cache lines.
+ * <p>
+ * An invocation that outlives a full turn of the ring still occupies the
+ * slot of a newer call ID; the newer invocation is then kept in an overflow
+ * map. This is rare, since it needs an invocation that stays pending while
+ * as many other invocations as the ring has slots are started.
+ * <p>
+ * A slot may be observed by a lookup while its invocation is being
+ * deregistered and registered again with a new call ID, so a lookup returns
+ * the invocation only if its operation still has the requested call ID.
+ */
+final class InvocationTable implements Iterable<Invocation> {
+
+    static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int STRIPE_BITS = 4;
+    private static final int STRIPE_COUNT = 1 << STRIPE_BITS;
+
+    private final AtomicReferenceArray<Invocation> slots;
+    private final int mask;
+    private final int stripeShift;
+    private final ConcurrentMap<Long, Invocation> overflow = new ConcurrentHashMap<>();
+    private final LongAdder size = new LongAdder();
+
+    InvocationTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    InvocationTable(int capacity) {
+        checkTrue(isPowerOfTwo(capacity) && capacity >= STRIPE_COUNT,
+                "capacity must be a power of two and at least " + STRIPE_COUNT);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.stripeShift = Integer.numberOfTrailingZeros(capacity) - STRIPE_BITS;
+    }
+
+    void put(long callId, Invocation invocation) {
+        if (!slots.compareAndSet(index(callId), null, invocation)) {
+            overflow.put(callId, invocation);
+        }
+        size.increment();
+    }
+
+    /**
+     * Removes the invocation registered with the given call ID.
+     *
+     * @return {@code true} if the invocation was removed
+     */
+    boolean remove(long callId, Invocation invocation) {
+        if (slots.compareAndSet(index(callId), invocation, null) || overflow.remove(callId, invocation)) {
+            size.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    Invocation get(long callId) {
+        Invocation invocation = slots.get(index(callId));
+        if (invocation != null && invocation.op.getCallId() == callId) {
+            return invocation;
+        }
+        return overflow.get(callId);
+    }
+
+    int size() {
+        // a removal may be counted before the put it follows
+        return (int) Math.max(0, size.sum());
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the pending invocations.
+     */
+    @Override
+    public Iterator<Invocation> iterator() {
+        return new InvocationIterator();
+    }
+
+    /**
+     * Rotates the low bits of the call ID so that consecutive call IDs are
+     * {@value #STRIPE_COUNT} slots apart.
+     */
+    private int index(long callId) {
+        int low = (int) callId & mask;
+        return ((low << STRIPE_BITS) | (low >>> stripeShift)) & mask;
+    }
+
+    private final class InvocationIterator implements Iterator<Invocation> {
+
+        private final Iterator<Invocation> overflowIterator = overflow.values().iterator();
+        private int slot;
+        private Invocation next;
+
+        InvocationIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Invocation next() {
+            Invocation current = next;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            while (slot < slots.length()) {
+                Invocation invocation = slots.get(slot++);
+                if (invocation != null) {
+                    next = invocation;
+                    return;
+                }
+            }
+            next = overflowIterator.hasNext() ? overflowIterator.next() : null;
+        }
+    }
+}
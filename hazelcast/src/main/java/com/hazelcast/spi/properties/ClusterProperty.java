@@ -363,6 +363,24 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.io.write.through", true);
 
+    /**
+     * Enables coalescing of small operation packets sent to the same member
+     * into a single batch packet. Only the packets which are already waiting
+     * to be written are batched, so batching doesn't delay any packet. It
+     * reduces the per-packet framing and dispatching overhead when there are
+     * many small operations in flight, for example under high fan-in load.
+     * <p>
+     * Members before 6.0 can't unpack the batch packets, so they are sent
+     * only once the cluster version is at least 6.0, e.g. after a rolling
+     * upgrade.
+     * <p>
+     * It is disabled by default.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty IO_PACKET_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.io.packet.batching.enabled", false);
+
     /**
      * Property needed for concurrency detection so that write through can be
      * done correctly.
@@ -532,6 +550,22 @@ public final class ClusterProperty {
     public static final HazelcastProperty PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB
             = new HazelcastProperty("hazelcast.partition.migration.chunks.max.migrating.data.in.mb", 250);
 
+    /**
+     * Enables the compression of the data sent to the destination of a
+     * partition migration. Each migration fragment, or chunk if {@link
+     * #PARTITION_CHUNKED_MIGRATION_ENABLED chunked migration} is enabled, is
+     * compressed with the fastest level of the DEFLATE algorithm. It reduces
+     * the migration traffic at the cost of CPU time on the source and the
+     * destination members. It only takes effect once all members of the
+     * cluster support it.
+     * <p>
+     * Default disabled.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.partition.migration.compression.enabled", false);
+
     /**
      * The time that a newly-appointed master node waits before forming a cluster.
      * Once a cluster is being started, a newly-appointed master node may receive
@@ -1170,6 +1204,16 @@ public final class ClusterProperty {
     public static final HazelcastProperty INDEX_COPY_BEHAVIOR
             = new HazelcastProperty("hazelcast.index.copy.behavior", IndexCopyBehavior.COPY_ON_READ.toString());
 
+    /**
+     * Enables the primitive-specialized store for on-heap sorted indexes on a
+     * single attribute. Numeric and date attribute values are kept as primitive
+     * keys in sorted blocks instead of a skip list of per-value maps, which
+     * reduces the memory footprint of the index and makes range scans
+     * sequential. Attributes of other types fall back to the regular store.
+     */
+    public static final HazelcastProperty INDEX_SORTED_PRIMITIVE_ENABLED
+            = new HazelcastProperty("hazelcast.index.sorted.primitive.enabled", false);
+
     /**
      * The number of threads that the client engine has available for processing
      * requests that are related to the query engine.
@@ -1248,6 +1292,92 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_LOAD_CHUNK_SIZE
             = new HazelcastProperty("hazelcast.map.load.chunk.size", 1000);
 
+    /**
+     * Enables a per-partition Bloom filter of the keys which exist in the
+     * {@link com.hazelcast.map.MapLoader} of a map. The filter is populated
+     * with the keys returned by {@link com.hazelcast.map.MapLoader#loadAllKeys()}
+     * and the keys put into the map. Once the key loading has finished on a
+     * partition, the lookups of the missing keys which the filter proves
+     * absent don't call {@link com.hazelcast.map.MapLoader#load(Object)} or
+     * {@link com.hazelcast.map.MapLoader#loadAll(java.util.Collection)}.
+     * <p>
+     * Enable it only for map loaders which return all the keys from
+     * {@code loadAllKeys()} and if the keys written to the external store by
+     * other applications don't have to be read through: such keys are found
+     * only after they are loaded with {@code IMap.loadAll}. The filter isn't
+     * used for maps with the {@code PER_NODE} max-size policy, since their
+     * key loading may be truncated.
+     * <p>
+     * The observed false-positive rate is reported by the
+     * {@code mapStoreBloomFilterFalsePositiveRate} map metric.
+     */
+    public static final HazelcastProperty MAP_LOAD_BLOOM_FILTER_ENABLED
+            = new HazelcastProperty("hazelcast.map.load.bloom.filter.enabled", false);
+
+    /**
+     * The number of keys per partition for which the Bloom filter enabled by
+     * {@link #MAP_LOAD_BLOOM_FILTER_ENABLED} has a false-positive rate of
+     * about 1%. The filter takes about 1.2 bytes per key.
+     */
+    public static final HazelcastProperty MAP_LOAD_BLOOM_FILTER_EXPECTED_KEYS_PER_PARTITION
+            = new HazelcastProperty("hazelcast.map.load.bloom.filter.expected.keys.per.partition", 10000);
+
+    /**
+     * Enables the member-wide flush pipeline of write-behind maps with
+     * write-coalescing. On every flush, the entries which are ready to be
+     * stored are gathered from all the partitions owned by the member,
+     * collapsed to the last operation per key and passed to
+     * {@link com.hazelcast.map.MapStore#storeAll(java.util.Map)} and
+     * {@link com.hazelcast.map.MapStore#deleteAll(java.util.Collection)}
+     * in batches of at most {@link #MAP_WRITE_BEHIND_FLUSH_MAX_BATCH_SIZE}
+     * entries, or the configured write batch size if it is greater than 1.
+     * The batches are stored in parallel on the
+     * {@code hz:map-write-behind-flush} executor, whose pool size bounds the
+     * number of concurrent writers.
+     * <p>
+     * The map store has to be thread-safe, since its batch methods may be
+     * called concurrently.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED
+            = new HazelcastProperty("hazelcast.map.write.behind.flush.pipeline.enabled", false);
+
+    /**
+     * The maximum number of entries passed to a single
+     * {@link com.hazelcast.map.MapStore#storeAll(java.util.Map)} or
+     * {@link com.hazelcast.map.MapStore#deleteAll(java.util.Collection)}
+     * call by the pipeline enabled by
+     * {@link #MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED}, unless the map is
+     * configured with a write batch size greater than 1.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_FLUSH_MAX_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.map.write.behind.flush.max.batch.size", 1000);
+
+    /**
+     * Enables the adaptive publishing of {@link com.hazelcast.map.QueryCache}
+     * events. Instead of the configured
+     * {@link com.hazelcast.config.QueryCacheConfig#getBatchSize() batch size}
+     * and {@link com.hazelcast.config.QueryCacheConfig#getDelaySeconds() delay},
+     * the batch size of every partition is derived from the rate of its
+     * events, so that a batch is filled within
+     * {@link #MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_MAX_DELAY_MILLIS}, and the
+     * whole backlog of a partition is published at once. The batches of all
+     * partitions of a query cache are merged into a single payload per
+     * subscriber. Repeated updates of a key are still coalesced if the query
+     * cache is configured to coalesce.
+     */
+    public static final HazelcastProperty MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED
+            = new HazelcastProperty("hazelcast.map.query.cache.adaptive.publisher.enabled", false);
+
+    /**
+     * The maximum time an event waits in the publisher of a
+     * {@link com.hazelcast.map.QueryCache} when the adaptive publishing
+     * enabled by {@link #MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED} is used,
+     * as long as further events of the same partition arrive. Otherwise, the
+     * remaining events are published by a background task within a second.
+     */
+    public static final HazelcastProperty MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_MAX_DELAY_MILLIS
+            = new HazelcastProperty("hazelcast.map.query.cache.adaptive.publisher.max.delay.millis", 100, MILLISECONDS);
+
     /**
      * Scheduler delay for map tasks those are executed on backup members.
      */
@@ -1305,6 +1435,58 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS
             = new HazelcastProperty("hazelcast.map.invalidation.batchfrequency.seconds", 10, SECONDS);
 
+    /**
+     * Comma-separated list of map names whose partitions keep their entries in
+     * native memory instead of on the Java heap. Keys, values and record metadata
+     * of these maps are stored off-heap, so the heap footprint does not grow with
+     * the amount of data held. Only maps with {@code BINARY} in-memory format are
+     * eligible, other maps listed here keep using on-heap storage.
+     * <p>
+     * Default: empty, all maps use on-heap storage
+     */
+    public static final HazelcastProperty MAP_NATIVE_STORAGE_MAP_NAMES
+            = new HazelcastProperty("hazelcast.map.native.storage.map.names", "");
+
+    /**
+     * Comma-separated list of ringbuffer names whose items are kept in native
+     * memory instead of on the Java heap. The serialized items are stored in a
+     * circular native byte region, so large ringbuffers do not put their items
+     * on the heap. The ringbuffer backing a {@link com.hazelcast.topic.ITopic
+     * reliable topic} can be listed by the name of the topic. Only ringbuffers
+     * with {@code BINARY} in-memory format are eligible, other ringbuffers
+     * listed here keep using on-heap storage.
+     * <p>
+     * Default: empty, all ringbuffers use on-heap storage
+     */
+    public static final HazelcastProperty RINGBUFFER_NATIVE_STORAGE_NAMES
+            = new HazelcastProperty("hazelcast.ringbuffer.native.storage.names", "");
+
+    /**
+     * Comma-separated list of Near Cache names whose serialized keys and
+     * values are kept in native memory instead of on the Java heap. The name
+     * is the name of the data structure or of the Near Cache config. Only
+     * Near Caches with {@code BINARY} in-memory format are eligible, other
+     * Near Caches listed here keep using on-heap storage.
+     * <p>
+     * Default: empty, all Near Caches use on-heap storage
+     */
+    public static final HazelcastProperty NEAR_CACHE_NATIVE_STORAGE_NAMES
+            = new HazelcastProperty("hazelcast.nearcache.native.storage.names", "");
+
+    /**
+     * Makes the preloader of Near Caches store their keys and values in a
+     * memory-mapped snapshot file instead of only their keys. The snapshot is
+     * written incrementally, and on restart the entries of the partitions
+     * which didn't receive invalidations in the meantime are loaded locally
+     * instead of being fetched from the cluster.
+     * <p>
+     * Only applies to Near Caches with an enabled preloader.
+     * <p>
+     * Default: {@code false}, the preloader stores only the keys
+     */
+    public static final HazelcastProperty NEAR_CACHE_PRELOADER_SNAPSHOT_ENABLED
+            = new HazelcastProperty("hazelcast.nearcache.preloader.snapshot.enabled", false);
+
     /**
      * Setting this capacity is valid if you set {@code writeCoalescing} to {@code false}
      * (see {@link com.hazelcast.config.MapStoreConfig#setWriteCoalescing(boolean)}).
@@ -1599,6 +1781,46 @@ public final class ClusterProperty {
     public static final HazelcastProperty EVENT_QUEUE_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.event.queue.timeout.millis", 250, MILLISECONDS);
 
+    /**
+     * Enables a delivery queue per listener registration. Events are queued
+     * per listener and the queue of a listener occupies at most one slot of
+     * the event executor at a time, so a slow listener only delays its own
+     * events instead of filling the shared queue of the executor. When a
+     * listener queue is full, {@link #EVENT_LISTENER_QUEUE_OVERFLOW_POLICY}
+     * applies.
+     * <p>
+     * Events sent to a remote member are also batched per member once the
+     * cluster version is 6.0 or later. Every 6.0 member can receive the
+     * batched events, whether or not it has the property set, so the
+     * property can be enabled on individual members.
+     */
+    public static final HazelcastProperty EVENT_LISTENER_QUEUE_ENABLED
+            = new HazelcastProperty("hazelcast.event.listener.queue.enabled", false);
+
+    /**
+     * The capacity of the delivery queue of a listener registration when
+     * {@link #EVENT_LISTENER_QUEUE_ENABLED} is set.
+     */
+    public static final HazelcastProperty EVENT_LISTENER_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.event.listener.queue.capacity", 10000);
+
+    /**
+     * The policy applied when the delivery queue of a listener registration
+     * is full and {@link #EVENT_LISTENER_QUEUE_ENABLED} is set:
+     * <ul>
+     * <li>{@code BLOCK}: the publisher waits for at most
+     * {@link #EVENT_QUEUE_TIMEOUT_MILLIS} and the event is dropped if the
+     * queue is still full. Event threads never wait, since they drain the
+     * queues.</li>
+     * <li>{@code DROP_OLDEST}: the oldest queued event is dropped.</li>
+     * <li>{@code COALESCE}: the queued event of the same key, e.g. an entry
+     * event of the same map key, is replaced by the new one. The oldest
+     * queued event is dropped if there is none.</li>
+     * </ul>
+     */
+    public static final HazelcastProperty EVENT_LISTENER_QUEUE_OVERFLOW_POLICY
+            = new HazelcastProperty("hazelcast.event.listener.queue.overflow.policy", "DROP_OLDEST");
+
     /**
      * To prevent overloading of the outbound connections, once in a while an
      * event is made synchronous by wrapping it in a fake operation and waiting
@@ -1865,6 +2087,26 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.jet.idle.noncooperative.max.microseconds", 5000, MICROSECONDS)
             .setDeprecatedName("jet.idle.noncooperative.max.microseconds");
 
+    /**
+     * Enables work stealing between the cooperative worker threads. Each
+     * worker measures the time spent in its tasklets and, when it's mostly
+     * idle, asks the busiest worker to hand over one of its tasklets. The
+     * tasklets are only moved between calls, a tasklet is never called by two
+     * threads concurrently.
+     * <p>
+     * Enable this if the jobs have skewed DAGs where a few hot tasklets keep
+     * their threads busy while other threads idle. Don't enable it if some
+     * processor relies on being always called from the same thread, for
+     * example by using a {@code ThreadLocal}.
+     * <p>
+     * The default value is {@code false}: the tasklets stay on the thread to
+     * which they were assigned when the job started.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_WORK_STEALING_ENABLED
+            = new HazelcastProperty("hazelcast.jet.cooperative.work.stealing.enabled", false);
+
     /**
      * The directory containing jars, that can be used to specify custom classpath for
      * a stage in a pipeline.
@@ -1875,6 +2117,89 @@ public final class ClusterProperty {
     public static final HazelcastProperty PROCESSOR_CUSTOM_LIB_DIR
             = new HazelcastProperty("hazelcast.jet.custom.lib.dir", "custom-lib");
 
+    /**
+     * The maximum number of items a sorting processor keeps in memory. When
+     * the limit is reached, the items are sorted and spilled to a file in
+     * {@link #JET_SPILL_DIRECTORY} and the spilled runs are merged when
+     * the input is complete. This applies to the {@code sort()} pipeline
+     * stage and to SQL {@code ORDER BY}.
+     * <p>
+     * The default value of {@code 0} disables spilling, all items are then
+     * kept in memory, subject to {@link
+     * com.hazelcast.jet.config.JobConfig#setMaxProcessorAccumulatedRecords}.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty JET_SORT_SPILL_THRESHOLD
+            = new HazelcastProperty("hazelcast.jet.sort.spill.threshold", 0);
+
+    /**
+     * The directory to which processors spill data which doesn't fit into
+     * memory, see {@link #JET_SORT_SPILL_THRESHOLD} and {@link
+     * #SQL_HASH_JOIN_SPILL_THRESHOLD}. If not set, the {@code java.io.tmpdir}
+     * directory is used. The files are deleted when the processor completes.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty JET_SPILL_DIRECTORY
+            = new HazelcastProperty("hazelcast.jet.spill.dir");
+
+    /**
+     * The directory to which the automatic snapshots of Jet jobs are written
+     * instead of to an {@code IMap}. Each member writes the state of its
+     * processors to local files and only appends the entries which changed
+     * since the previous snapshot. Every block appended to a file is also
+     * replicated to one other member of the job, the backup. Exported
+     * snapshots are still written to an {@code IMap}.
+     * <p>
+     * When a job restarts, each member restores the state it wrote itself. The
+     * state of a member which left the cluster is restored from its backup,
+     * the job fails if both the member and its backup left. The files of a
+     * job are deleted after it completes.
+     * <p>
+     * The property must be set on all members. It's only used if the cluster
+     * version is at least 6.0. If not set, which is the default, the
+     * snapshots are written to an {@code IMap}.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_LOCAL_DIRECTORY
+            = new HazelcastProperty("hazelcast.jet.snapshot.local.dir");
+
+    /**
+     * The maximum number of build-side rows an SQL hash join processor keeps
+     * in memory. The rows are hash-partitioned into buckets, and when the
+     * limit is reached, the largest bucket is spilled to a file in {@link
+     * #JET_SPILL_DIRECTORY}. Probe-side rows that fall into a spilled bucket
+     * are spilled too, and the spilled buckets are joined one by one when the
+     * probe side completes. Spilling is only used if the probe side of the
+     * join is bounded.
+     * <p>
+     * The default value of {@code 0} disables spilling, the whole build side
+     * is then kept in memory, subject to {@link
+     * com.hazelcast.jet.config.JobConfig#setMaxProcessorAccumulatedRecords}.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty SQL_HASH_JOIN_SPILL_THRESHOLD
+            = new HazelcastProperty("hazelcast.sql.hash.join.spill.threshold", 0);
+
+    /**
+     * Enables native memory buffers in SQL stream-to-stream joins. The
+     * buffered rows are stored serialized in native memory segments ordered
+     * by arrival, with an on-heap index of the row times, so that the rows
+     * don't add to the GC pressure and whole segments can be released when
+     * the watermark passes them. The buffer of the outer side of an outer
+     * join is always kept on heap.
+     * <p>
+     * The trade-off is that the buffered rows are deserialized every time
+     * they are joined with an incoming row.
+     *
+     * @since 6.0
+     */
+    public static final HazelcastProperty SQL_STREAM_TO_STREAM_JOIN_OFF_HEAP_BUFFER_ENABLED
+            = new HazelcastProperty("hazelcast.sql.stream.join.offheap.buffer.enabled", false);
+
     /**
      * Controls whether cluster emojis can be used in log messages. This is just a hint for components calling the logging.
      *
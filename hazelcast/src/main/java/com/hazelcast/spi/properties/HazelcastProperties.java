@@ -24,6 +24,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import static com.hazelcast.internal.util.StringUtil.equalsIgnoreCase;
+import static com.hazelcast.internal.util.StringUtil.isNullOrEmptyAfterTrim;
 import static java.lang.String.format;
 import static java.util.Collections.unmodifiableSet;
 
@@ -187,6 +188,31 @@ public class HazelcastProperties {
         return Boolean.parseBoolean(getString(property));
     }
 
+    /**
+     * Checks if the configured value of a {@link HazelcastProperty}, a
+     * comma-separated list of names, contains any of the given names. The
+     * whitespaces around the listed names are ignored.
+     *
+     * @param property the {@link HazelcastProperty} to get the value from
+     * @param names    the names to look for
+     * @return {@code true} if any of the names is listed
+     */
+    public boolean containsName(HazelcastProperty property, String... names) {
+        String value = getString(property);
+        if (isNullOrEmptyAfterTrim(value)) {
+            return false;
+        }
+        for (String listedName : value.split(",")) {
+            String trimmed = listedName.trim();
+            for (String name : names) {
+                if (trimmed.equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns the configured int value of a {@link HazelcastProperty}.
      *
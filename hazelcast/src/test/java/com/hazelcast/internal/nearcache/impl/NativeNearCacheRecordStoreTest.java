@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.SegmentedNativeNearCacheRecordStore;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeNearCacheRecordStoreTest extends NearCacheRecordStoreTestSupport {
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder()
+            .setVersion(InternalSerializationService.VERSION_1).build();
+
+    @Override
+    <K, V> NearCacheRecordStore<K, V> createNearCacheRecordStore(NearCacheConfig nearCacheConfig,
+                                                                 InMemoryFormat inMemoryFormat) {
+        NearCacheRecordStore<K, V> recordStore
+                = new SegmentedNativeNearCacheRecordStore<>(DEFAULT_NEAR_CACHE_NAME, nearCacheConfig, ss, null);
+        recordStore.initialize();
+        return recordStore;
+    }
+
+    @Test
+    public void putAndGetRecord() {
+        putAndGetRecord(InMemoryFormat.BINARY);
+    }
+
+    @Test
+    public void putAndRemoveRecord() {
+        putAndRemoveRecord(InMemoryFormat.BINARY);
+    }
+
+    @Test
+    public void clearRecords() {
+        clearRecordsOrDestroyStore(InMemoryFormat.BINARY, false);
+    }
+
+    @Test
+    public void destroyStore() {
+        clearRecordsOrDestroyStore(InMemoryFormat.BINARY, true);
+    }
+
+    @Test
+    public void statsCalculated() {
+        assertTrueEventually(() -> statsCalculated(InMemoryFormat.BINARY));
+    }
+
+    @Test
+    public void ttlEvaluated() {
+        ttlEvaluated(InMemoryFormat.BINARY);
+    }
+
+    @Test
+    public void expiredRecordsCleanedUpSuccessfullyBecauseOfTTL() {
+        expiredRecordsCleanedUpSuccessfully(InMemoryFormat.BINARY, false);
+    }
+
+    @Test
+    public void canCreateWithEntryCountMaxSizePolicy() {
+        createNearCacheWithMaxSizePolicy(InMemoryFormat.BINARY, MaxSizePolicy.ENTRY_COUNT, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotCreateWithUsedNativeMemorySizeMaxSizePolicy() {
+        createNearCacheWithMaxSizePolicy(InMemoryFormat.BINARY, MaxSizePolicy.USED_NATIVE_MEMORY_SIZE, 1000000);
+    }
+
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithEntryCountMaxSizePolicy() {
+        int maxSize = DEFAULT_RECORD_COUNT / 2;
+        EvictionConfig evictionConfig = new EvictionConfig()
+                .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                .setSize(maxSize)
+                .setEvictionPolicy(EvictionPolicy.LRU);
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, InMemoryFormat.BINARY)
+                .setEvictionConfig(evictionConfig);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore
+                = createNearCacheRecordStore(nearCacheConfig, InMemoryFormat.BINARY);
+
+        for (int i = 0; i < DEFAULT_RECORD_COUNT; i++) {
+            nearCacheRecordStore.put(i, null, "Record-" + i, null);
+            nearCacheRecordStore.doEviction(false);
+            assertTrue(maxSize >= nearCacheRecordStore.size());
+        }
+        assertEquals(nearCacheRecordStore.size(), nearCacheRecordStore.getNearCacheStats().getOwnedEntryCount());
+    }
+
+    @Test
+    public void reserveAndPublish() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, InMemoryFormat.BINARY);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore
+                = createNearCacheRecordStore(nearCacheConfig, InMemoryFormat.BINARY);
+
+        long reservationId = nearCacheRecordStore.tryReserveForUpdate(1, null, NearCache.UpdateSemantic.READ_UPDATE);
+        assertNotEquals(NOT_RESERVED, reservationId);
+        assertNull(nearCacheRecordStore.get(1));
+
+        assertEquals("value", nearCacheRecordStore.tryPublishReserved(1, "value", reservationId, true));
+        assertEquals("value", nearCacheRecordStore.get(1));
+
+        NearCacheRecord record = nearCacheRecordStore.getRecord(1);
+        assertNotNull(record);
+        assertEquals(NearCacheRecord.READ_PERMITTED, record.getReservationId());
+    }
+
+    @Test
+    public void writeUpdateReplacesValue() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, InMemoryFormat.BINARY);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore
+                = createNearCacheRecordStore(nearCacheConfig, InMemoryFormat.BINARY);
+
+        nearCacheRecordStore.put(1, null, "short", null);
+        long costBefore = nearCacheRecordStore.getNearCacheStats().getOwnedEntryMemoryCost();
+        long reservationId = nearCacheRecordStore.tryReserveForUpdate(1, null, NearCache.UpdateSemantic.WRITE_UPDATE);
+        nearCacheRecordStore.tryPublishReserved(1, "a considerably longer value", reservationId, false);
+
+        assertEquals(1, nearCacheRecordStore.size());
+        assertEquals("a considerably longer value", nearCacheRecordStore.get(1));
+        assertTrue(nearCacheRecordStore.getNearCacheStats().getOwnedEntryMemoryCost() > costBefore);
+    }
+
+    @Test
+    public void nativeMemoryReleased() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, InMemoryFormat.BINARY);
+        SegmentedNativeNearCacheRecordStore<Integer, String> nearCacheRecordStore
+                = (SegmentedNativeNearCacheRecordStore<Integer, String>) this.<Integer, String>createNearCacheRecordStore(
+                        nearCacheConfig, InMemoryFormat.BINARY);
+        assertEquals(0, nearCacheRecordStore.getUsedNativeMemory());
+
+        for (int i = 0; i < DEFAULT_RECORD_COUNT; i++) {
+            nearCacheRecordStore.put(i, null, "Record-" + i, null);
+        }
+        long usedWhenFull = nearCacheRecordStore.getUsedNativeMemory();
+        assertTrue(usedWhenFull > 0);
+
+        for (int i = 0; i < DEFAULT_RECORD_COUNT; i++) {
+            nearCacheRecordStore.invalidate(i);
+        }
+        // only the indexes of the segments are left
+        long usedWhenEmpty = nearCacheRecordStore.getUsedNativeMemory();
+        assertTrue(usedWhenEmpty < usedWhenFull);
+
+        nearCacheRecordStore.put(1, null, "Record-1", null);
+        assertTrue(nearCacheRecordStore.getUsedNativeMemory() > usedWhenEmpty);
+        nearCacheRecordStore.destroy();
+        assertEquals(0, nearCacheRecordStore.getUsedNativeMemory());
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCacheSnapshotPreloaderTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 4;
+    private static final int KEY_COUNT = 100;
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final TestStaleReadDetector detector = new TestStaleReadDetector();
+    private final Set<Object> fetchedKeys = new HashSet<>();
+
+    private File directory;
+    private NearCacheConfig nearCacheConfig;
+    private DataStructureAdapter<Object, ?> adapter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        directory = new File(randomName());
+        assertTrue(directory.mkdir());
+        nearCacheConfig = new NearCacheConfig(randomName());
+        nearCacheConfig.getPreloaderConfig()
+                .setEnabled(true)
+                .setDirectory(directory.getAbsolutePath());
+
+        adapter = mock(DataStructureAdapter.class);
+        doAnswer(invocation -> fetchedKeys.addAll(invocation.getArgument(0))).when(adapter).getAll(any());
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void testLoad_whenPartitionsUpToDate_thenEntriesLoadedLocally() {
+        NearCacheRecordStore<Integer, String> store = createStore();
+        putEntries(store, 0, KEY_COUNT);
+        store.storeKeys();
+        store.destroy();
+
+        NearCacheRecordStore<Integer, String> restartedStore = createStore();
+        restartedStore.loadKeys(adapter);
+
+        verify(adapter, never()).getAll(any());
+        assertEquals(KEY_COUNT, restartedStore.size());
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals("value-" + i, restartedStore.get(i));
+        }
+    }
+
+    @Test
+    public void testLoad_whenPartitionInvalidated_thenItsKeysFetched() {
+        NearCacheRecordStore<Integer, String> store = createStore();
+        putEntries(store, 0, KEY_COUNT);
+        store.storeKeys();
+        store.destroy();
+
+        // an invalidation of partition 1 was received by another client
+        detector.containers[1].setSequence(detector.containers[1].getSequence() + 1);
+
+        NearCacheRecordStore<Integer, String> restartedStore = createStore();
+        restartedStore.loadKeys(adapter);
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            boolean stale = partitionOf(i) == 1;
+            assertEquals(stale, fetchedKeys.contains(i));
+            if (stale) {
+                assertNull(restartedStore.get(i));
+            } else {
+                assertEquals("value-" + i, restartedStore.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testLoad_whenPartitionUuidChanged_thenItsKeysFetched() {
+        NearCacheRecordStore<Integer, String> store = createStore();
+        putEntries(store, 0, KEY_COUNT);
+        store.storeKeys();
+        store.destroy();
+
+        detector.containers[2].setUuid(UUID.randomUUID());
+
+        NearCacheRecordStore<Integer, String> restartedStore = createStore();
+        restartedStore.loadKeys(adapter);
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(partitionOf(i) == 2, fetchedKeys.contains(i));
+        }
+    }
+
+    @Test
+    public void testStore_appendsChangedPartitions() {
+        NearCacheRecordStore<Integer, String> store = createStore();
+        putEntries(store, 0, KEY_COUNT);
+        store.storeKeys();
+        long fullSnapshotLength = snapshotFile().length();
+
+        // change only the entries of one partition
+        int changedKey = firstKeyOfPartition(3);
+        store.invalidate(changedKey);
+        store.storeKeys();
+        long incrementalLength = snapshotFile().length();
+        assertTrue(incrementalLength > fullSnapshotLength);
+        assertTrue(incrementalLength - fullSnapshotLength < fullSnapshotLength / 2);
+        store.destroy();
+
+        NearCacheRecordStore<Integer, String> restartedStore = createStore();
+        restartedStore.loadKeys(adapter);
+
+        verify(adapter, never()).getAll(any());
+        assertEquals(KEY_COUNT - 1, restartedStore.size());
+        assertNull(restartedStore.get(changedKey));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            if (i != changedKey) {
+                assertEquals("value-" + i, restartedStore.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testStore_writesFullSnapshot_afterClear() {
+        NearCacheRecordStore<Integer, String> store = createStore();
+        putEntries(store, 0, KEY_COUNT);
+        store.storeKeys();
+
+        store.clear();
+        putEntries(store, KEY_COUNT, KEY_COUNT + 10);
+        store.storeKeys();
+        store.destroy();
+
+        NearCacheRecordStore<Integer, String> restartedStore = createStore();
+        restartedStore.loadKeys(adapter);
+
+        assertEquals(10, restartedStore.size());
+        assertNull(restartedStore.get(0));
+        assertEquals("value-" + KEY_COUNT, restartedStore.get(KEY_COUNT));
+    }
+
+    @Test
+    public void testLoad_withoutInvalidationMetaData_thenAllKeysFetched() {
+        NearCacheRecordStore<Integer, String> store = createStore(StaleReadDetector.ALWAYS_FRESH);
+        putEntries(store, 0, KEY_COUNT);
+        store.storeKeys();
+        store.destroy();
+
+        NearCacheRecordStore<Integer, String> restartedStore = createStore();
+        restartedStore.loadKeys(adapter);
+
+        assertEquals(0, restartedStore.size());
+        assertEquals(KEY_COUNT, fetchedKeys.size());
+    }
+
+    @Test
+    public void testLoad_whenNoSnapshot_thenNothingLoaded() {
+        NearCacheRecordStore<Integer, String> store = createStore();
+        store.loadKeys(adapter);
+
+        assertFalse(snapshotFile().exists());
+        assertEquals(0, store.size());
+        verify(adapter, never()).getAll(any());
+    }
+
+    @Test
+    public void testStoreAndLoad_whenEntriesSpanSeveralWindows() {
+        // the windows are smaller than the values, so every record crosses window boundaries
+        NearCacheSnapshotPreloader preloader = createPreloader(64);
+        String largeValue = "x".repeat(500);
+        preloader.store(detector, collector -> {
+            for (int i = 0; i < KEY_COUNT; i++) {
+                Data key = ss.toData(i);
+                int partitionId = detector.getPartitionId(key);
+                if (collector.isCollected(partitionId)) {
+                    collector.collect(partitionId, key, ss.toData(largeValue + i), i);
+                }
+            }
+        });
+        // replace the entries of one partition by an appended run
+        preloader.markChanged(3);
+        int changedKey = firstKeyOfPartition(3);
+        preloader.store(detector, collector -> {
+            Data key = ss.toData(changedKey);
+            if (collector.isCollected(3)) {
+                collector.collect(3, key, ss.toData("changed"), 0);
+            }
+        });
+        preloader.destroy();
+
+        Map<Object, Object> loaded = new HashMap<>();
+        NearCacheSnapshotPreloader restartedPreloader = createPreloader(64);
+        restartedPreloader.load(detector, adapter, (key, value, creationTime) -> {
+            loaded.put(ss.toObject(key), ss.toObject(value));
+            return true;
+        });
+        restartedPreloader.destroy();
+
+        verify(adapter, never()).getAll(any());
+        assertEquals("changed", loaded.get(changedKey));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            if (partitionOf(i) == 3) {
+                assertEquals(i == changedKey, loaded.containsKey(i));
+            } else {
+                assertEquals(largeValue + i, loaded.get(i));
+            }
+        }
+    }
+
+    private NearCacheSnapshotPreloader createPreloader(int windowSize) {
+        return new NearCacheSnapshotPreloader(nearCacheConfig.getName(), nearCacheConfig.getPreloaderConfig(),
+                new NearCacheStatsImpl(), ss, windowSize);
+    }
+
+    private NearCacheRecordStore<Integer, String> createStore() {
+        return createStore(detector);
+    }
+
+    private NearCacheRecordStore<Integer, String> createStore(StaleReadDetector staleReadDetector) {
+        NearCacheRecordStore<Integer, String> store
+                = new NearCacheDataRecordStore<>(nearCacheConfig.getName(), nearCacheConfig, ss, null, true);
+        store.initialize();
+        store.setStaleReadDetector(staleReadDetector);
+        return store;
+    }
+
+    private static void putEntries(NearCacheRecordStore<Integer, String> store, int from, int to) {
+        for (int i = from; i < to; i++) {
+            store.put(i, null, "value-" + i, null);
+        }
+    }
+
+    private File snapshotFile() {
+        return new File(directory, "nearCache-" + nearCacheConfig.getName() + ".snapshot");
+    }
+
+    private int partitionOf(int key) {
+        return detector.getPartitionId(ss.toData(key));
+    }
+
+    private int firstKeyOfPartition(int partitionId) {
+        for (int i = 0; ; i++) {
+            if (partitionOf(i) == partitionId) {
+                return i;
+            }
+        }
+    }
+
+    private static class TestStaleReadDetector implements StaleReadDetector {
+
+        private final MetaDataContainer[] containers = new MetaDataContainer[PARTITION_COUNT];
+
+        TestStaleReadDetector() {
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                containers[i] = new MetaDataContainer();
+                containers[i].setUuid(UUID.randomUUID());
+                containers[i].setSequence(i);
+            }
+        }
+
+        @Override
+        public boolean isStaleRead(Object key, NearCacheRecord record) {
+            MetaDataContainer container = containers[record.getPartitionId()];
+            return !record.hasSameUuid(container.getUuid())
+                    || record.getInvalidationSequence() < container.getStaleSequence();
+        }
+
+        @Override
+        public int getPartitionId(Object key) {
+            return hashToIndex(((Data) key).getPartitionHash(), PARTITION_COUNT);
+        }
+
+        @Override
+        public MetaDataContainer getMetaDataContainer(int partitionId) {
+            return containers[partitionId];
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.MigrationStats;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParametrizedRunner.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MigrationCompressionTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Parameterized.Parameter
+    public boolean chunkedMigrationEnabled;
+
+    @Parameterized.Parameters(name = "chunkedMigrationEnabled:{0}")
+    public static Collection<Object> parameters() {
+        return Arrays.asList(true, false);
+    }
+
+    @Test
+    public void testMigration_whenCompressionEnabled() {
+        MigrationStats stats = migrate(true);
+
+        assertTrue(stats.getTotalMigratedBytes() > 0);
+        assertTrue("payload: " + stats.getTotalMigratedBytes() + ", wire: " + stats.getTotalMigratedWireBytes(),
+                stats.getTotalMigratedWireBytes() < stats.getTotalMigratedBytes() / 2);
+        assertTrue(stats.getMigrationThroughput() > 0);
+    }
+
+    @Test
+    public void testMigration_whenCompressionDisabled() {
+        MigrationStats stats = migrate(false);
+
+        assertTrue(stats.getTotalMigratedBytes() > 0);
+        assertEquals(stats.getTotalMigratedBytes(), stats.getTotalMigratedWireBytes());
+    }
+
+    private MigrationStats migrate(boolean compressionEnabled) {
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.PARTITION_CHUNKED_MIGRATION_ENABLED.getName(),
+                        String.valueOf(chunkedMigrationEnabled))
+                .setProperty(ClusterProperty.PARTITION_MIGRATION_COMPRESSION_ENABLED.getName(),
+                        String.valueOf(compressionEnabled));
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        IMap<Integer, String> map = hz1.getMap(randomMapName());
+        String value = "a".repeat(1024);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, value + i);
+        }
+
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(hz1, hz2);
+
+        IMap<Integer, String> map2 = hz2.getMap(map.getName());
+        assertEquals(ENTRY_COUNT, map2.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(value + i, map2.get(i));
+        }
+
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(hz1);
+        return partitionService.getMigrationManager().getStats();
+    }
+}
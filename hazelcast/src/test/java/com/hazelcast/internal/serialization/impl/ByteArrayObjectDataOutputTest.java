@@ -29,6 +29,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.util.Arrays;
@@ -384,6 +385,24 @@ public class ByteArrayObjectDataOutputTest {
         assertArrayEquals(new byte[0], arrayWhenBufferNull);
     }
 
+    @Test
+    public void testWriteTo() throws IOException {
+        out.write(TEST_DATA);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        out.writeTo(stream);
+
+        assertArrayEquals(TEST_DATA, stream.toByteArray());
+    }
+
+    @Test
+    public void testWriteTo_whenBufferNull() throws IOException {
+        out.buffer = null;
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        out.writeTo(stream);
+
+        assertEquals(0, stream.size());
+    }
+
     @Test
     public void testClear() {
         out.clear();
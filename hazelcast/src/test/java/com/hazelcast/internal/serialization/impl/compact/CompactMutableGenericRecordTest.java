@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import example.serialization.InnerDTO;
+import example.serialization.MainDTO;
+import example.serialization.NamedDTO;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createInnerDTO;
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createMainDTO;
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createSerializationService;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactMutableGenericRecordTest {
+
+    private final InternalSerializationService serializationService = createSerializationService();
+
+    @Test
+    public void testToData_whenNoFieldIsSet() {
+        Data data = serializationService.toData(createMainDTO());
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService, data);
+
+        assertFalse(record.isModified());
+        assertSame(data, record.toData());
+    }
+
+    @Test
+    public void testToData_writesSetFieldsAndCopiesOthers() {
+        MainDTO expected = createMainDTO();
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(expected));
+
+        record.setInt32("i", 42);
+        record.setBoolean("bool", false);
+        record.setString("str", "a string of a different length");
+        record.setDecimal("bigDecimal", null);
+        record.setNullableInt64("nullableL", null);
+        expected.i = 42;
+        expected.bool = false;
+        expected.str = "a string of a different length";
+        expected.bigDecimal = null;
+        expected.nullableL = null;
+
+        assertTrue(record.isModified());
+        MainDTO actual = serializationService.toObject(record.toData());
+
+        assertEquals(expected, actual);
+        assertFalse(record.isModified());
+    }
+
+    @Test
+    public void testToData_whenNullFieldIsSet() {
+        MainDTO expected = createMainDTO();
+        expected.str = null;
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(expected));
+
+        record.setString("str", "not null anymore");
+        expected.str = "not null anymore";
+
+        assertEquals(expected, serializationService.toObject(record.toData()));
+    }
+
+    @Test
+    public void testToData_whenNestedRecordIsSet() {
+        MainDTO expected = createMainDTO();
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(expected));
+
+        InnerDTO inner = createInnerDTO();
+        inner.nn = new NamedDTO[]{new NamedDTO("other", 1)};
+        record.setGenericRecord("p", serializationService.readAsInternalGenericRecord(serializationService.toData(inner)));
+        expected.p = inner;
+
+        assertEquals(expected, serializationService.toObject(record.toData()));
+    }
+
+    @Test
+    public void testToData_continuesOverNewData() {
+        MainDTO expected = createMainDTO();
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(expected));
+
+        record.setString("str", "first");
+        record.setInt64("l", 1);
+        record.toData();
+        record.setString("str", "second");
+        expected.str = "second";
+        expected.l = 1;
+
+        assertEquals("second", record.getString("str"));
+        assertEquals(1, record.getInt64("l"));
+        assertEquals(expected, serializationService.toObject(record.toData()));
+    }
+
+    @Test
+    public void testGetters_returnSetValues() {
+        MainDTO expected = createMainDTO();
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(expected));
+
+        record.setInt32("i", 42);
+        record.setInt32("i", 43);
+        record.setDecimal("bigDecimal", BigDecimal.ONE);
+
+        assertEquals(43, record.getInt32("i"));
+        assertEquals(BigDecimal.ONE, record.getDecimal("bigDecimal"));
+        assertEquals(expected.str, record.getString("str"));
+        assertEquals(expected.l, record.getInt64("l"));
+    }
+
+    @Test
+    public void testBuild_returnsSnapshot() {
+        MainDTO expected = createMainDTO();
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(expected));
+
+        record.setString("str", "first");
+        GenericRecord snapshot = record.build();
+        record.setString("str", "second");
+
+        assertEquals("first", snapshot.getString("str"));
+        assertEquals(expected.i, snapshot.getInt32("i"));
+    }
+
+    @Test
+    public void testSetter_whenNullIsSetToPrimitiveGetter() {
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(createMainDTO()));
+
+        record.setNullableInt32("nullableI", null);
+
+        assertNull(record.getNullableInt32("nullableI"));
+        assertThatThrownBy(() -> record.getInt32("nullableI"))
+                .isInstanceOf(HazelcastSerializationException.class);
+    }
+
+    @Test
+    public void testSetter_whenFieldDoesNotExist() {
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(createMainDTO()));
+
+        assertThatThrownBy(() -> record.setInt32("notExisting", 1))
+                .isInstanceOf(HazelcastSerializationException.class)
+                .hasMessageContaining("Invalid field name");
+    }
+
+    @Test
+    public void testSetter_whenFieldKindDoesNotMatch() {
+        CompactMutableGenericRecord record = new CompactMutableGenericRecord(serializationService,
+                serializationService.toData(createMainDTO()));
+
+        assertThatThrownBy(() -> record.setInt64("i", 1))
+                .isInstanceOf(HazelcastSerializationException.class)
+                .hasMessageContaining("Invalid field kind");
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.server.tcp;
 
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatch;
 import com.hazelcast.internal.nio.PacketIOHelper;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -119,6 +120,27 @@ public class PacketDecoderTest extends HazelcastTestSupport {
         assertEquals(1, priorityPacketCounter.get());
     }
 
+    @Test
+    public void whenBatchPacket_thenUnpacked() throws Exception {
+        Packet packet1 = new Packet(serializationService.toBytes("packet1"), 1).setPacketType(Packet.Type.OPERATION);
+        Packet packet2 = new Packet(serializationService.toBytes("packet2"), 2).setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(Packet.FLAG_OP_RESPONSE);
+        Packet packet3 = new Packet(serializationService.toBytes("packet3"), 3).setPacketType(Packet.Type.OPERATION);
+        PacketBatch batch = new PacketBatch();
+        batch.add(packet1);
+        batch.add(packet2);
+        batch.add(packet3);
+        ByteBuffer src = ByteBuffer.allocate(1000);
+        new PacketIOHelper().writeTo(batch.toPacket(), src);
+
+        decoder.src(src);
+        decoder.onRead();
+
+        assertEquals(asList(packet1, packet2, packet3), dispatcher.packets);
+        assertEquals(3, normalPacketCounter.get());
+        assertEquals(0, priorityPacketCounter.get());
+    }
+
     class ConsumerStub implements Consumer<Packet> {
         private List<Packet> packets = new LinkedList<>();
 
@@ -18,6 +18,7 @@ package com.hazelcast.internal.server.tcp;
 
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatch;
 import com.hazelcast.internal.nio.PacketIOHelper;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -31,13 +32,17 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Supplier;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -90,6 +95,109 @@ public class PacketEncoderTest extends HazelcastTestSupport {
         assertEquals(DIRTY, result);
     }
 
+    @Test
+    public void whenBatching_thenSmallOperationPacketsCoalesced() {
+        encoder = new PacketEncoder(() -> true);
+        Packet op1 = operationPacket("op1", 1);
+        Packet op2 = operationPacket("op2", 2).raiseFlags(Packet.FLAG_OP_RESPONSE);
+        Packet op3 = operationPacket("op3", 1);
+        Packet urgent = operationPacket("urgent", 3).raiseFlags(Packet.FLAG_URGENT);
+        Packet op4 = operationPacket("op4", 4);
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.addAll(asList(op1, op2, op3, urgent, op4));
+
+        encoder.dst(dst);
+        encoder.src(src);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(CLEAN, result);
+        PacketIOHelper reader = new PacketIOHelper();
+        Packet batch = reader.readFrom(dst);
+        assertEquals(Packet.Type.BATCH, batch.getPacketType());
+        List<Packet> unpacked = new ArrayList<>();
+        PacketBatch.unpack(batch, unpacked::add);
+        assertEquals(asList(op1, op2, op3), unpacked);
+        // the urgent packet isn't batched, the single packet after it is sent as is
+        assertEquals(urgent, reader.readFrom(dst));
+        assertEquals(op4, reader.readFrom(dst));
+        assertNull(reader.readFrom(dst));
+    }
+
+    @Test
+    public void whenBatchingAndBatchFull_thenRemainingPacketsInNextBatch() {
+        encoder = new PacketEncoder(() -> true);
+        int packetCount = 3 * PacketBatch.MAX_BATCH_SIZE / PacketBatch.MAX_BATCHED_PACKET_SIZE;
+        List<Packet> packets = new ArrayList<>();
+        PacketSupplier src = new PacketSupplier();
+        for (int i = 0; i < packetCount; i++) {
+            Packet packet = new Packet(new byte[PacketBatch.MAX_BATCHED_PACKET_SIZE / 2], i)
+                    .setPacketType(Packet.Type.OPERATION);
+            packets.add(packet);
+            src.queue.add(packet);
+        }
+        ByteBuffer dst = ByteBuffer.allocate(4 * PacketBatch.MAX_BATCH_SIZE);
+        dst.flip();
+
+        encoder.dst(dst);
+        encoder.src(src);
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        PacketIOHelper reader = new PacketIOHelper();
+        List<Packet> unpacked = new ArrayList<>();
+        int batchCount = 0;
+        for (Packet batch = reader.readFrom(dst); batch != null; batch = reader.readFrom(dst)) {
+            assertEquals(Packet.Type.BATCH, batch.getPacketType());
+            PacketBatch.unpack(batch, unpacked::add);
+            batchCount++;
+        }
+        assertEquals(packets, unpacked);
+        assertEquals(2, batchCount);
+    }
+
+    @Test
+    public void whenBatchingNotSupportedByClusterVersion_thenPacketsWrittenOneByOne() {
+        boolean[] supported = {false};
+        encoder = new PacketEncoder(() -> supported[0]);
+        Packet op1 = operationPacket("op1", 1);
+        Packet op2 = operationPacket("op2", 2);
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.addAll(asList(op1, op2));
+
+        encoder.dst(dst);
+        encoder.src(src);
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(op1, reader.readFrom(dst));
+        assertEquals(op2, reader.readFrom(dst));
+        assertNull(reader.readFrom(dst));
+
+        // the cluster version was upgraded
+        supported[0] = true;
+        src.queue.addAll(asList(op1, op2));
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        Packet batch = reader.readFrom(dst);
+        assertEquals(Packet.Type.BATCH, batch.getPacketType());
+        List<Packet> unpacked = new ArrayList<>();
+        PacketBatch.unpack(batch, unpacked::add);
+        assertEquals(asList(op1, op2), unpacked);
+    }
+
+    private Packet operationPacket(String value, int partitionId) {
+        return new Packet(serializationService.toBytes(value), partitionId).setPacketType(Packet.Type.OPERATION);
+    }
+
     static class PacketSupplier implements Supplier<Packet> {
         Queue<Packet> queue = new LinkedBlockingQueue<>();
 
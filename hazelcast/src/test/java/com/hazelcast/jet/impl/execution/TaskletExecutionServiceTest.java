@@ -17,7 +17,9 @@
 package com.hazelcast.jet.impl.execution;
 
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.collectors.MetricsCollector;
 import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.core.JetTestSupport;
@@ -46,6 +48,7 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
@@ -55,14 +58,17 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -82,9 +88,15 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
     private ExecutorService executor;
     private final ClassLoader classLoader = getClass().getClassLoader();
 
+    private MetricsRegistryImpl metricsRegistry;
+
     @Before
     public void before() {
         executor = Executors.newCachedThreadPool();
+        tes = createService(new Properties());
+    }
+
+    private TaskletExecutionService createService(Properties properties) {
         NodeEngine neMock = mock(NodeEngine.class);
 
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
@@ -101,11 +113,10 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         when(loggingService.getLogger(TaskletExecutionService.class))
                .thenReturn(Logger.getLogger(TaskletExecutionService.class));
 
-        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
+        metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
         when(neMock.getMetricsRegistry()).thenReturn(metricsRegistry);
 
-        HazelcastProperties properties = new HazelcastProperties(new Properties());
-        tes = new TaskletExecutionService(neMock, THREAD_COUNT, properties);
+        return new TaskletExecutionService(neMock, THREAD_COUNT, new HazelcastProperties(properties));
     }
 
     @After
@@ -383,6 +394,99 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         });
     }
 
+    @Test
+    public void when_busyWorker_then_utilizationReported() {
+        // Given
+        HotTasklet t = new HotTasklet();
+        CompletableFuture<Void> f = tes.beginExecute(singletonList(t), cancellationFuture, classLoader);
+
+        // When - Then
+        assertTrueEventually(() -> assertTrue(readWorkerMetric(0, "utilization") >= 50));
+        assertEquals(0, readWorkerMetric(1, "utilization"));
+        assertTrue(readWorkerMetric(0, "busyTime") > 0);
+
+        t.stop = true;
+        f.join();
+    }
+
+    @Test
+    public void when_workStealingEnabled_then_hotTaskletsMovedToIdleWorkers() {
+        // Given
+        tes.shutdown();
+        Properties properties = new Properties();
+        properties.setProperty(JET_COOPERATIVE_WORK_STEALING_ENABLED.getName(), "true");
+        tes = createService(properties);
+        // the tasklets are assigned round-robin, both hot tasklets end up on the first worker
+        HotTasklet hot1 = new HotTasklet();
+        HotTasklet hot2 = new HotTasklet();
+        List<Tasklet> tasklets = asList(hot1, new MockTasklet(), new MockTasklet(), new MockTasklet(), hot2);
+
+        // When
+        CompletableFuture<Void> f = tes.beginExecute(tasklets, cancellationFuture, classLoader);
+
+        // Then
+        assertTrueEventually(() -> assertNotSame(hot1.lastThread, hot2.lastThread));
+        long stolenCount = 0;
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            stolenCount += readWorkerMetric(i, "stolenTaskletCount");
+        }
+        assertTrue(stolenCount > 0);
+
+        hot1.stop = true;
+        hot2.stop = true;
+        f.join();
+        assertFalse("a tasklet was called concurrently", hot1.concurrentCall || hot2.concurrentCall);
+    }
+
+    @Test
+    public void when_shutdownWhileStealing_then_allTaskletsDone() {
+        for (int round = 0; round < 10; round++) {
+            // Given
+            tes.shutdown();
+            Properties properties = new Properties();
+            properties.setProperty(JET_COOPERATIVE_WORK_STEALING_ENABLED.getName(), "true");
+            tes = createService(properties);
+            // both hot tasklets end up on the first worker, the idle workers request to steal one
+            // at the end of each utilization window
+            List<Tasklet> tasklets = asList(new HotTasklet(), new MockTasklet(), new MockTasklet(),
+                    new MockTasklet(), new HotTasklet());
+            CompletableFuture<Void> f = tes.beginExecute(tasklets, new CompletableFuture<>(), classLoader);
+
+            // When
+            sleepMillis(90 + round * 5);
+            tes.shutdown();
+
+            // Then
+            tes.awaitWorkerTermination();
+            assertTrue("a tasklet handed over during the shutdown wasn't done", f.isDone());
+        }
+    }
+
+    private long readWorkerMetric(int worker, String metric) {
+        long[] result = {-1};
+        metricsRegistry.collect(new MetricsCollector() {
+            @Override
+            public void collectLong(MetricDescriptor descriptor, long value) {
+                if (metric.equals(descriptor.metric()) && String.valueOf(worker).equals(descriptor.discriminatorValue())) {
+                    result[0] = value;
+                }
+            }
+
+            @Override
+            public void collectDouble(MetricDescriptor descriptor, double value) {
+            }
+
+            @Override
+            public void collectException(MetricDescriptor descriptor, Exception e) {
+            }
+
+            @Override
+            public void collectNoValue(MetricDescriptor descriptor) {
+            }
+        });
+        return result[0];
+    }
+
     private void executeAndJoin(List<MockTasklet> tasklets) {
         CompletableFuture<Void> f = tes.beginExecute(tasklets, cancellationFuture, classLoader);
         f.join();
@@ -491,6 +595,33 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    /**
+     * A tasklet which keeps its thread busy until stopped.
+     */
+    private static class HotTasklet implements Tasklet {
+        private static final long CALL_DURATION_NANOS = MICROSECONDS.toNanos(200);
+
+        private final AtomicBoolean running = new AtomicBoolean();
+        volatile boolean stop;
+        volatile boolean concurrentCall;
+        volatile Thread lastThread;
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            if (!running.compareAndSet(false, true)) {
+                concurrentCall = true;
+            }
+            lastThread = Thread.currentThread();
+            long end = System.nanoTime() + CALL_DURATION_NANOS;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            running.set(false);
+            return stop ? DONE : MADE_PROGRESS;
+        }
+    }
+
     private static class TaskletAssertingThreadLocal implements Tasklet {
 
         private static final ThreadLocal<Integer> threadLocal = ThreadLocal.withInitial(() -> 0);
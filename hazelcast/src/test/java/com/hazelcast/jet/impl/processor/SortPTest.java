@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SortPTest {
+
+    @Test
+    public void when_itemsSpanManyChunks_then_sorted() {
+        List<Integer> expected = IntStream.range(0, 20_000).map(i -> i / 2).boxed().collect(toList());
+        List<Object> input = new ArrayList<>(expected);
+        Collections.shuffle(input, new Random(3));
+
+        TestSupport.verifyProcessor(() -> new SortP<Integer>(null))
+                   .disableSnapshots()
+                   .input(input)
+                   .expectOutput(new ArrayList<>(expected));
+    }
+
+    @Test
+    public void when_comparatorGiven_then_chunksMergedWithIt() {
+        List<Integer> expected = IntStream.range(0, 10_000).boxed().sorted(Comparator.reverseOrder()).collect(toList());
+        List<Object> input = new ArrayList<>(expected);
+        Collections.shuffle(input, new Random(5));
+
+        TestSupport.verifyProcessor(() -> new SortP<Integer>(Comparator.reverseOrder()))
+                   .disableSnapshots()
+                   .input(input)
+                   .expectOutput(new ArrayList<>(expected));
+    }
+}
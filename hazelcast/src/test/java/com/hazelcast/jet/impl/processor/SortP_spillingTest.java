@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.collection.IList;
+import com.hazelcast.config.Config;
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.test.TestSources;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_DIRECTORY;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SORT_SPILL_THRESHOLD;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SortP_spillingTest extends SimpleTestInClusterSupport {
+
+    private static final int SPILL_THRESHOLD = 100;
+
+    private static File spillDirectory;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        spillDirectory = Files.createTempDirectory("sort-spill").toFile();
+        Config config = smallInstanceConfig()
+                .setProperty(JET_SORT_SPILL_THRESHOLD.getName(), String.valueOf(SPILL_THRESHOLD))
+                .setProperty(JET_SPILL_DIRECTORY.getName(), spillDirectory.getAbsolutePath());
+        initialize(1, config);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        delete(spillDirectory);
+    }
+
+    @Test
+    public void when_itemsExceedThreshold_then_sortedAndSpillFilesDeleted() {
+        List<Integer> input = IntStream.range(0, 10_000).map(i -> i / 3).boxed().collect(toList());
+        List<Integer> expected = new ArrayList<>(input);
+        Collections.shuffle(input, new Random(42));
+
+        List<Integer> actual = runSort(input, null, new JobConfig());
+
+        assertEquals(expected, actual);
+        assertArrayEquals(new String[0], spillDirectory.list());
+    }
+
+    @Test
+    public void when_runsExceedMergeFanIn_then_mergedInPasses() {
+        List<Integer> input = IntStream.range(0, 300 * SPILL_THRESHOLD).boxed().collect(toList());
+        List<Integer> expected = new ArrayList<>(input);
+        Collections.shuffle(input, new Random(13));
+        IList<Integer> sink = instance().getList(randomName());
+        Pipeline p = Pipeline.create();
+        // a single processor spills 300 runs, more than the fan-in of the final merge
+        p.readFrom(TestSources.items(input))
+         .sort()
+         .setLocalParallelism(1)
+         .writeTo(Sinks.list(sink));
+
+        instance().getJet().newJob(p).join();
+
+        assertEquals(expected, new ArrayList<>(sink));
+        assertArrayEquals(new String[0], spillDirectory.list());
+    }
+
+    @Test
+    public void when_comparatorGiven_then_mergeUsesIt() {
+        List<String> input = IntStream.range(0, 1_050).mapToObj(i -> "item-" + i).collect(toList());
+        List<String> expected = new ArrayList<>(input);
+        expected.sort(Comparator.reverseOrder());
+        Collections.shuffle(input, new Random(7));
+
+        List<String> actual = runSort(input, Comparator.reverseOrder(), new JobConfig());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void when_spilling_then_accumulationLimitAppliesOnlyToMemory() {
+        List<Integer> input = IntStream.range(0, 5_000).boxed().collect(toList());
+        List<Integer> expected = new ArrayList<>(input);
+        Collections.shuffle(input, new Random(11));
+
+        List<Integer> actual = runSort(input, null, new JobConfig().setMaxProcessorAccumulatedRecords(2 * SPILL_THRESHOLD));
+
+        assertEquals(expected, actual);
+    }
+
+    private static <T extends Comparable<T>> List<T> runSort(List<T> input, Comparator<T> comparator,
+                                                            JobConfig jobConfig) {
+        IList<T> sink = instance().getList(randomName());
+        Pipeline p = Pipeline.create();
+        var items = p.readFrom(TestSources.items(input)).rebalance();
+        (comparator == null ? items.sort() : items.sort(comparator::compare)).writeTo(Sinks.list(sink));
+
+        instance().getJet().newJob(p, jobConfig).join();
+        return new ArrayList<>(sink);
+    }
+}
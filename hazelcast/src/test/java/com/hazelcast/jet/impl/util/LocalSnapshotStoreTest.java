@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.impl.util.LocalSnapshotStore.Commit;
+import com.hazelcast.jet.impl.util.LocalSnapshotStore.RestoredState;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.impl.util.LocalSnapshotStore.NO_SNAPSHOT;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LocalSnapshotStoreTest extends HazelcastTestSupport {
+
+    private static final String VERTEX_NAME = "vertex";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private Path file;
+    private LocalSnapshotStore store;
+
+    @Before
+    public void before() {
+        file = tempFolder.getRoot().toPath().resolve("member").resolve("1" + LocalSnapshotStore.FILE_SUFFIX);
+        store = new LocalSnapshotStore(file, VERTEX_NAME);
+    }
+
+    @Test
+    public void when_committed_then_restored() throws IOException {
+        put("k1", "v1");
+        put("k2", "v2");
+        store.commit(1, NO_SNAPSHOT);
+
+        RestoredState state = LocalSnapshotStore.restore(file, 1);
+        assertEquals(VERTEX_NAME, state.vertexName());
+        assertEquals(map("k1", "v1", "k2", "v2"), toMap(state));
+    }
+
+    @Test
+    public void when_unchanged_then_emptyBlockAppended() throws IOException {
+        put("k1", "v1");
+        put("k2", "v2");
+        store.commit(1, NO_SNAPSHOT);
+        long fullSize = Files.size(file);
+
+        put("k1", "v1");
+        put("k2", "v2");
+        Commit commit = store.commit(2, NO_SNAPSHOT);
+
+        // just the block header: snapshot ID and record count
+        assertEquals(12, commit.block().length);
+        assertEquals(fullSize + commit.block().length, Files.size(file));
+        assertEquals(map("k1", "v1", "k2", "v2"), restore(2));
+    }
+
+    @Test
+    public void when_valueChangedOrKeyMissing_then_eachSnapshotRestored() throws IOException {
+        put("k1", "v1");
+        put("k2", "v2");
+        put("k3", "v3");
+        store.commit(1, NO_SNAPSHOT);
+
+        put("k1", "v1");
+        put("k2", "changed");
+        store.commit(2, NO_SNAPSHOT);
+
+        assertEquals(map("k1", "v1", "k2", "changed"), restore(2));
+        assertEquals(map("k1", "v1", "k2", "v2", "k3", "v3"), restore(1));
+    }
+
+    @Test
+    public void when_keyPutMultipleTimes_then_allValuesRestored() throws IOException {
+        put("broadcast", "a");
+        put("broadcast", "b");
+        store.commit(1, NO_SNAPSHOT);
+
+        put("broadcast", "a");
+        put("broadcast", "c");
+        store.commit(2, NO_SNAPSHOT);
+
+        List<Object> values = new ArrayList<>();
+        for (Entry<Data, Data> entry : LocalSnapshotStore.restore(file, 2).entries()) {
+            values.add(serializationService.toObject(entry.getValue()));
+        }
+        assertEquals(asList("a", "c"), values);
+    }
+
+    @Test
+    public void when_discarded_then_nextCommitIgnoresDiscardedEntries() throws IOException {
+        put("k1", "v1");
+        store.commit(1, NO_SNAPSHOT);
+
+        put("k1", "discarded");
+        store.discard();
+        put("k1", "v1");
+        Commit commit = store.commit(2, NO_SNAPSHOT);
+
+        assertEquals(12, commit.block().length);
+        assertEquals(map("k1", "v1"), restore(2));
+    }
+
+    @Test
+    public void when_noBlockOfSnapshot_then_emptyStateRestored() throws IOException {
+        // the vertex completed before snapshot 2
+        put("k1", "v1");
+        store.commit(1, NO_SNAPSHOT);
+
+        RestoredState state = LocalSnapshotStore.restore(file, 2);
+        assertEquals(VERTEX_NAME, state.vertexName());
+        assertTrue(state.entries().isEmpty());
+    }
+
+    @Test
+    public void when_manySnapshots_then_compactedOnlyUpToConfirmedSnapshot() throws IOException {
+        boolean compacted = false;
+        for (int snapshotId = 0; snapshotId < 100; snapshotId++) {
+            for (int i = 0; i < 10; i++) {
+                put("k" + i, i == 0 ? "v" + snapshotId : "v");
+            }
+            long confirmedSnapshotId = snapshotId - 2;
+            Commit commit = store.commit(snapshotId, confirmedSnapshotId);
+            if (commit.compactedTo() != NO_SNAPSHOT) {
+                compacted = true;
+                assertEquals(confirmedSnapshotId, commit.compactedTo());
+            }
+            if (confirmedSnapshotId >= 0) {
+                // the job can still be restored from the confirmed snapshot
+                assertEquals("v" + confirmedSnapshotId, restore(confirmedSnapshotId).get("k0"));
+            }
+            assertEquals("v" + snapshotId, restore(snapshotId).get("k0"));
+        }
+
+        assertTrue(compacted);
+        assertEquals(10, restore(99).size());
+        assertThrows(IOException.class, () -> LocalSnapshotStore.restore(file, 0));
+    }
+
+    @Test
+    public void when_notConfirmed_then_notCompacted() throws IOException {
+        for (int snapshotId = 0; snapshotId < 20; snapshotId++) {
+            put("k", "v" + snapshotId);
+            assertEquals(NO_SNAPSHOT, store.commit(snapshotId, NO_SNAPSHOT).compactedTo());
+        }
+        for (int snapshotId = 0; snapshotId < 20; snapshotId++) {
+            assertEquals(map("k", "v" + snapshotId), restore(snapshotId));
+        }
+    }
+
+    @Test
+    public void when_replicaAppliesCommits_then_equalToPrimary() throws IOException {
+        Path replica = tempFolder.getRoot().toPath().resolve("backup").resolve(file.getFileName());
+        boolean compacted = false;
+        for (int snapshotId = 0; snapshotId < 50; snapshotId++) {
+            for (int i = 0; i < 10; i++) {
+                put("k" + i, i == snapshotId % 10 ? "v" + snapshotId : "v");
+            }
+            Commit commit = store.commit(snapshotId, snapshotId - 1);
+            if (commit.compactedTo() != NO_SNAPSHOT) {
+                compacted = true;
+                LocalSnapshotStore.compact(replica, commit.compactedTo());
+            }
+            LocalSnapshotStore.appendBlock(replica, VERTEX_NAME, commit.block());
+
+            assertArrayEquals(store.readCommitted(), Files.readAllBytes(replica));
+        }
+        assertTrue(compacted);
+        assertEquals(restore(49), toMap(LocalSnapshotStore.restore(replica, 49)));
+    }
+
+    @Test
+    public void when_replicaReplaced_then_equalToPrimary() throws IOException {
+        Path replica = tempFolder.getRoot().toPath().resolve("backup").resolve(file.getFileName());
+        put("k1", "v1");
+        store.commit(1, NO_SNAPSHOT);
+        LocalSnapshotStore.appendBlock(replica, VERTEX_NAME, store.commit(2, NO_SNAPSHOT).block());
+        assertNotEquals(Files.size(file), Files.size(replica));
+
+        Files.createDirectories(replica.getParent());
+        LocalSnapshotStore.replace(replica, store.readCommitted());
+
+        assertArrayEquals(store.readCommitted(), Files.readAllBytes(replica));
+        assertEquals(map("k1", "v1"), toMap(LocalSnapshotStore.restore(replica, 1)));
+    }
+
+    @Test
+    public void when_fileTruncated_then_restoreFails() throws IOException {
+        put("k1", "v1");
+        put("k2", "v2");
+        store.commit(1, NO_SNAPSHOT);
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 4));
+
+        assertThrows(IOException.class, () -> LocalSnapshotStore.restore(file, 1));
+    }
+
+    private void put(String key, String value) {
+        store.put(serializationService.toData(key), serializationService.toData(value));
+    }
+
+    private Map<Object, Object> restore(long snapshotId) throws IOException {
+        return toMap(LocalSnapshotStore.restore(file, snapshotId));
+    }
+
+    private Map<Object, Object> toMap(RestoredState state) {
+        Map<Object, Object> result = new HashMap<>();
+        for (Entry<Data, Data> entry : state.entries()) {
+            result.put(serializationService.toObject(entry.getKey()), serializationService.toObject(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static Map<Object, Object> map(Object... keysAndValues) {
+        Map<Object, Object> result = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            result.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return result;
+    }
+}
@@ -22,11 +22,13 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.nio.serialization.genericrecord.MutableGenericRecord;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestJavaSerializationUtils;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
+import example.serialization.MainDTO;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
@@ -34,8 +36,14 @@ import org.junit.runner.RunWith;
 import java.io.IOException;
 import java.io.Serializable;
 
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createMainDTO;
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createSerializationService;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -122,6 +130,56 @@ public class LazyMapEntryTest extends HazelcastTestSupport {
         assertEquals(1, ((MyObject) value).deserializedCount);
     }
 
+    @Test
+    public void testMutableGenericRecord_updatesValue() {
+        InternalSerializationService compactSerializationService = createSerializationService();
+        MainDTO expected = createMainDTO();
+        Data keyData = compactSerializationService.toData("keyData");
+        Data valueData = compactSerializationService.toData(expected);
+        entry.init(compactSerializationService, keyData, valueData, null);
+
+        MutableGenericRecord record = entry.getValueAsMutableGenericRecord();
+        assertFalse(entry.isModified());
+        record.setInt32("i", record.getInt32("i") + 1);
+        expected.i++;
+
+        assertTrue(entry.isModified());
+        assertEquals(expected, compactSerializationService.toObject(entry.getByPrioritizingDataValue()));
+        assertEquals(expected, entry.getValue());
+    }
+
+    @Test
+    public void testMutableGenericRecord_detachedBySetValue() {
+        InternalSerializationService compactSerializationService = createSerializationService();
+        MainDTO expected = createMainDTO();
+        Data keyData = compactSerializationService.toData("keyData");
+        entry.init(compactSerializationService, keyData, compactSerializationService.toData(createMainDTO()), null);
+
+        MutableGenericRecord record = entry.getValueAsMutableGenericRecord();
+        entry.setValue(expected);
+        record.setInt32("i", 0);
+
+        assertEquals(expected, entry.getValue());
+    }
+
+    @Test
+    public void testMutableGenericRecord_whenNoValue() {
+        Data keyData = serializationService.toData("keyData");
+        entry.init(serializationService, keyData, null, null);
+
+        assertNull(entry.getValueAsMutableGenericRecord());
+    }
+
+    @Test
+    public void testMutableGenericRecord_whenValueIsNotCompact() {
+        Data keyData = serializationService.toData("keyData");
+        Data valueData = serializationService.toData("valueData");
+        entry.init(serializationService, keyData, valueData, null);
+
+        assertThatThrownBy(() -> entry.getValueAsMutableGenericRecord())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
     private static class MyObject implements DataSerializable, Serializable {
 
         int serializedCount = 0;
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapEntriesTest extends HazelcastTestSupport {
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testEntriesView_whenEmpty() {
+        Collection<Map.Entry<Data, Data>> view = new MapEntries().entriesView();
+
+        assertEquals(0, view.size());
+        assertTrue(view.isEmpty());
+        assertTrue(new ArrayList<>(view).isEmpty());
+    }
+
+    @Test
+    public void testEntriesView_equalsEntries() {
+        MapEntries mapEntries = new MapEntries(3);
+        for (int i = 0; i < 3; i++) {
+            mapEntries.add(serializationService.toData("key" + i), serializationService.toData("value" + i));
+        }
+
+        Collection<Map.Entry<Data, Data>> view = mapEntries.entriesView();
+
+        assertEquals(3, view.size());
+        assertEquals(mapEntries.entries(), new ArrayList<>(view));
+    }
+}
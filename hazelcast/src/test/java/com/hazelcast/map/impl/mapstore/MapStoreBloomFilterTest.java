@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapStoreBloomFilterTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 10_000;
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testNoFalseNegatives() {
+        MapStoreBloomFilter filter = new MapStoreBloomFilter(KEY_COUNT);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            filter.add(ss.toData(i));
+        }
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertTrue(filter.mightContain(ss.toData(i)));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate_whenExpectedKeyCount() {
+        MapStoreBloomFilter filter = readyFilter(KEY_COUNT, 0, KEY_COUNT);
+
+        int falsePositives = 0;
+        for (int i = KEY_COUNT; i < 2 * KEY_COUNT; i++) {
+            if (!filter.isProvenAbsent(ss.toData(i))) {
+                falsePositives++;
+            }
+        }
+        filter.onLoadMisses(falsePositives);
+
+        // sized for 1%, allow for the variance of the hashes
+        assertTrue("falsePositives=" + falsePositives, falsePositives < KEY_COUNT * 3 / 100);
+        assertEquals(KEY_COUNT - falsePositives, filter.getSkippedLoadCount());
+        assertEquals(falsePositives, filter.getFalsePositiveCount());
+        assertEquals(100d * falsePositives / KEY_COUNT, filter.getFalsePositiveRate(), 0.0001);
+    }
+
+    @Test
+    public void testNotReady_untilKeyLoadFinished() {
+        MapStoreBloomFilter filter = new MapStoreBloomFilter(KEY_COUNT);
+        filter.onKeysLoaded(List.of(ss.toData(1)));
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.isProvenAbsent(ss.toData(2)));
+        filter.onLoadMisses(1);
+        assertEquals(0, filter.getSkippedLoadCount());
+        assertEquals(0, filter.getFalsePositiveCount());
+
+        filter.onKeyLoadFinished(true);
+
+        assertTrue(filter.isReady());
+        assertTrue(filter.isProvenAbsent(ss.toData(2)));
+        assertFalse(filter.isProvenAbsent(ss.toData(1)));
+        assertEquals(1, filter.getSkippedLoadCount());
+    }
+
+    @Test
+    public void testNotReady_whenNoKeysReceived() {
+        MapStoreBloomFilter filter = new MapStoreBloomFilter(KEY_COUNT);
+
+        filter.onKeyLoadFinished(true);
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.isProvenAbsent(ss.toData(1)));
+    }
+
+    @Test
+    public void testNotReady_whenKeyLoadFailed() {
+        MapStoreBloomFilter filter = new MapStoreBloomFilter(KEY_COUNT);
+        filter.onKeysLoaded(List.of(ss.toData(1)));
+
+        filter.onKeyLoadFinished(false);
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.isProvenAbsent(ss.toData(2)));
+    }
+
+    @Test
+    public void testClear() {
+        MapStoreBloomFilter filter = readyFilter(KEY_COUNT, 0, 100);
+
+        filter.clear();
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.mightContain(ss.toData(1)));
+        filter.onKeysLoaded(List.of(ss.toData(2)));
+        filter.onKeyLoadFinished(true);
+        assertTrue(filter.isProvenAbsent(ss.toData(1)));
+    }
+
+    @Test
+    public void testAbsentKeysNotLoaded() {
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.MAP_LOAD_BLOOM_FILTER_ENABLED.getName(), "true")
+                .setProperty(ClusterProperty.MAP_LOAD_BLOOM_FILTER_EXPECTED_KEYS_PER_PARTITION.getName(), "100");
+        LoadCountingMapLoader loader = new LoadCountingMapLoader(1000);
+        config.getMapConfig("map").setMapStoreConfig(new MapStoreConfig().setImplementation(loader));
+        HazelcastInstance hz = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = hz.getMap("map");
+        assertEquals(1000, map.size());
+
+        for (int i = 1000; i < 2000; i++) {
+            assertNull(map.get(i));
+        }
+        map.set(5000, 5000);
+        assertEquals(5000, (int) map.get(5000));
+
+        LocalMapStatsImpl stats = (LocalMapStatsImpl) map.getLocalMapStats();
+        assertEquals(1000, stats.getMapStoreBloomFilterSkippedLoadCount() + stats.getMapStoreBloomFilterFalsePositiveCount());
+        assertEquals(stats.getMapStoreBloomFilterFalsePositiveCount(), loader.loadCount.get());
+        assertTrue(stats.toString(), loader.loadCount.get() < 100);
+    }
+
+    private MapStoreBloomFilter readyFilter(int expectedKeyCount, int from, int to) {
+        MapStoreBloomFilter filter = new MapStoreBloomFilter(expectedKeyCount);
+        Data[] keys = new Data[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = ss.toData(i);
+        }
+        filter.onKeysLoaded(List.of(keys));
+        filter.onKeyLoadFinished(true);
+        return filter;
+    }
+
+    private static class LoadCountingMapLoader extends SimpleMapLoader {
+
+        private final AtomicInteger loadCount = new AtomicInteger();
+
+        LoadCountingMapLoader(int size) {
+            super(size, false);
+        }
+
+        @Override
+        public Integer load(Integer key) {
+            loadCount.incrementAndGet();
+            return key < size ? key : null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapStore;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_FLUSH_MAX_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class WriteBehindFlushPipelineTest extends HazelcastTestSupport {
+
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testStore_inBoundedBatches() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<>();
+        IMap<Integer, Integer> map = createMap(mapStore, true, 1);
+
+        populateMap(map);
+
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.size()));
+        // entries of all partitions are stored with a few batches instead of
+        // one storeAll call per partition
+        Collection<Integer> batchSizes = mapStore.getBatchOpCountMap().values();
+        assertTrue(batchSizes.size() < 2 * ENTRY_COUNT / MAX_BATCH_SIZE);
+        for (int batchSize : batchSizes) {
+            assertTrue("batchSize=" + batchSize, batchSize <= MAX_BATCH_SIZE);
+        }
+        assertEquals(ENTRY_COUNT, mapStore.getStoreOpCount());
+
+        LocalMapStatsImpl stats = (LocalMapStatsImpl) map.getLocalMapStats();
+        assertTrue(stats.getWriteBehindFlushCount() > 0);
+        assertEquals(ENTRY_COUNT, stats.getWriteBehindBatchedEntryCount());
+        assertEquals(batchSizes.size(), stats.getWriteBehindBatchCount());
+        assertEquals(MAX_BATCH_SIZE, stats.getWriteBehindMaxBatchSize());
+        assertEquals(0, stats.getDirtyEntryCount());
+    }
+
+    @Test
+    public void testStore_usesWriteBatchSize_whenConfigured() {
+        int writeBatchSize = 10;
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<>();
+        IMap<Integer, Integer> map = createMap(mapStore, true, writeBatchSize);
+
+        populateMap(map);
+
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.size()));
+        for (int batchSize : mapStore.getBatchOpCountMap().values()) {
+            assertTrue("batchSize=" + batchSize, batchSize <= writeBatchSize);
+        }
+    }
+
+    @Test
+    public void testDelete_inBatches() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<>();
+        IMap<Integer, Integer> map = createMap(mapStore, true, 1);
+        populateMap(map);
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.size()));
+
+        for (int i = 0; i < ENTRY_COUNT / 2; i++) {
+            map.delete(i);
+        }
+
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT / 2, mapStore.size()));
+        assertEquals(ENTRY_COUNT / 2, mapStore.getDeleteOpCount());
+        assertFalse(mapStore.store.containsKey(0));
+        assertTrue(mapStore.store.containsKey(ENTRY_COUNT - 1));
+    }
+
+    @Test
+    public void testStore_retriesFailedBatches() {
+        FailingOnceMapStore mapStore = new FailingOnceMapStore();
+        IMap<Integer, Integer> map = createMap(mapStore, true, 1);
+
+        populateMap(map);
+
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.size()));
+        assertTrue(mapStore.failedBatchCount.get() > 0);
+        assertTrueEventually(() -> assertEquals(0, map.getLocalMapStats().getDirtyEntryCount()));
+    }
+
+    @Test
+    public void testFlushStats_whenPipelineDisabled() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<>();
+        IMap<Integer, Integer> map = createMap(mapStore, false, 1);
+
+        populateMap(map);
+
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.size()));
+        LocalMapStatsImpl stats = (LocalMapStatsImpl) map.getLocalMapStats();
+        assertTrue(stats.getWriteBehindFlushCount() > 0);
+        assertEquals(0, stats.getWriteBehindBatchCount());
+    }
+
+    private IMap<Integer, Integer> createMap(MapStore<Integer, Integer> mapStore, boolean pipelineEnabled,
+                                             int writeBatchSize) {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_WRITE_BEHIND_FLUSH_PIPELINE_ENABLED.getName(), String.valueOf(pipelineEnabled))
+                .setProperty(MAP_WRITE_BEHIND_FLUSH_MAX_BATCH_SIZE.getName(), String.valueOf(MAX_BATCH_SIZE));
+        config.getMapConfig(mapName).setMapStoreConfig(new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(mapStore)
+                .setWriteDelaySeconds(1)
+                .setWriteBatchSize(writeBatchSize));
+        return createHazelcastInstance(config).getMap(mapName);
+    }
+
+    private static void populateMap(IMap<Integer, Integer> map) {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, i);
+        }
+    }
+
+    private static class FailingOnceMapStore extends MapStoreWithCounter<Integer, Integer> {
+
+        private final AtomicInteger failedBatchCount = new AtomicInteger();
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            if (failedBatchCount.get() == 0 && failedBatchCount.compareAndSet(0, 1)) {
+                throw new IllegalStateException("expected");
+            }
+            super.storeAll(map);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.AttributeConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.collection.PartitionIdSet;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.query.extractor.ValueCollector;
+import com.hazelcast.query.extractor.ValueExtractor;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createSerializationService;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactColumnarAccumulatorTest {
+
+    private static final int ENTRY_COUNT = 3 * CompactColumnarAccumulator.BATCH_SIZE + 7;
+
+    private final InternalSerializationService ss = createSerializationService();
+
+    @Test
+    public void testInt8() {
+        assertAllAggregatorsMatch(i -> GenericRecordBuilder.compact("t").setInt8("f", (byte) i).build());
+    }
+
+    @Test
+    public void testInt16() {
+        assertAllAggregatorsMatch(i -> GenericRecordBuilder.compact("t").setInt16("f", (short) (i * 7)).build());
+    }
+
+    @Test
+    public void testInt32() {
+        assertAllAggregatorsMatch(i -> GenericRecordBuilder.compact("t").setInt32("f", i * 1_000_003).build());
+    }
+
+    @Test
+    public void testInt64() {
+        assertAllAggregatorsMatch(i -> GenericRecordBuilder.compact("t").setInt64("f", (long) i * Integer.MAX_VALUE).build());
+    }
+
+    @Test
+    public void testFloat32() {
+        assertAllAggregatorsMatch(i -> GenericRecordBuilder.compact("t").setFloat32("f", i * 0.37f - 100).build());
+    }
+
+    @Test
+    public void testFloat64() {
+        assertAllAggregatorsMatch(i -> GenericRecordBuilder.compact("t").setFloat64("f", i * 0.1 - 100).build());
+    }
+
+    @Test
+    public void testNullableFieldsWithNulls() {
+        assertAllAggregatorsMatch(i -> GenericRecordBuilder.compact("t")
+                .setString("s", "value-" + i)
+                .setNullableInt32("f", i % 5 == 0 ? null : i - 1000)
+                .build());
+    }
+
+    @Test
+    public void testMixedSchemasAndKinds() {
+        assertAllAggregatorsMatch(i -> switch (i % 4) {
+            case 0 -> GenericRecordBuilder.compact("a").setInt32("f", i).build();
+            case 1 -> GenericRecordBuilder.compact("b").setString("s", "x").setNullableInt64("f", (long) -i).build();
+            case 2 -> GenericRecordBuilder.compact("c").setInt32("other", i).build();
+            default -> GenericRecordBuilder.compact("d").setFloat32("f", i).build();
+        });
+    }
+
+    @Test
+    public void testMixedFloatingPointAndIntegralValues() {
+        assertAllAggregatorsMatch(i -> i % 3 == 0
+                ? GenericRecordBuilder.compact("a").setFloat64("f", i / 3.0).build()
+                : GenericRecordBuilder.compact("b").setInt16("f", (short) -i).build());
+    }
+
+    @Test
+    public void testCustomExtractor() {
+        AttributeConfig config = new AttributeConfig("f", ConstantExtractor.class.getName());
+        Extractors extractors = Extractors.newBuilder(ss).setAttributeConfigs(singletonList(config)).build();
+        List<QueryableEntry> entries = createEntries(i -> GenericRecordBuilder.compact("t").setInt64("f", i).build(),
+                extractors);
+
+        Aggregator<?, Long> aggregator = accumulate(Aggregators.longSum("f"), entries);
+
+        assertEquals(Long.valueOf(42L * ENTRY_COUNT), aggregator.aggregate());
+    }
+
+    private void assertAllAggregatorsMatch(IntFunction<Object> valueFn) {
+        List<QueryableEntry> entries = createEntries(valueFn, Extractors.newBuilder(ss).build());
+        List<Aggregator<?, ?>> aggregators = List.of(
+                Aggregators.count("f"),
+                Aggregators.longSum("f"),
+                Aggregators.longAvg("f"),
+                Aggregators.integerSum("f"),
+                Aggregators.integerAvg("f"),
+                Aggregators.doubleSum("f"),
+                Aggregators.doubleAvg("f"),
+                Aggregators.comparableMin("f"),
+                Aggregators.comparableMax("f"));
+        for (Aggregator<?, ?> aggregator : aggregators) {
+            Object expected;
+            try {
+                expected = accumulatePerEntry(aggregator, entries).aggregate();
+            } catch (RuntimeException e) {
+                // the aggregator doesn't accept the values, it must fail the same way
+                assertThrows(e.getClass(), () -> accumulate(aggregator, entries));
+                continue;
+            }
+            assertEquals(aggregator.getClass().getSimpleName(), expected, accumulate(aggregator, entries).aggregate());
+        }
+    }
+
+    private List<QueryableEntry> createEntries(IntFunction<Object> valueFn, Extractors extractors) {
+        List<QueryableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Object value = valueFn.apply(i);
+            entries.add(new CachedQueryEntry<>(ss, ss.toData(i), ss.toData(value), extractors));
+        }
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> Aggregator<?, R> accumulatePerEntry(Aggregator<?, R> aggregator, List<QueryableEntry> entries) {
+        Aggregator resultAggregator = ss.toObject(ss.toData(aggregator));
+        for (QueryableEntry entry : entries) {
+            resultAggregator.accumulate(entry);
+        }
+        resultAggregator.onAccumulationFinished();
+        return resultAggregator;
+    }
+
+    private <R> Aggregator<?, R> accumulate(Aggregator<?, R> aggregator, List<QueryableEntry> entries) {
+        AggregationResult result = new CallerRunsAccumulationExecutor(ss).execute(aggregator, entries, new PartitionIdSet(1));
+        return result.getAggregator();
+    }
+
+    public static class ConstantExtractor implements ValueExtractor<Object, Object> {
+        @Override
+        public void extract(Object target, Object arguments, ValueCollector collector) {
+            collector.addObject(42L);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.publisher;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.QueryCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.QueryCache;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.querycache.QueryCacheContext;
+import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
+import com.hazelcast.map.impl.querycache.event.DefaultQueryCacheEventData;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EventLostListener;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo.toAccumulatorInfo;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptivePublisherAccumulatorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 2000;
+
+    @Test
+    public void testAllEventsPublished() {
+        String mapName = randomMapName();
+        String cacheName = randomString();
+        Config config = getConfig(mapName, new QueryCacheConfig(cacheName));
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance node = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = node.getMap(mapName);
+
+        AtomicInteger addedCount = new AtomicInteger();
+        AtomicInteger lostCount = new AtomicInteger();
+        QueryCache<Integer, Integer> cache = map.getQueryCache(cacheName, Predicates.alwaysTrue(), true);
+        cache.addEntryListener((EntryAddedListener<Integer, Integer>) event -> addedCount.incrementAndGet(), false);
+        cache.addEntryListener((EventLostListener) event -> lostCount.incrementAndGet(), false);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, addedCount.get()));
+        assertEquals(ENTRY_COUNT, cache.size());
+        assertEquals(0, lostCount.get());
+    }
+
+    @Test
+    public void testUpdatesCoalesced() {
+        String mapName = randomMapName();
+        String cacheName = randomString();
+        QueryCacheConfig cacheConfig = new QueryCacheConfig(cacheName)
+                .setCoalesce(true)
+                .setBufferSize(64)
+                .setDelaySeconds(3);
+        HazelcastInstance node = createHazelcastInstance(getConfig(mapName, cacheConfig));
+        IMap<Integer, Integer> map = node.getMap(mapName);
+
+        AtomicInteger lostCount = new AtomicInteger();
+        QueryCache<Integer, Integer> cache = map.getQueryCache(cacheName, Predicates.alwaysTrue(), true);
+        cache.addEntryListener((EventLostListener) event -> lostCount.incrementAndGet(), false);
+
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(0, i);
+        }
+
+        assertTrueEventually(() -> {
+            assertEquals(100, cache.size());
+            assertEquals(ENTRY_COUNT - 1, (int) cache.get(0));
+        });
+        assertEquals(0, lostCount.get());
+    }
+
+    @Test
+    public void testBatchSize_growsWithEventRate() {
+        HazelcastInstance node = createHazelcastInstance(getConfig(randomMapName(), null));
+        MapService mapService = getNodeEngineImpl(node).getService(MapService.SERVICE_NAME);
+        QueryCacheContext context = mapService.getMapServiceContext().getQueryCacheContext();
+        AccumulatorInfo info = toAccumulatorInfo(randomMapName(), randomString(), Predicates.alwaysTrue(),
+                1, 64, 0, true, false, false);
+        AdaptivePublisherAccumulator accumulator = new AdaptivePublisherAccumulator(context, info,
+                new MergingEventPublisher(info.getCacheId(), context), 100);
+
+        assertEquals(1, accumulator.getBatchSize());
+
+        // not publishable yet, so the events of a burst stay in the accumulator
+        for (int i = 0; i < 64; i++) {
+            accumulator.accumulate(new DefaultQueryCacheEventData());
+        }
+
+        int batchSize = accumulator.getBatchSize();
+        assertTrue("batchSize=" + batchSize, batchSize > 1);
+        assertTrue("batchSize=" + batchSize, batchSize <= 64);
+    }
+
+    private static Config getConfig(String mapName, QueryCacheConfig cacheConfig) {
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_QUERY_CACHE_ADAPTIVE_PUBLISHER_ENABLED.getName(), "true");
+        if (cacheConfig != null) {
+            config.getMapConfig(mapName).addQueryCacheConfig(cacheConfig);
+        }
+        return config;
+    }
+}
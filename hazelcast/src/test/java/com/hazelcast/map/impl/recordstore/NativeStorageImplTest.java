@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadataImpl;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.util.HashUtil.fastLongMix;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_NATIVE_STORAGE_MAP_NAMES;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeStorageImplTest extends HazelcastTestSupport {
+
+    private SerializationService ss;
+    private DataRecordFactory recordFactory;
+    private NativeStorageImpl storage;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        MapConfig mapConfig = new MapConfig().setPerEntryStatsEnabled(true);
+        MapContainer mapContainer = mock(MapContainer.class);
+        when(mapContainer.getMapConfig()).thenReturn(mapConfig);
+        recordFactory = new DataRecordFactory(mapContainer, ss);
+        ExpirySystem expirySystem = mock(ExpirySystem.class);
+        when(expirySystem.getExpiryMetadata(any())).thenReturn(ExpiryMetadata.NULL);
+        storage = new NativeStorageImpl(expirySystem, ss);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+        assertEquals(0, storage.getUsedNativeMemory());
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data key = ss.toData("key");
+        put(key, "value");
+
+        Record record = storage.get(key);
+        assertEquals("value", ss.toObject(record.getValue()));
+        assertTrue(storage.containsKey(key));
+        assertEquals(1, storage.size());
+        assertNull(storage.get(ss.toData("other")));
+    }
+
+    @Test
+    public void testPut_replacesExistingEntry() {
+        Data key = ss.toData(1);
+        put(key, "value1");
+        put(key, "value2");
+
+        assertEquals(1, storage.size());
+        assertEquals("value2", ss.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testMetadata_isWrittenThroughToNativeMemory() {
+        Data key = ss.toData(1);
+        put(key, "value");
+
+        Record record = storage.get(key);
+        record.setVersion(42);
+        record.onAccess(System.currentTimeMillis());
+
+        Record reread = storage.get(key);
+        assertEquals(42, reread.getVersion());
+        assertEquals(1, reread.getHits());
+    }
+
+    @Test
+    public void testUpdateRecordValue_inPlaceAndRelocated() {
+        Data key = ss.toData(1);
+        put(key, "a long value which leaves room for a shorter one");
+        Record record = storage.get(key);
+        record.setVersion(7);
+
+        Record shrunk = storage.updateRecordValue(key, record, "short");
+        assertEquals("short", ss.toObject(storage.get(key).getValue()));
+
+        String bigValue = "x".repeat(10_000);
+        Record grown = storage.updateRecordValue(key, shrunk, bigValue);
+        assertEquals(bigValue, ss.toObject(grown.getValue()));
+        assertEquals(bigValue, ss.toObject(storage.get(key).getValue()));
+        assertEquals(7, storage.get(key).getVersion());
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void testRemoveRecord() {
+        for (int i = 0; i < 1000; i++) {
+            put(ss.toData(i), i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+
+        assertEquals(500, storage.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 != 0, storage.containsKey(ss.toData(i)));
+        }
+    }
+
+    @Test
+    public void testMutationTolerantIterator_toleratesRemovalOfCurrentEntry() {
+        int entryCount = 1000;
+        for (int i = 0; i < entryCount; i++) {
+            put(ss.toData(i), i);
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            Integer key = ss.toObject(entry.getKey());
+            assertEquals(key, ss.toObject(entry.getValue().getValue()));
+            seen.add(key);
+            storage.removeRecord(entry.getKey(), entry.getValue());
+        }
+
+        assertEquals(entryCount, seen.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testFetchKeys_returnsAllKeysInBatches() {
+        int entryCount = 1000;
+        for (int i = 0; i < entryCount; i++) {
+            put(ss.toData(i), i);
+        }
+
+        Set<Data> fetched = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        do {
+            MapKeysWithCursor keys = storage.fetchKeys(pointers, 100);
+            fetched.addAll(keys.getBatch());
+            pointers = keys.getIterationPointers();
+        } while (pointers[pointers.length - 1].getIndex() >= 0);
+
+        assertEquals(entryCount, fetched.size());
+    }
+
+    @Test
+    public void testFetchKeys_withCollidingKeysRemovedAndAddedBetweenBatches() {
+        // the index starts with 512 slots; pick keys which all have their home slot among
+        // the few slots around the wrap-around point so they form one long probing run
+        List<Data> stableKeys = new ArrayList<>();
+        List<Data> removedKeys = new ArrayList<>();
+        for (int i = 0; stableKeys.size() < 120 || removedKeys.size() < 120; i++) {
+            Data key = ss.toData("colliding-" + i);
+            long homeSlot = fastLongMix(key.hash64()) & 511;
+            if (homeSlot >= 508 || homeSlot < 4) {
+                (stableKeys.size() <= removedKeys.size() ? stableKeys : removedKeys).add(key);
+            }
+        }
+        for (int i = 0; i < stableKeys.size(); i++) {
+            put(stableKeys.get(i), i);
+            put(removedKeys.get(i), i);
+        }
+
+        List<Data> fetched = new ArrayList<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        int batch = 0;
+        do {
+            MapKeysWithCursor keys = storage.fetchKeys(pointers, 10);
+            fetched.addAll(keys.getBatch());
+            pointers = keys.getIterationPointers();
+            // removals shift the colliding keys back, additions eventually resize the index
+            for (int i = 0; i < 5 && !removedKeys.isEmpty(); i++) {
+                Data key = removedKeys.remove(removedKeys.size() - 1);
+                storage.removeRecord(key, storage.get(key));
+            }
+            for (int i = 0; i < 20 && batch < 6; i++) {
+                put(ss.toData("added-" + batch + "-" + i), i);
+            }
+            batch++;
+        } while (pointers[pointers.length - 1].getIndex() >= 0);
+
+        assertTrue("index has not been resized", pointers.length > 1);
+        assertEquals("keys fetched more than once", fetched.size(), new HashSet<>(fetched).size());
+        assertTrue("keys not fetched", fetched.containsAll(stableKeys));
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            put(ss.toData(i), i);
+        }
+
+        int sampleCount = 0;
+        for (EntryView sample : storage.getRandomSamples(15)) {
+            assertEquals(sample.getKey(), sample.getValue());
+            sampleCount++;
+        }
+        assertEquals(15, sampleCount);
+    }
+
+    @Test
+    public void testClear_freesEntries() {
+        for (int i = 0; i < 100; i++) {
+            put(ss.toData(i), i);
+        }
+        long usedWithEntries = storage.getUsedNativeMemory();
+
+        storage.clear(false);
+
+        assertTrue(storage.isEmpty());
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+        assertTrue(storage.getUsedNativeMemory() < usedWithEntries);
+        assertFalse(storage.containsKey(ss.toData(1)));
+    }
+
+    @Test
+    public void testMap_withNativeStorage() {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_NATIVE_STORAGE_MAP_NAMES.getName(), "other," + mapName);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, String> map = instance.getMap(mapName);
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.put(1, "updated");
+        map.remove(2);
+
+        assertEquals(999, map.size());
+        assertEquals("updated", map.get(1));
+        assertNull(map.get(2));
+        assertEquals(999, map.keySet().size());
+        assertEquals("value-3", map.getEntryView(3).getValue());
+    }
+
+    @Test
+    public void testMap_updateChangingValueSize_keepsMetadataAndExpiry() {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_NATIVE_STORAGE_MAP_NAMES.getName(), mapName);
+        IMap<Integer, String> map = createHazelcastInstance(config).getMap(mapName);
+
+        map.put(1, "short", 1, TimeUnit.HOURS);
+        long creationTime = map.getEntryView(1).getCreationTime();
+        String bigValue = "x".repeat(10_000);
+        map.put(1, bigValue, 2, TimeUnit.HOURS);
+        map.put(1, "short again", 3, TimeUnit.HOURS);
+
+        EntryView<Integer, String> entryView = map.getEntryView(1);
+        assertEquals("short again", entryView.getValue());
+        assertEquals(2, entryView.getVersion());
+        assertEquals(creationTime, entryView.getCreationTime());
+        assertEquals(TimeUnit.HOURS.toMillis(3), entryView.getTtl());
+        assertTrue(entryView.getExpirationTime() > System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2));
+    }
+
+    @Test
+    public void testPutOrUpdateReplicatedRecord_whenValueSizeChanges_keepsMetadata() {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_NATIVE_STORAGE_MAP_NAMES.getName(), mapName);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, String> map = instance.getMap(mapName);
+        map.put(1, "short");
+
+        Data key = ss.toData(1);
+        int partitionId = instance.getPartitionService().getPartition(1).getPartitionId();
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        RecordStore<Record> recordStore = mapService.getMapServiceContext().getRecordStore(partitionId, mapName);
+
+        long now = System.currentTimeMillis();
+        long creationTime = now - TimeUnit.MINUTES.toMillis(1);
+        Record replicated = recordFactory.newRecord(key, "x".repeat(10_000));
+        replicated.setVersion(5);
+        replicated.setCreationTime(creationTime);
+        ExpiryMetadata expiryMetadata = new ExpiryMetadataImpl(TimeUnit.HOURS.toMillis(1), Long.MAX_VALUE,
+                now + TimeUnit.HOURS.toMillis(1), now);
+        recordStore.putOrUpdateReplicatedRecord(key, replicated, expiryMetadata, false, now);
+
+        EntryView<Integer, String> entryView = map.getEntryView(1);
+        assertEquals("x".repeat(10_000), entryView.getValue());
+        assertEquals(5, entryView.getVersion());
+        // record times are kept with a resolution of a second
+        assertEquals(creationTime, entryView.getCreationTime(), TimeUnit.SECONDS.toMillis(1));
+        assertEquals(TimeUnit.HOURS.toMillis(1), entryView.getTtl());
+    }
+
+    private void put(Data key, Object value) {
+        storage.put(key, recordFactory.newRecord(key, value));
+    }
+}
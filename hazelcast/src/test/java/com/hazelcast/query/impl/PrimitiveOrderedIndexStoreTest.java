@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_SORTED_PRIMITIVE_ENABLED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveOrderedIndexStoreTest extends HazelcastTestSupport {
+
+    private final PrimitiveOrderedIndexStore store = new PrimitiveOrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+    private final OrderedIndexStore expected = new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+
+    @Test
+    public void testRandomUpdates_matchOrderedIndexStore() {
+        Random random = new Random(42);
+        int keyCount = 3000;
+        Long[] values = new Long[keyCount];
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(keyCount);
+            if (values[key] != null) {
+                remove(values[key], key);
+                values[key] = null;
+            }
+            if (random.nextInt(4) != 0) {
+                long value = random.nextInt(500) - 250;
+                values[key] = value;
+                insert(value, key);
+            }
+        }
+        for (int i = 0; i < keyCount; i += 7) {
+            insert(NULL, keyCount + i);
+        }
+
+        assertFalse(store.isFallback());
+        assertTrue(store.blockCount() > 1);
+        for (int i = 0; i < 50; i++) {
+            long from = random.nextInt(600) - 300;
+            long to = from + random.nextInt(200);
+            boolean fromInclusive = random.nextBoolean();
+            boolean toInclusive = random.nextBoolean();
+            for (boolean descending : new boolean[]{false, true}) {
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(from, descending));
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(Comparison.LESS, to, descending));
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(Comparison.GREATER_OR_EQUAL, (int) from, descending));
+            }
+            assertEquals(new HashSet<>(expected.getRecords(from, fromInclusive, to, toInclusive)),
+                    new HashSet<>(store.getRecords(from, fromInclusive, to, toInclusive)));
+        }
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(false));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(true));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(NULL, false));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(NULL, true, 0L, true, false));
+    }
+
+    @Test
+    public void testSplitAndMergeOfBlocks() {
+        int count = PrimitiveOrderedIndexStore.MAX_BLOCK_SIZE * 10;
+        for (int i = 0; i < count; i++) {
+            // all entries share a few values, so groups span several blocks
+            insert((long) (i % 3), i);
+        }
+        assertTrue(store.blockCount() >= 10);
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(1L, false));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(1L, true));
+
+        for (int i = 0; i < count - 1; i++) {
+            remove((long) (i % 3), i);
+        }
+        assertEquals(1, store.blockCount());
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(false));
+    }
+
+    @Test
+    public void testDoubleOrdering() {
+        double[] values = {-0.0, 0.0, -1.5, 1.5, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MAX_VALUE};
+        for (int i = 0; i < values.length; i++) {
+            insert(values[i], i);
+        }
+
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(false));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(true));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(-1.5, true, 1.5, false, false));
+        // mixed-type arguments are compared numerically
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(-1L, true, 1L, true, false));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(0L, false));
+    }
+
+    @Test
+    public void testIntegerKeysWithMixedTypeArguments() {
+        for (int i = 0; i < 100; i++) {
+            insert(i % 10, i);
+        }
+
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(3L, false));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(2.5, true, 5.5, true, true));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(Comparison.LESS_OR_EQUAL, (short) 4, false));
+        Set<Comparable> values = Set.of(1L, 4.0, 7);
+        assertEquals(new HashSet<>(expected.getRecords(values)), new HashSet<>(store.getRecords(values)));
+    }
+
+    @Test
+    public void testLocalDateKeys() {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 400; i++) {
+            insert(start.plusDays(i % 50), i);
+        }
+
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(start.plusDays(10), true, start.plusDays(20), false, false));
+        assertEquals(LocalDate.class, store.getSqlRecordIteratorBatch(false).next().getIndexKey().getClass());
+    }
+
+    @Test
+    public void testCursor() {
+        for (int i = 0; i < 1000; i++) {
+            insert((long) (i % 4), i);
+        }
+        insert(NULL, 1000);
+        insert(NULL, 1001);
+
+        for (boolean descending : new boolean[]{false, true}) {
+            for (int key : new int[]{0, 1, 2, 3, 4, 6, 500, 996, 1000}) {
+                Data cursor = keyData(key);
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(1L, true, 2L, true, descending, cursor));
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(2L, descending, cursor));
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(Comparison.GREATER_OR_EQUAL, 2L, false, cursor));
+                assertSameResult(s -> s.getSqlRecordIteratorBatch(Comparison.LESS_OR_EQUAL, 1L, true, cursor));
+            }
+            assertSameResult(s -> s.getSqlRecordIteratorBatch(NULL, true, POSITIVE_INFINITY, true, false, keyData(1000)));
+        }
+    }
+
+    @Test
+    public void testFallback_whenUnsupportedTypeIsInserted() {
+        for (int i = 0; i < 300; i++) {
+            insert(i, i);
+        }
+        insert(NULL, 300);
+        // values must be of the exact type the store was specialized for
+        insert(301L, 301);
+
+        assertTrue(store.isFallback());
+        assertEquals(0, store.blockCount());
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(false));
+        assertSameResult(s -> s.getSqlRecordIteratorBatch(10L, true, 20L, false, true));
+
+        store.clear();
+        expected.clear();
+        assertFalse(store.isFallback());
+        assertFalse(store.getSqlRecordIteratorBatch(false).hasNext());
+
+        insert("string", 1);
+        assertTrue(store.isFallback());
+        assertSameResult(s -> s.getSqlRecordIteratorBatch("string", false));
+    }
+
+    @Test
+    public void testMapQueries_withPrimitiveOrderedIndex() {
+        Config config = smallInstanceConfig().setProperty(INDEX_SORTED_PRIMITIVE_ENABLED.getName(), "true");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Long> map = instance.getMap(randomMapName());
+        map.addIndex(IndexType.SORTED, "this");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, (long) i % 100);
+        }
+
+        assertEquals(100, map.keySet(Predicates.between("this", 10L, 19L)).size());
+        assertEquals(50, map.keySet(Predicates.lessThan("this", 5)).size());
+        assertEquals(10, map.keySet(Predicates.equal("this", 42)).size());
+        assertEquals(30, map.keySet(Predicates.in("this", 1L, 2, 3.0)).size());
+    }
+
+    private void insert(Comparable value, int key) {
+        DummyEntry entry = new DummyEntry(key);
+        store.insertInternal(value, entry);
+        expected.insertInternal(value, entry);
+    }
+
+    private void remove(Comparable value, int key) {
+        assertEquals(expected.removeInternal(value, keyData(key)), store.removeInternal(value, keyData(key)));
+    }
+
+    private void assertSameResult(Function<IndexStore, Iterator<IndexKeyEntries>> query) {
+        assertEquals(flatten(query.apply(expected)), flatten(query.apply(store)));
+    }
+
+    private static List<Object> flatten(Iterator<IndexKeyEntries> iterator) {
+        List<Object> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            IndexKeyEntries keyEntries = iterator.next();
+            Iterator<QueryableEntry> entries = keyEntries.getEntries();
+            List<Object> keys = new ArrayList<>();
+            while (entries.hasNext()) {
+                keys.add(entries.next().getKey());
+            }
+            if (!keys.isEmpty()) {
+                result.add(keyEntries.getIndexKey());
+                result.add(keys);
+            }
+        }
+        return result;
+    }
+
+    private static Data keyData(int key) {
+        // the key follows the 8 byte header, so the byte order matches the key order
+        return new HeapData(ByteBuffer.allocate(12).putInt(8, key).array());
+    }
+
+    private static class DummyEntry extends QueryEntry {
+        private final Integer key;
+        private final Data keyData;
+
+        DummyEntry(int key) {
+            this.key = key;
+            this.keyData = keyData(key);
+        }
+
+        @Override
+        public Data getKeyData() {
+            return keyData;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DummyEntry entry && key.equals(entry.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.ringbuffer.impl.RingbufferContainer;
+import com.hazelcast.ringbuffer.impl.RingbufferService;
+import com.hazelcast.spi.merge.PassThroughMergePolicy;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.SplitBrainTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.ringbuffer.impl.RingbufferService.getRingbufferNamespace;
+import static com.hazelcast.spi.properties.ClusterProperty.RINGBUFFER_NATIVE_STORAGE_NAMES;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the split-brain healing of a {@link Ringbuffer} kept in native memory:
+ * the items of the merging ringbuffer must still be readable while they are
+ * merged, after the services of the merging members have been reset.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeRingbufferSplitBrainTest extends SplitBrainTestSupport {
+
+    private static final int ITEM_COUNT = 25;
+
+    private final String ringbufferName = randomMapName("nativeRingbuffer-");
+    private Ringbuffer<Object> ringbuffer1;
+    private Ringbuffer<Object> ringbuffer2;
+    private MergeLifecycleListener mergeLifecycleListener;
+
+    @Override
+    protected Config config() {
+        Config config = super.config()
+                .setProperty(RINGBUFFER_NATIVE_STORAGE_NAMES.getName(), ringbufferName);
+        config.getRingbufferConfig(ringbufferName)
+                .setMergePolicyConfig(new MergePolicyConfig().setPolicy(PassThroughMergePolicy.class.getName()))
+                .setBackupCount(1)
+                .setAsyncBackupCount(0);
+        return config;
+    }
+
+    @Override
+    protected void onAfterSplitBrainCreated(HazelcastInstance[] firstBrain, HazelcastInstance[] secondBrain) {
+        mergeLifecycleListener = new MergeLifecycleListener(secondBrain.length);
+        for (HazelcastInstance instance : secondBrain) {
+            instance.getLifecycleService().addLifecycleListener(mergeLifecycleListener);
+        }
+
+        ringbuffer1 = firstBrain[0].getRingbuffer(ringbufferName);
+        ringbuffer2 = secondBrain[0].getRingbuffer(ringbufferName);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ringbuffer1.add("lostItem" + i);
+            ringbuffer2.add("item" + i);
+        }
+    }
+
+    @Override
+    protected void onAfterSplitBrainHealed(HazelcastInstance[] instances) throws Exception {
+        mergeLifecycleListener.await();
+
+        assertEquals(ITEM_COUNT, ringbuffer1.size());
+        assertEquals(ITEM_COUNT, ringbuffer2.size());
+        List<Object> items = new ArrayList<>();
+        for (long sequence = ringbuffer1.headSequence(); sequence <= ringbuffer1.tailSequence(); sequence++) {
+            items.add(ringbuffer1.readOne(sequence));
+        }
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertTrue("ringbuffer should contain item" + i, items.contains("item" + i));
+        }
+
+        for (HazelcastInstance instance : instances) {
+            RingbufferService service = getNodeEngineImpl(instance).getService(RingbufferService.SERVICE_NAME);
+            RingbufferContainer container = service.getContainerOrNull(
+                    service.getRingbufferPartitionId(ringbufferName), getRingbufferNamespace(ringbufferName));
+            if (container != null) {
+                assertTrue(container.usesNativeStorage());
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.RingbufferConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.namespace.impl.NodeEngineThreadLocalContext;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.partition.PartitionMigrationEvent;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.services.ObjectNamespace;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static com.hazelcast.internal.partition.MigrationEndpoint.DESTINATION;
+import static com.hazelcast.ringbuffer.impl.RingbufferService.TOPIC_RB_PREFIX;
+import static com.hazelcast.spi.properties.ClusterProperty.RINGBUFFER_NATIVE_STORAGE_NAMES;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeRingbufferContainerTest extends HazelcastTestSupport {
+
+    private static final String NATIVE_NAME = "nativeRingbuffer";
+    private static final String NATIVE_TOPIC_NAME = "nativeTopic";
+
+    private HazelcastInstance hz;
+    private NodeEngineImpl nodeEngine;
+    private RingbufferService service;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig()
+                .setProperty(RINGBUFFER_NATIVE_STORAGE_NAMES.getName(), NATIVE_NAME + ", " + NATIVE_TOPIC_NAME);
+        hz = createHazelcastInstance(config);
+        nodeEngine = getNodeEngineImpl(hz);
+        service = nodeEngine.getService(RingbufferService.SERVICE_NAME);
+    }
+
+    @Test
+    public void nativeStorage_isSelectedByName() {
+        assertTrue(getContainer(NATIVE_NAME).usesNativeStorage());
+        assertFalse(getContainer("onHeapRingbuffer").usesNativeStorage());
+    }
+
+    @Test
+    public void nativeStorage_isSelectedForReliableTopicByTopicName() {
+        assertTrue(getContainer(TOPIC_RB_PREFIX + NATIVE_TOPIC_NAME).usesNativeStorage());
+        assertFalse(getContainer(TOPIC_RB_PREFIX + "onHeapTopic").usesNativeStorage());
+    }
+
+    @Test
+    public void nativeStorage_isNotSelected_whenObjectInMemoryFormat() {
+        RingbufferConfig config = new RingbufferConfig(NATIVE_NAME).setInMemoryFormat(InMemoryFormat.OBJECT);
+
+        RingbufferContainer container = new RingbufferContainer<>(
+                RingbufferService.getRingbufferNamespace(NATIVE_NAME), config, nodeEngine, 0);
+
+        assertFalse(container.usesNativeStorage());
+    }
+
+    @Test
+    public void init_movesReplicatedContainerToNativeStorage() {
+        RingbufferContainer<Object, Object> original = getContainer(NATIVE_NAME);
+        for (int i = 0; i < 5; i++) {
+            original.add(nodeEngine.toData("item" + i));
+        }
+
+        RingbufferContainer<Object, Object> replica = cloneContainer(original);
+        assertInstanceOf(ArrayRingbuffer.class, replica.getRingbuffer());
+        int partitionId = service.getRingbufferPartitionId(NATIVE_NAME);
+        service.addRingbuffer(partitionId, replica, service.getRingbufferConfig(NATIVE_NAME));
+
+        assertInstanceOf(NativeRingbuffer.class, replica.getRingbuffer());
+        assertEquals(original.headSequence(), replica.headSequence());
+        assertEquals(original.tailSequence(), replica.tailSequence());
+        for (long seq = replica.headSequence(); seq <= replica.tailSequence(); seq++) {
+            assertEquals("item" + seq, nodeEngine.toObject(replica.readAsData(seq)));
+        }
+        // the replaced container has been released
+        assertEquals(0, getNativeRingbuffer(original).getRegionSize());
+    }
+
+    @Test
+    public void destroy_releasesNativeMemory() {
+        Ringbuffer<String> ringbuffer = hz.getRingbuffer(NATIVE_NAME);
+        ringbuffer.add("item");
+        NativeRingbuffer nativeRingbuffer = getNativeRingbuffer(getContainer(NATIVE_NAME));
+        assertTrue(nativeRingbuffer.getRegionSize() > 0);
+
+        ringbuffer.destroy();
+
+        assertTrueEventually(() -> assertEquals(0, nativeRingbuffer.getRegionSize()));
+    }
+
+    @Test
+    public void replicaClear_releasesNativeMemory() {
+        hz.getRingbuffer(NATIVE_NAME).add("item");
+        NativeRingbuffer nativeRingbuffer = getNativeRingbuffer(getContainer(NATIVE_NAME));
+        int partitionId = service.getRingbufferPartitionId(NATIVE_NAME);
+
+        service.rollbackMigration(new PartitionMigrationEvent(DESTINATION, partitionId, -1, 0, UUID.randomUUID()));
+
+        assertEquals(0, nativeRingbuffer.getRegionSize());
+    }
+
+    @Test
+    public void reset_releasesNativeMemory() {
+        hz.getRingbuffer(NATIVE_NAME).add("item");
+        NativeRingbuffer nativeRingbuffer = getNativeRingbuffer(getContainer(NATIVE_NAME));
+
+        service.reset();
+
+        assertTrueEventually(() -> assertEquals(0, nativeRingbuffer.getRegionSize()));
+    }
+
+    @Test
+    public void reset_keepsContainersCollectedForMerge_untilCollectorIsDestroyed() {
+        hz.getRingbuffer(NATIVE_NAME).add("item");
+        NativeRingbuffer nativeRingbuffer = getNativeRingbuffer(getContainer(NATIVE_NAME));
+        RingbufferContainerCollector collector = new RingbufferContainerCollector(nodeEngine, service.getContainers());
+        collector.run();
+
+        service.reset();
+        assertTrueAllTheTime(() -> assertTrue(nativeRingbuffer.getRegionSize() > 0), 1);
+
+        collector.destroy();
+        assertEquals(0, nativeRingbuffer.getRegionSize());
+    }
+
+    private RingbufferContainer<Object, Object> getContainer(String name) {
+        int partitionId = service.getRingbufferPartitionId(name);
+        ObjectNamespace namespace = RingbufferService.getRingbufferNamespace(name);
+        return service.getOrCreateContainer(partitionId, namespace, service.getRingbufferConfig(name));
+    }
+
+    private static NativeRingbuffer getNativeRingbuffer(RingbufferContainer container) {
+        return (NativeRingbuffer) container.getRingbuffer();
+    }
+
+    private RingbufferContainer<Object, Object> cloneContainer(RingbufferContainer original) {
+        InternalSerializationService serializationService = getSerializationService(hz);
+        NodeEngineThreadLocalContext.declareNodeEngineReference(nodeEngine);
+        try (BufferObjectDataOutput out = serializationService.createObjectDataOutput(1000)) {
+            out.writeObject(original);
+            BufferObjectDataInput in = serializationService.createObjectDataInput(out.toByteArray());
+            return in.readObject();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
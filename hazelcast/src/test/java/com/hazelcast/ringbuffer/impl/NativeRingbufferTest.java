@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeRingbufferTest {
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final NativeRingbuffer<Data> rb = new NativeRingbuffer<>(5);
+
+    @After
+    public void tearDown() {
+        rb.dispose();
+    }
+
+    @Test(expected = StaleSequenceException.class)
+    public void testReadStaleSequenceThrowsException() {
+        fill();
+        rb.read(rb.headSequence() - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadFutureSequenceThrowsException() {
+        fill();
+        rb.read(rb.tailSequence() + 1);
+    }
+
+    @Test
+    public void testBlockableReadFutureSequenceOk() {
+        fill();
+        rb.checkBlockableReadSequence(rb.tailSequence() + 1);
+    }
+
+    @Test
+    public void testIsEmpty() {
+        assertTrue(rb.isEmpty());
+        rb.add(ss.toData(""));
+        assertFalse(rb.isEmpty());
+    }
+
+    @Test
+    public void testAddAndRead_whenWrappedAround() {
+        for (int i = 0; i < 12; i++) {
+            rb.add(ss.toData("item-" + i));
+        }
+
+        assertEquals(7, rb.headSequence());
+        assertEquals(11, rb.tailSequence());
+        for (long seq = rb.headSequence(); seq <= rb.tailSequence(); seq++) {
+            assertEquals("item-" + seq, ss.toObject(rb.read(seq)));
+        }
+    }
+
+    @Test
+    public void testAddAndRead_whenRegionIsOverwrittenManyTimes() {
+        String largeItem = "x".repeat(NativeRingbuffer.MIN_REGION_SIZE / 3);
+        for (int i = 0; i < 1000; i++) {
+            rb.add(ss.toData(i % 7 == 0 ? largeItem + i : "item-" + i));
+        }
+
+        for (long seq = rb.headSequence(); seq <= rb.tailSequence(); seq++) {
+            assertEquals(seq % 7 == 0 ? largeItem + seq : "item-" + seq, ss.toObject(rb.read(seq)));
+        }
+        assertTrue(rb.getRegionSize() >= rb.getUsedBytes());
+    }
+
+    @Test
+    public void testSet_whenOverwritingItemInTheMiddle() {
+        fill();
+
+        rb.set(2, ss.toData("a longer replacement for the third item"));
+        rb.set(3, null);
+        rb.add(ss.toData("next"));
+
+        assertEquals("a longer replacement for the third item", ss.toObject(rb.read(2)));
+        assertNull(rb.read(3));
+        assertEquals("item-4", ss.toObject(rb.read(4)));
+        assertEquals("next", ss.toObject(rb.read(5)));
+    }
+
+    @Test
+    public void testGetItems() {
+        fill();
+        rb.add(ss.toData("next"));
+
+        Object[] items = rb.getItems();
+
+        assertEquals(5, items.length);
+        assertEquals("next", ss.toObject(items[0]));
+        assertEquals("item-1", ss.toObject(items[1]));
+    }
+
+    @Test
+    public void testIterator() {
+        fill();
+
+        Iterator<Data> iterator = rb.iterator();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("item-" + i, ss.toObject(iterator.next()));
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testClear_releasesRegion() {
+        fill();
+
+        rb.clear();
+
+        assertTrue(rb.isEmpty());
+        assertEquals(0, rb.getRegionSize());
+        assertEquals(0, rb.getUsedBytes());
+        rb.add(ss.toData("item"));
+        assertEquals("item", ss.toObject(rb.read(0)));
+    }
+
+    private void fill() {
+        for (int i = 0; i < rb.getCapacity(); i++) {
+            rb.add(ss.toData("item-" + i));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.ConfigAccessor;
+import com.hazelcast.config.ServiceConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.impl.eventservice.EventPublishingService;
+import com.hazelcast.spi.impl.eventservice.EventService;
+import com.hazelcast.spi.impl.eventservice.KeyedEvent;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static com.hazelcast.spi.impl.eventservice.impl.EventServiceTest.getEventService;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_LISTENER_QUEUE_CAPACITY;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_LISTENER_QUEUE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_LISTENER_QUEUE_OVERFLOW_POLICY;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_THREAD_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ListenerEventQueueTest extends HazelcastTestSupport {
+
+    private static final String SERVICE_NAME = "listener-queue-service";
+    private static final String TOPIC = "topic";
+    private static final int CAPACITY = 16;
+
+    @Test
+    public void testEventsDelivered_inOrder_toLocalAndRemoteListeners() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance publisher = factory.newHazelcastInstance(newConfig(ListenerQueueOverflowPolicy.BLOCK, 1000));
+        HazelcastInstance subscriber = factory.newHazelcastInstance(newConfig(ListenerQueueOverflowPolicy.BLOCK, 1000));
+        List<Object> localEvents = new CopyOnWriteArrayList<>();
+        List<Object> remoteEvents = new CopyOnWriteArrayList<>();
+        getEventService(publisher).registerLocalListener(SERVICE_NAME, TOPIC, (Consumer<Object>) localEvents::add);
+        getEventService(subscriber).registerListener(SERVICE_NAME, TOPIC, (Consumer<Object>) remoteEvents::add);
+
+        EventService eventService = getEventService(publisher);
+        assertTrueEventually(() -> assertEquals(2, eventService.getRegistrations(SERVICE_NAME, TOPIC).size()));
+        int eventCount = 1000;
+        for (int i = 0; i < eventCount; i++) {
+            eventService.publishEvent(SERVICE_NAME, TOPIC, i, i);
+        }
+
+        assertTrueEventually(() -> {
+            assertEquals(eventCount, localEvents.size());
+            assertEquals(eventCount, remoteEvents.size());
+        });
+        for (int i = 0; i < eventCount; i++) {
+            assertEquals(i, localEvents.get(i));
+            assertEquals(i, remoteEvents.get(i));
+        }
+    }
+
+    @Test
+    public void testSlowListener_dropsOldest_withoutDelayingOtherListeners() {
+        // both listeners share the single event thread
+        Config config = newConfig(ListenerQueueOverflowPolicy.DROP_OLDEST, CAPACITY)
+                .setProperty(EVENT_THREAD_COUNT.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        EventServiceImpl eventService = (EventServiceImpl) getEventService(instance);
+        List<Object> slowEvents = new CopyOnWriteArrayList<>();
+        List<Object> fastEvents = new CopyOnWriteArrayList<>();
+        Registration slow = (Registration) eventService.registerLocalListener(SERVICE_NAME, TOPIC,
+                (Consumer<Object>) event -> {
+                    sleepMillis(100);
+                    slowEvents.add(event);
+                });
+        eventService.registerLocalListener(SERVICE_NAME, TOPIC, (Consumer<Object>) fastEvents::add);
+
+        int eventCount = 10 * CAPACITY;
+        for (int i = 0; i < eventCount; i++) {
+            eventService.publishEvent(SERVICE_NAME, TOPIC, i, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(eventCount, fastEvents.size()));
+        ListenerEventQueue slowQueue = slow.getEventQueue();
+        assertTrue(slowQueue.getDroppedCount() > 0);
+        assertTrue(slowQueue.size() > 0);
+
+        assertTrueEventually(() -> assertEquals(0, slowQueue.size()));
+        assertEquals(eventCount, slowQueue.getDeliveredCount() + slowQueue.getDroppedCount());
+        // the most recent events are kept
+        assertEquals(eventCount - 1, slowEvents.get(slowEvents.size() - 1));
+    }
+
+    @Test
+    public void testSlowListener_coalescesByKey() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig(ListenerQueueOverflowPolicy.COALESCE, CAPACITY));
+        EventServiceImpl eventService = (EventServiceImpl) getEventService(instance);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Object, Integer> lastValues = new ConcurrentHashMap<>();
+        Registration registration = (Registration) eventService.registerLocalListener(SERVICE_NAME, TOPIC,
+                (Consumer<Object>) event -> {
+                    assertOpenEventually(release);
+                    TestKeyedEvent keyedEvent = (TestKeyedEvent) event;
+                    lastValues.put(keyedEvent.key(), keyedEvent.value());
+                });
+
+        int eventCount = 10 * CAPACITY;
+        for (int i = 0; i < eventCount; i++) {
+            eventService.publishEvent(SERVICE_NAME, TOPIC, new TestKeyedEvent(i % CAPACITY, i), 0);
+        }
+
+        ListenerEventQueue queue = registration.getEventQueue();
+        release.countDown();
+        assertTrueEventually(() -> assertEquals(0, queue.size()));
+        assertTrue(queue.getCoalescedCount() > 0);
+        assertEquals(0, queue.getDroppedCount());
+        for (int key = 0; key < CAPACITY; key++) {
+            assertEquals(eventCount - CAPACITY + key, (int) lastValues.get(key));
+        }
+    }
+
+    @Test
+    public void testSlowListener_blocksPublisher() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig(ListenerQueueOverflowPolicy.BLOCK, 1));
+        EventServiceImpl eventService = (EventServiceImpl) getEventService(instance);
+        List<Object> events = new CopyOnWriteArrayList<>();
+        Registration registration = (Registration) eventService.registerLocalListener(SERVICE_NAME, TOPIC,
+                (Consumer<Object>) event -> {
+                    sleepMillis(5);
+                    events.add(event);
+                });
+
+        int eventCount = 20;
+        for (int i = 0; i < eventCount; i++) {
+            eventService.publishEvent(SERVICE_NAME, TOPIC, i, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(eventCount, events.size()));
+        assertEquals(0, registration.getEventQueue().getDroppedCount());
+    }
+
+    private static Config newConfig(ListenerQueueOverflowPolicy overflowPolicy, int capacity) {
+        Config config = smallInstanceConfig()
+                .setProperty(EVENT_LISTENER_QUEUE_ENABLED.getName(), "true")
+                .setProperty(EVENT_LISTENER_QUEUE_CAPACITY.getName(), String.valueOf(capacity))
+                .setProperty(EVENT_LISTENER_QUEUE_OVERFLOW_POLICY.getName(), overflowPolicy.name());
+        ServiceConfig serviceConfig = new ServiceConfig().setEnabled(true).setName(SERVICE_NAME)
+                .setImplementation(new ConsumerDispatchingService());
+        ConfigAccessor.getServicesConfig(config).addServiceConfig(serviceConfig);
+        return config;
+    }
+
+    private static class ConsumerDispatchingService implements EventPublishingService<Object, Consumer<Object>> {
+
+        @Override
+        public void dispatchEvent(Object event, Consumer<Object> listener) {
+            listener.accept(event);
+        }
+    }
+
+    private record TestKeyedEvent(int key, int value) implements KeyedEvent {
+
+        @Override
+        public Object getEventKey() {
+            return key;
+        }
+    }
+}
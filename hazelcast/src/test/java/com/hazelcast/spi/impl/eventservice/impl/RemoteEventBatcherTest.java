@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.net.UnknownHostException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class RemoteEventBatcherTest {
+
+    private final EventServiceImpl eventService = mock(EventServiceImpl.class);
+
+    @Test
+    public void send_usesStripeOfOrderKeyAsPacketOrderKey() throws UnknownHostException {
+        Address subscriber = new Address("127.0.0.1", 5701);
+        RemoteEventBatcher batcher = new RemoteEventBatcher(eventService, subscriber, 4);
+        EventEnvelope envelope1 = new EventEnvelope();
+        EventEnvelope envelope2 = new EventEnvelope();
+        EventEnvelope envelope3 = new EventEnvelope();
+
+        batcher.send(envelope1, 1);
+        batcher.send(envelope2, 6);
+        batcher.send(envelope3, -7);
+
+        verify(eventService).transmit(eq(subscriber), same(envelope1), eq(1));
+        verify(eventService).transmit(eq(subscriber), same(envelope2), eq(2));
+        verify(eventService).transmit(eq(subscriber), same(envelope3), eq(3));
+        verify(eventService, never()).transmit(any(), any(EventEnvelopeBatch.class), anyInt());
+    }
+}
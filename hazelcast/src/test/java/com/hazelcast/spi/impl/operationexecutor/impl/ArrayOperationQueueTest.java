@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+import com.hazelcast.spi.impl.operationservice.impl.DummyOperation;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ArrayOperationQueueTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 4;
+
+    private ArrayOperationQueue operationQueue;
+
+    @Before
+    public void setup() {
+        operationQueue = new ArrayOperationQueue(CAPACITY, null);
+        operationQueue.setConsumerThread(Thread.currentThread());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add("task", true);
+
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenNormal() {
+        operationQueue.add("task", false);
+
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenFull_andInvocationByConsumer_thenOverflowWithoutBlocking() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            operationQueue.add("task" + i, false);
+        }
+        Operation operation = newInvokedOperation();
+
+        // the consumer can't wait for itself to make room
+        operationQueue.add(operation, false);
+
+        assertEquals(CAPACITY + 1, operationQueue.normalSize());
+        for (int i = 0; i < CAPACITY; i++) {
+            assertSame("task" + i, operationQueue.take(false));
+        }
+        assertSame(operation, operationQueue.take(false));
+    }
+
+    @Test
+    public void add_whenFull_andInvocation_thenBackOffTillRoomAvailable() throws Exception {
+        for (int i = 0; i < CAPACITY; i++) {
+            operationQueue.add("task" + i, false);
+        }
+        Operation operation = newInvokedOperation();
+
+        Future<?> future = spawn((Runnable) () -> operationQueue.add(operation, false));
+        sleepMillis(100);
+        assertEquals(CAPACITY, operationQueue.normalSize());
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertSame("task" + i, operationQueue.take(false));
+        }
+        future.get();
+        assertSame(operation, operationQueue.take(false));
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenFull_andNotInvocation_thenOverflowWithoutBlocking() throws Exception {
+        for (int i = 0; i < CAPACITY; i++) {
+            operationQueue.add("task" + i, false);
+        }
+        // an operation executed without an invocation, e.g. by an internal service
+        Operation operation = new DummyOperation();
+        PartitionSpecificRunnable runnable = new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return 0;
+            }
+
+            @Override
+            public void run() {
+            }
+        };
+
+        spawn((Runnable) () -> {
+            operationQueue.add(operation, false);
+            operationQueue.add(runnable, false);
+            operationQueue.add("internal", false);
+        }).get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+
+        assertEquals(CAPACITY + 3, operationQueue.normalSize());
+        for (int i = 0; i < CAPACITY; i++) {
+            assertSame("task" + i, operationQueue.take(false));
+        }
+        assertSame(operation, operationQueue.take(false));
+        assertSame(runnable, operationQueue.take(false));
+        assertSame("internal", operationQueue.take(false));
+        assertTrue(operationQueue.isEmpty());
+    }
+
+    @Test
+    public void add_whenFull_andPacket_thenOverflowWithoutBlocking() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            operationQueue.add("task" + i, false);
+        }
+        Packet packet1 = new Packet(new byte[1]);
+        Packet packet2 = new Packet(new byte[2]);
+
+        // called by the consumer, it would be rejected if it was not a packet
+        operationQueue.add(packet1, false);
+        operationQueue.add(packet2, false);
+
+        assertEquals(CAPACITY + 2, operationQueue.normalSize());
+        for (int i = 0; i < CAPACITY; i++) {
+            assertSame("task" + i, operationQueue.take(false));
+        }
+        assertSame(packet1, operationQueue.take(false));
+        assertSame(packet2, operationQueue.take(false));
+        assertTrue(operationQueue.isEmpty());
+    }
+
+    @Test
+    public void add_whenPacketsOverflow_thenPacketsKeepTheirOrder() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            operationQueue.add(new Packet(new byte[]{(byte) i}), false);
+        }
+        Packet overflowing = new Packet(new byte[]{(byte) CAPACITY});
+        operationQueue.add(overflowing, false);
+        operationQueue.take(false);
+
+        // there is room in the normal queue again, but the packet must not overtake the overflowing one
+        Packet next = new Packet(new byte[]{(byte) (CAPACITY + 1)});
+        operationQueue.add(next, false);
+
+        for (int i = 1; i < CAPACITY; i++) {
+            assertEquals(i, ((Packet) operationQueue.take(false)).toByteArray()[0]);
+        }
+        assertSame(overflowing, operationQueue.take(false));
+        assertSame(next, operationQueue.take(false));
+    }
+
+    @Test
+    public void add_whenPacketsOverflow_thenInvocationsBackOffTillOverflowDrained() throws Exception {
+        for (int i = 0; i < CAPACITY; i++) {
+            operationQueue.add("task" + i, false);
+        }
+        Packet packet = new Packet(new byte[1]);
+        operationQueue.add(packet, false);
+        operationQueue.take(false);
+        Operation operation = newInvokedOperation();
+
+        Future<?> future = spawn((Runnable) () -> operationQueue.add(operation, false));
+        sleepMillis(100);
+        assertEquals(CAPACITY, operationQueue.normalSize());
+
+        for (int i = 1; i < CAPACITY; i++) {
+            assertSame("task" + i, operationQueue.take(false));
+        }
+        assertSame(packet, operationQueue.take(false));
+        future.get();
+        assertSame(operation, operationQueue.take(false));
+    }
+
+    @Test
+    public void take_priorityIsRetrievedFirst() throws InterruptedException {
+        operationQueue.add("priority1", true);
+        operationQueue.add("normal1", false);
+        operationQueue.add("normal2", false);
+        operationQueue.add("priority2", true);
+
+        assertSame("priority1", operationQueue.take(false));
+        assertSame("priority2", operationQueue.take(false));
+        assertSame("normal1", operationQueue.take(false));
+        assertSame("normal2", operationQueue.take(false));
+        assertNull(operationQueue.poll());
+    }
+
+    @Test
+    public void take_whenPriorityOnly() throws InterruptedException {
+        operationQueue.add("priority1", true);
+        operationQueue.add("normal1", false);
+        operationQueue.add("priority2", true);
+
+        assertSame("priority1", operationQueue.take(true));
+        assertSame("priority2", operationQueue.take(true));
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_whenNoItemAvailable_thenBlockTillItemAvailable() throws InterruptedException {
+        spawn((Runnable) () -> {
+            sleepMillis(500);
+            operationQueue.add("task", false);
+        });
+
+        assertSame("task", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_withIdleStrategy_whenNoItemAvailable_thenIdleTillItemAvailable() throws InterruptedException {
+        operationQueue = new ArrayOperationQueue(CAPACITY,
+                new BackoffIdleStrategy(0, 0, MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(100)));
+        operationQueue.setConsumerThread(Thread.currentThread());
+        spawn((Runnable) () -> {
+            sleepMillis(500);
+            operationQueue.add("task", true);
+        });
+
+        assertSame("task", operationQueue.take(true));
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void take_whenInterrupted() throws InterruptedException {
+        Thread.currentThread().interrupt();
+        try {
+            operationQueue.take(false);
+        } finally {
+            // clear the interrupt flag of the test thread
+            Thread.interrupted();
+        }
+    }
+
+    private static Operation newInvokedOperation() {
+        Operation operation = new DummyOperation();
+        OperationAccessor.setCallId(operation, 1);
+        return operation;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.tpc.TpcServerBootstrap;
+import com.hazelcast.internal.tpcengine.TpcEngine;
+import com.hazelcast.internal.tpcengine.TpcEngineBuilder;
+import com.hazelcast.internal.tpcengine.nio.NioReactorBuilder;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the run-to-completion of partition tasks on the TPC partition threads.
+ * The TpcEngine is wired to the partition threads of the executor the same way
+ * the TPC server bootstrap does it.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationExecutorImpl_TpcRunToCompletionTest extends OperationExecutorImpl_AbstractTest {
+
+    private static final int REACTOR_COUNT = 2;
+
+    private TpcEngine tpcEngine;
+
+    @After
+    public void after() throws InterruptedException {
+        if (tpcEngine != null) {
+            tpcEngine.shutdown();
+            assertTrue(tpcEngine.awaitTermination(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        }
+    }
+
+    @Test
+    public void whenSubmittedOnOwningReactor_thenRunToCompletion() {
+        initTpcExecutor(true);
+        RecordingTask task = new RecordingTask(0);
+
+        boolean completedOnReturn = tpcEngine.reactor(0).submit(() -> {
+            executor.execute(task);
+            return task.ran.get() == 1;
+        }).join();
+
+        assertTrue(completedOnReturn);
+        assertSame(tpcEngine.reactor(0).eventloopThread(), task.thread);
+    }
+
+    @Test
+    public void whenSubmittedFromRunningTask_thenQueued() {
+        initTpcExecutor(true);
+        List<String> events = new CopyOnWriteArrayList<>();
+        PartitionSpecificRunnable inner = new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return 0;
+            }
+
+            @Override
+            public void run() {
+                events.add("inner");
+            }
+        };
+        PartitionSpecificRunnable outer = new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return 0;
+            }
+
+            @Override
+            public void run() {
+                events.add("outer-start");
+                executor.execute(inner);
+                events.add("outer-end");
+            }
+        };
+
+        tpcEngine.reactor(0).submit(() -> executor.execute(outer)).join();
+
+        assertTrueEventually(() -> assertEquals(asList("outer-start", "outer-end", "inner"), events));
+    }
+
+    @Test
+    public void whenSubmittedOnOtherReactor_thenQueued() {
+        initTpcExecutor(true);
+        // partition 1 is owned by the second reactor
+        RecordingTask task = new RecordingTask(1);
+
+        boolean completedOnReturn = tpcEngine.reactor(0).submit(() -> {
+            executor.execute(task);
+            return task.ran.get() == 1;
+        }).join();
+
+        assertFalse(completedOnReturn);
+        assertTrueEventually(() -> assertEquals(1, task.ran.get()));
+        assertSame(tpcEngine.reactor(1).eventloopThread(), task.thread);
+    }
+
+    @Test
+    public void whenSubmittedFromNonReactorThread_thenQueued() {
+        initTpcExecutor(true);
+        RecordingTask task = new RecordingTask(0);
+
+        executor.execute(task);
+
+        assertTrueEventually(() -> assertEquals(1, task.ran.get()));
+        assertSame(tpcEngine.reactor(0).eventloopThread(), task.thread);
+    }
+
+    @Test
+    public void whenRunToCompletionDisabled_thenQueued() {
+        initTpcExecutor(false);
+        RecordingTask task = new RecordingTask(0);
+
+        boolean completedOnReturn = tpcEngine.reactor(0).submit(() -> {
+            executor.execute(task);
+            return task.ran.get() == 1;
+        }).join();
+
+        assertFalse(completedOnReturn);
+        assertTrueEventually(() -> assertEquals(1, task.ran.get()));
+    }
+
+    private void initTpcExecutor(boolean runToCompletion) {
+        config.setProperty("hazelcast.internal.tpc.runToCompletion", Boolean.toString(runToCompletion));
+        TpcServerBootstrap bootstrap = mock(TpcServerBootstrap.class);
+        when(bootstrap.isEnabled()).thenReturn(true);
+        when(bootstrap.eventloopCount()).thenReturn(REACTOR_COUNT);
+
+        props = new HazelcastProperties(config);
+        executor = new OperationExecutorImpl(
+                props, loggingService, thisAddress, handlerFactory, node.nodeEngine, nodeExtension,
+                "hzName", Thread.currentThread().getContextClassLoader(), bootstrap);
+
+        // the partition threads are the eventloop threads of the reactors
+        PartitionOperationThread[] partitionThreads = executor.getPartitionThreads();
+        AtomicInteger threadIndex = new AtomicInteger();
+        NioReactorBuilder reactorBuilder = new NioReactorBuilder();
+        reactorBuilder.setThreadFactory(eventloopTask -> {
+            TpcPartitionOperationThread thread =
+                    (TpcPartitionOperationThread) partitionThreads[threadIndex.getAndIncrement()];
+            thread.setEventloopTask(eventloopTask);
+            return thread;
+        });
+        reactorBuilder.setSchedulerSupplier(TpcOperationScheduler::new);
+
+        tpcEngine = new TpcEngineBuilder()
+                .setReactorBuilder(reactorBuilder)
+                .setReactorCount(REACTOR_COUNT)
+                .build();
+        for (int i = 0; i < REACTOR_COUNT; i++) {
+            ((TpcPartitionOperationThread) partitionThreads[i]).getQueue().setReactor(tpcEngine.reactor(i));
+        }
+        tpcEngine.start();
+        executor.start();
+    }
+
+    private static class RecordingTask implements PartitionSpecificRunnable {
+        private final int partitionId;
+        private final AtomicInteger ran = new AtomicInteger();
+        private volatile Thread thread;
+
+        RecordingTask(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            ran.incrementAndGet();
+        }
+    }
+}
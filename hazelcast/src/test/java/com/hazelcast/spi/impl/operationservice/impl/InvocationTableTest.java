@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.deactivate;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class InvocationTableTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 64;
+
+    private final InvocationTable table = new InvocationTable(CAPACITY);
+
+    @Test
+    public void testPutAndGet() {
+        Invocation invocation = newInvocation(1);
+        table.put(1, invocation);
+
+        assertSame(invocation, table.get(1));
+        assertNull(table.get(2));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testRemove() {
+        Invocation invocation = newInvocation(1);
+        table.put(1, invocation);
+
+        assertTrue(table.remove(1, invocation));
+        assertFalse(table.remove(1, invocation));
+        assertNull(table.get(1));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testFullRing_withoutOverflow() {
+        Invocation[] invocations = new Invocation[CAPACITY];
+        for (int callId = 1; callId <= CAPACITY; callId++) {
+            invocations[callId - 1] = newInvocation(callId);
+            table.put(callId, invocations[callId - 1]);
+        }
+
+        for (int callId = 1; callId <= CAPACITY; callId++) {
+            assertSame(invocations[callId - 1], table.get(callId));
+        }
+        assertEquals(CAPACITY, table.size());
+        assertEquals(CAPACITY, countIterated());
+    }
+
+    @Test
+    public void testOverflow_whenSlotOccupiedByOlderInvocation() {
+        Invocation old = newInvocation(1);
+        table.put(1, old);
+        Invocation newer = newInvocation(1 + CAPACITY);
+        table.put(1 + CAPACITY, newer);
+
+        assertSame(old, table.get(1));
+        assertSame(newer, table.get(1 + CAPACITY));
+        assertEquals(2, table.size());
+        assertEquals(2, countIterated());
+
+        assertTrue(table.remove(1, old));
+        assertSame(newer, table.get(1 + CAPACITY));
+        assertTrue(table.remove(1 + CAPACITY, newer));
+        assertNull(table.get(1 + CAPACITY));
+        assertEquals(0, countIterated());
+    }
+
+    @Test
+    public void testGet_whenOperationReRegisteredWithNewCallId() {
+        Invocation invocation = newInvocation(1);
+        table.put(1, invocation);
+
+        // deregistered and registered again before the old slot is cleared
+        deactivate(invocation.op);
+        setCallId(invocation.op, 1 + CAPACITY);
+
+        assertNull(table.get(1));
+    }
+
+    @Test
+    public void testConcurrentPutAndRemove() throws Exception {
+        int threadCount = 4;
+        int callsPerThread = 10 * CAPACITY;
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            spawn(() -> {
+                try {
+                    for (int i = 0; i < callsPerThread; i++) {
+                        long callId = 1 + (long) i * threadCount + thread;
+                        Invocation invocation = newInvocation(callId);
+                        table.put(callId, invocation);
+                        assertSame(invocation, table.get(callId));
+                        assertTrue(table.remove(callId, invocation));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertOpenEventually(done);
+
+        assertNull(failure.get());
+        assertEquals(0, table.size());
+        assertEquals(0, countIterated());
+    }
+
+    private int countIterated() {
+        Set<Invocation> iterated = new HashSet<>();
+        for (Invocation invocation : table) {
+            assertTrue(iterated.add(invocation));
+        }
+        return iterated.size();
+    }
+
+    private static Invocation newInvocation(long callId) {
+        Operation op = new DummyOperation();
+        setCallId(op, callId);
+        Context context = new Context(null, null, null, null, null, 1000, null, null, Mockito.mock(ILogger.class),
+                null, null, null, null, null, null, null, null, null, null);
+        return new PartitionInvocation(context, op, 0, 0, 0, false, false);
+    }
+}
@@ -44,6 +44,7 @@ import java.net.URI;
 
 import static com.hazelcast.spi.properties.ClusterProperty.ENTERPRISE_LICENSE_KEY;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -206,6 +207,27 @@ public class HazelcastPropertiesTest {
         assertTrue(isHumanReadable);
     }
 
+    @Test
+    public void containsName() {
+        HazelcastProperty property = new HazelcastProperty("names", "");
+        Properties props = new Properties();
+        props.setProperty("names", " first, second ,third");
+        HazelcastProperties properties = new HazelcastProperties(props);
+
+        assertTrue(properties.containsName(property, "second"));
+        assertTrue(properties.containsName(property, "other", "third"));
+        assertFalse(properties.containsName(property, "fourth"));
+        assertFalse(properties.containsName(property, "first, second"));
+    }
+
+    @Test
+    public void containsName_whenEmpty() {
+        HazelcastProperty property = new HazelcastProperty("names", " ");
+
+        assertFalse(defaultProperties.containsName(property, ""));
+        assertFalse(defaultProperties.containsName(property, "name"));
+    }
+
     @Test
     public void getInteger() {
         HazelcastProperty property = new HazelcastProperty("key", 3);